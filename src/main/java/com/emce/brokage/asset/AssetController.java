@@ -2,6 +2,7 @@ package com.emce.brokage.asset;
 
 import com.emce.brokage.asset.dto.AssetDto;
 import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.etag.CustomerVersions;
 import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -13,6 +14,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/v1/asset")
@@ -21,12 +23,16 @@ import org.springframework.web.bind.annotation.RestController;
 public class AssetController {
 
     private final AssetService assetService;
+    private final CustomerVersions customerVersions;
 
     @GetMapping("/list/{customerId}")
     public ResponseEntity<Page<AssetDto>> getAssetsForCustomer(
             @PathVariable @Positive(message = "Customer ID must be a positive number") Integer customerId,
             @RequestParam(required = false) AssetType assetName, // Optional asset type filter
-            Pageable pageable) {
+            Pageable pageable, WebRequest webRequest) {
+        if (webRequest.checkNotModified(customerVersions.eTag(customerId))) {
+            return null; // 304 and the ETag are already set on the response
+        }
         Page<AssetDto> assets = assetService.getAssetsForCustomer(customerId, assetName, pageable);
         return ResponseEntity.ok(assets);
     }
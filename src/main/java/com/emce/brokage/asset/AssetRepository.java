@@ -1,5 +1,6 @@
 package com.emce.brokage.asset;
 
+import com.emce.brokage.asset.dto.AssetDto;
 import com.emce.brokage.asset.entity.Asset;
 import com.emce.brokage.asset.entity.AssetType;
 import org.springframework.data.domain.Page;
@@ -12,8 +13,10 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface AssetRepository extends JpaRepository<Asset, Integer> {
     Asset findByAssetName(AssetType assetName);
-    @Query("SELECT a FROM Asset a WHERE a.customer.id = :customerId AND (:assetType IS NULL OR a.assetName = :assetType)")
-    Page<Asset> findByCustomerIdAndAssetType(@Param("customerId") Integer customerId,
+    @Query(value = "SELECT new com.emce.brokage.asset.dto.AssetDto(a.id, a.assetName, a.size, a.usableSize, a.customer.id) " +
+            "FROM Asset a WHERE a.customer.id = :customerId AND (:assetType IS NULL OR a.assetName = :assetType)",
+            countQuery = "SELECT count(a) FROM Asset a WHERE a.customer.id = :customerId AND (:assetType IS NULL OR a.assetName = :assetType)")
+    Page<AssetDto> findByCustomerIdAndAssetType(@Param("customerId") Integer customerId,
                                              @Param("assetType") AssetType assetType,
                                              Pageable pageable);
 }
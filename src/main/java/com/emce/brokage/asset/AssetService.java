@@ -4,19 +4,52 @@ import com.emce.brokage.asset.dto.AssetDto;
 import com.emce.brokage.asset.entity.AssetType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class AssetService {
 
     private final AssetRepository assetRepository;
+    private final PositionCache positionCache;
 
+    /**
+     * Lists the customer's assets ordered by id, from the position cache when the customer is
+     * cached and no other order is requested.
+     */
+    @Transactional(readOnly = true)
     @PreAuthorize("#customerId == authentication.principal.id")
     public Page<AssetDto> getAssetsForCustomer(Integer customerId, AssetType assetName, Pageable pageable) {
-        return assetRepository.findByCustomerIdAndAssetType(customerId, assetName, pageable)
-                .map(asset -> AssetDto.fromEntity(asset));
+        Optional<Map<AssetType, Position>> positions = pageable.getSort().isSorted()
+                ? Optional.empty() : positionCache.get(customerId);
+        if (positions.isEmpty()) {
+            return assetRepository.findByCustomerIdAndAssetType(customerId, assetName, pageable);
+        }
+        List<AssetDto> assets = positions.get().entrySet().stream()
+                .filter(entry -> assetName == null || entry.getKey() == assetName)
+                .map(entry -> AssetDto.builder()
+                        .id(entry.getValue().assetId())
+                        .assetName(entry.getKey())
+                        .size(entry.getValue().size().toBigDecimal())
+                        .usableSize(entry.getValue().usableSize().toBigDecimal())
+                        .customerId(customerId)
+                        .build())
+                .sorted(Comparator.comparing(AssetDto::id))
+                .toList();
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(assets, pageable, assets.size());
+        }
+        int from = (int) Math.min(pageable.getOffset(), assets.size());
+        int to = Math.min(from + pageable.getPageSize(), assets.size());
+        return new PageImpl<>(assets.subList(from, to), pageable, assets.size());
     }
 }
@@ -0,0 +1,166 @@
+package com.emce.brokage.asset;
+
+/**
+ * Bounded map from {@code int} keys to values that evicts the least recently used entry once full.
+ * Keys sit unboxed in a linear probing table pointing at fixed nodes, which are chained in recency
+ * order through index arrays, so neither lookups nor updates allocate. Not thread safe.
+ */
+final class IntLruMap<V> {
+
+    private static final int NONE = -1;
+
+    private final int[] table;
+    private final int mask;
+    private final int[] keys;
+    private final Object[] values;
+    private final int[] prev;
+    private final int[] next;
+    private int head = NONE;
+    private int tail = NONE;
+    private int free = NONE;
+    private int allocated;
+    private int size;
+
+    IntLruMap(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        // at most half full, so probe sequences stay short
+        this.table = new int[Integer.highestOneBit(capacity * 2 - 1) << 1];
+        this.mask = table.length - 1;
+        this.keys = new int[capacity];
+        this.values = new Object[capacity];
+        this.prev = new int[capacity];
+        this.next = new int[capacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the value of the key and marks it most recently used, or {@code null} if absent.
+     */
+    @SuppressWarnings("unchecked")
+    V get(int key) {
+        int slot = slotOf(key);
+        if (slot < 0) {
+            return null;
+        }
+        int node = table[slot] - 1;
+        moveToFront(node);
+        return (V) values[node];
+    }
+
+    /**
+     * Stores the value as most recently used.
+     *
+     * @return {@code true} if another entry had to be evicted to make room
+     */
+    boolean put(int key, V value) {
+        int slot = slotOf(key);
+        if (slot >= 0) {
+            int node = table[slot] - 1;
+            values[node] = value;
+            moveToFront(node);
+            return false;
+        }
+        boolean evicted = false;
+        int node;
+        if (free != NONE) {
+            node = free;
+            free = next[node];
+        } else if (allocated < keys.length) {
+            node = allocated++;
+        } else {
+            node = tail;
+            remove(keys[node]);
+            node = free;
+            free = next[node];
+            evicted = true;
+        }
+        keys[node] = key;
+        values[node] = value;
+        table[slotOf(key) ^ -1] = node + 1;
+        linkFront(node);
+        size++;
+        return evicted;
+    }
+
+    boolean remove(int key) {
+        int slot = slotOf(key);
+        if (slot < 0) {
+            return false;
+        }
+        int node = table[slot] - 1;
+        deleteSlot(slot);
+        unlink(node);
+        values[node] = null;
+        next[node] = free;
+        free = node;
+        size--;
+        return true;
+    }
+
+    private int home(int key) {
+        int hash = key * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    // slot holding the key, or the complement of the empty slot where it would go
+    private int slotOf(int key) {
+        int slot = home(key);
+        while (table[slot] != 0) {
+            if (keys[table[slot] - 1] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return slot ^ -1;
+    }
+
+    // backward shift deletion: pull later entries of the probe run into the gap
+    private void deleteSlot(int slot) {
+        int gap = slot;
+        for (int current = (slot + 1) & mask; table[current] != 0; current = (current + 1) & mask) {
+            int home = home(keys[table[current] - 1]);
+            if (((current - home) & mask) >= ((current - gap) & mask)) {
+                table[gap] = table[current];
+                gap = current;
+            }
+        }
+        table[gap] = 0;
+    }
+
+    private void moveToFront(int node) {
+        if (node != head) {
+            unlink(node);
+            linkFront(node);
+        }
+    }
+
+    private void linkFront(int node) {
+        prev[node] = NONE;
+        next[node] = head;
+        if (head != NONE) {
+            prev[head] = node;
+        }
+        head = node;
+        if (tail == NONE) {
+            tail = node;
+        }
+    }
+
+    private void unlink(int node) {
+        if (prev[node] != NONE) {
+            next[prev[node]] = next[node];
+        } else {
+            head = next[node];
+        }
+        if (next[node] != NONE) {
+            prev[next[node]] = prev[node];
+        } else {
+            tail = prev[node];
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.emce.brokage.asset;
+
+import com.emce.brokage.asset.entity.Asset;
+import com.emce.brokage.money.Money;
+
+/**
+ * Committed size of one asset row of a customer, as held by {@link PositionCache}.
+ */
+public record Position(Integer assetId, Money size, Money usableSize) {
+
+    static Position of(Asset asset) {
+        return new Position(asset.getId(), asset.getSize(), asset.getUsableSize());
+    }
+}
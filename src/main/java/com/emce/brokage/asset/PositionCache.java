@@ -0,0 +1,142 @@
+package com.emce.brokage.asset;
+
+import com.emce.brokage.asset.entity.Asset;
+import com.emce.brokage.asset.entity.AssetType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Committed asset sizes of the most recently active customers, one {@link AssetType} keyed map per
+ * customer in a bounded LRU map split into independently locked segments.
+ * <p>
+ * Entries are only ever written by the transactions that change a customer's assets, right after
+ * they commit and while they still hold the customer's {@code CustomerStripedLock} stripe. So while
+ * a caller holds that stripe a cached entry is exactly what the database holds, and balance checks
+ * can be answered without reading the rows. Customers that are not cached are served from the
+ * database as before and enter the cache with their next balance change.
+ * <p>
+ * Lookups are counted as {@code brokage.position.cache.requests} tagged by result, evictions as
+ * {@code brokage.position.cache.evictions}.
+ */
+@Component
+public class PositionCache {
+
+    private static final int SEGMENTS = 16;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public PositionCache(@Value("${application.position-cache.max-customers:100000}") int maxCustomers,
+                         MeterRegistry meterRegistry) {
+        int segmentCapacity = Math.max(1, maxCustomers / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(segmentCapacity);
+        }
+        this.hits = requests(meterRegistry, "hit");
+        this.misses = requests(meterRegistry, "miss");
+        this.evictions = Counter.builder("brokage.position.cache.evictions")
+                .description("Customers evicted from the position cache")
+                .register(meterRegistry);
+        Gauge.builder("brokage.position.cache.size", this, PositionCache::size)
+                .description("Customers held in the position cache")
+                .register(meterRegistry);
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("brokage.position.cache.requests")
+                .description("Position cache lookups")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the committed positions of the customer, empty if the customer is not cached.
+     */
+    public Optional<Map<AssetType, Position>> get(Integer customerId) {
+        Segment segment = segmentOf(customerId);
+        Map<AssetType, Position> positions;
+        synchronized (segment) {
+            positions = segment.customers.get(customerId);
+        }
+        (positions != null ? hits : misses).increment();
+        return Optional.ofNullable(positions);
+    }
+
+    /**
+     * Caches the customer's assets as they are when the current transaction commits. The assets
+     * must be all the customer holds; nothing is cached if the transaction rolls back.
+     */
+    public void writeThrough(Integer customerId, Collection<Asset> assets) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                put(customerId, assets);
+            }
+        });
+    }
+
+    /**
+     * Same as {@link #writeThrough(Integer, Collection)} for assets spread over two collections, such
+     * as the loaded assets of a customer and the ones created by the transaction.
+     */
+    public void writeThrough(Integer customerId, Collection<Asset> assets, Collection<Asset> createdAssets) {
+        writeThrough(customerId, Stream.concat(assets.stream(), createdAssets.stream()).toList());
+    }
+
+    void put(Integer customerId, Collection<Asset> assets) {
+        Map<AssetType, Position> positions = new HashMap<>();
+        assets.forEach(asset -> positions.put(asset.getAssetName(), Position.of(asset)));
+        Map<AssetType, Position> entry = Map.copyOf(positions);
+        Segment segment = segmentOf(customerId);
+        boolean evicted;
+        synchronized (segment) {
+            evicted = segment.customers.put(customerId, entry);
+        }
+        if (evicted) {
+            evictions.increment();
+        }
+    }
+
+    public void evict(Integer customerId) {
+        Segment segment = segmentOf(customerId);
+        synchronized (segment) {
+            segment.customers.remove(customerId);
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.customers.size();
+            }
+        }
+        return size;
+    }
+
+    private Segment segmentOf(Integer customerId) {
+        return segments[Math.floorMod(Integer.hashCode(customerId) * 0x9E3779B9 >>> 16, SEGMENTS)];
+    }
+
+    private static final class Segment {
+
+        private final IntLruMap<Map<AssetType, Position>> customers;
+
+        private Segment(int capacity) {
+            this.customers = new IntLruMap<>(capacity);
+        }
+    }
+}
@@ -2,18 +2,24 @@ package com.emce.brokage.asset.dto;
 
 import com.emce.brokage.asset.entity.Asset;
 import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.money.Money;
 import lombok.Builder;
 
 import java.math.BigDecimal;
 
 @Builder
 public record AssetDto(Integer id, AssetType assetName, BigDecimal size, BigDecimal usableSize, Integer customerId) {
+
+    public AssetDto(Integer id, AssetType assetName, Money size, Money usableSize, Integer customerId) {
+        this(id, assetName, size.toBigDecimal(), usableSize.toBigDecimal(), customerId);
+    }
+
     public static AssetDto fromEntity(Asset asset){
         return AssetDto.builder()
                 .id(asset.getId())
                 .assetName(asset.getAssetName())
-                .size(asset.getSize())
-                .usableSize(asset.getUsableSize())
+                .size(asset.getSize().toBigDecimal())
+                .usableSize(asset.getUsableSize().toBigDecimal())
                 .customerId(asset.getCustomer().getId())
                 .build();
     }
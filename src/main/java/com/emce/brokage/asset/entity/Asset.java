@@ -1,9 +1,10 @@
 package com.emce.brokage.asset.entity;
 
 import com.emce.brokage.auth.entity.Customer;
+import com.emce.brokage.money.Money;
+import com.emce.brokage.money.MoneyConverter;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
-import jakarta.persistence.EnumType;
-import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -16,7 +17,6 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.util.Objects;
 
 @Entity
@@ -30,10 +30,12 @@ public class Asset {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer id;
-    @Enumerated(EnumType.STRING)
+    @Convert(converter = AssetTypeConverter.class)
     private AssetType assetName;
-    private BigDecimal size;
-    private BigDecimal usableSize;
+    @Convert(converter = MoneyConverter.class)
+    private Money size;
+    @Convert(converter = MoneyConverter.class)
+    private Money usableSize;
     @ManyToOne
     @JoinColumn(name = "customer_id")
     private Customer customer;
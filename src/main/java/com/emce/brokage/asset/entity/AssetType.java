@@ -1,11 +1,85 @@
 package com.emce.brokage.asset.entity;
 
-public enum AssetType {
-    TRY,
-    EUR,
-    USD
-//  ...
-//  ...
-//  ...
-    ;
+import com.emce.brokage.instrument.InstrumentTable;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.List;
+
+/**
+ * A tradable instrument, known by its symbol and by the dense id the instrument registry gave it.
+ * TRY, EUR and USD are built in with the ids they had as enum ordinals; every other instrument is
+ * resolved through the instrument registry, so listing one needs no redeploy. The JPA and request
+ * converters and the JSON deserializer ask the registry bean; {@link #valueOf} reads the last
+ * published {@link InstrumentTable} for code without one. Two instances are equal when their ids are.
+ */
+public final class AssetType implements Comparable<AssetType> {
+
+    public static final AssetType TRY = new AssetType(0, "TRY", 2);
+    public static final AssetType EUR = new AssetType(1, "EUR", 2);
+    public static final AssetType USD = new AssetType(2, "USD", 2);
+
+    private final int id;
+    private final String name;
+    private final int scale;
+
+    public AssetType(int id, String name, int scale) {
+        this.id = id;
+        this.name = name;
+        this.scale = scale;
+    }
+
+    /**
+     * Looks the symbol up in the current instrument table, the way {@code Enum.valueOf} would.
+     *
+     * @throws IllegalArgumentException if no instrument has that symbol
+     */
+    public static AssetType valueOf(String name) {
+        AssetType assetType = InstrumentTable.current().assetType(name);
+        if (assetType == null) {
+            throw new IllegalArgumentException("No asset type " + name);
+        }
+        return assetType;
+    }
+
+    /** All instruments of the current table, in id order. */
+    public static List<AssetType> values() {
+        return InstrumentTable.current().assetTypes();
+    }
+
+    public int id() {
+        return id;
+    }
+
+    @JsonValue
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Decimal places sizes of this asset are kept with; never more than the two the asset and
+     * order columns store.
+     */
+    public int scale() {
+        return scale;
+    }
+
+    @Override
+    public int compareTo(AssetType other) {
+        return Integer.compare(id, other.id);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof AssetType other && id == other.id;
+    }
+
+    @Override
+    public int hashCode() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
 }
@@ -0,0 +1,28 @@
+package com.emce.brokage.asset.entity;
+
+import com.emce.brokage.instrument.InstrumentRegistry;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Stores an {@link AssetType} as its symbol, the immutable key the {@code asset_name} columns
+ * have always held. Hibernate gets the converter from the application context, so symbols are
+ * resolved through the {@link InstrumentRegistry}.
+ */
+@Converter
+@RequiredArgsConstructor
+public class AssetTypeConverter implements AttributeConverter<AssetType, String> {
+
+    private final InstrumentRegistry instrumentRegistry;
+
+    @Override
+    public String convertToDatabaseColumn(AssetType assetType) {
+        return assetType != null ? assetType.name() : null;
+    }
+
+    @Override
+    public AssetType convertToEntityAttribute(String symbol) {
+        return symbol != null ? instrumentRegistry.getAssetType(symbol) : null;
+    }
+}
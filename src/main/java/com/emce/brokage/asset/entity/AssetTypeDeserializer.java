@@ -0,0 +1,31 @@
+package com.emce.brokage.asset.entity;
+
+import com.emce.brokage.instrument.InstrumentRegistry;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+
+/**
+ * Reads an {@link AssetType} from its symbol through the {@link InstrumentRegistry}; an unknown
+ * symbol fails like any other malformed value.
+ */
+@JsonComponent
+@RequiredArgsConstructor
+public class AssetTypeDeserializer extends JsonDeserializer<AssetType> {
+
+    private final InstrumentRegistry instrumentRegistry;
+
+    @Override
+    public AssetType deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        String symbol = parser.getValueAsString();
+        try {
+            return instrumentRegistry.getAssetType(symbol);
+        } catch (IllegalArgumentException e) {
+            return (AssetType) context.handleWeirdStringValue(AssetType.class, symbol, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.emce.brokage.asset.entity;
+
+import com.emce.brokage.instrument.InstrumentRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+/**
+ * Binds {@link AssetType} request parameters and path variables through the {@link InstrumentRegistry}.
+ */
+@Component
+@RequiredArgsConstructor
+public class AssetTypeParameterConverter implements Converter<String, AssetType> {
+
+    private final InstrumentRegistry instrumentRegistry;
+
+    @Override
+    public AssetType convert(String symbol) {
+        return instrumentRegistry.getAssetType(symbol);
+    }
+}
@@ -79,7 +79,7 @@ public class AuthService {
                 return customer.getId();
             }
         }
-        throw new BadCredentialsException(TOKEN_NOT_VALID);
+        throw new BadCredentialsException(TOKEN_NOT_VALID_MSG);
     }
     private void saveUserToken(Customer customer, String jwtToken) {
         var token = Token.builder()
@@ -6,6 +6,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -13,5 +15,7 @@ public interface CustomerRepository extends JpaRepository<Customer, Integer> {
     Optional<Customer> findByEmail(String email);
     @Query("SELECT c FROM Customer c LEFT JOIN FETCH c.assets WHERE c.id = :customerId")
     Optional<Customer> findCustomerWithAssetsById(@Param("customerId") Integer customerId);
+    @Query("SELECT DISTINCT c FROM Customer c LEFT JOIN FETCH c.assets WHERE c.id IN :customerIds")
+    List<Customer> findCustomersWithAssetsByIdIn(@Param("customerIds") Collection<Integer> customerIds);
 
 }
@@ -1,5 +1,6 @@
 package com.emce.brokage.auth;
 
+import com.emce.brokage.datasource.ReplicaRoutingDataSource;
 import com.emce.brokage.security.token.Token;
 import com.emce.brokage.security.token.TokenRepository;
 import jakarta.servlet.http.HttpServletRequest;
@@ -23,7 +24,7 @@ public class LogoutService implements LogoutHandler {
             return;
         }
         String tokenStr = authHeader.substring(7);
-        Token token = tokenRepository.findByToken(tokenStr).orElse(null);
+        Token token = ReplicaRoutingDataSource.onPrimary(() -> tokenRepository.findByToken(tokenStr)).orElse(null);
         if (token != null) {
             token.setExpired(true);
             token.setRevoked(true);
@@ -3,6 +3,7 @@ package com.emce.brokage.auth;
 import com.emce.brokage.auth.dto.RegisterRequest;
 import com.emce.brokage.auth.dto.UserResponse;
 import com.emce.brokage.auth.entity.Customer;
+import com.emce.brokage.datasource.ReplicaRoutingDataSource;
 import com.emce.brokage.exception.DuplicateEmailException;
 import com.emce.brokage.exception.UserNotFoundException;
 import lombok.RequiredArgsConstructor;
@@ -18,9 +19,10 @@ import static com.emce.brokage.common.Messages.*;
 public class UserService implements UserDetailsService {
     private final CustomerRepository customerRepository;
 
+    // authentication must see role changes and new users at once, the replica may lag behind
     @Override
     public Customer loadUserByUsername(String username) throws UsernameNotFoundException {
-        return customerRepository.findByEmail(username).orElseThrow(
+        return ReplicaRoutingDataSource.onPrimary(() -> customerRepository.findByEmail(username)).orElseThrow(
                 () -> new UsernameNotFoundException(String.format(USER_NOT_FOUND_MSG, username)));
     }
     public Customer loadUserById(Integer id) throws UsernameNotFoundException {
@@ -9,9 +9,12 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import static com.emce.brokage.idempotency.IdempotencyService.IDEMPOTENCY_KEY_HEADER;
+
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/api/v1/balance")
@@ -20,12 +23,14 @@ public class BalanceController {
     private final BalanceService balanceService;
 
     @PostMapping("/deposit/{customerId}")
-    public ResponseEntity<BalanceResponse> deposit(@PathVariable("customerId") Integer customerId, @Valid @RequestBody BalanceRequest request){
-        return ResponseEntity.ok(balanceService.processTransaction(customerId, request, TransactionType.DEPOSIT));
+    public ResponseEntity<BalanceResponse> deposit(@PathVariable("customerId") Integer customerId, @Valid @RequestBody BalanceRequest request,
+                                                   @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey){
+        return ResponseEntity.ok(balanceService.processTransaction(customerId, request, TransactionType.DEPOSIT, idempotencyKey));
     }
     @PostMapping("/withdraw/{customerId}")
-    public ResponseEntity<BalanceResponse> withdraw(@PathVariable("customerId") Integer customerId, @Valid @RequestBody BalanceRequest request){
-        return ResponseEntity.ok(balanceService.processTransaction(customerId, request, TransactionType.WITHDRAW));
+    public ResponseEntity<BalanceResponse> withdraw(@PathVariable("customerId") Integer customerId, @Valid @RequestBody BalanceRequest request,
+                                                    @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey){
+        return ResponseEntity.ok(balanceService.processTransaction(customerId, request, TransactionType.WITHDRAW, idempotencyKey));
     }
 
 }
@@ -1,6 +1,8 @@
 package com.emce.brokage.balance;
 
 import com.emce.brokage.asset.AssetRepository;
+import com.emce.brokage.asset.Position;
+import com.emce.brokage.asset.PositionCache;
 import com.emce.brokage.auth.CustomerRepository;
 import com.emce.brokage.auth.entity.Customer;
 import com.emce.brokage.balance.dto.BalanceRequest;
@@ -10,14 +12,21 @@ import com.emce.brokage.asset.entity.Asset;
 import com.emce.brokage.asset.entity.AssetType;
 import com.emce.brokage.balance.entity.TransactionStatus;
 import com.emce.brokage.balance.entity.TransactionType;
+import com.emce.brokage.balance.event.BalanceEvent;
+import com.emce.brokage.concurrency.CustomerStripedLock;
 import com.emce.brokage.exception.UserNotFoundException;
+import com.emce.brokage.idempotency.IdempotencyService;
+import com.emce.brokage.money.Money;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.security.InvalidParameterException;
+import java.util.List;
+import java.util.Optional;
 import static com.emce.brokage.common.Messages.*;
 
 @Service
@@ -27,6 +36,32 @@ public class BalanceService {
     private final TransactionRepository transactionRepository;
     private final CustomerRepository customerRepository;
     private final AssetRepository assetRepository;
+    private final CustomerStripedLock customerLock;
+    private final IdempotencyService idempotencyService;
+    private final PositionCache positionCache;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Same as {@link #processTransaction(Integer, BalanceRequest, TransactionType)}, but a retry
+     * carrying the same idempotency key gets the response of the first attempt back without moving
+     * the balance again.
+     */
+    @Transactional
+    @PreAuthorize("#request.customerId == authentication.principal.id")
+    public BalanceResponse processTransaction(Integer customerId, BalanceRequest request, TransactionType transactionType,
+                                              String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return processTransaction(customerId, request, transactionType);
+        }
+        String operation = "balance." + transactionType.name().toLowerCase();
+        customerLock.lockForTransaction(request.customerId());
+        return idempotencyService.findResponse(request.customerId(), idempotencyKey, operation, request, BalanceResponse.class)
+                .orElseGet(() -> {
+                    BalanceResponse response = processTransaction(customerId, request, transactionType);
+                    idempotencyService.saveResponse(request.customerId(), idempotencyKey, operation, request, response);
+                    return response;
+                });
+    }
 
     @Transactional
     @PreAuthorize("#request.customerId == authentication.principal.id")
@@ -38,18 +73,29 @@ public class BalanceService {
             throw new InvalidParameterException(String.format(YOU_CAN_ONLY_S_FROM_THIS_ENDPOINT_MSG, transactionType));
         }
 
+        customerLock.lockForTransaction(request.customerId());
+        if (transactionType == TransactionType.WITHDRAW) {
+            Optional<Money> cachedUsableSize = positionCache.get(request.customerId())
+                    .map(positions -> Optional.ofNullable(positions.get(AssetType.TRY))
+                            .map(Position::usableSize)
+                            .orElse(Money.zero(AssetType.TRY)));
+            if (cachedUsableSize.isPresent()
+                    && cachedUsableSize.get().compareTo(Money.of(request.amount(), AssetType.TRY)) < 0) {
+                return rejectWithdrawal(request, cachedUsableSize.get());
+            }
+        }
         Customer customer = customerRepository.findCustomerWithAssetsById(request.customerId()).
                 orElseThrow(() -> new UserNotFoundException(String.format(USER_ID_NOT_FOUND_MSG, request.customerId())));
 
         Asset tryAsset = customer.getAssets().stream().filter(asset -> asset.getAssetName().equals(AssetType.TRY)).findFirst()
                 .orElseGet(() -> Asset.builder()
                         .assetName(AssetType.TRY)
-                        .size(BigDecimal.ZERO)
-                        .usableSize(BigDecimal.ZERO)
+                        .size(Money.zero(AssetType.TRY))
+                        .usableSize(Money.zero(AssetType.TRY))
                         .customer(customer)
                         .build());
 
-        BigDecimal previousAmount = tryAsset.getUsableSize();
+        BigDecimal previousAmount = tryAsset.getUsableSize().toBigDecimal();
         BigDecimal requestedAmount = request.amount();
         TransactionStatus status = getTransactionStatus(tryAsset, requestedAmount, request.transactionType());
 
@@ -61,19 +107,46 @@ public class BalanceService {
                 .build();
         transactionRepository.save(accountTransaction);
         assetRepository.save(tryAsset);
+        positionCache.writeThrough(customer.getId(), customer.getAssets(), List.of(tryAsset));
+        if (status == TransactionStatus.APPROVED) {
+            eventPublisher.publishEvent(BalanceEvent.builder()
+                    .customerId(customer.getId())
+                    .assetName(AssetType.TRY)
+                    .transactionType(transactionType)
+                    .amount(requestedAmount)
+                    .build());
+        }
 
         return BalanceResponse.builder()
                 .customerId(customer.getId())
                 .previousAmount(previousAmount)
-                .currentAmount(tryAsset.getUsableSize())
+                .currentAmount(tryAsset.getUsableSize().toBigDecimal())
                 .transactionStatus(status)
                 .build();
     }
 
-    private TransactionStatus getTransactionStatus(Asset tryAsset, BigDecimal requestedAmount, TransactionType transactionType) {
+    // the customer is cached and its stripe is held, so the cached usable size is the committed one
+    // and the rejection is recorded without reading the customer or its assets
+    private BalanceResponse rejectWithdrawal(BalanceRequest request, Money usableSize) {
+        transactionRepository.save(AccountTransaction.builder()
+                .customer(customerRepository.getReferenceById(request.customerId()))
+                .amount(request.amount())
+                .orderSide(TransactionType.WITHDRAW)
+                .status(TransactionStatus.CANCELED)
+                .build());
+        return BalanceResponse.builder()
+                .customerId(request.customerId())
+                .previousAmount(usableSize.toBigDecimal())
+                .currentAmount(usableSize.toBigDecimal())
+                .transactionStatus(TransactionStatus.CANCELED)
+                .build();
+    }
+
+    private TransactionStatus getTransactionStatus(Asset tryAsset, BigDecimal amount, TransactionType transactionType) {
         TransactionStatus status = TransactionStatus.APPROVED;
-        BigDecimal previousUsableSize = tryAsset.getUsableSize();
-        BigDecimal previousSize = tryAsset.getSize();
+        Money requestedAmount = Money.of(amount, AssetType.TRY);
+        Money previousUsableSize = tryAsset.getUsableSize();
+        Money previousSize = tryAsset.getSize();
         if (transactionType == TransactionType.DEPOSIT){
             tryAsset.setUsableSize(previousUsableSize.add(requestedAmount));
             tryAsset.setSize(previousSize.add(requestedAmount));
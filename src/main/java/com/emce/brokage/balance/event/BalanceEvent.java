@@ -0,0 +1,15 @@
+package com.emce.brokage.balance.event;
+
+import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.balance.entity.TransactionType;
+import lombok.Builder;
+
+import java.math.BigDecimal;
+
+/**
+ * Published by {@code BalanceService} when a deposit or withdrawal is approved. Listeners are
+ * expected to react after commit so they never observe rolled back state.
+ */
+@Builder
+public record BalanceEvent(Integer customerId, AssetType assetName, TransactionType transactionType, BigDecimal amount) {
+}
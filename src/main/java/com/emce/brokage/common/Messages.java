@@ -16,5 +16,35 @@ public class Messages {
     public static final String ONLY_PENDING_ORDERS_CAN_BE_CANCELED_OR_MATCHED_MSG = "Only pending orders can be canceled or matched";
     public static final String ASSET_S_HAS_NOT_ENOUGH_SIZE_MSG = "Asset %s has not enough size.";
     public static final String ASSET_NOT_FOUND_FOR_ASSET_NAME_S_MSG = "Asset not found for assetName: %s";
+    public static final String CUSTOMER_ID_IN_BATCH_AND_ORDER_NOT_MATCH_MSG = "customerId of the order doesn't match the batch";
+    public static final String ASSET_NAME_AND_ORDER_SIDE_REQUIRED_MSG = "assetName and orderSide are required";
+    public static final String INVALID_ORDER_CURSOR_MSG = "Cursor is malformed, start from the first slice";
+    public static final String ORDER_SORT_PROPERTY_NOT_SUPPORTED_MSG = "Orders can not be sorted by %s";
+    public static final String EXPIRES_AT_REQUIRED_FOR_GTD_MSG = "GTD orders need an expiresAt in the future";
+    public static final String EXPIRES_AT_ONLY_FOR_GTD_MSG = "expiresAt can only be set for GTD orders";
+    public static final String IDEMPOTENCY_KEY_REUSED_MSG = "Idempotency-Key was already used for a different request";
+    public static final String IDEMPOTENCY_KEY_TOO_LONG_MSG = "Idempotency-Key must be at most %d characters";
+    public static final String CONCURRENT_MODIFICATION_MSG = "The resource was modified concurrently, retry the request";
+    public static final String ORDER_INTAKE_QUEUE_FULL_MSG = "Order intake is full, retry later";
+    public static final String ORDER_INTAKE_NOT_FOUND_MSG = "Order intake not found or expired for sequence %d";
+    public static final String ORDER_INTAKE_FAILED_MSG = "Order intake failed, retry later";
+    public static final String RISK_MAX_ORDER_SIZE_MSG = "Order size %s exceeds the limit of %s for %s";
+    public static final String RISK_PRICE_BAND_MSG = "Unit price %s is too far from the last traded price %s of %s";
+    public static final String RISK_MAX_PENDING_ORDERS_MSG = "Customer can not have more than %d pending orders";
+    public static final String RISK_MAX_OPEN_NOTIONAL_MSG = "Pending orders can not exceed a total price of %s";
+    public static final String CANDLE_INTERVAL_NOT_SUPPORTED_MSG = "Candle interval %s is not supported, use 1s, 1m or 1h";
+    public static final String STATS_DATE_RANGE_INVALID_MSG = "Start date must not be after end date and the range must span at most %d days";
+    public static final String STATS_REBUILD_ONLY_PAST_DAYS_MSG = "Only days before today can be rebuilt";
+    public static final String RECONCILIATION_ALREADY_RUNNING_MSG = "A reconciliation run is already in progress";
+    public static final String INSTRUMENT_NOT_FOUND_MSG = "Instrument not found for symbol %s";
+    public static final String INSTRUMENT_ALREADY_LISTED_MSG = "Instrument %s is already listed";
+    public static final String INSTRUMENT_LIMIT_REACHED_MSG = "No more than %d instruments can be listed";
+    public static final String INSTRUMENT_SCALE_INVALID_MSG = "Scale must be between 0 and %d";
+    public static final String INSTRUMENT_SCALE_IMMUTABLE_MSG = "Scale of %s can not be changed once listed";
+    public static final String INSTRUMENT_QUOTE_CURRENCY_NOT_SUPPORTED_MSG = "Instruments can only be quoted in %s";
+    public static final String INSTRUMENT_NOT_ACTIVE_MSG = "Instrument %s is not open for trading";
+    public static final String ORDER_SIZE_SCALE_MSG = "Size of %s can have at most %d decimal places";
+    public static final String RATE_ASSET_NOT_FOUND_MSG = "No instrument is listed for rate %s";
+    public static final String RATE_NOT_POSITIVE_MSG = "Rate of %s must be positive";
 
 }
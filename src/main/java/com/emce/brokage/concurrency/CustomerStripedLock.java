@@ -0,0 +1,87 @@
+package com.emce.brokage.concurrency;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serializes balance mutating work per customer. Customer ids are hashed onto a fixed set of fair
+ * locks; a stripe is held from the moment a transaction asks for it until that transaction
+ * completes, so the next mutation of the same customer always reads committed assets and never
+ * loses an optimistic version check. Customers on different stripes run in parallel.
+ * <p>
+ * Queue depth and wait time are published per stripe as {@code brokage.customer.lock.queue} and
+ * {@code brokage.customer.lock.wait}.
+ */
+@Component
+public class CustomerStripedLock {
+
+    private final ReentrantLock[] stripes;
+    private final Timer[] waitTimers;
+
+    public CustomerStripedLock(@Value("${application.customer-lock.stripes:64}") int stripeCount,
+                               MeterRegistry meterRegistry) {
+        this.stripes = new ReentrantLock[stripeCount];
+        this.waitTimers = new Timer[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            ReentrantLock lock = new ReentrantLock(true);
+            String stripe = String.valueOf(i);
+            stripes[i] = lock;
+            waitTimers[i] = Timer.builder("brokage.customer.lock.wait")
+                    .description("Time spent waiting for a customer stripe")
+                    .tag("stripe", stripe)
+                    .register(meterRegistry);
+            Gauge.builder("brokage.customer.lock.queue", lock, ReentrantLock::getQueueLength)
+                    .description("Threads waiting for a customer stripe")
+                    .tag("stripe", stripe)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Locks the customer's stripe until the current transaction completes.
+     */
+    public void lockForTransaction(Integer customerId) {
+        lockStripe(stripeOf(customerId));
+    }
+
+    /**
+     * Locks the stripes of all given customers until the current transaction completes. Stripes
+     * are always taken in ascending order so two batches can never deadlock each other.
+     */
+    public void lockForTransaction(Collection<Integer> customerIds) {
+        customerIds.stream()
+                .mapToInt(this::stripeOf)
+                .distinct()
+                .sorted()
+                .forEach(this::lockStripe);
+    }
+
+    private int stripeOf(Integer customerId) {
+        return Math.floorMod(Integer.hashCode(customerId) * 0x9E3779B9, stripes.length);
+    }
+
+    private void lockStripe(int stripe) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Customer stripes can only be locked inside a transaction");
+        }
+        ReentrantLock lock = stripes[stripe];
+        long start = System.nanoTime();
+        lock.lock();
+        waitTimers[stripe].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+}
@@ -0,0 +1,81 @@
+package com.emce.brokage.datasource;
+
+import com.emce.brokage.order.event.OrderEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Decides whether a read may be served by the replica. Customers that wrote within the last
+ * {@code maxLag} read from the primary so they always see their own writes; this covers writes
+ * made on their behalf by the matching engine and expiry too, which are recognized through
+ * {@link OrderEvent}s. If a lag query is configured the replica's actual lag is probed on a
+ * schedule, and all reads fall back to the primary while it is behind by more than
+ * {@code maxLag} or can not be reached.
+ */
+@Slf4j
+public class ReplicaLagGuard {
+
+    private final Cache<Integer, Boolean> recentWriters;
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final String lagQuery;
+    private final Duration maxLag;
+
+    private volatile long lastLagMillis;
+    private volatile boolean replicaBehind;
+
+    public ReplicaLagGuard(DataSource replica, String lagQuery, Duration maxLag, MeterRegistry meterRegistry) {
+        this.replicaJdbcTemplate = new JdbcTemplate(replica);
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(maxLag)
+                .build();
+        Gauge.builder("brokage.datasource.replica.lag", this, guard -> guard.lastLagMillis)
+                .description("Replication lag of the read replica in milliseconds, -1 if unreachable")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    public boolean isReplicaUsable(Integer customerId) {
+        return !replicaBehind && (customerId == null || recentWriters.getIfPresent(customerId) == null);
+    }
+
+    public void recordWrite(Integer customerId) {
+        recentWriters.put(customerId, Boolean.TRUE);
+    }
+
+    @TransactionalEventListener
+    public void onOrderEvent(OrderEvent event) {
+        recordWrite(event.customerId());
+    }
+
+    @Scheduled(fixedDelayString = "${application.datasource.replica.lag-check-interval-ms:1000}")
+    public void checkLag() {
+        if (!StringUtils.hasText(lagQuery)) {
+            return;
+        }
+        try {
+            Long lag = replicaJdbcTemplate.queryForObject(lagQuery, Long.class);
+            lastLagMillis = lag == null ? 0 : lag;
+        } catch (RuntimeException e) {
+            log.warn("Replica lag check failed, reading from the primary", e);
+            lastLagMillis = -1;
+        }
+        boolean behind = lastLagMillis < 0 || lastLagMillis > maxLag.toMillis();
+        if (behind != replicaBehind) {
+            log.info(behind ? "Replica is {} ms behind, reading from the primary" : "Replica caught up ({} ms), reading from it again",
+                    lastLagMillis);
+        }
+        replicaBehind = behind;
+    }
+}
@@ -0,0 +1,78 @@
+package com.emce.brokage.datasource;
+
+import com.emce.brokage.auth.entity.Customer;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Sends read-only transactions to the replica and everything else to the primary. Reads still go
+ * to the primary when the replica is lagging, when the authenticated customer wrote within the
+ * lag window, or inside {@link #onPrimary}. Must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} so the connection is
+ * only fetched once the transaction's read-only flag is known.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Role {
+        PRIMARY, REPLICA
+    }
+
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = ThreadLocal.withInitial(() -> false);
+
+    private final ReplicaLagGuard lagGuard;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagGuard lagGuard) {
+        this.lagGuard = lagGuard;
+        setTargetDataSources(Map.of(Role.PRIMARY, primary, Role.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Runs the work against the primary even if it is read-only, for a lookup that must see a
+     * write the replica may not have applied yet.
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        boolean previous = FORCE_PRIMARY.get();
+        FORCE_PRIMARY.set(true);
+        try {
+            return work.get();
+        } finally {
+            FORCE_PRIMARY.set(previous);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Integer customerId = currentCustomerId();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (customerId != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        lagGuard.recordWrite(customerId);
+                    }
+                });
+            }
+            return Role.PRIMARY;
+        }
+        if (FORCE_PRIMARY.get() || !lagGuard.isReplicaUsable(customerId)) {
+            return Role.PRIMARY;
+        }
+        return Role.REPLICA;
+    }
+
+    private static Integer currentCustomerId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof Customer customer
+                ? customer.getId()
+                : null;
+    }
+}
@@ -0,0 +1,53 @@
+package com.emce.brokage.etag;
+
+import com.emce.brokage.balance.event.BalanceEvent;
+import com.emce.brokage.order.event.OrderEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-customer version behind the ETags of the asset and order lists. Every change to a
+ * customer's assets or orders publishes an {@link OrderEvent} or {@link BalanceEvent}; once it
+ * commits, the customer's counter is bumped, so a tag is computed without a query and never
+ * outlives the data it was issued for. Customer ids are mapped onto a fixed array of counters,
+ * customers sharing one only cost each other a full response now and then. The tag starts with
+ * the time the instance started, so a restart never revives a tag issued before it; like the
+ * position cache, the counters only see changes made through this instance.
+ */
+@Component
+public class CustomerVersions {
+
+    private final AtomicLongArray versions;
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+    public CustomerVersions(@Value("${application.etag.slots:65536}") int slots) {
+        this.versions = new AtomicLongArray(slots);
+    }
+
+    /**
+     * Strong ETag of the customer's asset and order lists, changing whenever either may have.
+     */
+    @PreAuthorize("#customerId == authentication.principal.id")
+    public String eTag(Integer customerId) {
+        return "\"" + epoch + "-" + versions.get(slotOf(customerId)) + "\"";
+    }
+
+    @TransactionalEventListener
+    public void onOrderEvent(OrderEvent event) {
+        versions.incrementAndGet(slotOf(event.customerId()));
+    }
+
+    @TransactionalEventListener
+    public void onBalanceEvent(BalanceEvent event) {
+        versions.incrementAndGet(slotOf(event.customerId()));
+    }
+
+    // consecutive ids land on distinct slots
+    private int slotOf(Integer customerId) {
+        return Math.floorMod(customerId, versions.length());
+    }
+}
@@ -0,0 +1,7 @@
+package com.emce.brokage.exception;
+
+public class InstrumentNotFoundException extends RuntimeException {
+    public InstrumentNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.emce.brokage.exception;
+
+public class IntakeNotFoundException extends RuntimeException {
+    public IntakeNotFoundException(String message) {
+        super(message);
+    }
+}
\ No newline at end of file
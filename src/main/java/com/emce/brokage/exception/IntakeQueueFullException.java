@@ -0,0 +1,7 @@
+package com.emce.brokage.exception;
+
+public class IntakeQueueFullException extends RuntimeException {
+    public IntakeQueueFullException(String message) {
+        super(message);
+    }
+}
\ No newline at end of file
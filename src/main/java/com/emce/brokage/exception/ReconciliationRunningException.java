@@ -0,0 +1,7 @@
+package com.emce.brokage.exception;
+
+public class ReconciliationRunningException extends RuntimeException {
+    public ReconciliationRunningException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.emce.brokage.exception;
+
+public class RiskLimitExceededException extends RuntimeException {
+    public RiskLimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,25 @@
+package com.emce.brokage.idempotency;
+
+import com.emce.brokage.idempotency.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Integer> {
+
+    Optional<IdempotencyRecord> findByCustomerIdAndKey(Integer customerId, String key);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.customerId = :customerId AND r.key = :key")
+    void deleteByCustomerIdAndKeyNow(@Param("customerId") Integer customerId, @Param("key") String key);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,166 @@
+package com.emce.brokage.idempotency;
+
+import com.emce.brokage.exception.IdempotencyKeyReusedException;
+import com.emce.brokage.idempotency.entity.IdempotencyRecord;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidParameterException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+
+import static com.emce.brokage.common.Messages.IDEMPOTENCY_KEY_REUSED_MSG;
+import static com.emce.brokage.common.Messages.IDEMPOTENCY_KEY_TOO_LONG_MSG;
+
+/**
+ * Remembers the responses of requests sent with an {@code Idempotency-Key} so a retried request
+ * gets the original response instead of running again. Responses are kept in the
+ * {@code idempotency_keys} table, written in the same transaction as the work they describe, and
+ * in a bounded in-memory cache in front of it that is only filled after commit. Keys are scoped
+ * per customer and forgotten after the retention period.
+ * <p>
+ * Callers hold the customer's stripe of {@link com.emce.brokage.concurrency.CustomerStripedLock}
+ * while looking up and saving, so two retries racing each other are serialized and the second
+ * one finds the response of the first.
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyRecordRepository recordRepository;
+    private final ObjectMapper objectMapper;
+    private final Duration retention;
+    private final Cache<CacheKey, StoredResponse> cache;
+
+    public IdempotencyService(IdempotencyRecordRepository recordRepository, ObjectMapper objectMapper,
+                              @Value("${application.idempotency.retention:24h}") Duration retention,
+                              @Value("${application.idempotency.cache-size:100000}") long cacheSize) {
+        this.recordRepository = recordRepository;
+        this.objectMapper = objectMapper;
+        this.retention = retention;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(retention)
+                .build();
+    }
+
+    /**
+     * Returns the response stored for the key, if any.
+     *
+     * @throws IdempotencyKeyReusedException if the key was used for a different operation or payload
+     */
+    public <T> Optional<T> findResponse(Integer customerId, String key, String operation, Object request, Class<T> responseType) {
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidParameterException(String.format(IDEMPOTENCY_KEY_TOO_LONG_MSG, MAX_KEY_LENGTH));
+        }
+        CacheKey cacheKey = new CacheKey(customerId, key);
+        StoredResponse stored = cache.getIfPresent(cacheKey);
+        if (stored == null) {
+            stored = recordRepository.findByCustomerIdAndKey(customerId, key)
+                    .filter(this::isRetained)
+                    .map(record -> new StoredResponse(record.getOperation(), record.getRequestHash(), record.getResponse()))
+                    .orElse(null);
+            if (stored == null) {
+                return Optional.empty();
+            }
+            cache.put(cacheKey, stored);
+        }
+        if (!stored.operation().equals(operation) || !stored.requestHash().equals(hash(operation, request))) {
+            throw new IdempotencyKeyReusedException(IDEMPOTENCY_KEY_REUSED_MSG);
+        }
+        return Optional.of(read(stored.response(), responseType));
+    }
+
+    /**
+     * Stores the response in the current transaction. It becomes visible to the cache once the
+     * transaction commits, and is discarded with it on rollback.
+     */
+    public void saveResponse(Integer customerId, String key, String operation, Object request, Object response) {
+        StoredResponse stored = new StoredResponse(operation, hash(operation, request), write(response));
+        // a key past its retention may still be in the table until the next purge
+        recordRepository.deleteByCustomerIdAndKeyNow(customerId, key);
+        recordRepository.save(IdempotencyRecord.builder()
+                .customerId(customerId)
+                .key(key)
+                .operation(operation)
+                .requestHash(stored.requestHash())
+                .response(stored.response())
+                .build());
+
+        CacheKey cacheKey = new CacheKey(customerId, key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.put(cacheKey, stored);
+                }
+            });
+        } else {
+            cache.put(cacheKey, stored);
+        }
+    }
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${application.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        int purged = recordRepository.deleteCreatedBefore(LocalDateTime.now().minus(retention));
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    private boolean isRetained(IdempotencyRecord record) {
+        return record.getCreatedAt().isAfter(LocalDateTime.now().minus(retention));
+    }
+
+    private String hash(String operation, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Request could not be fingerprinted", e);
+        }
+    }
+
+    private String write(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Response could not be stored", e);
+        }
+    }
+
+    private <T> T read(String response, Class<T> responseType) {
+        try {
+            return objectMapper.readValue(response, responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored response could not be read", e);
+        }
+    }
+
+    private record CacheKey(Integer customerId, String key) {
+    }
+
+    private record StoredResponse(String operation, String requestHash, String response) {
+    }
+}
@@ -0,0 +1,20 @@
+package com.emce.brokage.instrument;
+
+import com.emce.brokage.asset.entity.AssetType;
+
+import java.math.BigDecimal;
+
+/**
+ * Listing of one {@link AssetType}: the step its unit prices move in, the currency they are quoted
+ * in and whether new orders are accepted.
+ */
+public record Instrument(AssetType assetType, BigDecimal tickSize, String quoteCurrency, boolean active) {
+
+    public int id() {
+        return assetType.id();
+    }
+
+    public String symbol() {
+        return assetType.name();
+    }
+}
@@ -0,0 +1,49 @@
+package com.emce.brokage.instrument;
+
+import com.emce.brokage.instrument.dto.InstrumentRequest;
+import com.emce.brokage.instrument.dto.InstrumentResponse;
+import jakarta.validation.Valid;
+import jakarta.validation.groups.Default;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/instruments")
+@RequiredArgsConstructor
+public class InstrumentController {
+
+    private final InstrumentRegistry instrumentRegistry;
+
+    @GetMapping
+    public List<InstrumentResponse> getInstruments() {
+        return instrumentRegistry.getInstruments().stream().map(InstrumentResponse::fromInstrument).toList();
+    }
+
+    @GetMapping("/{symbol}")
+    public InstrumentResponse getInstrument(@PathVariable("symbol") String symbol) {
+        return InstrumentResponse.fromInstrument(instrumentRegistry.getInstrument(symbol));
+    }
+
+    @PostMapping
+    public ResponseEntity<InstrumentResponse> createInstrument(@Validated({Default.class, InstrumentRequest.Listing.class})
+                                                               @RequestBody InstrumentRequest request) {
+        return new ResponseEntity<>(InstrumentResponse.fromInstrument(instrumentRegistry.create(request)), HttpStatus.CREATED);
+    }
+
+    @PutMapping("/{symbol}")
+    public InstrumentResponse updateInstrument(@PathVariable("symbol") String symbol,
+                                               @Valid @RequestBody InstrumentRequest request) {
+        return InstrumentResponse.fromInstrument(instrumentRegistry.update(symbol, request));
+    }
+}
@@ -0,0 +1,162 @@
+package com.emce.brokage.instrument;
+
+import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.exception.InstrumentNotFoundException;
+import com.emce.brokage.instrument.dto.InstrumentRequest;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.security.InvalidParameterException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static com.emce.brokage.common.Messages.INSTRUMENT_ALREADY_LISTED_MSG;
+import static com.emce.brokage.common.Messages.INSTRUMENT_LIMIT_REACHED_MSG;
+import static com.emce.brokage.common.Messages.INSTRUMENT_NOT_ACTIVE_MSG;
+import static com.emce.brokage.common.Messages.INSTRUMENT_NOT_FOUND_MSG;
+import static com.emce.brokage.common.Messages.INSTRUMENT_QUOTE_CURRENCY_NOT_SUPPORTED_MSG;
+import static com.emce.brokage.common.Messages.INSTRUMENT_SCALE_IMMUTABLE_MSG;
+import static com.emce.brokage.common.Messages.INSTRUMENT_SCALE_INVALID_MSG;
+import static com.emce.brokage.common.Messages.ORDER_SIZE_SCALE_MSG;
+
+/**
+ * Instruments persisted in the {@code instruments} table. They are read into an immutable
+ * {@link InstrumentTable} at startup and whenever one is listed or changed, and the new table
+ * replaces the old one in a single volatile write, so lookups on the order path never lock. Other
+ * nodes pick changes up on the next refresh. Ids are dense and handed out in listing order; a
+ * symbol, its id and its scale never change, which is what lets the asset and order rows keep
+ * referring to instruments by symbol.
+ * <p>
+ * Beans resolve symbols through {@link #getAssetType}. Each table is also published to
+ * {@link InstrumentTable#current()} for the journal decoder, which runs outside the application context.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class InstrumentRegistry {
+
+    /** Sizes are stored in NUMERIC(38, 2) columns, no instrument can be finer than that. */
+    public static final int MAX_SCALE = 2;
+
+    private static final String SELECT_INSTRUMENTS = "SELECT id, symbol, scale, tick_size, quote_currency, active "
+            + "FROM instruments ORDER BY id";
+    // the next id is taken inside the insert, a concurrent listing on another node fails on the key
+    private static final String INSERT_INSTRUMENT = "INSERT INTO instruments (id, symbol, scale, tick_size, "
+            + "quote_currency, active, created_at) SELECT COALESCE(MAX(id) + 1, 0), ?, ?, ?, ?, ?, ? FROM instruments";
+    private static final String UPDATE_INSTRUMENT = "UPDATE instruments SET tick_size = ?, quote_currency = ?, "
+            + "active = ? WHERE symbol = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile InstrumentTable table = InstrumentTable.current();
+
+    @PostConstruct
+    void load() {
+        InstrumentTable table = new InstrumentTable(jdbcTemplate.query(SELECT_INSTRUMENTS, this::mapInstrument));
+        this.table = table;
+        InstrumentTable.publish(table);
+        log.debug("Instrument registry loaded {} instruments", table.assetTypes().size());
+    }
+
+    @Scheduled(fixedDelayString = "${application.instruments.refresh-interval-ms:60000}",
+            initialDelayString = "${application.instruments.refresh-interval-ms:60000}")
+    void refresh() {
+        load();
+    }
+
+    public List<Instrument> getInstruments() {
+        return table.instruments();
+    }
+
+    public Instrument getInstrument(String symbol) {
+        return Optional.ofNullable(table.instrument(symbol))
+                .orElseThrow(() -> new InstrumentNotFoundException(String.format(INSTRUMENT_NOT_FOUND_MSG, symbol)));
+    }
+
+    /**
+     * Looks the symbol up among the listed instruments, the way {@code Enum.valueOf} would.
+     *
+     * @throws IllegalArgumentException if no instrument has that symbol
+     */
+    public AssetType getAssetType(String symbol) {
+        AssetType assetType = table.assetType(symbol);
+        if (assetType == null) {
+            throw new IllegalArgumentException("No asset type " + symbol);
+        }
+        return assetType;
+    }
+
+    public synchronized Instrument create(InstrumentRequest request) {
+        InstrumentTable table = this.table;
+        if (table.instrument(request.symbol()) != null) {
+            throw new InvalidParameterException(String.format(INSTRUMENT_ALREADY_LISTED_MSG, request.symbol()));
+        }
+        if (table.nextId() >= InstrumentTable.MAX_INSTRUMENTS) {
+            throw new InvalidParameterException(String.format(INSTRUMENT_LIMIT_REACHED_MSG, InstrumentTable.MAX_INSTRUMENTS));
+        }
+        if (request.scale() < 0 || request.scale() > MAX_SCALE) {
+            throw new InvalidParameterException(String.format(INSTRUMENT_SCALE_INVALID_MSG, MAX_SCALE));
+        }
+        checkQuoteCurrency(request.quoteCurrency());
+        jdbcTemplate.update(INSERT_INSTRUMENT, request.symbol(), request.scale(), request.tickSize(),
+                request.quoteCurrency(), request.active(), Timestamp.valueOf(LocalDateTime.now()));
+        load();
+        return getInstrument(request.symbol());
+    }
+
+    public synchronized Instrument update(String symbol, InstrumentRequest request) {
+        Instrument instrument = getInstrument(symbol);
+        if (request.scale() != instrument.assetType().scale()) {
+            throw new InvalidParameterException(String.format(INSTRUMENT_SCALE_IMMUTABLE_MSG, symbol));
+        }
+        checkQuoteCurrency(request.quoteCurrency());
+        jdbcTemplate.update(UPDATE_INSTRUMENT, request.tickSize(), request.quoteCurrency(), request.active(), symbol);
+        load();
+        return getInstrument(symbol);
+    }
+
+    /**
+     * Rejects an order the instrument does not accept: the instrument is not active, or the size
+     * has more decimals than the asset keeps. The tick size is listing metadata only, prices are
+     * not checked against it.
+     *
+     * @throws InvalidParameterException describing the first rule the order breaks
+     */
+    public void checkTradable(AssetType assetName, BigDecimal size) {
+        Instrument instrument = table.instrument(assetName);
+        if (instrument == null || !instrument.active()) {
+            throw new InvalidParameterException(String.format(INSTRUMENT_NOT_ACTIVE_MSG, assetName));
+        }
+        if (size.stripTrailingZeros().scale() > assetName.scale()) {
+            throw new InvalidParameterException(String.format(ORDER_SIZE_SCALE_MSG, assetName, assetName.scale()));
+        }
+    }
+
+    // orders settle their price in TRY, an instrument quoted in anything else could not be settled yet
+    private static void checkQuoteCurrency(String quoteCurrency) {
+        if (!AssetType.TRY.name().equals(quoteCurrency)) {
+            throw new InvalidParameterException(String.format(INSTRUMENT_QUOTE_CURRENCY_NOT_SUPPORTED_MSG, AssetType.TRY));
+        }
+    }
+
+    private Instrument mapInstrument(ResultSet rs, int rowNum) throws SQLException {
+        int id = rs.getInt("id");
+        String symbol = rs.getString("symbol");
+        int scale = rs.getInt("scale");
+        // keep the instances already handed out, a refresh then allocates nothing new for them
+        AssetType assetType = table.assetType(id);
+        if (assetType == null || !assetType.name().equals(symbol) || assetType.scale() != scale) {
+            assetType = new AssetType(id, symbol, scale);
+        }
+        return new Instrument(assetType, rs.getBigDecimal("tick_size"), rs.getString("quote_currency"),
+                rs.getBoolean("active"));
+    }
+}
@@ -0,0 +1,91 @@
+package com.emce.brokage.instrument;
+
+import com.emce.brokage.asset.entity.AssetType;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Immutable snapshot of the listed instruments, indexed by id in an array and by symbol in a hash
+ * map, so both lookups are constant time and allocation free. A change never touches a table:
+ * {@link InstrumentRegistry} builds a new one and swaps it in as a whole, readers keep whichever
+ * table they started with.
+ */
+public final class InstrumentTable {
+
+    /** Ids are dense and below this bound, the largest the journal records can hold. */
+    public static final int MAX_INSTRUMENTS = 1 << 12;
+
+    private static final BigDecimal BUILT_IN_TICK_SIZE = new BigDecimal("0.01");
+
+    private static volatile InstrumentTable current = new InstrumentTable(List.of(
+            new Instrument(AssetType.TRY, BUILT_IN_TICK_SIZE, AssetType.TRY.name(), true),
+            new Instrument(AssetType.EUR, BUILT_IN_TICK_SIZE, AssetType.TRY.name(), true),
+            new Instrument(AssetType.USD, BUILT_IN_TICK_SIZE, AssetType.TRY.name(), true)));
+
+    private final Instrument[] byId;
+    private final Map<String, Instrument> bySymbol;
+    private final List<Instrument> instruments;
+    private final List<AssetType> assetTypes;
+
+    InstrumentTable(Collection<Instrument> instruments) {
+        int size = instruments.stream().mapToInt(Instrument::id).max().orElse(-1) + 1;
+        this.byId = new Instrument[size];
+        this.bySymbol = new HashMap<>(instruments.size() * 2);
+        for (Instrument instrument : instruments) {
+            byId[instrument.id()] = instrument;
+            bySymbol.put(instrument.symbol(), instrument);
+        }
+        this.instruments = Arrays.stream(byId).filter(Objects::nonNull).toList();
+        this.assetTypes = this.instruments.stream().map(Instrument::assetType).toList();
+    }
+
+    /** The table in use. */
+    public static InstrumentTable current() {
+        return current;
+    }
+
+    static void publish(InstrumentTable table) {
+        current = table;
+    }
+
+    /** Returns the instrument with the symbol, or {@code null}. */
+    public AssetType assetType(String symbol) {
+        Instrument instrument = bySymbol.get(symbol);
+        return instrument != null ? instrument.assetType() : null;
+    }
+
+    /** Returns the instrument with the id, or {@code null}. */
+    public AssetType assetType(int id) {
+        Instrument instrument = id >= 0 && id < byId.length ? byId[id] : null;
+        return instrument != null ? instrument.assetType() : null;
+    }
+
+    /** Returns the listing of the asset, or {@code null} if it is not listed. */
+    public Instrument instrument(AssetType assetType) {
+        int id = assetType.id();
+        return id < byId.length ? byId[id] : null;
+    }
+
+    public Instrument instrument(String symbol) {
+        return bySymbol.get(symbol);
+    }
+
+    public List<AssetType> assetTypes() {
+        return assetTypes;
+    }
+
+    public List<Instrument> instruments() {
+        return instruments;
+    }
+
+    /** Id the next listed instrument gets. */
+    int nextId() {
+        return byId.length;
+    }
+}
@@ -0,0 +1,31 @@
+package com.emce.brokage.instrument.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+
+import java.math.BigDecimal;
+
+/**
+ * Listing or change of an instrument. {@code symbol} is only read when listing, it is taken from
+ * the path otherwise, so it is only required in the {@link Listing} group; {@code scale} can not
+ * change once listed.
+ */
+public record InstrumentRequest(
+        @NotNull(message = "symbol is required", groups = Listing.class)
+        @Pattern(regexp = "[A-Z0-9]{1,16}", message = "symbol must be 1 to 16 upper case letters or digits")
+        String symbol,
+        @NotNull(message = "scale is required")
+        Integer scale,
+        @NotNull(message = "tickSize is required")
+        @Positive(message = "tickSize must be positive")
+        BigDecimal tickSize,
+        @NotNull(message = "quoteCurrency is required")
+        String quoteCurrency,
+        @NotNull(message = "active is required")
+        Boolean active) {
+
+    /** Validation group of the constraints that only apply when listing a new instrument. */
+    public interface Listing {
+    }
+}
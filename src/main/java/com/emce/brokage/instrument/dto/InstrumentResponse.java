@@ -0,0 +1,22 @@
+package com.emce.brokage.instrument.dto;
+
+import com.emce.brokage.instrument.Instrument;
+import lombok.Builder;
+
+import java.math.BigDecimal;
+
+@Builder
+public record InstrumentResponse(int id, String symbol, int scale, BigDecimal tickSize, String quoteCurrency,
+                                 boolean active) {
+
+    public static InstrumentResponse fromInstrument(Instrument instrument) {
+        return InstrumentResponse.builder()
+                .id(instrument.id())
+                .symbol(instrument.symbol())
+                .scale(instrument.assetType().scale())
+                .tickSize(instrument.tickSize())
+                .quoteCurrency(instrument.quoteCurrency())
+                .active(instrument.active())
+                .build();
+    }
+}
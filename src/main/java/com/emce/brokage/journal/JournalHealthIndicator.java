@@ -0,0 +1,25 @@
+package com.emce.brokage.journal;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports the journal down once a committed event failed to be journaled, since state recovered
+ * from it would no longer match the database.
+ */
+@Component
+@RequiredArgsConstructor
+public class JournalHealthIndicator implements HealthIndicator {
+
+    private final JournalService journalService;
+
+    @Override
+    public Health health() {
+        if (!journalService.isEnabled()) {
+            return Health.up().withDetail("enabled", false).build();
+        }
+        return (journalService.isHealthy() ? Health.up() : Health.down()).withDetail("enabled", true).build();
+    }
+}
@@ -0,0 +1,154 @@
+package com.emce.brokage.journal;
+
+import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.balance.entity.TransactionType;
+import com.emce.brokage.balance.event.BalanceEvent;
+import com.emce.brokage.instrument.InstrumentTable;
+import com.emce.brokage.order.entity.OrderSide;
+import com.emce.brokage.order.entity.OrderStatus;
+import com.emce.brokage.order.entity.TimeInForce;
+import com.emce.brokage.order.event.OrderEvent;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.zip.CRC32C;
+
+/**
+ * One entry of the {@link OrderJournal}, stored as a fixed-size binary record:
+ * <pre>
+ * int  checksum   CRC32C of the remaining bytes
+ * long sequence   starts at 1, no gaps
+ * byte type       {@link JournalRecordType} ordinal
+ * byte code       {@link OrderStatus} or {@link TransactionType} ordinal
+ * byte assetName  low 8 bits of the {@link AssetType} id
+ * byte orderSide  {@link OrderSide} ordinal in the low 4 bits, 0 for balance records; bits 8 to 11
+ *                 of the asset id in the high 4 bits
+ * int  orderId    0 for balance records
+ * int  customerId
+ * long size       order size or balance amount, in hundredths; for fill records the size
+ *                 filled so far
+ * long price      order price in hundredths, 0 for balance records; for fill records the
+ *                 amount filled so far
+ * long timestamp  epoch millis the record was appended
+ * byte timeInForce {@link TimeInForce} ordinal, GTC for balance records
+ * 7 bytes         reserved, zero
+ * long expiresAt  epoch millis the order expires at, 0 if it never does
+ * </pre>
+ * Amounts are kept at the scale of the {@code NUMERIC(38, 2)} columns they come from. Asset ids
+ * are resolved through the current {@link InstrumentTable}.
+ */
+public record JournalRecord(long sequence, JournalRecordType type, int code, AssetType assetName, OrderSide orderSide,
+                            int orderId, int customerId, long size, long price, long timestamp,
+                            TimeInForce timeInForce, long expiresAt) {
+
+    public static final int SIZE = 64;
+    static final int MONEY_SCALE = 2;
+
+    public static JournalRecord of(OrderEvent event) {
+        return new JournalRecord(0, JournalRecordType.ORDER, event.status().ordinal(), event.assetName(), event.orderSide(),
+                event.orderId(), event.customerId(), toUnits(event.size()), toUnits(event.price()), 0,
+                event.timeInForce() == null ? TimeInForce.GTC : event.timeInForce(), toEpochMillis(event.expiresAt()));
+    }
+
+    /**
+     * A fill record of a partially filled order, carrying how much of it has been matched so far.
+     */
+    public static JournalRecord fillOf(OrderEvent event) {
+        return new JournalRecord(0, JournalRecordType.FILL, event.status().ordinal(), event.assetName(),
+                event.orderSide(), event.orderId(), event.customerId(), toUnits(event.filledSize()),
+                toUnits(event.filledAmount()), 0, event.timeInForce() == null ? TimeInForce.GTC : event.timeInForce(),
+                toEpochMillis(event.expiresAt()));
+    }
+
+    public static JournalRecord of(BalanceEvent event) {
+        return new JournalRecord(0, JournalRecordType.BALANCE, event.transactionType().ordinal(), event.assetName(),
+                OrderSide.values()[0], 0, event.customerId(), toUnits(event.amount()), 0, 0, TimeInForce.GTC, 0);
+    }
+
+    public OrderStatus orderStatus() {
+        return OrderStatus.values()[code];
+    }
+
+    public TransactionType transactionType() {
+        return TransactionType.values()[code];
+    }
+
+    JournalRecord withSequence(long sequence, long timestamp) {
+        return new JournalRecord(sequence, type, code, assetName, orderSide, orderId, customerId, size, price, timestamp,
+                timeInForce, expiresAt);
+    }
+
+    void write(ByteBuffer buffer, int offset) {
+        buffer.putLong(offset + 4, sequence)
+                .put(offset + 12, (byte) type.ordinal())
+                .put(offset + 13, (byte) code)
+                .put(offset + 14, (byte) assetName.id())
+                .put(offset + 15, (byte) (assetName.id() >>> 8 << 4 | orderSide.ordinal()))
+                .putInt(offset + 16, orderId)
+                .putInt(offset + 20, customerId)
+                .putLong(offset + 24, size)
+                .putLong(offset + 32, price)
+                .putLong(offset + 40, timestamp)
+                .put(offset + 48, (byte) timeInForce.ordinal())
+                .putLong(offset + 56, expiresAt);
+        buffer.putInt(offset, checksum(buffer, offset));
+    }
+
+    /**
+     * Reads the record at {@code offset}, or returns {@code null} if the slot was never written or
+     * holds a torn write.
+     */
+    static JournalRecord read(ByteBuffer buffer, int offset) {
+        long sequence = buffer.getLong(offset + 4);
+        if (sequence == 0 || buffer.getInt(offset) != checksum(buffer, offset)) {
+            return null;
+        }
+        int sideAndAsset = buffer.get(offset + 15) & 0xFF;
+        return new JournalRecord(sequence,
+                JournalRecordType.values()[buffer.get(offset + 12)],
+                buffer.get(offset + 13),
+                assetType((sideAndAsset >>> 4) << 8 | buffer.get(offset + 14) & 0xFF),
+                OrderSide.values()[sideAndAsset & 0x0F],
+                buffer.getInt(offset + 16),
+                buffer.getInt(offset + 20),
+                buffer.getLong(offset + 24),
+                buffer.getLong(offset + 32),
+                buffer.getLong(offset + 40),
+                TimeInForce.values()[buffer.get(offset + 48)],
+                buffer.getLong(offset + 56));
+    }
+
+    static AssetType assetType(int id) {
+        AssetType assetType = InstrumentTable.current().assetType(id);
+        if (assetType == null) {
+            throw new IllegalStateException("Journal refers to unknown instrument " + id);
+        }
+        return assetType;
+    }
+
+    static long toUnits(BigDecimal amount) {
+        return amount.setScale(MONEY_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    static BigDecimal fromUnits(long units) {
+        return BigDecimal.valueOf(units, MONEY_SCALE);
+    }
+
+    static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime == null ? 0 : dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    static LocalDateTime fromEpochMillis(long epochMillis) {
+        return epochMillis == 0 ? null : LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static int checksum(ByteBuffer buffer, int offset) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset + 4, SIZE - 4));
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,7 @@
+package com.emce.brokage.journal;
+
+public enum JournalRecordType {
+    ORDER,
+    BALANCE,
+    FILL
+}
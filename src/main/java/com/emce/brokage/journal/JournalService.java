@@ -0,0 +1,179 @@
+package com.emce.brokage.journal;
+
+import com.emce.brokage.balance.event.BalanceEvent;
+import com.emce.brokage.order.OrderRepository;
+import com.emce.brokage.order.event.OrderEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Journals committed order and balance events to the {@link OrderJournal} and recovers its state
+ * at startup, so in-memory components (risk exposures, order books, the expiry schedule) can be
+ * seeded from the pending orders without scanning the orders table. The first start with an empty journal seeds it from the pending orders in the
+ * database and snapshots the result.
+ * <p>
+ * Events are appended after their transaction commits, so a crash between the commit and the
+ * append loses that event. Every start therefore compares a {@link PendingDigest} of the recovered
+ * pending orders with one of the pending orders in the database and seeds the journal from the
+ * database again when they differ; deleting the journal directory forces the same. A failed append is not reported to the request whose change already committed:
+ * it is logged and counted, the journal is reported unhealthy and it is discarded at shutdown so
+ * the next start seeds it from the database.
+ */
+@Slf4j
+@Service
+@DependsOn("instrumentRegistry") // records name instruments by id, recovery resolves them
+public class JournalService {
+
+    private final OrderRepository orderRepository;
+    private final OrderJournal journal;
+    private final boolean enabled;
+    private final int bootstrapBatchSize;
+    private final Counter appendFailures;
+
+    private volatile boolean healthy = true;
+
+    public JournalService(OrderRepository orderRepository, MeterRegistry meterRegistry,
+                          @Value("${application.journal.enabled:false}") boolean enabled,
+                          @Value("${application.journal.dir}") Path directory,
+                          @Value("${application.journal.segment-records:1048576}") int segmentRecords,
+                          @Value("${application.journal.bootstrap-batch-size:10000}") int bootstrapBatchSize) {
+        this.orderRepository = orderRepository;
+        this.enabled = enabled;
+        this.journal = new OrderJournal(directory, segmentRecords);
+        this.bootstrapBatchSize = bootstrapBatchSize;
+        this.appendFailures = Counter.builder("brokage.journal.append.failures")
+                .description("Committed events that could not be journaled")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void recover() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        long started = System.nanoTime();
+        long replayed = journal.recover();
+        if (!journal.isEmpty()) {
+            PendingDigest journaled = journal.pendingDigest();
+            PendingDigest stored = orderRepository.findPendingDigest();
+            if (!journaled.matches(stored)) {
+                log.warn("Journal does not match the database, {} journaled and {} stored pending orders, "
+                        + "seeding it again", journaled, stored);
+                journal.discard();
+                journal.recover();
+            }
+        }
+        if (journal.isEmpty()) {
+            bootstrap();
+        }
+        log.info("Recovered {} pending orders from the journal at sequence {}, replayed {} records in {} ms",
+                journal.pendingCount(), journal.sequence(), replayed, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // journaled in creation order, the order books rebuilt from the journal keep time priority
+    private void bootstrap() throws IOException {
+        List<OrderEvent> pending = new ArrayList<>();
+        Integer afterId = 0;
+        List<OrderEvent> page;
+        do {
+            page = orderRepository.findPendingEventsAfter(afterId, Limit.of(bootstrapBatchSize));
+            pending.addAll(page);
+            afterId = page.isEmpty() ? afterId : page.get(page.size() - 1).orderId();
+        } while (page.size() == bootstrapBatchSize);
+        pending.sort(Comparator.comparing(OrderEvent::createDate, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(OrderEvent::orderId));
+        for (OrderEvent event : pending) {
+            journal.append(JournalRecord.of(event));
+            if (event.isPartialFill()) {
+                journal.append(JournalRecord.fillOf(event));
+            }
+        }
+        journal.snapshot();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Whether every committed event since startup made it into the journal.
+     */
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    /**
+     * Passes every pending order to {@code consumer} in the order they were journaled.
+     */
+    public void forEachPendingOrder(Consumer<PendingOrder> consumer) {
+        journal.forEachPendingOrder(consumer);
+    }
+
+    @TransactionalEventListener
+    public void onOrderEvent(OrderEvent event) {
+        append(event.isPartialFill() ? JournalRecord.fillOf(event) : JournalRecord.of(event));
+    }
+
+    @TransactionalEventListener
+    public void onBalanceEvent(BalanceEvent event) {
+        append(JournalRecord.of(event));
+    }
+
+    private void append(JournalRecord record) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            journal.append(record);
+        } catch (IOException | RuntimeException e) {
+            // the change is committed already, failing here would only turn it into an error for the caller
+            healthy = false;
+            appendFailures.increment();
+            log.error("Journaling a {} record of customer {} failed, the journal will be rebuilt on the next start",
+                    record.type(), record.customerId(), e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${application.journal.snapshot-interval-ms:300000}",
+            initialDelayString = "${application.journal.snapshot-interval-ms:300000}")
+    public void snapshot() throws IOException {
+        if (enabled) {
+            journal.snapshot();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${application.journal.force-interval-ms:1000}")
+    public void force() {
+        if (enabled) {
+            journal.force();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        journal.close();
+        if (!healthy) {
+            journal.discard();
+            log.warn("Discarded the journal after failed appends, the next start seeds it from the database");
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.emce.brokage.journal;
+
+import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.journal.JournalState.JournalSnapshot;
+import com.emce.brokage.order.entity.OrderSide;
+import com.emce.brokage.order.entity.TimeInForce;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Reads and writes compact binary snapshots of {@link JournalState}:
+ * <pre>
+ * int  magic, int version, long sequence, int pendingCount, int settledCount
+ * pendingCount x (int orderId, int customerId, short assetName, byte orderSide, long size, long price,
+ *                 long filled, byte timeInForce, long expiresAt)
+ * settledCount x int orderId
+ * int  CRC32C of everything before it
+ * </pre>
+ * {@code assetName} is the {@link AssetType} id. Pending orders are written in journal order.
+ * Snapshots of an earlier version are not read, {@link OrderJournal} discards them.
+ * A snapshot is written to a temporary file and moved into place, so a crash never leaves a
+ * partial snapshot under its final name.
+ */
+final class JournalSnapshots {
+
+    private static final int MAGIC = 0x42524b53;
+    private static final int VERSION = 4;
+    private static final int HEADER_SIZE = 24;
+    private static final int ORDER_SIZE = 44;
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".bin";
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private JournalSnapshots() {
+    }
+
+    static Path write(Path directory, JournalSnapshot snapshot) throws IOException {
+        Path file = directory.resolve(fileName(snapshot.sequence()));
+        Path temporary = directory.resolve(file.getFileName() + ".tmp");
+        CRC32C crc = new CRC32C();
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            buffer.putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putLong(snapshot.sequence())
+                    .putInt(snapshot.pendingOrders().length)
+                    .putInt(snapshot.settledBeforePending().length);
+            for (PendingOrder order : snapshot.pendingOrders()) {
+                if (buffer.remaining() < ORDER_SIZE) {
+                    drain(channel, buffer, crc);
+                }
+                buffer.putInt(order.orderId())
+                        .putInt(order.customerId())
+                        .putShort((short) order.assetName().id())
+                        .put((byte) order.orderSide().ordinal())
+                        .putLong(order.sizeUnits())
+                        .putLong(order.priceUnits())
+                        .putLong(order.filledUnits())
+                        .put((byte) order.timeInForce().ordinal())
+                        .putLong(order.expiresAtMillis());
+            }
+            for (int orderId : snapshot.settledBeforePending()) {
+                if (buffer.remaining() < Integer.BYTES) {
+                    drain(channel, buffer, crc);
+                }
+                buffer.putInt(orderId);
+            }
+            drain(channel, buffer, crc);
+            buffer.putInt((int) crc.getValue()).flip();
+            channel.write(buffer);
+            channel.force(true);
+        }
+        return Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    static Optional<JournalState> readLatest(Path directory) throws IOException {
+        List<Path> snapshots = list(directory);
+        if (snapshots.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(read(snapshots.get(snapshots.size() - 1)));
+    }
+
+    static JournalState read(Path file) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        int bodySize = buffer.capacity() - Integer.BYTES;
+        if (bodySize < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+                || buffer.getInt(bodySize) != checksum(buffer, bodySize)) {
+            throw new IllegalStateException("Journal snapshot " + file + " is corrupt");
+        }
+        long sequence = buffer.getLong(8);
+        int pendingCount = buffer.getInt(16);
+        int settledCount = buffer.getInt(20);
+        buffer.position(HEADER_SIZE);
+        Map<Integer, PendingOrder> pendingOrders = LinkedHashMap.newLinkedHashMap(pendingCount);
+        for (int index = 0; index < pendingCount; index++) {
+            PendingOrder order = new PendingOrder(buffer.getInt(), buffer.getInt(),
+                    JournalRecord.assetType(buffer.getShort()), OrderSide.values()[buffer.get()], buffer.getLong(),
+                    buffer.getLong(), buffer.getLong(), TimeInForce.values()[buffer.get()], buffer.getLong());
+            pendingOrders.put(order.orderId(), order);
+        }
+        // the settling sequence is not stored, the snapshot's own is late enough to keep them one more snapshot
+        Map<Integer, Long> settledBeforePending = HashMap.newHashMap(settledCount);
+        for (int index = 0; index < settledCount; index++) {
+            settledBeforePending.put(buffer.getInt(), sequence);
+        }
+        return new JournalState(sequence, pendingOrders, settledBeforePending);
+    }
+
+    /**
+     * Whether any snapshot in the directory was written in an earlier format.
+     */
+    static boolean hasEarlierVersion(Path directory) throws IOException {
+        for (Path snapshot : list(directory)) {
+            try (DataInputStream in = new DataInputStream(Files.newInputStream(snapshot))) {
+                if (in.readInt() == MAGIC && in.readInt() < VERSION) {
+                    return true;
+                }
+            } catch (EOFException e) {
+                // too short for a header, reading it reports the snapshot as corrupt
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Deletes every snapshot older than the one at {@code sequence}.
+     */
+    static void deleteBefore(Path directory, long sequence) throws IOException {
+        for (Path snapshot : list(directory)) {
+            if (sequenceOf(snapshot) < sequence) {
+                Files.deleteIfExists(snapshot);
+            }
+        }
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer, CRC32C crc) throws IOException {
+        buffer.flip();
+        crc.update(buffer.duplicate());
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static int checksum(ByteBuffer buffer, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(0, length));
+        return (int) crc.getValue();
+    }
+
+    private static List<Path> list(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith(PREFIX)
+                            && file.getFileName().toString().endsWith(SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long sequenceOf(Path snapshot) {
+        String name = snapshot.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    private static String fileName(long sequence) {
+        return String.format("%s%020d%s", PREFIX, sequence, SUFFIX);
+    }
+}
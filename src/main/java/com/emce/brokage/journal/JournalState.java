@@ -0,0 +1,97 @@
+package com.emce.brokage.journal;
+
+import com.emce.brokage.order.entity.OrderStatus;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * State folded from journal records: the pending orders, in the order they were journaled, and
+ * the sequence of the last record applied, fill records updating how much of a pending order is
+ * matched. Order events are journaled after their transactions commit, so a cancel or match can
+ * be appended just before the order's own pending record; such orders are remembered with the
+ * sequence of their settling record and their late pending record is ignored. A late record
+ * follows within moments, so an order still remembered when a second snapshot is taken never gets
+ * one (its pending event was lost) and is forgotten, which keeps the set bounded. Not thread safe,
+ * {@link OrderJournal} guards it.
+ */
+final class JournalState {
+
+    private final Map<Integer, PendingOrder> pendingOrders;
+    private final Map<Integer, Long> settledBeforePending;
+    private long sequence;
+
+    JournalState() {
+        this(0, new LinkedHashMap<>(), new HashMap<>());
+    }
+
+    JournalState(long sequence, Map<Integer, PendingOrder> pendingOrders, Map<Integer, Long> settledBeforePending) {
+        this.sequence = sequence;
+        this.pendingOrders = pendingOrders;
+        this.settledBeforePending = settledBeforePending;
+    }
+
+    void apply(JournalRecord record) {
+        sequence = record.sequence();
+        if (record.type() == JournalRecordType.FILL) {
+            // fills are cumulative, a late or repeated one never moves the filled size backwards
+            pendingOrders.computeIfPresent(record.orderId(), (orderId, order) -> order.filledUnits() >= record.size()
+                    ? order
+                    : new PendingOrder(order.orderId(), order.customerId(), order.assetName(), order.orderSide(),
+                    order.sizeUnits(), order.priceUnits(), record.size(), order.timeInForce(),
+                    order.expiresAtMillis()));
+            return;
+        }
+        if (record.type() != JournalRecordType.ORDER) {
+            return;
+        }
+        Integer orderId = record.orderId();
+        if (record.orderStatus() == OrderStatus.PENDING) {
+            if (settledBeforePending.remove(orderId) == null) {
+                pendingOrders.put(orderId, new PendingOrder(record.orderId(), record.customerId(), record.assetName(),
+                        record.orderSide(), record.size(), record.price(), 0, record.timeInForce(),
+                        record.expiresAt()));
+            }
+        } else if (pendingOrders.remove(orderId) == null) {
+            settledBeforePending.put(orderId, record.sequence());
+        }
+    }
+
+    long sequence() {
+        return sequence;
+    }
+
+    int pendingCount() {
+        return pendingOrders.size();
+    }
+
+    PendingDigest digest() {
+        long orderIdSum = 0;
+        long filledUnits = 0;
+        for (PendingOrder order : pendingOrders.values()) {
+            orderIdSum += order.orderId();
+            filledUnits += order.filledUnits();
+        }
+        return new PendingDigest(pendingOrders.size(), orderIdSum, JournalRecord.fromUnits(filledUnits));
+    }
+
+    void forEachPendingOrder(Consumer<PendingOrder> consumer) {
+        pendingOrders.values().forEach(consumer);
+    }
+
+    /**
+     * Captures the state for a snapshot, first forgetting the orders settled at or before
+     * {@code watermark} whose pending record never arrived.
+     */
+    JournalSnapshot image(long watermark) {
+        settledBeforePending.values().removeIf(settledAt -> settledAt <= watermark);
+        return new JournalSnapshot(sequence,
+                pendingOrders.values().toArray(PendingOrder[]::new),
+                settledBeforePending.keySet().stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    record JournalSnapshot(long sequence, PendingOrder[] pendingOrders, int[] settledBeforePending) {
+    }
+}
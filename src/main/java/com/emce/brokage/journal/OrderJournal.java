@@ -0,0 +1,239 @@
+package com.emce.brokage.journal;
+
+import com.emce.brokage.journal.JournalState.JournalSnapshot;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Append-only journal of {@link JournalRecord}s in memory-mapped segment files of
+ * {@code segmentRecords} fixed-size records each, named after the sequence of their first record.
+ * Every appended record is folded into the in-memory {@link JournalState}.
+ * <p>
+ * {@link #snapshot()} writes the state to a compact binary snapshot and deletes the segments and
+ * snapshots it supersedes, so {@link #recover()} loads the latest snapshot and replays only the
+ * records appended after it. A torn record at the end of the last segment ends the replay and is
+ * overwritten by the next append. Mapped writes survive a process crash; {@link #force()} makes
+ * them survive a machine crash as well.
+ * <p>
+ * Segments ({@code .log}) and snapshots written before records carried the time in force and
+ * expiry are discarded by {@link #recover()}, which leaves an empty journal to be seeded again.
+ */
+@Slf4j
+public class OrderJournal implements Closeable {
+
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String EARLIER_SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final int segmentRecords;
+    private final Object snapshotLock = new Object();
+
+    private JournalState state = new JournalState();
+    private MappedByteBuffer segment;
+    private int segmentPosition;
+    private long snapshotSequence;
+
+    public OrderJournal(Path directory, int segmentRecords) {
+        this.directory = directory;
+        this.segmentRecords = segmentRecords;
+    }
+
+    /**
+     * Rebuilds the state from the latest snapshot and the records after it.
+     *
+     * @return the number of records replayed on top of the snapshot
+     */
+    public synchronized long recover() throws IOException {
+        Files.createDirectories(directory);
+        discardEarlierFormat();
+        state = JournalSnapshots.readLatest(directory).orElseGet(JournalState::new);
+        snapshotSequence = state.sequence();
+        segment = null;
+        List<Path> segments = segments();
+        int first = 0;
+        for (int index = 0; index < segments.size(); index++) {
+            if (firstSequence(segments.get(index)) <= snapshotSequence + 1) {
+                first = index;
+            }
+        }
+        long replayed = 0;
+        for (int index = first; index < segments.size(); index++) {
+            Path file = segments.get(index);
+            long firstSequence = firstSequence(file);
+            if (firstSequence > state.sequence() + 1) {
+                throw new IllegalStateException("Journal is missing records " + (state.sequence() + 1)
+                        + " to " + (firstSequence - 1));
+            }
+            MappedByteBuffer buffer = map(file);
+            int position = 0;
+            JournalRecord record;
+            while (position < segmentRecords
+                    && (record = JournalRecord.read(buffer, position * JournalRecord.SIZE)) != null
+                    && record.sequence() == firstSequence + position) {
+                if (record.sequence() > state.sequence()) {
+                    state.apply(record);
+                    replayed++;
+                }
+                position++;
+            }
+            if (index == segments.size() - 1) {
+                segment = buffer;
+                segmentPosition = position;
+            } else if (position < segmentRecords) {
+                throw new IllegalStateException("Journal segment " + file + " ends early at record " + position);
+            }
+        }
+        if (segment != null && segmentPosition > 0
+                && firstSequence(segments.get(segments.size() - 1)) + segmentPosition - 1 != state.sequence()) {
+            // the snapshot is ahead of the last segment, continue in a new one
+            segment = null;
+        }
+        return replayed;
+    }
+
+    /**
+     * Appends the record with the next sequence and applies it to the state.
+     */
+    public synchronized JournalRecord append(JournalRecord record) throws IOException {
+        if (segment == null || segmentPosition == segmentRecords) {
+            openSegment(state.sequence() + 1);
+        }
+        JournalRecord appended = record.withSequence(state.sequence() + 1, System.currentTimeMillis());
+        appended.write(segment, segmentPosition * JournalRecord.SIZE);
+        segmentPosition++;
+        state.apply(appended);
+        return appended;
+    }
+
+    /**
+     * Writes the current state to a snapshot unless nothing was appended since the last one, then
+     * deletes the segments and snapshots that are no longer needed for recovery.
+     */
+    public void snapshot() throws IOException {
+        synchronized (snapshotLock) {
+            JournalSnapshot image;
+            synchronized (this) {
+                if (state.sequence() == snapshotSequence) {
+                    return;
+                }
+                // settled orders that outlived the previous snapshot will not see their pending record
+                image = state.image(snapshotSequence);
+            }
+            JournalSnapshots.write(directory, image);
+            synchronized (this) {
+                snapshotSequence = image.sequence();
+            }
+            JournalSnapshots.deleteBefore(directory, image.sequence());
+            List<Path> segments = segments();
+            for (int index = 0; index + 1 < segments.size(); index++) {
+                if (firstSequence(segments.get(index + 1)) <= image.sequence() + 1) {
+                    Files.deleteIfExists(segments.get(index));
+                }
+            }
+        }
+    }
+
+    public synchronized void force() {
+        if (segment != null) {
+            segment.force();
+        }
+    }
+
+    public synchronized long sequence() {
+        return state.sequence();
+    }
+
+    public synchronized int pendingCount() {
+        return state.pendingCount();
+    }
+
+    public synchronized PendingDigest pendingDigest() {
+        return state.digest();
+    }
+
+    public synchronized void forEachPendingOrder(Consumer<PendingOrder> consumer) {
+        state.forEachPendingOrder(consumer);
+    }
+
+    /**
+     * Whether nothing was ever appended, so the state holds no history.
+     */
+    public synchronized boolean isEmpty() {
+        return state.sequence() == 0;
+    }
+
+    @Override
+    public synchronized void close() {
+        force();
+        segment = null;
+    }
+
+    /**
+     * Deletes every segment and snapshot, so the next {@link #recover()} starts from an empty
+     * journal. The journal must not be used afterwards.
+     */
+    public synchronized void discard() throws IOException {
+        segment = null;
+        for (Path file : segments()) {
+            Files.deleteIfExists(file);
+        }
+        JournalSnapshots.deleteBefore(directory, Long.MAX_VALUE);
+    }
+
+    private void discardEarlierFormat() throws IOException {
+        List<Path> earlierSegments = files(EARLIER_SEGMENT_SUFFIX);
+        if (earlierSegments.isEmpty() && !JournalSnapshots.hasEarlierVersion(directory)) {
+            return;
+        }
+        for (Path file : earlierSegments) {
+            Files.deleteIfExists(file);
+        }
+        discard();
+        log.warn("Discarded a journal written in an earlier format from {}", directory);
+    }
+
+    private void openSegment(long firstSequence) throws IOException {
+        force();
+        Path file = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) segmentRecords * JournalRecord.SIZE);
+        }
+        segmentPosition = 0;
+    }
+
+    private MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) segmentRecords * JournalRecord.SIZE);
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        return files(SEGMENT_SUFFIX);
+    }
+
+    private List<Path> files(String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith(SEGMENT_PREFIX)
+                            && file.getFileName().toString().endsWith(suffix))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long firstSequence(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
@@ -0,0 +1,20 @@
+package com.emce.brokage.journal;
+
+import java.math.BigDecimal;
+
+/**
+ * Summary of a set of pending orders, cheap to compute on both the journal and the database: it
+ * changes whenever an order is missing from one side, pending on one side only or filled further
+ * on one side.
+ */
+public record PendingDigest(long count, long orderIdSum, BigDecimal filledSize) {
+
+    public PendingDigest(Long count, Long orderIdSum, BigDecimal filledSize) {
+        this(count == null ? 0 : count, orderIdSum == null ? 0 : orderIdSum,
+                filledSize == null ? BigDecimal.ZERO : filledSize);
+    }
+
+    boolean matches(PendingDigest other) {
+        return count == other.count && orderIdSum == other.orderIdSum && filledSize.compareTo(other.filledSize) == 0;
+    }
+}
@@ -0,0 +1,32 @@
+package com.emce.brokage.journal;
+
+import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.order.entity.OrderSide;
+import com.emce.brokage.order.entity.TimeInForce;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A pending order as recovered from the journal, amounts in hundredths and its expiry in epoch
+ * millis, 0 if it never expires. {@code filledUnits} is the part of its size matched so far.
+ */
+public record PendingOrder(int orderId, int customerId, AssetType assetName, OrderSide orderSide, long sizeUnits,
+                           long priceUnits, long filledUnits, TimeInForce timeInForce, long expiresAtMillis) {
+
+    public BigDecimal size() {
+        return JournalRecord.fromUnits(sizeUnits);
+    }
+
+    public BigDecimal price() {
+        return JournalRecord.fromUnits(priceUnits);
+    }
+
+    public BigDecimal filledSize() {
+        return JournalRecord.fromUnits(filledUnits);
+    }
+
+    public LocalDateTime expiresAt() {
+        return JournalRecord.fromEpochMillis(expiresAtMillis);
+    }
+}
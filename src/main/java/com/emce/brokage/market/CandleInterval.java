@@ -0,0 +1,36 @@
+package com.emce.brokage.market;
+
+import java.security.InvalidParameterException;
+import java.time.Duration;
+import java.util.Arrays;
+
+import static com.emce.brokage.common.Messages.CANDLE_INTERVAL_NOT_SUPPORTED_MSG;
+
+public enum CandleInterval {
+    ONE_SECOND("1s", Duration.ofSeconds(1)),
+    ONE_MINUTE("1m", Duration.ofMinutes(1)),
+    ONE_HOUR("1h", Duration.ofHours(1));
+
+    private final String code;
+    private final long millis;
+
+    CandleInterval(String code, Duration length) {
+        this.code = code;
+        this.millis = length.toMillis();
+    }
+
+    public String code() {
+        return code;
+    }
+
+    long millis() {
+        return millis;
+    }
+
+    public static CandleInterval fromCode(String code) {
+        return Arrays.stream(values())
+                .filter(interval -> interval.code.equals(code))
+                .findFirst()
+                .orElseThrow(() -> new InvalidParameterException(String.format(CANDLE_INTERVAL_NOT_SUPPORTED_MSG, code)));
+    }
+}
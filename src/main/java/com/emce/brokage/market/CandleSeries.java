@@ -0,0 +1,95 @@
+package com.emce.brokage.market;
+
+import com.emce.brokage.market.dto.Candle;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The latest candles of one asset and interval in a ring buffer. A trade lands in the slot of its
+ * bucket, reusing the slot of a candle that has fallen out of the window; a trade older than the
+ * window is dropped.
+ */
+final class CandleSeries {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final long intervalMillis;
+    private final long[] openTimes;
+    private final BigDecimal[] opens;
+    private final BigDecimal[] highs;
+    private final BigDecimal[] lows;
+    private final BigDecimal[] closes;
+    private final BigDecimal[] volumes;
+    private final int[] trades;
+    private long latestOpenTime = EMPTY;
+
+    CandleSeries(CandleInterval interval, int capacity) {
+        this.intervalMillis = interval.millis();
+        this.openTimes = new long[capacity];
+        this.opens = new BigDecimal[capacity];
+        this.highs = new BigDecimal[capacity];
+        this.lows = new BigDecimal[capacity];
+        this.closes = new BigDecimal[capacity];
+        this.volumes = new BigDecimal[capacity];
+        this.trades = new int[capacity];
+        Arrays.fill(openTimes, EMPTY);
+    }
+
+    synchronized void record(long timestamp, BigDecimal unitPrice, BigDecimal size) {
+        long openTime = timestamp - Math.floorMod(timestamp, intervalMillis);
+        int slot = slot(openTime);
+        if (openTimes[slot] == openTime) {
+            highs[slot] = highs[slot].max(unitPrice);
+            lows[slot] = lows[slot].min(unitPrice);
+            closes[slot] = unitPrice;
+            volumes[slot] = volumes[slot].add(size);
+            trades[slot]++;
+        } else if (openTimes[slot] < openTime) {
+            openTimes[slot] = openTime;
+            opens[slot] = unitPrice;
+            highs[slot] = unitPrice;
+            lows[slot] = unitPrice;
+            closes[slot] = unitPrice;
+            volumes[slot] = size;
+            trades[slot] = 1;
+            latestOpenTime = Math.max(latestOpenTime, openTime);
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} of the most recent candles in ascending time; buckets without
+     * trades are skipped.
+     */
+    synchronized List<Candle> latest(int limit) {
+        if (latestOpenTime == EMPTY) {
+            return List.of();
+        }
+        List<Candle> candles = new ArrayList<>(Math.min(limit, openTimes.length));
+        for (int back = 0; back < openTimes.length && candles.size() < limit; back++) {
+            long openTime = latestOpenTime - back * intervalMillis;
+            int slot = slot(openTime);
+            if (openTimes[slot] == openTime) {
+                candles.add(Candle.builder()
+                        .openTime(Instant.ofEpochMilli(openTime))
+                        .open(opens[slot])
+                        .high(highs[slot])
+                        .low(lows[slot])
+                        .close(closes[slot])
+                        .volume(volumes[slot])
+                        .trades(trades[slot])
+                        .build());
+            }
+        }
+        Collections.reverse(candles);
+        return candles;
+    }
+
+    private int slot(long openTime) {
+        return (int) Math.floorMod(openTime / intervalMillis, (long) openTimes.length);
+    }
+}
@@ -0,0 +1,37 @@
+package com.emce.brokage.market;
+
+import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.market.dto.Candle;
+import com.emce.brokage.market.dto.Ticker;
+import jakarta.validation.constraints.Positive;
+import lombok.RequiredArgsConstructor;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/market")
+@RequiredArgsConstructor
+@Validated
+public class MarketController {
+
+    private final MarketDataService marketDataService;
+
+    @GetMapping("/{assetName}/ticker")
+    public Ticker getTicker(@PathVariable("assetName") AssetType assetName) {
+        return marketDataService.getTicker(assetName);
+    }
+
+    @GetMapping("/{assetName}/candles")
+    public List<Candle> getCandles(
+            @PathVariable("assetName") AssetType assetName,
+            @RequestParam(value = "interval", defaultValue = "1m") String interval,
+            @RequestParam(value = "limit", defaultValue = "100") @Positive(message = "Limit must be a positive number") int limit) {
+        return marketDataService.getCandles(assetName, interval, limit);
+    }
+}
@@ -0,0 +1,98 @@
+package com.emce.brokage.market;
+
+import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.market.dto.Candle;
+import com.emce.brokage.market.dto.Ticker;
+import com.emce.brokage.order.event.TradeEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Market data built in memory from trades: a ticker with last price, VWAP and volume and OHLCV
+ * candles per {@link CandleInterval} for every asset. Each {@link TradeEvent} updates them
+ * incrementally after commit, so reading a chart never queries the orders table. Trades are taken
+ * from trade events rather than order events, which report both legs of a trade. The data covers
+ * the trades matched since the application started.
+ */
+@Service
+public class MarketDataService {
+
+    private static final int PRICE_SCALE = 8;
+
+    // created on an asset's first use, instruments can be listed while the application runs
+    private final Map<AssetType, TickerState> tickers = new ConcurrentHashMap<>();
+    private final Map<AssetType, Map<CandleInterval, CandleSeries>> candles = new ConcurrentHashMap<>();
+    private final int candleCapacity;
+
+    public MarketDataService(@Value("${application.market.candle-capacity}") int candleCapacity) {
+        this.candleCapacity = candleCapacity;
+    }
+
+    @TransactionalEventListener
+    public void onTradeEvent(TradeEvent event) {
+        recordTrade(event.assetName(), event.size(), event.amount(), Instant.now());
+    }
+
+    /**
+     * Records a match of {@code size} units for a total of {@code price} TRY.
+     */
+    void recordTrade(AssetType assetName, BigDecimal size, BigDecimal price, Instant matchedAt) {
+        BigDecimal unitPrice = price.divide(size, PRICE_SCALE, RoundingMode.HALF_UP);
+        tickers.computeIfAbsent(assetName, name -> new TickerState()).record(unitPrice, size, price, matchedAt);
+        candleSeries(assetName).values().forEach(series -> series.record(matchedAt.toEpochMilli(), unitPrice, size));
+    }
+
+    public Ticker getTicker(AssetType assetName) {
+        return tickers.computeIfAbsent(assetName, name -> new TickerState()).snapshot(assetName);
+    }
+
+    public List<Candle> getCandles(AssetType assetName, String interval, int limit) {
+        return candleSeries(assetName).get(CandleInterval.fromCode(interval)).latest(Math.min(limit, candleCapacity));
+    }
+
+    private Map<CandleInterval, CandleSeries> candleSeries(AssetType assetName) {
+        return candles.computeIfAbsent(assetName, name -> {
+            Map<CandleInterval, CandleSeries> series = new EnumMap<>(CandleInterval.class);
+            for (CandleInterval interval : CandleInterval.values()) {
+                series.put(interval, new CandleSeries(interval, candleCapacity));
+            }
+            return series;
+        });
+    }
+
+    private static final class TickerState {
+        private BigDecimal lastPrice;
+        private BigDecimal volume = BigDecimal.ZERO;
+        private BigDecimal notional = BigDecimal.ZERO;
+        private long trades;
+        private Instant lastTradeAt;
+
+        synchronized void record(BigDecimal unitPrice, BigDecimal size, BigDecimal price, Instant matchedAt) {
+            lastPrice = unitPrice;
+            volume = volume.add(size);
+            notional = notional.add(price);
+            trades++;
+            lastTradeAt = matchedAt;
+        }
+
+        synchronized Ticker snapshot(AssetType assetName) {
+            return Ticker.builder()
+                    .assetName(assetName)
+                    .lastPrice(lastPrice)
+                    .vwap(trades == 0 ? null : notional.divide(volume, PRICE_SCALE, RoundingMode.HALF_UP))
+                    .volume(volume)
+                    .trades(trades)
+                    .lastTradeAt(lastTradeAt)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.emce.brokage.market.dto;
+
+import lombok.Builder;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Builder
+public record Candle(Instant openTime, BigDecimal open, BigDecimal high, BigDecimal low, BigDecimal close,
+                     BigDecimal volume, int trades) {
+}
@@ -0,0 +1,16 @@
+package com.emce.brokage.market.dto;
+
+import com.emce.brokage.asset.entity.AssetType;
+import lombok.Builder;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Trading summary of an asset since the application started. Prices are unit prices in TRY,
+ * the volume is the matched size.
+ */
+@Builder
+public record Ticker(AssetType assetName, BigDecimal lastPrice, BigDecimal vwap, BigDecimal volume, long trades,
+                     Instant lastTradeAt) {
+}
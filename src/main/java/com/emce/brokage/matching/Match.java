@@ -0,0 +1,12 @@
+package com.emce.brokage.matching;
+
+import com.emce.brokage.asset.entity.AssetType;
+
+import java.math.BigDecimal;
+
+/**
+ * A fill crossed by an {@link OrderBook}: {@code size} units traded at {@code unitPrice}, the unit
+ * price of the resting order, which set the level the trade happened at.
+ */
+public record Match(AssetType assetName, int buyOrderId, int sellOrderId, BigDecimal size, BigDecimal unitPrice) {
+}
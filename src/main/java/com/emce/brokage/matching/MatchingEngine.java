@@ -0,0 +1,194 @@
+package com.emce.brokage.matching;
+
+import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.journal.JournalService;
+import com.emce.brokage.order.Fill;
+import com.emce.brokage.order.OrderRepository;
+import com.emce.brokage.order.OrderSettlementService;
+import com.emce.brokage.order.SettlementResult;
+import com.emce.brokage.order.entity.Order;
+import com.emce.brokage.order.entity.OrderStatus;
+import com.emce.brokage.order.event.OrderEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * Continuously crosses pending orders. Every asset has its own {@link OrderBook} owned by a single
+ * thread, so books never need locking and different assets match in parallel. Fills are queued
+ * and settled in batches through {@link OrderSettlementService}, one transaction per batch; an
+ * order whose fill could not be settled is put back into its book with the size the database says
+ * it has left. The
+ * books are rebuilt at startup from the journal's pending orders when the journal is enabled,
+ * otherwise from the pending orders in the database.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MatchingEngine {
+
+    private final OrderRepository orderRepository;
+    private final OrderSettlementService settlementService;
+    private final JournalService journalService;
+
+    @Value("${application.matching.enabled:true}")
+    private boolean enabled;
+    @Value("${application.matching.settlement-batch-size:500}")
+    private int settlementBatchSize;
+    @Value("${application.matching.retry-delay-ms:5000}")
+    private long retryDelayMillis;
+
+    // created on an asset's first order, instruments can be listed while the engine runs
+    private final Map<AssetType, OrderBook> books = new ConcurrentHashMap<>();
+    private final Map<AssetType, ExecutorService> executors = new ConcurrentHashMap<>();
+    private final BlockingQueue<Match> matches = new LinkedBlockingQueue<>();
+    // orders whose settlement failed, left out of the books until their retry is due
+    private final Queue<FailedMatch> failedMatches = new ConcurrentLinkedQueue<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildBooks() {
+        if (!enabled) {
+            return;
+        }
+        if (journalService.isEnabled()) {
+            // journal order is commit order, the same time priority the books had before the restart
+            int[] rebuilt = new int[1];
+            journalService.forEachPendingOrder(order -> {
+                submit(order.assetName(), RestingOrder.from(order));
+                rebuilt[0]++;
+            });
+            log.info("Matching engine started with {} pending orders from the journal", rebuilt[0]);
+            return;
+        }
+        List<Order> pending = orderRepository.findByStatus(OrderStatus.PENDING,
+                Sort.by("createdAt").and(Sort.by("id")));
+        pending.forEach(order -> submit(order.getAssetName(), RestingOrder.from(order)));
+        log.info("Matching engine started with {} pending orders", pending.size());
+    }
+
+    @TransactionalEventListener
+    public void onOrderEvent(OrderEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (event.isPartialFill()) {
+            // the fill was crossed by this engine, the book already holds what is left
+            return;
+        }
+        if (event.status() == OrderStatus.PENDING) {
+            submit(event.assetName(), RestingOrder.from(event));
+        } else {
+            onBook(event.assetName(), book -> book.remove(event.orderId()));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${application.matching.settlement-interval-ms:50}")
+    public void settleMatches() {
+        resubmitFailedMatches(System.currentTimeMillis());
+        List<Match> batch = new ArrayList<>(settlementBatchSize);
+        while (matches.drainTo(batch, settlementBatchSize) > 0) {
+            settle(batch);
+            batch.clear();
+        }
+    }
+
+    private void settle(List<Match> batch) {
+        try {
+            requeue(settlementService.settleFills(batch.stream().map(MatchingEngine::fill).toList()));
+        } catch (RuntimeException e) {
+            log.warn("Settling a batch of {} matches failed, retrying one by one", batch.size(), e);
+            for (Match match : batch) {
+                try {
+                    requeue(settlementService.settleFills(List.of(fill(match))));
+                } catch (RuntimeException retryException) {
+                    log.error("Settling orders {} and {} failed, returning them to the book in {} ms",
+                            match.buyOrderId(), match.sellOrderId(), retryDelayMillis, retryException);
+                    onBook(match.assetName(), book -> orderIds(match).forEach(book::remove));
+                    failedMatches.add(new FailedMatch(orderIds(match), System.currentTimeMillis() + retryDelayMillis));
+                }
+            }
+        }
+    }
+
+    /**
+     * Puts the orders of failed settlements that are still pending back into their books once
+     * their retry is due. They are read again because they may have been canceled meanwhile, and
+     * the delay keeps a persistent failure from being retried on every run.
+     */
+    private void resubmitFailedMatches(long nowMillis) {
+        FailedMatch failed;
+        while ((failed = failedMatches.peek()) != null && failed.retryAtMillis() <= nowMillis) {
+            failedMatches.poll();
+            try {
+                orderRepository.findAllById(failed.orderIds()).stream()
+                        .filter(order -> order.getStatus() == OrderStatus.PENDING)
+                        .forEach(order -> replace(order.getAssetName(), RestingOrder.from(order)));
+            } catch (RuntimeException e) {
+                log.error("Returning orders {} to the book failed", failed.orderIds(), e);
+                failedMatches.add(new FailedMatch(failed.orderIds(), nowMillis + retryDelayMillis));
+            }
+        }
+    }
+
+    private void requeue(SettlementResult result) {
+        result.unsettled().forEach(order -> replace(order.getAssetName(), RestingOrder.from(order)));
+    }
+
+    private void submit(AssetType assetName, RestingOrder order) {
+        onBook(assetName, book -> matches.addAll(book.add(order)));
+    }
+
+    private void replace(AssetType assetName, RestingOrder order) {
+        onBook(assetName, book -> matches.addAll(book.replace(order)));
+    }
+
+    private void onBook(AssetType assetName, Consumer<OrderBook> action) {
+        OrderBook book = books.computeIfAbsent(assetName, OrderBook::new);
+        executors.computeIfAbsent(assetName, MatchingEngine::newExecutor).execute(() -> {
+            try {
+                action.accept(book);
+            } catch (RuntimeException e) {
+                log.error("Order book {} rejected an update", assetName, e);
+            }
+        });
+    }
+
+    private static ExecutorService newExecutor(AssetType assetName) {
+        return Executors.newSingleThreadExecutor(Thread.ofPlatform().name("matching-" + assetName).daemon().factory());
+    }
+
+    private static Fill fill(Match match) {
+        return new Fill(match.buyOrderId(), match.sellOrderId(), match.size(), match.unitPrice());
+    }
+
+    private static List<Integer> orderIds(Match match) {
+        return List.of(match.buyOrderId(), match.sellOrderId());
+    }
+
+    private record FailedMatch(List<Integer> orderIds, long retryAtMillis) {
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executors.values().forEach(ExecutorService::shutdown);
+    }
+}
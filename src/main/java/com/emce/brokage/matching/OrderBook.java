@@ -0,0 +1,112 @@
+package com.emce.brokage.matching;
+
+import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.order.entity.OrderSide;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Price-time priority book for a single asset. An incoming order fills against the best opposite
+ * level while it crosses, oldest order first, and partially when sizes differ; what is left of it
+ * rests at its own unit price. Every fill trades at the resting order's unit price. Orders of the
+ * same customer never cross each other: they are stepped over, so only a customer's own orders at
+ * the top of a level cost extra work.
+ * <p>
+ * Not thread safe: every call is made from the asset's engine thread.
+ */
+final class OrderBook {
+
+    private final AssetType assetName;
+    private final PriceLevels bids = new PriceLevels(true);
+    private final PriceLevels asks = new PriceLevels(false);
+    private final Map<Integer, RestingOrder> ordersById = new HashMap<>();
+
+    OrderBook(AssetType assetName) {
+        this.assetName = assetName;
+    }
+
+    /**
+     * Crosses the order against the opposite side and rests what is left of it. Immediate or
+     * cancel orders are never rested; their expiry cancels what is left.
+     *
+     * @return the fills, oldest first, empty if the order only rests or is already in the book
+     */
+    List<Match> add(RestingOrder incoming) {
+        if (ordersById.containsKey(incoming.orderId)) {
+            return List.of();
+        }
+        List<Match> matches = new ArrayList<>(1);
+        boolean buying = incoming.side == OrderSide.BUY;
+        PriceLevels opposite = buying ? asks : bids;
+        int rank = 0;
+        while (incoming.remaining.signum() > 0 && rank < opposite.size()) {
+            PriceLevel level = opposite.level(rank);
+            if (buying ? level.price > incoming.unitPrice : level.price < incoming.unitPrice) {
+                break;
+            }
+            RestingOrder resting = level.head;
+            while (resting != null && resting.customerId == incoming.customerId) {
+                resting = resting.next;
+            }
+            if (resting == null) {
+                rank++;
+                continue;
+            }
+            BigDecimal size = incoming.remaining.min(resting.remaining);
+            incoming.remaining = incoming.remaining.subtract(size);
+            resting.remaining = resting.remaining.subtract(size);
+            BigDecimal unitPrice = BigDecimal.valueOf(level.price, RestingOrder.UNIT_PRICE_SCALE);
+            matches.add(buying
+                    ? new Match(assetName, incoming.orderId, resting.orderId, size, unitPrice)
+                    : new Match(assetName, resting.orderId, incoming.orderId, size, unitPrice));
+            if (resting.remaining.signum() == 0) {
+                remove(resting);
+            }
+        }
+        if (incoming.remaining.signum() > 0 && !incoming.immediateOrCancel) {
+            rest(incoming);
+        }
+        return matches;
+    }
+
+    /**
+     * Puts the order back with the size it has left, in place of the copy the book holds, for an
+     * order whose fills were not settled. It loses its time priority.
+     */
+    List<Match> replace(RestingOrder order) {
+        remove(order.orderId);
+        return add(order);
+    }
+
+    boolean remove(int orderId) {
+        RestingOrder order = ordersById.get(orderId);
+        if (order == null) {
+            return false;
+        }
+        remove(order);
+        return true;
+    }
+
+    int size() {
+        return ordersById.size();
+    }
+
+    private void rest(RestingOrder order) {
+        PriceLevels side = order.side == OrderSide.BUY ? bids : asks;
+        side.getOrCreate(order.unitPrice).append(order);
+        ordersById.put(order.orderId, order);
+    }
+
+    private void remove(RestingOrder order) {
+        PriceLevel level = order.level;
+        level.unlink(order);
+        if (level.isEmpty()) {
+            (order.side == OrderSide.BUY ? bids : asks).remove(level);
+        }
+        ordersById.remove(order.orderId);
+    }
+}
@@ -0,0 +1,47 @@
+package com.emce.brokage.matching;
+
+/**
+ * Orders resting at one unit price, oldest first.
+ */
+final class PriceLevel {
+
+    final long price;
+    RestingOrder head;
+    RestingOrder tail;
+
+    PriceLevel(long price) {
+        this.price = price;
+    }
+
+    void append(RestingOrder order) {
+        order.level = this;
+        order.prev = tail;
+        order.next = null;
+        if (tail == null) {
+            head = order;
+        } else {
+            tail.next = order;
+        }
+        tail = order;
+    }
+
+    void unlink(RestingOrder order) {
+        if (order.prev == null) {
+            head = order.next;
+        } else {
+            order.prev.next = order.next;
+        }
+        if (order.next == null) {
+            tail = order.prev;
+        } else {
+            order.next.prev = order.prev;
+        }
+        order.level = null;
+        order.prev = null;
+        order.next = null;
+    }
+
+    boolean isEmpty() {
+        return head == null;
+    }
+}
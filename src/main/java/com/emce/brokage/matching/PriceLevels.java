@@ -0,0 +1,81 @@
+package com.emce.brokage.matching;
+
+import java.util.Arrays;
+
+/**
+ * One side of a book: price levels kept in a sorted {@code long[]} with the best price at the end
+ * of the array, so new levels near the top of the book are inserted with short shifts.
+ */
+final class PriceLevels {
+
+    private final boolean bids;
+    private long[] prices = new long[16];
+    private PriceLevel[] levels = new PriceLevel[16];
+    private int size;
+
+    PriceLevels(boolean bids) {
+        this.bids = bids;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the level {@code rank} steps away from the best price, {@code 0} being the best.
+     */
+    PriceLevel level(int rank) {
+        return levels[size - 1 - rank];
+    }
+
+    PriceLevel getOrCreate(long price) {
+        int index = search(price);
+        if (index >= 0) {
+            return levels[index];
+        }
+        int insertAt = -index - 1;
+        if (size == prices.length) {
+            prices = Arrays.copyOf(prices, size * 2);
+            levels = Arrays.copyOf(levels, size * 2);
+        }
+        System.arraycopy(prices, insertAt, prices, insertAt + 1, size - insertAt);
+        System.arraycopy(levels, insertAt, levels, insertAt + 1, size - insertAt);
+        PriceLevel level = new PriceLevel(price);
+        prices[insertAt] = price;
+        levels[insertAt] = level;
+        size++;
+        return level;
+    }
+
+    void remove(PriceLevel level) {
+        int index = search(level.price);
+        if (index < 0) {
+            return;
+        }
+        System.arraycopy(prices, index + 1, prices, index, size - index - 1);
+        System.arraycopy(levels, index + 1, levels, index, size - index - 1);
+        levels[--size] = null;
+    }
+
+    /**
+     * Binary search over the stored order: ascending for bids (highest last), descending for asks
+     * (lowest last).
+     */
+    private int search(long price) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midPrice = prices[mid];
+            int cmp = bids ? Long.compare(midPrice, price) : Long.compare(price, midPrice);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+}
@@ -0,0 +1,67 @@
+package com.emce.brokage.matching;
+
+import com.emce.brokage.journal.PendingOrder;
+import com.emce.brokage.order.entity.Order;
+import com.emce.brokage.order.entity.OrderSide;
+import com.emce.brokage.order.entity.TimeInForce;
+import com.emce.brokage.order.event.OrderEvent;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * A pending order as held by an {@link OrderBook}. Orders are linked into their price level so
+ * they can be unlinked in constant time when canceled. {@code remaining} is the size still to be
+ * filled; the level is keyed by the unit price of the whole order.
+ */
+final class RestingOrder {
+
+    /** Number of decimal places kept when turning a total price into a per unit level key. */
+    static final int UNIT_PRICE_SCALE = 8;
+
+    final int orderId;
+    final int customerId;
+    final OrderSide side;
+    final BigDecimal size;
+    final BigDecimal price;
+    final long unitPrice;
+    final boolean immediateOrCancel;
+    BigDecimal remaining;
+
+    PriceLevel level;
+    RestingOrder prev;
+    RestingOrder next;
+
+    RestingOrder(int orderId, int customerId, OrderSide side, BigDecimal size, BigDecimal price) {
+        this(orderId, customerId, side, size, price, BigDecimal.ZERO, false);
+    }
+
+    RestingOrder(int orderId, int customerId, OrderSide side, BigDecimal size, BigDecimal price,
+                 BigDecimal filledSize, boolean immediateOrCancel) {
+        this.orderId = orderId;
+        this.customerId = customerId;
+        this.side = side;
+        this.size = size;
+        this.price = price;
+        this.unitPrice = price.divide(size, UNIT_PRICE_SCALE, RoundingMode.HALF_UP)
+                .movePointRight(UNIT_PRICE_SCALE)
+                .longValueExact();
+        this.immediateOrCancel = immediateOrCancel;
+        this.remaining = size.subtract(filledSize);
+    }
+
+    static RestingOrder from(OrderEvent event) {
+        return new RestingOrder(event.orderId(), event.customerId(), event.orderSide(), event.size(), event.price(),
+                event.filledSize(), event.timeInForce() == TimeInForce.IOC);
+    }
+
+    static RestingOrder from(PendingOrder order) {
+        return new RestingOrder(order.orderId(), order.customerId(), order.orderSide(), order.size(), order.price(),
+                order.filledSize(), order.timeInForce() == TimeInForce.IOC);
+    }
+
+    static RestingOrder from(Order order) {
+        return new RestingOrder(order.getId(), order.getCustomer().getId(), order.getOrderSide(),
+                order.getSize(), order.getPrice(), order.getFilledSize(), order.getTimeInForce() == TimeInForce.IOC);
+    }
+}
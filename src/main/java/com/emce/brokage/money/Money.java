@@ -0,0 +1,115 @@
+package com.emce.brokage.money;
+
+import com.emce.brokage.asset.entity.AssetType;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point amount or quantity: {@code units} counted in steps of {@code 10^-scale}, so sizes of
+ * an asset kept at its {@link AssetType#scale()} add, subtract and compare as plain {@code long}s.
+ * Arithmetic fails with an {@link ArithmeticException} instead of wrapping around; operands of
+ * different scales are brought to the larger one first. Like {@link BigDecimal}, equality includes
+ * the scale, use {@link #compareTo} to compare values.
+ */
+@JsonSerialize(using = MoneySerializer.class)
+@JsonDeserialize(using = MoneyDeserializer.class)
+public record Money(long units, int scale) implements Comparable<Money> {
+
+    /** Largest scale kept, the most decimal places a {@code long} can hold with room to spare. */
+    public static final int MAX_SCALE = 18;
+
+    private static final long[] POWERS_OF_TEN = new long[MAX_SCALE + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i <= MAX_SCALE; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    public Money {
+        if (scale < 0 || scale > MAX_SCALE) {
+            throw new IllegalArgumentException("Scale must be between 0 and " + MAX_SCALE + ": " + scale);
+        }
+    }
+
+    public static Money zero(AssetType assetType) {
+        return new Money(0, assetType.scale());
+    }
+
+    /**
+     * Exact conversion keeping the scale of the value, as read from a column or a JSON number.
+     *
+     * @throws ArithmeticException if the value does not fit
+     */
+    public static Money of(BigDecimal value) {
+        BigDecimal scaled = value.scale() < 0 ? value.setScale(0) : value;
+        if (scaled.scale() > MAX_SCALE) {
+            throw new ArithmeticException("Too many decimal places: " + value);
+        }
+        // scale 0 keeps a compact value compact, where unscaledValue() would build a BigInteger
+        return new Money(scaled.scaleByPowerOfTen(scaled.scale()).longValueExact(), scaled.scale());
+    }
+
+    /**
+     * Converts the value to the asset's scale, rounding half up the way a {@code NUMERIC} column does.
+     *
+     * @throws ArithmeticException if the value does not fit
+     */
+    public static Money of(BigDecimal value, AssetType assetType) {
+        return of(value.setScale(assetType.scale(), RoundingMode.HALF_UP));
+    }
+
+    public Money add(Money other) {
+        if (scale == other.scale) {
+            return new Money(Math.addExact(units, other.units), scale);
+        }
+        int common = Math.max(scale, other.scale);
+        return new Money(Math.addExact(unitsAt(common), other.unitsAt(common)), common);
+    }
+
+    public Money subtract(Money other) {
+        if (scale == other.scale) {
+            return new Money(Math.subtractExact(units, other.units), scale);
+        }
+        int common = Math.max(scale, other.scale);
+        return new Money(Math.subtractExact(unitsAt(common), other.unitsAt(common)), common);
+    }
+
+    public Money negate() {
+        return new Money(Math.negateExact(units), scale);
+    }
+
+    public int signum() {
+        return Long.signum(units);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        if (scale == other.scale) {
+            return Long.compare(units, other.units);
+        }
+        try {
+            int common = Math.max(scale, other.scale);
+            return Long.compare(unitsAt(common), other.unitsAt(common));
+        } catch (ArithmeticException e) {
+            return toBigDecimal().compareTo(other.toBigDecimal());
+        }
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(units, scale);
+    }
+
+    private long unitsAt(int targetScale) {
+        return Math.multiplyExact(units, POWERS_OF_TEN[targetScale - scale]);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
@@ -0,0 +1,29 @@
+package com.emce.brokage.money;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * Reads a {@link Money} from a JSON number or numeric string, keeping the decimal places given.
+ */
+public class MoneyDeserializer extends StdDeserializer<Money> {
+
+    public MoneyDeserializer() {
+        super(Money.class);
+    }
+
+    @Override
+    public Money deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        BigDecimal value = context.readValue(parser, BigDecimal.class);
+        try {
+            return Money.of(value);
+        } catch (ArithmeticException e) {
+            throw InvalidFormatException.from(parser, e.getMessage(), value, Money.class);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.emce.brokage.order;
+
+import java.math.BigDecimal;
+
+/**
+ * A trade between a pending buy and a pending sell order: {@code size} units at {@code unitPrice}
+ * TRY each, the price of the order that was resting in the book.
+ */
+public record Fill(Integer buyOrderId, Integer sellOrderId, BigDecimal size, BigDecimal unitPrice) {
+}
@@ -0,0 +1,116 @@
+package com.emce.brokage.order;
+
+import com.emce.brokage.order.entity.OrderStatus;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves settled orders that have not changed for {@code application.archive.min-age} from
+ * {@code orders} to {@code orders_archive}, so the hot table only grows with open and recent
+ * orders. Each batch is its own short transaction: the batch is the lowest ids that qualify, copied
+ * and deleted by id range, so rows are locked only for the duration of one batch.
+ * <p>
+ * The newest archived {@code created_at} is kept as a watermark. Listings whose date range starts
+ * after it never need to look at the archive.
+ */
+@Slf4j
+@Component
+public class OrderArchiver {
+
+    private static final String SETTLED = "'" + OrderStatus.MATCHED + "', '" + OrderStatus.CANCELED + "'";
+    private static final String ARCHIVABLE = "status IN (" + SETTLED + ") AND updated_at < ?";
+
+    private static final String SELECT_BATCH_IDS =
+            "SELECT id FROM orders WHERE " + ARCHIVABLE + " ORDER BY id FETCH FIRST ? ROWS ONLY";
+    private static final String COPY_BATCH =
+            "INSERT INTO orders_archive (id, asset_name, order_side, size, price, filled_size, filled_amount, status, customer_id, created_at, updated_at, version, "
+                    + "time_in_force, expires_at, archived_at) "
+                    + "SELECT id, asset_name, order_side, size, price, filled_size, filled_amount, status, customer_id, created_at, updated_at, version, "
+                    + "time_in_force, expires_at, ? "
+                    + "FROM orders WHERE " + ARCHIVABLE + " AND id BETWEEN ? AND ?";
+    private static final String DELETE_BATCH =
+            "DELETE FROM orders WHERE " + ARCHIVABLE + " AND id BETWEEN ? AND ?";
+    private static final String SELECT_WATERMARK = "SELECT MAX(created_at) FROM orders_archive";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration minAge;
+    private final int batchSize;
+
+    private volatile LocalDateTime archivedUntil;
+
+    public OrderArchiver(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                         @Value("${application.archive.enabled:true}") boolean enabled,
+                         @Value("${application.archive.min-age:30d}") Duration minAge,
+                         @Value("${application.archive.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.minAge = minAge;
+        this.batchSize = batchSize;
+    }
+
+    @PostConstruct
+    void loadWatermark() {
+        Timestamp watermark = jdbcTemplate.queryForObject(SELECT_WATERMARK, Timestamp.class);
+        archivedUntil = watermark == null ? null : watermark.toLocalDateTime();
+    }
+
+    /**
+     * Whether a listing with these filters may find rows in the archive. Pending orders are never
+     * archived, and nothing created after the watermark has been archived yet.
+     */
+    public boolean mayContain(OrderStatus status, LocalDateTime startDate) {
+        LocalDateTime watermark = archivedUntil;
+        return watermark != null
+                && status != OrderStatus.PENDING
+                && (startDate == null || !startDate.isAfter(watermark));
+    }
+
+    @Scheduled(fixedDelayString = "${application.archive.interval-ms:60000}",
+            initialDelayString = "${application.archive.interval-ms:60000}")
+    public void archive() {
+        if (!enabled) {
+            return;
+        }
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minus(minAge));
+        int archived = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            archived += moved;
+        } while (moved == batchSize);
+        if (archived > 0) {
+            loadWatermark();
+            log.info("Archived {} settled orders, archive now holds orders created up to {}", archived, archivedUntil);
+        }
+    }
+
+    private int archiveBatch(Timestamp cutoff) {
+        List<Integer> ids = jdbcTemplate.queryForList(SELECT_BATCH_IDS, Integer.class, cutoff, batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        Integer fromId = ids.get(0);
+        Integer toId = ids.get(ids.size() - 1);
+        // every qualifying row in [fromId, toId] is in ids, and settled rows never stop qualifying
+        int copied = jdbcTemplate.update(COPY_BATCH, Timestamp.valueOf(LocalDateTime.now()), cutoff, fromId, toId);
+        int deleted = jdbcTemplate.update(DELETE_BATCH, cutoff, fromId, toId);
+        if (copied != deleted) {
+            throw new IllegalStateException("Archived " + copied + " orders but deleted " + deleted);
+        }
+        return deleted;
+    }
+}
@@ -0,0 +1,92 @@
+package com.emce.brokage.order;
+
+import com.emce.brokage.asset.entity.Asset;
+import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.money.Money;
+import com.emce.brokage.order.entity.Order;
+import com.emce.brokage.order.entity.OrderSide;
+
+import java.math.BigDecimal;
+
+/**
+ * Asset bookkeeping for the life cycle of an order, shared by the single order endpoints and the
+ * batch paths so both move sizes the same way. Order sizes and prices are turned into
+ * {@link Money} at the scale of the asset they move, so the asset arithmetic is done on longs.
+ * Releases and fills only touch the part of an order that is not filled yet, see {@link OrderFills}.
+ */
+final class OrderAssetMovements {
+
+    private OrderAssetMovements() {
+    }
+
+    static boolean canReserve(Order order, Asset tryAsset, Asset orderAsset) {
+        return canReserve(order.getOrderSide(), Money.of(order.getSize(), orderAsset.getAssetName()),
+                Money.of(order.getPrice(), AssetType.TRY), tryAsset.getUsableSize(), orderAsset.getUsableSize());
+    }
+
+    static boolean canReserve(OrderSide orderSide, Money size, Money price, Money tryUsableSize, Money orderUsableSize) {
+        if (orderSide == OrderSide.SELL) {
+            return orderUsableSize.compareTo(size) >= 0;
+        } else if (orderSide == OrderSide.BUY) {
+            return tryUsableSize.compareTo(price) >= 0;
+        }
+        return true;
+    }
+
+    static void reserve(Order order, Asset tryAsset, Asset orderAsset) {
+        Money size = Money.of(order.getSize(), orderAsset.getAssetName());
+        Money price = Money.of(order.getPrice(), AssetType.TRY);
+        if (order.getOrderSide() == OrderSide.SELL) {
+            orderAsset.setUsableSize(orderAsset.getUsableSize().subtract(size));
+            tryAsset.setSize(tryAsset.getSize().add(price));
+        } else if (order.getOrderSide() == OrderSide.BUY) {
+            orderAsset.setSize(orderAsset.getSize().add(size));
+            tryAsset.setUsableSize(tryAsset.getUsableSize().subtract(price));
+        }
+    }
+
+    static void release(Order order, Asset tryAsset, Asset orderAsset) {
+        release(order.getOrderSide(), OrderFills.remainingSize(order), OrderFills.remainingPrice(order),
+                tryAsset, orderAsset);
+    }
+
+    /** Releases the summed size and price of several orders on the same side in one step. */
+    static void release(OrderSide orderSide, BigDecimal totalSize, BigDecimal totalPrice, Asset tryAsset, Asset orderAsset) {
+        Money size = Money.of(totalSize, orderAsset.getAssetName());
+        Money price = Money.of(totalPrice, AssetType.TRY);
+        if (orderSide == OrderSide.SELL) {
+            tryAsset.setSize(tryAsset.getSize().subtract(price));
+            orderAsset.setUsableSize(orderAsset.getUsableSize().add(size));
+        } else if (orderSide == OrderSide.BUY) {
+            tryAsset.setUsableSize(tryAsset.getUsableSize().add(price));
+            orderAsset.setSize(orderAsset.getSize().subtract(size));
+        }
+    }
+
+    /** Fills the rest of the order at its own price. */
+    static void settle(Order order, Asset tryAsset, Asset orderAsset) {
+        fill(order, OrderFills.remainingSize(order), OrderFills.remainingPrice(order), tryAsset, orderAsset);
+    }
+
+    /**
+     * Fills {@code size} of the order for {@code amount} TRY and records the fill on the order. The
+     * buyer pays the amount out of the reservation the fill consumes and gets the rest back; the
+     * seller is credited the amount in place of the price it expected.
+     */
+    static void fill(Order order, BigDecimal size, BigDecimal amount, Asset tryAsset, Asset orderAsset) {
+        Money filled = Money.of(size, orderAsset.getAssetName());
+        Money executed = Money.of(amount, AssetType.TRY);
+        Money reserved = Money.of(OrderFills.reservedFor(order, size), AssetType.TRY);
+        if (order.getOrderSide() == OrderSide.SELL) {
+            tryAsset.setSize(tryAsset.getSize().add(executed).subtract(reserved));
+            tryAsset.setUsableSize(tryAsset.getUsableSize().add(executed));
+            orderAsset.setSize(orderAsset.getSize().subtract(filled));
+        } else if (order.getOrderSide() == OrderSide.BUY) {
+            tryAsset.setSize(tryAsset.getSize().subtract(executed));
+            tryAsset.setUsableSize(tryAsset.getUsableSize().add(reserved).subtract(executed));
+            orderAsset.setUsableSize(orderAsset.getUsableSize().add(filled));
+        }
+        order.setFilledSize(order.getFilledSize().add(size));
+        order.setFilledAmount(order.getFilledAmount().add(amount));
+    }
+}
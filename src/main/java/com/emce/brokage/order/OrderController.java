@@ -1,17 +1,33 @@
 package com.emce.brokage.order;
 
 import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.etag.CustomerVersions;
+import com.emce.brokage.order.dto.BatchOrderRequest;
+import com.emce.brokage.order.dto.BatchOrderResponse;
+import com.emce.brokage.order.dto.BulkMatchRequest;
+import com.emce.brokage.order.dto.BulkMatchResponse;
+import com.emce.brokage.order.dto.CancelAllResponse;
+import com.emce.brokage.order.dto.OrderIntakeResponse;
 import com.emce.brokage.order.dto.OrderRequest;
 import com.emce.brokage.order.dto.OrderResponse;
+import com.emce.brokage.order.dto.OrderSliceResponse;
 import com.emce.brokage.order.entity.OrderSide;
 import com.emce.brokage.order.entity.OrderStatus;
+import com.emce.brokage.order.intake.OrderIntakeService;
+import com.emce.brokage.order.stream.OrderEventHub;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -19,33 +35,69 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 
+import static com.emce.brokage.idempotency.IdempotencyService.IDEMPOTENCY_KEY_HEADER;
+
 @RestController
 @RequestMapping("/api/v1/order")
 @RequiredArgsConstructor
 public class OrderController {
     private final OrderService orderService;
+    private final OrderIntakeService orderIntakeService;
+    private final OrderExportService orderExportService;
+    private final OrderEventHub orderEventHub;
+    private final CustomerVersions customerVersions;
 
     @PostMapping("/create")
-    public ResponseEntity<OrderResponse> createOrder(@Valid @RequestBody OrderRequest orderRequest){
-        return new ResponseEntity<>(orderService.createOrder(orderRequest), HttpStatus.CREATED);
+    public ResponseEntity<OrderResponse> createOrder(@Valid @RequestBody OrderRequest orderRequest,
+                                                     @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey){
+        return new ResponseEntity<>(orderService.createOrder(orderRequest, idempotencyKey), HttpStatus.CREATED);
+    }
+    @PostMapping(value = "/create", params = "async=true")
+    public ResponseEntity<OrderIntakeResponse> submitOrder(@Valid @RequestBody OrderRequest orderRequest){
+        return new ResponseEntity<>(orderIntakeService.submit(orderRequest), HttpStatus.ACCEPTED);
+    }
+    @GetMapping("/intake/{sequence}")
+    public ResponseEntity<OrderIntakeResponse> getIntakeStatus(
+            @PathVariable("sequence") @PositiveOrZero(message = "Sequence must not be negative") Long sequence) {
+        return ResponseEntity.ok(orderIntakeService.getStatus(sequence));
+    }
+    @PostMapping("/batch")
+    public ResponseEntity<BatchOrderResponse> createOrders(@Valid @RequestBody BatchOrderRequest batchOrderRequest){
+        return ResponseEntity.ok(orderService.createOrders(batchOrderRequest));
     }
     @DeleteMapping("/cancel/{orderId}")
     public ResponseEntity<OrderResponse> cancelOrder(
             @PathVariable("orderId") @Positive(message = "Order ID must be a positive number") Integer orderId) {
         return ResponseEntity.ok(orderService.cancelOrder(orderId));
     }
+    @DeleteMapping("/cancel-all/{customerId}")
+    public ResponseEntity<CancelAllResponse> cancelAllOrders(
+            @PathVariable("customerId") @Positive(message = "Customer ID must be a positive number") Integer customerId,
+            @RequestParam(value = "assetName", required = false) AssetType assetName,
+            @RequestParam(value = "orderSide", required = false) OrderSide orderSide) {
+        return ResponseEntity.ok(orderService.cancelAllOrders(customerId, assetName, orderSide));
+    }
     @PutMapping("/match/{orderId}")
     public ResponseEntity<OrderResponse> matchOrder(
             @PathVariable("orderId") @Positive(message = "Order ID must be a positive number") Integer orderId) {
         return ResponseEntity.ok(orderService.matchOrder(orderId));
     }
 
+    @PutMapping("/match")
+    public ResponseEntity<BulkMatchResponse> matchOrders(@Valid @RequestBody BulkMatchRequest bulkMatchRequest) {
+        return ResponseEntity.ok(orderService.matchOrders(bulkMatchRequest));
+    }
+
     @GetMapping("/list/{customerId}")
     public Page<OrderResponse> getOrders(
             @PathVariable("customerId") @Positive(message = "Customer ID must be a positive number") Integer customerId,
@@ -54,7 +106,51 @@ public class OrderController {
             @RequestParam(value = "status", required = false) OrderStatus status,
             @RequestParam(value = "startDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam(value = "endDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
-            Pageable pageable) {
+            Pageable pageable, WebRequest webRequest) {
+        if (webRequest.checkNotModified(customerVersions.eTag(customerId))) {
+            return null; // 304 and the ETag are already set on the response
+        }
         return orderService.listOrders(customerId, assetName, orderSide, status, startDate, endDate, pageable);
     }
+
+    @GetMapping("/list/{customerId}/cursor")
+    public OrderSliceResponse getOrdersAfter(
+            @PathVariable("customerId") @Positive(message = "Customer ID must be a positive number") Integer customerId,
+            @RequestParam(value = "assetName", required = false) AssetType assetName,
+            @RequestParam(value = "orderSide", required = false) OrderSide orderSide,
+            @RequestParam(value = "status", required = false) OrderStatus status,
+            @RequestParam(value = "startDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(value = "endDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "20") @Min(value = 1, message = "Size must be at least 1")
+            @Max(value = 1000, message = "Size must be at most 1000") int size, WebRequest webRequest) {
+        if (webRequest.checkNotModified(customerVersions.eTag(customerId))) {
+            return null; // 304 and the ETag are already set on the response
+        }
+        return orderService.listOrdersAfter(customerId, assetName, orderSide, status, startDate, endDate, cursor, size);
+    }
+
+    @GetMapping("/export/{customerId}")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @PathVariable("customerId") @Positive(message = "Customer ID must be a positive number") Integer customerId,
+            @RequestParam(value = "assetName", required = false) AssetType assetName,
+            @RequestParam(value = "orderSide", required = false) OrderSide orderSide,
+            @RequestParam(value = "status", required = false) OrderStatus status,
+            @RequestParam(value = "startDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(value = "endDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(value = "format", defaultValue = "NDJSON") OrderExportFormat format) {
+        StreamingResponseBody body = orderExportService.exportOrders(customerId, assetName, orderSide, status, startDate, endDate, format);
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("orders-" + customerId + "." + format.getFileExtension())
+                        .build().toString())
+                .body(body);
+    }
+
+    @GetMapping(value = "/stream/{customerId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrders(
+            @PathVariable("customerId") @Positive(message = "Customer ID must be a positive number") Integer customerId) {
+        return orderEventHub.subscribe(customerId);
+    }
 }
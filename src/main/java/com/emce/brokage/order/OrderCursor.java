@@ -0,0 +1,40 @@
+package com.emce.brokage.order;
+
+import com.emce.brokage.order.OrderHistoryRepository.HistoryRow;
+
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidParameterException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import static com.emce.brokage.common.Messages.INVALID_ORDER_CURSOR_MSG;
+
+/**
+ * Position of the last order of a slice in the {@code (createdAt, id)} order used by keyset
+ * listing. Clients only see the encoded form and hand it back unchanged to fetch the next slice.
+ */
+record OrderCursor(LocalDateTime createdAt, Integer id) {
+
+    private static final char SEPARATOR = '|';
+
+    static OrderCursor of(HistoryRow row) {
+        return new OrderCursor(row.response().createDate(), row.id());
+    }
+
+    String encode() {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static OrderCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new OrderCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Integer.valueOf(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new InvalidParameterException(INVALID_ORDER_CURSOR_MSG);
+        }
+    }
+}
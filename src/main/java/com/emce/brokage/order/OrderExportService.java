@@ -0,0 +1,112 @@
+package com.emce.brokage.order;
+
+import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.order.dto.OrderResponse;
+import com.emce.brokage.order.entity.Order;
+import com.emce.brokage.order.entity.OrderSide;
+import com.emce.brokage.order.entity.OrderStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+/**
+ * Streams a customer's whole order history oldest first. Rows are read over a JDBC cursor inside
+ * a read-only transaction and written out one at a time, so memory use does not depend on how
+ * many orders the customer has.
+ */
+@Service
+public class OrderExportService {
+
+    static final String CSV_HEADER = "customerId,assetName,side,size,price,filledSize,filledAmount,status,createDate,updateDate";
+    private static final Sort EXPORT_SORT = Sort.by("createdAt", "id");
+
+    private final OrderRepository orderRepository;
+    private final OrderHistoryRepository orderHistoryRepository;
+    private final OrderArchiver orderArchiver;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int fetchSize;
+
+    public OrderExportService(OrderRepository orderRepository, OrderHistoryRepository orderHistoryRepository,
+                              OrderArchiver orderArchiver, ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${application.export.fetch-size:500}") int fetchSize) {
+        this.orderRepository = orderRepository;
+        this.orderHistoryRepository = orderHistoryRepository;
+        this.orderArchiver = orderArchiver;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.fetchSize = fetchSize;
+    }
+
+    @PreAuthorize("#customerId == authentication.principal.id")
+    public StreamingResponseBody exportOrders(Integer customerId, AssetType assetName, OrderSide orderSide, OrderStatus status,
+            LocalDateTime startDate, LocalDateTime endDate, OrderExportFormat format) {
+
+        Specification<Order> spec = OrderService.getSpesifications(customerId, assetName, orderSide, status, startDate, endDate);
+        OrderFilter filter = new OrderFilter(customerId, assetName, orderSide, status, startDate, endDate);
+        boolean includeArchive = orderArchiver.mayContain(status, startDate);
+
+        return outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            if (format == OrderExportFormat.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+            }
+            transactionTemplate.executeWithoutResult(transactionStatus -> {
+                if (includeArchive) {
+                    orderHistoryRepository.streamResponses(filter, fetchSize, order -> writeLine(writer, order, format));
+                    return;
+                }
+                try (Stream<OrderResponse> orders = orderRepository.streamResponses(spec, EXPORT_SORT, fetchSize)) {
+                    orders.forEach(order -> writeLine(writer, order, format));
+                }
+            });
+            writer.flush();
+        };
+    }
+
+    private void writeLine(Writer writer, OrderResponse order, OrderExportFormat format) {
+        try {
+            if (format == OrderExportFormat.CSV) {
+                writer.write(toCsv(order));
+            } else {
+                writer.write(objectMapper.writeValueAsString(order));
+            }
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // every column is a number, an enum name or an ISO timestamp, so nothing needs quoting
+    private static String toCsv(OrderResponse order) {
+        return String.join(",",
+                String.valueOf(order.customerId()),
+                String.valueOf(order.assetName()),
+                String.valueOf(order.side()),
+                order.size().toPlainString(),
+                order.price().toPlainString(),
+                order.filledSize().toPlainString(),
+                order.filledAmount().toPlainString(),
+                String.valueOf(order.status()),
+                String.valueOf(order.createDate()),
+                String.valueOf(order.updateDate()));
+    }
+}
@@ -0,0 +1,42 @@
+package com.emce.brokage.order;
+
+import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.order.entity.Order;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Reservation arithmetic of partially filled orders. An order reserves its whole price when it is
+ * created; while it is pending, the share of the price that belongs to its unfilled size stays
+ * reserved, rounded half up to the TRY scale. A fill therefore consumes the difference of the
+ * remaining price before and after it, and the last fill consumes whatever rounding left over.
+ */
+public final class OrderFills {
+
+    private OrderFills() {
+    }
+
+    /** Price still reserved by an order of {@code size} for {@code price} once {@code filledSize} is matched. */
+    public static BigDecimal remainingPrice(BigDecimal size, BigDecimal price, BigDecimal filledSize) {
+        if (filledSize.signum() == 0) {
+            return price;
+        }
+        return price.multiply(size.subtract(filledSize))
+                .divide(size, AssetType.TRY.scale(), RoundingMode.HALF_UP);
+    }
+
+    public static BigDecimal remainingPrice(Order order) {
+        return remainingPrice(order.getSize(), order.getPrice(), order.getFilledSize());
+    }
+
+    public static BigDecimal remainingSize(Order order) {
+        return order.getSize().subtract(order.getFilledSize());
+    }
+
+    /** Part of the order's reservation a fill of {@code fillSize} consumes. */
+    public static BigDecimal reservedFor(Order order, BigDecimal fillSize) {
+        return remainingPrice(order)
+                .subtract(remainingPrice(order.getSize(), order.getPrice(), order.getFilledSize().add(fillSize)));
+    }
+}
@@ -0,0 +1,14 @@
+package com.emce.brokage.order;
+
+import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.order.entity.OrderSide;
+import com.emce.brokage.order.entity.OrderStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Listing filters of one customer, the SQL counterpart of {@link OrderService#getSpesifications}.
+ */
+record OrderFilter(Integer customerId, AssetType assetName, OrderSide orderSide, OrderStatus status,
+                   LocalDateTime startDate, LocalDateTime endDate) {
+}
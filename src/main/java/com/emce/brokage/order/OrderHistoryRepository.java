@@ -0,0 +1,171 @@
+package com.emce.brokage.order;
+
+import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.order.dto.OrderResponse;
+import com.emce.brokage.order.entity.OrderSide;
+import com.emce.brokage.order.entity.OrderStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.security.InvalidParameterException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.function.Consumer;
+
+import static com.emce.brokage.common.Messages.ORDER_SORT_PROPERTY_NOT_SUPPORTED_MSG;
+
+/**
+ * Reads a customer's orders from the hot {@code orders} table and {@code orders_archive} together.
+ * Only used when {@link OrderArchiver#mayContain} says the archive is relevant; everything else
+ * stays on the JPA listing path.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderHistoryRepository {
+
+    private static final String COLUMNS = "id, customer_id, asset_name, order_side, size, price, filled_size, filled_amount, status, created_at, updated_at";
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "id",
+            "assetName", "asset_name",
+            "orderSide", "order_side",
+            "size", "size",
+            "price", "price",
+            "status", "status",
+            "createdAt", "created_at",
+            "updatedAt", "updated_at");
+
+    private static final RowMapper<HistoryRow> ROW_MAPPER = OrderHistoryRepository::mapRow;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+
+    /**
+     * A listed order with its id, which {@link OrderResponse} does not carry but the keyset cursor
+     * needs.
+     */
+    record HistoryRow(Integer id, OrderResponse response) {
+    }
+
+    Page<OrderResponse> findResponses(OrderFilter filter, Pageable pageable) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String where = where(filter, params);
+        StringBuilder sql = new StringBuilder(union(where)).append(" ORDER BY ").append(orderBy(pageable.getSort()));
+        if (pageable.isPaged()) {
+            sql.append(" OFFSET :offset ROWS FETCH NEXT :limit ROWS ONLY");
+            params.addValue("offset", pageable.getOffset()).addValue("limit", pageable.getPageSize());
+        }
+        List<OrderResponse> content = jdbcTemplate.query(sql.toString(), params, ROW_MAPPER).stream()
+                .map(HistoryRow::response)
+                .toList();
+        return PageableExecutionUtils.getPage(content, pageable, () -> jdbcTemplate.queryForObject(
+                "SELECT (SELECT COUNT(*) FROM orders WHERE " + where + ") + (SELECT COUNT(*) FROM orders_archive WHERE " + where + ")",
+                params, Long.class));
+    }
+
+    /**
+     * Newest first, strictly before the cursor when one is given.
+     */
+    List<HistoryRow> findAfter(OrderFilter filter, OrderCursor cursor, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String where = where(filter, params);
+        if (cursor != null) {
+            where += " AND created_at <= :cursorCreatedAt AND (created_at < :cursorCreatedAt OR id < :cursorId)";
+            params.addValue("cursorCreatedAt", Timestamp.valueOf(cursor.createdAt())).addValue("cursorId", cursor.id());
+        }
+        params.addValue("limit", limit);
+        return jdbcTemplate.query(union(where) + " ORDER BY created_at DESC, id DESC FETCH FIRST :limit ROWS ONLY",
+                params, ROW_MAPPER);
+    }
+
+    /**
+     * Oldest first over a forward-only cursor reading {@code fetchSize} rows per round trip. Must run
+     * inside a transaction so the driver can keep the cursor open.
+     */
+    void streamResponses(OrderFilter filter, int fetchSize, Consumer<OrderResponse> consumer) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String sql = union(where(filter, params)) + " ORDER BY created_at, id";
+        JdbcTemplate streamingTemplate = new JdbcTemplate(dataSource);
+        streamingTemplate.setFetchSize(fetchSize);
+        RowCallbackHandler handler = resultSet -> consumer.accept(mapRow(resultSet, 0).response());
+        new NamedParameterJdbcTemplate(streamingTemplate).query(sql, params, handler);
+    }
+
+    private static String union(String where) {
+        return "SELECT " + COLUMNS + " FROM orders WHERE " + where
+                + " UNION ALL SELECT " + COLUMNS + " FROM orders_archive WHERE " + where;
+    }
+
+    private static String where(OrderFilter filter, MapSqlParameterSource params) {
+        StringJoiner where = new StringJoiner(" AND ");
+        where.add("customer_id = :customerId");
+        params.addValue("customerId", filter.customerId());
+        if (filter.assetName() != null) {
+            where.add("asset_name = :assetName");
+            params.addValue("assetName", filter.assetName().name());
+        }
+        if (filter.orderSide() != null) {
+            where.add("order_side = :orderSide");
+            params.addValue("orderSide", filter.orderSide().name());
+        }
+        if (filter.status() != null) {
+            where.add("status = :status");
+            params.addValue("status", filter.status().name());
+        }
+        if (filter.startDate() != null) {
+            where.add("created_at >= :startDate");
+            params.addValue("startDate", Timestamp.valueOf(filter.startDate()));
+        }
+        if (filter.endDate() != null) {
+            where.add("created_at <= :endDate");
+            params.addValue("endDate", Timestamp.valueOf(filter.endDate()));
+        }
+        return where.toString();
+    }
+
+    // sort properties are mapped through a fixed list of columns, never concatenated as given
+    private static String orderBy(Sort sort) {
+        StringJoiner orderBy = new StringJoiner(", ");
+        boolean byId = false;
+        for (Sort.Order order : sort) {
+            String column = SORT_COLUMNS.get(order.getProperty());
+            if (column == null) {
+                throw new InvalidParameterException(String.format(ORDER_SORT_PROPERTY_NOT_SUPPORTED_MSG, order.getProperty()));
+            }
+            orderBy.add(column + (order.isAscending() ? " ASC" : " DESC"));
+            byId |= column.equals("id");
+        }
+        if (!byId) {
+            orderBy.add("id");
+        }
+        return orderBy.toString();
+    }
+
+    private static HistoryRow mapRow(ResultSet resultSet, int rowNum) throws SQLException {
+        return new HistoryRow(resultSet.getInt("id"), OrderResponse.builder()
+                .customerId(resultSet.getInt("customer_id"))
+                .assetName(AssetType.valueOf(resultSet.getString("asset_name")))
+                .side(OrderSide.valueOf(resultSet.getString("order_side")))
+                .size(resultSet.getBigDecimal("size"))
+                .price(resultSet.getBigDecimal("price"))
+                .filledSize(resultSet.getBigDecimal("filled_size"))
+                .filledAmount(resultSet.getBigDecimal("filled_amount"))
+                .status(OrderStatus.valueOf(resultSet.getString("status")))
+                .createDate(resultSet.getTimestamp("created_at").toLocalDateTime())
+                .updateDate(resultSet.getTimestamp("updated_at").toLocalDateTime())
+                .build());
+    }
+}
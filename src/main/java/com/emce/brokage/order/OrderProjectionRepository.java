@@ -0,0 +1,33 @@
+package com.emce.brokage.order;
+
+import com.emce.brokage.order.OrderHistoryRepository.HistoryRow;
+import com.emce.brokage.order.dto.OrderResponse;
+import com.emce.brokage.order.entity.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface OrderProjectionRepository {
+
+    /**
+     * Reads the orders matching the specification straight into {@link OrderResponse}, selecting
+     * only the columns it needs. No entity is hydrated and the customer is not joined.
+     */
+    Page<OrderResponse> findResponses(Specification<Order> spec, Pageable pageable);
+
+    /**
+     * Streams the same projection over a forward-only JDBC cursor that fetches {@code fetchSize}
+     * rows per round trip. Must be consumed and closed inside a transaction.
+     */
+    Stream<OrderResponse> streamResponses(Specification<Order> spec, Sort sort, int fetchSize);
+
+    /**
+     * Reads the first {@code limit} orders of the same projection together with their ids, which
+     * keyset pagination needs for its cursor.
+     */
+    List<HistoryRow> findRows(Specification<Order> spec, Sort sort, int limit);
+}
@@ -0,0 +1,107 @@
+package com.emce.brokage.order;
+
+import com.emce.brokage.order.OrderHistoryRepository.HistoryRow;
+import com.emce.brokage.order.dto.OrderResponse;
+import com.emce.brokage.order.entity.Order;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CompoundSelection;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+class OrderProjectionRepositoryImpl implements OrderProjectionRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Page<OrderResponse> findResponses(Specification<Order> spec, Pageable pageable) {
+        TypedQuery<OrderResponse> typedQuery = entityManager.createQuery(selectResponses(spec, pageable.getSort()));
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        List<OrderResponse> content = typedQuery.getResultList();
+        // the count only runs when the page is full, a short page already tells the total
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(spec));
+    }
+
+    @Override
+    public Stream<OrderResponse> streamResponses(Specification<Order> spec, Sort sort, int fetchSize) {
+        return entityManager.createQuery(selectResponses(spec, sort))
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public List<HistoryRow> findRows(Specification<Order> spec, Sort sort, int limit) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<Order> root = query.from(Order.class);
+        query.multiselect(root.get("id"), response(root, criteriaBuilder));
+        applySpecification(spec, root, query, criteriaBuilder);
+        query.orderBy(QueryUtils.toOrders(sort, root, criteriaBuilder));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultStream()
+                .map(tuple -> new HistoryRow(tuple.get(0, Integer.class), tuple.get(1, OrderResponse.class)))
+                .toList();
+    }
+
+    private CriteriaQuery<OrderResponse> selectResponses(Specification<Order> spec, Sort sort) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<OrderResponse> query = criteriaBuilder.createQuery(OrderResponse.class);
+        Root<Order> root = query.from(Order.class);
+        query.select(response(root, criteriaBuilder));
+        applySpecification(spec, root, query, criteriaBuilder);
+        query.orderBy(QueryUtils.toOrders(sort, root, criteriaBuilder));
+        return query;
+    }
+
+    private static CompoundSelection<OrderResponse> response(Root<Order> root, CriteriaBuilder criteriaBuilder) {
+        // customer.id resolves to the customer_id column, so the customer table is never joined
+        return criteriaBuilder.construct(OrderResponse.class,
+                root.get("customer").get("id"),
+                root.get("assetName"),
+                root.get("orderSide"),
+                root.get("size"),
+                root.get("price"),
+                root.get("filledSize"),
+                root.get("filledAmount"),
+                root.get("status"),
+                root.get("createdAt"),
+                root.get("updatedAt"));
+    }
+
+    private long count(Specification<Order> spec) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<Order> root = query.from(Order.class);
+        query.select(criteriaBuilder.count(root));
+        applySpecification(spec, root, query, criteriaBuilder);
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static void applySpecification(Specification<Order> spec, Root<Order> root, CriteriaQuery<?> query,
+                                           CriteriaBuilder criteriaBuilder) {
+        Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+}
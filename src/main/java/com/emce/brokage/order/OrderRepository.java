@@ -2,19 +2,31 @@ package com.emce.brokage.order;
 
 import com.emce.brokage.asset.entity.AssetType;
 import com.emce.brokage.auth.entity.Customer;
+import com.emce.brokage.journal.PendingDigest;
 import com.emce.brokage.order.entity.Order;
 import com.emce.brokage.order.entity.OrderSide;
 import com.emce.brokage.order.entity.OrderStatus;
+import com.emce.brokage.order.event.OrderEvent;
+import com.emce.brokage.order.expiry.PendingExpiry;
+import com.emce.brokage.risk.CustomerExposure;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Integer>, JpaSpecificationExecutor<Order> {
+public interface OrderRepository extends JpaRepository<Order, Integer>, JpaSpecificationExecutor<Order>, OrderProjectionRepository {
     Page<Order> findByCustomerIdAndAssetNameAndOrderSideAndStatusAndCreatedAtBetween(
             Integer customerId,
             AssetType assetName,
@@ -23,4 +35,85 @@ public interface OrderRepository extends JpaRepository<Order, Integer>, JpaSpeci
             LocalDateTime startDate,
             LocalDateTime endDate,
             Pageable pageable);
+
+    List<Order> findByStatus(OrderStatus status, Sort sort);
+
+    @Query("SELECT new com.emce.brokage.order.expiry.PendingExpiry(o.id, o.expiresAt) FROM Order o " +
+            "WHERE o.status = com.emce.brokage.order.entity.OrderStatus.PENDING AND o.expiresAt IS NOT NULL AND o.id > :afterId " +
+            "ORDER BY o.id")
+    List<PendingExpiry> findPendingExpiries(@Param("afterId") Integer afterId, Limit limit);
+
+    @Query("""
+            SELECT new com.emce.brokage.order.event.OrderEvent(o.id, o.customer.id, o.assetName, o.orderSide, o.size,
+                   o.price, o.filledSize, o.filledAmount, o.status, o.createdAt, o.timeInForce, o.expiresAt)
+            FROM Order o
+            WHERE o.status = com.emce.brokage.order.entity.OrderStatus.PENDING AND o.id > :afterId
+            ORDER BY o.id
+            """)
+    List<OrderEvent> findPendingEventsAfter(@Param("afterId") Integer afterId, Limit limit);
+
+    @Query("""
+            SELECT new com.emce.brokage.journal.PendingDigest(COUNT(o), SUM(o.id), SUM(o.filledSize))
+            FROM Order o
+            WHERE o.status = com.emce.brokage.order.entity.OrderStatus.PENDING
+            """)
+    PendingDigest findPendingDigest();
+
+    @Query("""
+            SELECT new com.emce.brokage.risk.CustomerExposure(o.customer.id, COUNT(o), SUM(o.price))
+            FROM Order o
+            WHERE o.status = com.emce.brokage.order.entity.OrderStatus.PENDING
+            GROUP BY o.customer.id
+            """)
+    List<CustomerExposure> findPendingExposures();
+
+    @Query("""
+            SELECT new com.emce.brokage.order.event.OrderEvent(o.id, o.customer.id, o.assetName, o.orderSide, o.size,
+                   o.price, o.filledSize, o.filledAmount, o.status, o.createdAt, o.timeInForce, o.expiresAt)
+            FROM Order o
+            WHERE o.customer.id = :customerId
+              AND o.status = com.emce.brokage.order.entity.OrderStatus.PENDING
+              AND (:assetName IS NULL OR o.assetName = :assetName)
+              AND (:orderSide IS NULL OR o.orderSide = :orderSide)
+            """)
+    List<OrderEvent> findPendingEvents(@Param("customerId") Integer customerId,
+                                       @Param("assetName") AssetType assetName,
+                                       @Param("orderSide") OrderSide orderSide);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE Order o
+            SET o.status = com.emce.brokage.order.entity.OrderStatus.CANCELED, o.updatedAt = :now, o.version = o.version + 1
+            WHERE o.customer.id = :customerId
+              AND o.status = com.emce.brokage.order.entity.OrderStatus.PENDING
+              AND (:assetName IS NULL OR o.assetName = :assetName)
+              AND (:orderSide IS NULL OR o.orderSide = :orderSide)
+            """)
+    int cancelPending(@Param("customerId") Integer customerId,
+                      @Param("assetName") AssetType assetName,
+                      @Param("orderSide") OrderSide orderSide,
+                      @Param("now") LocalDateTime now);
+
+    @Query("SELECT o.customer.id FROM Order o WHERE o.id = :orderId")
+    Optional<Integer> findCustomerIdById(@Param("orderId") Integer orderId);
+
+    @Query("SELECT DISTINCT o.customer.id FROM Order o WHERE o.id IN :orderIds")
+    List<Integer> findCustomerIdsByIdIn(@Param("orderIds") Collection<Integer> orderIds);
+
+    @Query("""
+            SELECT o.id FROM Order o
+            WHERE o.status = com.emce.brokage.order.entity.OrderStatus.PENDING
+              AND o.id > :afterId
+              AND (:assetName IS NULL OR o.assetName = :assetName)
+              AND (:orderSide IS NULL OR o.orderSide = :orderSide)
+              AND (:startDate IS NULL OR o.createdAt >= :startDate)
+              AND (:endDate IS NULL OR o.createdAt <= :endDate)
+            ORDER BY o.id
+            """)
+    List<Integer> findPendingIds(@Param("afterId") Integer afterId,
+                                 @Param("assetName") AssetType assetName,
+                                 @Param("orderSide") OrderSide orderSide,
+                                 @Param("startDate") LocalDateTime startDate,
+                                 @Param("endDate") LocalDateTime endDate,
+                                 Limit limit);
 }
@@ -2,42 +2,97 @@ package com.emce.brokage.order;
 
 import com.emce.brokage.auth.CustomerRepository;
 import com.emce.brokage.auth.entity.Customer;
+import com.emce.brokage.concurrency.CustomerStripedLock;
 import com.emce.brokage.asset.AssetRepository;
+import com.emce.brokage.asset.Position;
+import com.emce.brokage.asset.PositionCache;
 import com.emce.brokage.asset.entity.Asset;
 import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.idempotency.IdempotencyService;
+import com.emce.brokage.instrument.InstrumentRegistry;
+import com.emce.brokage.money.Money;
+import com.emce.brokage.order.OrderHistoryRepository.HistoryRow;
 import com.emce.brokage.order.entity.Order;
 import com.emce.brokage.order.entity.OrderSide;
 import com.emce.brokage.order.entity.OrderStatus;
+import com.emce.brokage.order.entity.TimeInForce;
 import com.emce.brokage.exception.AssetNotEnoughException;
 import com.emce.brokage.exception.AssetNotFoundException;
 import com.emce.brokage.exception.OrderNotFoundException;
 import com.emce.brokage.exception.OrderStatusNotEligibleException;
+import com.emce.brokage.exception.RiskLimitExceededException;
 import com.emce.brokage.exception.UserNotFoundException;
+import com.emce.brokage.order.dto.BatchOrderRequest;
+import com.emce.brokage.order.dto.BatchOrderResponse;
+import com.emce.brokage.order.dto.BatchOrderResult;
+import com.emce.brokage.order.dto.BulkMatchRequest;
+import com.emce.brokage.order.dto.BulkMatchResponse;
+import com.emce.brokage.order.dto.CancelAllResponse;
 import com.emce.brokage.order.dto.OrderRequest;
 import com.emce.brokage.order.dto.OrderResponse;
+import com.emce.brokage.order.dto.OrderSliceResponse;
+import com.emce.brokage.order.event.OrderEvent;
+import com.emce.brokage.order.event.TradeEvent;
+import com.emce.brokage.order.expiry.OrderExpiryService;
+import com.emce.brokage.risk.RiskEngine;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.security.InvalidParameterException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import static com.emce.brokage.common.Messages.*;
 
 @Service
 @RequiredArgsConstructor
 public class OrderService {
+    private static final String CREATE_ORDER_OPERATION = "order.create";
+
 
     private final OrderRepository orderRepository;
     private final AssetRepository assetRepository;
     private final CustomerRepository customerRepository;
+    private final OrderSettlementService settlementService;
+    private final CustomerStripedLock customerLock;
+    private final OrderArchiver orderArchiver;
+    private final OrderHistoryRepository orderHistoryRepository;
+    private final OrderExpiryService orderExpiryService;
+    private final IdempotencyService idempotencyService;
+    private final RiskEngine riskEngine;
+    private final InstrumentRegistry instrumentRegistry;
+    private final PositionCache positionCache;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${application.settlement.chunk-size:1000}")
+    private int settlementChunkSize;
 
     @Transactional
     @PreAuthorize("#request.customerId == authentication.principal.id")
     public OrderResponse createOrder(OrderRequest request) {
+        TimeInForce timeInForce = Objects.requireNonNullElse(request.timeInForce(), TimeInForce.GTC);
+        LocalDateTime expiresAt = orderExpiryService.resolveExpiry(timeInForce, request.expiresAt(), LocalDateTime.now());
+        instrumentRegistry.checkTradable(request.assetName(), request.size());
+        riskEngine.reserve(request.customerId(), request.assetName(), request.size(), request.price());
+        customerLock.lockForTransaction(request.customerId());
+        positionCache.get(request.customerId()).ifPresent(positions -> checkReservable(request, positions));
         Customer customer = customerRepository.findCustomerWithAssetsById(request.customerId()).
                 orElseThrow(() -> new UserNotFoundException(String.format(USER_ID_NOT_FOUND_MSG, request.customerId())));
 
@@ -51,6 +106,8 @@ public class OrderService {
                 .size(request.size())
                 .price(request.price())
                 .status(OrderStatus.PENDING)
+                .timeInForce(timeInForce)
+                .expiresAt(expiresAt)
                 .build();
 
 
@@ -63,28 +120,158 @@ public class OrderService {
         assetRepository.save(tryAsset);
         assetRepository.save(orderAsset);
         orderRepository.save(order);
+        positionCache.writeThrough(customer.getId(), customer.getAssets(), List.of(tryAsset, orderAsset));
+        eventPublisher.publishEvent(OrderEvent.fromEntity(order));
 
         return OrderResponse.fromEntity(order);
     }
 
+    // a cached customer is current while its stripe is held, so an order it cannot cover is
+    // turned down before any asset row is read
+    private static void checkReservable(OrderRequest request, Map<AssetType, Position> positions) {
+        if (!OrderAssetMovements.canReserve(request.orderSide(), Money.of(request.size(), request.assetName()),
+                Money.of(request.price(), AssetType.TRY),
+                usableSize(positions, AssetType.TRY), usableSize(positions, request.assetName()))) {
+            AssetType missingAsset = request.orderSide() == OrderSide.BUY ? AssetType.TRY : request.assetName();
+            throw new AssetNotEnoughException(String.format(ASSET_S_HAS_NOT_ENOUGH_SIZE_MSG, missingAsset));
+        }
+    }
+
+    private static Money usableSize(Map<AssetType, Position> positions, AssetType assetName) {
+        Position position = positions.get(assetName);
+        return position != null ? position.usableSize() : Money.zero(assetName);
+    }
+
+    /**
+     * Same as {@link #createOrder(OrderRequest)}, but a retry carrying the same idempotency key gets
+     * the response of the first attempt back without placing another order.
+     */
+    @Transactional
+    @PreAuthorize("#request.customerId == authentication.principal.id")
+    public OrderResponse createOrder(OrderRequest request, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return createOrder(request);
+        }
+        customerLock.lockForTransaction(request.customerId());
+        return idempotencyService.findResponse(request.customerId(), idempotencyKey, CREATE_ORDER_OPERATION, request, OrderResponse.class)
+                .orElseGet(() -> {
+                    OrderResponse response = createOrder(request);
+                    idempotencyService.saveResponse(request.customerId(), idempotencyKey, CREATE_ORDER_OPERATION, request, response);
+                    return response;
+                });
+    }
+
     private void processBuyOrder(OrderRequest request, Asset tryAsset, Asset orderAsset, Order order) {
-        if (tryAsset.getUsableSize().compareTo(request.price())<0) {
+        if (!OrderAssetMovements.canReserve(order, tryAsset, orderAsset)) {
             order.setStatus(OrderStatus.CANCELED);
             orderRepository.save(order);
-            throw new AssetNotEnoughException(String.format(ASSET_S_HAS_NOT_ENOUGH_SIZE, tryAsset.getAssetName()));
+            throw new AssetNotEnoughException(String.format(ASSET_S_HAS_NOT_ENOUGH_SIZE_MSG, tryAsset.getAssetName()));
         }
-        orderAsset.setSize(orderAsset.getSize().add(request.size()));
-        tryAsset.setUsableSize(tryAsset.getUsableSize().subtract(request.price()));
+        OrderAssetMovements.reserve(order, tryAsset, orderAsset);
     }
 
     private void processSellOrder(OrderRequest request, Asset tryAsset, Asset orderAsset, Order order) {
-        if (orderAsset.getUsableSize().compareTo(request.size())<0) {
+        if (!OrderAssetMovements.canReserve(order, tryAsset, orderAsset)) {
             order.setStatus(OrderStatus.CANCELED);
             orderRepository.save(order);
-            throw new AssetNotEnoughException(String.format(ASSET_S_HAS_NOT_ENOUGH_SIZE, request.assetName()));
+            throw new AssetNotEnoughException(String.format(ASSET_S_HAS_NOT_ENOUGH_SIZE_MSG, request.assetName()));
         }
-        orderAsset.setUsableSize(orderAsset.getUsableSize().subtract(request.size()));
-        tryAsset.setSize(tryAsset.getSize().add(request.price()));
+        OrderAssetMovements.reserve(order, tryAsset, orderAsset);
+    }
+
+    /**
+     * Reserves sizes for every order of the batch in one transaction. The customer and assets are
+     * loaded once and the accepted orders are inserted together; an order that cannot be reserved
+     * is reported as rejected without failing the rest of the batch.
+     */
+    @Transactional
+    @PreAuthorize("#request.customerId == authentication.principal.id")
+    public BatchOrderResponse createOrders(BatchOrderRequest request) {
+        return reserveOrders(request.customerId(), request.orders());
+    }
+
+    /**
+     * Same as {@link #createOrders(BatchOrderRequest)} without the ownership check, for callers that
+     * already authorized the customer when the orders were submitted.
+     */
+    @Transactional
+    public BatchOrderResponse reserveOrders(Integer customerId, List<OrderRequest> orderRequests) {
+        customerLock.lockForTransaction(customerId);
+        Customer customer = customerRepository.findCustomerWithAssetsById(customerId).
+                orElseThrow(() -> new UserNotFoundException(String.format(USER_ID_NOT_FOUND_MSG, customerId)));
+        Map<AssetType, Asset> assets = new HashMap<>();
+        customer.getAssets().forEach(asset -> assets.put(asset.getAssetName(), asset));
+        Asset tryAsset = assets.computeIfAbsent(AssetType.TRY, assetName -> getOrCreateAsset(customer, assetName));
+
+        int batchSize = orderRequests.size();
+        Order[] orders = new Order[batchSize];
+        String[] rejections = new String[batchSize];
+        LocalDateTime now = LocalDateTime.now();
+        for (int index = 0; index < batchSize; index++) {
+            OrderRequest orderRequest = orderRequests.get(index);
+            if (!customerId.equals(orderRequest.customerId())) {
+                rejections[index] = CUSTOMER_ID_IN_BATCH_AND_ORDER_NOT_MATCH_MSG;
+                continue;
+            }
+            if (orderRequest.assetName() == null || orderRequest.orderSide() == null) {
+                rejections[index] = ASSET_NAME_AND_ORDER_SIDE_REQUIRED_MSG;
+                continue;
+            }
+            TimeInForce timeInForce = Objects.requireNonNullElse(orderRequest.timeInForce(), TimeInForce.GTC);
+            LocalDateTime expiresAt;
+            try {
+                instrumentRegistry.checkTradable(orderRequest.assetName(), orderRequest.size());
+                expiresAt = orderExpiryService.resolveExpiry(timeInForce, orderRequest.expiresAt(), now);
+            } catch (InvalidParameterException e) {
+                rejections[index] = e.getMessage();
+                continue;
+            }
+            Asset orderAsset = assets.computeIfAbsent(orderRequest.assetName(), assetName -> getOrCreateAsset(customer, assetName));
+            Order order = Order.builder()
+                    .customer(customer)
+                    .assetName(orderRequest.assetName())
+                    .orderSide(orderRequest.orderSide())
+                    .size(orderRequest.size())
+                    .price(orderRequest.price())
+                    .status(OrderStatus.PENDING)
+                    .timeInForce(timeInForce)
+                    .expiresAt(expiresAt)
+                    .build();
+            if (!OrderAssetMovements.canReserve(order, tryAsset, orderAsset)) {
+                AssetType missingAsset = order.getOrderSide() == OrderSide.BUY ? AssetType.TRY : order.getAssetName();
+                rejections[index] = String.format(ASSET_S_HAS_NOT_ENOUGH_SIZE_MSG, missingAsset);
+                continue;
+            }
+            try {
+                riskEngine.reserve(customerId, order.getAssetName(), order.getSize(), order.getPrice());
+            } catch (RiskLimitExceededException e) {
+                rejections[index] = e.getMessage();
+                continue;
+            }
+            OrderAssetMovements.reserve(order, tryAsset, orderAsset);
+            orders[index] = order;
+        }
+
+        List<Order> accepted = Arrays.stream(orders).filter(Objects::nonNull).toList();
+        if (!accepted.isEmpty()) {
+            assetRepository.saveAll(assets.values());
+            orderRepository.saveAll(accepted);
+            positionCache.writeThrough(customerId, assets.values());
+            accepted.forEach(order -> eventPublisher.publishEvent(OrderEvent.fromEntity(order)));
+        }
+
+        List<BatchOrderResult> results = new ArrayList<>(batchSize);
+        for (int index = 0; index < batchSize; index++) {
+            results.add(orders[index] != null
+                    ? BatchOrderResult.accepted(index, OrderResponse.fromEntity(orders[index]))
+                    : BatchOrderResult.rejected(index, rejections[index]));
+        }
+        return BatchOrderResponse.builder()
+                .customerId(customer.getId())
+                .acceptedCount(accepted.size())
+                .rejectedCount(batchSize - accepted.size())
+                .results(results)
+                .build();
     }
 
     private static Asset getOrCreateAsset(Customer customer, AssetType assetName) {
@@ -92,8 +279,8 @@ public class OrderService {
                 .filter(asset -> asset.getAssetName().equals(assetName)).findFirst()
                 .orElseGet(() -> Asset.builder()
                         .assetName(assetName)
-                        .size(BigDecimal.ZERO)
-                        .usableSize(BigDecimal.ZERO)
+                        .size(Money.zero(assetName))
+                        .usableSize(Money.zero(assetName))
                         .customer(customer)
                         .build());
     }
@@ -101,8 +288,7 @@ public class OrderService {
     @Transactional
     @PreAuthorize("@customPermissionEvaluator.hasPermission(authentication, @orderRepository.findById(#orderId).orElse(null), 'cancel')")
     public OrderResponse cancelOrder(Integer orderId) {
-        var order = orderRepository.findById(orderId).orElseThrow(
-                () -> new OrderNotFoundException(String.format(ORDER_NOT_FOUND_MSG, orderId)));
+        var order = lockAndLoadOrder(orderId);
         if (order.getStatus()!=OrderStatus.PENDING){
             throw new OrderStatusNotEligibleException(ONLY_PENDING_ORDERS_CAN_BE_CANCELED_OR_MATCHED_MSG);
         }
@@ -114,26 +300,66 @@ public class OrderService {
         Asset tryAsset = customer.getAssets().stream().filter(asset -> asset.getAssetName().equals(AssetType.TRY)).findFirst()
                 .orElseThrow(() -> new AssetNotFoundException(String.format(ASSET_NOT_FOUND_FOR_ASSET_NAME_S_MSG, AssetType.TRY)));
 
-        if (order.getOrderSide()== OrderSide.SELL){
-            tryAsset.setSize(tryAsset.getSize().subtract(order.getPrice()));
-            orderAsset.setUsableSize(orderAsset.getUsableSize().add(order.getSize()));
-        }else if (order.getOrderSide()== OrderSide.BUY){
-            tryAsset.setUsableSize(tryAsset.getUsableSize().add(order.getPrice()));
-            orderAsset.setSize(orderAsset.getSize().subtract(order.getSize()));
-        }
+        OrderAssetMovements.release(order, tryAsset, orderAsset);
 
         order.setStatus(OrderStatus.CANCELED);
         assetRepository.save(orderAsset);
         assetRepository.save(tryAsset);
         orderRepository.save(order);
+        positionCache.writeThrough(customer.getId(), customer.getAssets());
+        eventPublisher.publishEvent(OrderEvent.fromEntity(order));
 
         return OrderResponse.fromEntity(order);
     }
 
+    /**
+     * Cancels every pending order of the customer, optionally narrowed to one asset and side, with a
+     * single update statement. The released sizes are summed per asset and side first so each
+     * affected asset row is written once, however many orders are canceled.
+     */
+    @Transactional
+    @PreAuthorize("#customerId == authentication.principal.id")
+    public CancelAllResponse cancelAllOrders(Integer customerId, AssetType assetName, OrderSide orderSide) {
+        customerLock.lockForTransaction(customerId);
+        List<OrderEvent> pending = orderRepository.findPendingEvents(customerId, assetName, orderSide);
+        if (pending.isEmpty()) {
+            return CancelAllResponse.builder().customerId(customerId).canceledCount(0).build();
+        }
+
+        Map<AssetType, Map<OrderSide, BigDecimal[]>> releases = new HashMap<>();
+        for (OrderEvent order : pending) {
+            BigDecimal[] totals = releases.computeIfAbsent(order.assetName(), asset -> new EnumMap<>(OrderSide.class))
+                    .computeIfAbsent(order.orderSide(), side -> new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO});
+            totals[0] = totals[0].add(order.size()).subtract(order.filledSize());
+            totals[1] = totals[1].add(OrderFills.remainingPrice(order.size(), order.price(), order.filledSize()));
+        }
+
+        Customer customer = customerRepository.findCustomerWithAssetsById(customerId).
+                orElseThrow(() -> new UserNotFoundException(String.format(USER_ID_NOT_FOUND_MSG, customerId)));
+        Map<AssetType, Asset> assets = new HashMap<>();
+        customer.getAssets().forEach(asset -> assets.put(asset.getAssetName(), asset));
+        Asset tryAsset = Optional.ofNullable(assets.get(AssetType.TRY))
+                .orElseThrow(() -> new AssetNotFoundException(String.format(ASSET_NOT_FOUND_FOR_ASSET_NAME_S_MSG, AssetType.TRY)));
+        releases.forEach((asset, sides) -> {
+            Asset orderAsset = Optional.ofNullable(assets.get(asset))
+                    .orElseThrow(() -> new AssetNotFoundException(String.format(ASSET_NOT_FOUND_FOR_ASSET_NAME_S_MSG, asset)));
+            sides.forEach((side, totals) -> OrderAssetMovements.release(side, totals[0], totals[1], tryAsset, orderAsset));
+        });
+
+        assetRepository.saveAll(assets.values());
+        int canceled = orderRepository.cancelPending(customerId, assetName, orderSide, LocalDateTime.now());
+        if (canceled != pending.size()) {
+            throw new ObjectOptimisticLockingFailureException(Order.class, customerId);
+        }
+        positionCache.writeThrough(customerId, assets.values());
+        pending.forEach(order -> eventPublisher.publishEvent(order.toBuilder().status(OrderStatus.CANCELED).build()));
+
+        return CancelAllResponse.builder().customerId(customerId).canceledCount(canceled).build();
+    }
+
     @Transactional
     public OrderResponse matchOrder(Integer orderId) {
-        var order = orderRepository.findById(orderId).orElseThrow(
-                () -> new OrderNotFoundException(String.format(ORDER_NOT_FOUND_MSG, orderId)));
+        var order = lockAndLoadOrder(orderId);
         if (order.getStatus()!=OrderStatus.PENDING){
             throw new OrderStatusNotEligibleException(ONLY_PENDING_ORDERS_CAN_BE_CANCELED_OR_MATCHED_MSG);
         }
@@ -145,33 +371,133 @@ public class OrderService {
         Asset tryAsset = customer.getAssets().stream().filter(asset -> asset.getAssetName().equals(AssetType.TRY)).findFirst()
                 .orElseThrow(() -> new AssetNotFoundException(String.format(ASSET_NOT_FOUND_FOR_ASSET_NAME_S_MSG, AssetType.TRY)));
 
-        if (order.getOrderSide()== OrderSide.SELL){
-            tryAsset.setUsableSize(tryAsset.getUsableSize().add(order.getPrice()));
-            orderAsset.setSize(orderAsset.getSize().subtract(order.getSize()));
-        }else if (order.getOrderSide()== OrderSide.BUY){
-            tryAsset.setSize(tryAsset.getSize().subtract(order.getPrice()));
-            orderAsset.setUsableSize(orderAsset.getUsableSize().add(order.getSize()));
-        }
+        TradeEvent trade = new TradeEvent(order.getAssetName(), OrderFills.remainingSize(order),
+                OrderFills.remainingPrice(order));
+        OrderAssetMovements.settle(order, tryAsset, orderAsset);
 
         assetRepository.save(orderAsset);
         assetRepository.save(tryAsset);
         order.setStatus(OrderStatus.MATCHED);
         orderRepository.save(order);
+        positionCache.writeThrough(customer.getId(), customer.getAssets());
+        eventPublisher.publishEvent(OrderEvent.fromEntity(order));
+        eventPublisher.publishEvent(trade);
 
         return OrderResponse.fromEntity(order);
     }
 
+    // the order is read only once its customer is locked, so a concurrent cancel or match of the
+    // same order has committed by then and its status check sees the outcome
+    private Order lockAndLoadOrder(Integer orderId) {
+        Integer customerId = orderRepository.findCustomerIdById(orderId).orElseThrow(
+                () -> new OrderNotFoundException(String.format(ORDER_NOT_FOUND_MSG, orderId)));
+        customerLock.lockForTransaction(customerId);
+        return orderRepository.findById(orderId).orElseThrow(
+                () -> new OrderNotFoundException(String.format(ORDER_NOT_FOUND_MSG, orderId)));
+    }
+
+    /**
+     * Settles the requested pending orders in chunks, each chunk in its own transaction, so a whole
+     * day of orders can be matched without holding one long transaction. Orders that are not
+     * pending anymore are skipped.
+     */
+    public BulkMatchResponse matchOrders(BulkMatchRequest request) {
+        List<List<Integer>> chunks = new ArrayList<>();
+        if (request.orderIds() != null && !request.orderIds().isEmpty()) {
+            List<Integer> orderIds = request.orderIds().stream().distinct().toList();
+            for (int from = 0; from < orderIds.size(); from += settlementChunkSize) {
+                chunks.add(orderIds.subList(from, Math.min(from + settlementChunkSize, orderIds.size())));
+            }
+        }
+
+        int requested = 0;
+        int matched = 0;
+        int chunkCount = 0;
+        List<Integer> chunk = chunks.isEmpty() ? findPendingIds(request, 0) : chunks.get(0);
+        while (!chunk.isEmpty()) {
+            SettlementResult result = settlementService.settle(chunk.stream().map(List::of).toList());
+            requested += chunk.size();
+            matched += result.settled().size();
+            chunkCount++;
+            if (chunks.isEmpty()) {
+                chunk = findPendingIds(request, chunk.get(chunk.size() - 1));
+            } else {
+                chunk = chunkCount < chunks.size() ? chunks.get(chunkCount) : List.of();
+            }
+        }
+
+        return BulkMatchResponse.builder()
+                .requestedCount(requested)
+                .matchedCount(matched)
+                .skippedCount(requested - matched)
+                .chunkCount(chunkCount)
+                .build();
+    }
+
+    private List<Integer> findPendingIds(BulkMatchRequest request, Integer afterId) {
+        return orderRepository.findPendingIds(afterId, request.assetName(), request.orderSide(),
+                request.startDate(), request.endDate(), Limit.of(settlementChunkSize));
+    }
+
+    @Transactional(readOnly = true)
     @PreAuthorize("#customerId == authentication.principal.id")
     public Page<OrderResponse> listOrders(Integer customerId, AssetType assetName, OrderSide orderSide, OrderStatus status,
             LocalDateTime startDate, LocalDateTime endDate, Pageable pageable) {
 
+        if (orderArchiver.mayContain(status, startDate)) {
+            return orderHistoryRepository.findResponses(
+                    new OrderFilter(customerId, assetName, orderSide, status, startDate, endDate), pageable);
+        }
+
         Specification<Order> spec = getSpesifications(customerId, assetName, orderSide, status, startDate, endDate);
 
-        return orderRepository.findAll(spec, pageable)
-                .map(order -> OrderResponse.fromEntity(order));
+        return orderRepository.findResponses(spec, pageable);
+    }
+
+    /**
+     * Keyset variant of {@link #listOrders}: newest orders first, seeking past the given cursor on
+     * {@code (createdAt, id)} instead of skipping an offset. One extra row is fetched to tell if
+     * another slice follows, so no count query is run.
+     */
+    @Transactional(readOnly = true)
+    @PreAuthorize("#customerId == authentication.principal.id")
+    public OrderSliceResponse listOrdersAfter(Integer customerId, AssetType assetName, OrderSide orderSide, OrderStatus status,
+            LocalDateTime startDate, LocalDateTime endDate, String cursor, int size) {
+
+        OrderCursor after = cursor != null && !cursor.isBlank() ? OrderCursor.decode(cursor) : null;
+        List<HistoryRow> rows;
+        if (orderArchiver.mayContain(status, startDate)) {
+            rows = orderHistoryRepository.findAfter(
+                    new OrderFilter(customerId, assetName, orderSide, status, startDate, endDate), after, size + 1);
+        } else {
+            Specification<Order> spec = getSpesifications(customerId, assetName, orderSide, status, startDate, endDate);
+            if (after != null) {
+                spec = spec.and(seekAfter(after));
+            }
+            rows = orderRepository.findRows(spec, Sort.by(Sort.Direction.DESC, "createdAt", "id"), size + 1);
+        }
+        boolean hasNext = rows.size() > size;
+        List<HistoryRow> slice = hasNext ? rows.subList(0, size) : rows;
+
+        return OrderSliceResponse.builder()
+                .content(slice.stream().map(HistoryRow::response).toList())
+                .size(slice.size())
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? OrderCursor.of(slice.get(size - 1)).encode() : null)
+                .build();
+    }
+
+    // (createdAt, id) < (cursor.createdAt, cursor.id), with the createdAt bound pulled out so the
+    // planner can range-scan the (customer_id, created_at, id) index.
+    static Specification<Order> seekAfter(OrderCursor cursor) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.and(
+                criteriaBuilder.lessThanOrEqualTo(root.get("createdAt"), cursor.createdAt()),
+                criteriaBuilder.or(
+                        criteriaBuilder.lessThan(root.get("createdAt"), cursor.createdAt()),
+                        criteriaBuilder.lessThan(root.get("id"), cursor.id())));
     }
 
-    private static Specification<Order> getSpesifications(Integer customerId, AssetType assetName, OrderSide orderSide, OrderStatus status, LocalDateTime startDate, LocalDateTime endDate) {
+    static Specification<Order> getSpesifications(Integer customerId, AssetType assetName, OrderSide orderSide, OrderStatus status, LocalDateTime startDate, LocalDateTime endDate) {
         Specification<Order> spec = Specification.where((root, query, criteriaBuilder) ->
                 criteriaBuilder.equal(root.get("customer").get("id"), customerId));
 
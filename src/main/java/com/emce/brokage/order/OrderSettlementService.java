@@ -0,0 +1,243 @@
+package com.emce.brokage.order;
+
+import com.emce.brokage.asset.AssetRepository;
+import com.emce.brokage.asset.PositionCache;
+import com.emce.brokage.asset.entity.Asset;
+import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.auth.CustomerRepository;
+import com.emce.brokage.auth.entity.Customer;
+import com.emce.brokage.concurrency.CustomerStripedLock;
+import com.emce.brokage.order.entity.Order;
+import com.emce.brokage.order.entity.OrderStatus;
+import com.emce.brokage.order.event.OrderEvent;
+import com.emce.brokage.order.event.TradeEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Settles many pending orders in one transaction. Orders are loaded with a single query and the
+ * owning customers with their assets with another, so the cost of a batch does not grow with the
+ * number of orders each customer has in it. The stripes of every customer in the batch are locked
+ * before anything is read.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderSettlementService {
+
+    private final OrderRepository orderRepository;
+    private final AssetRepository assetRepository;
+    private final CustomerRepository customerRepository;
+    private final CustomerStripedLock customerLock;
+    private final PositionCache positionCache;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Marks the given orders as {@link OrderStatus#MATCHED}, filling what is left of each at its own
+     * price, and moves their reserved sizes. Each
+     * group is settled all-or-nothing: if any order of a group is missing or no longer pending,
+     * the rest of that group is left untouched and reported back as unsettled.
+     */
+    @Transactional
+    public SettlementResult settle(Collection<? extends Collection<Integer>> orderGroups) {
+        List<Integer> orderIds = orderGroups.stream().flatMap(Collection::stream).distinct().toList();
+        customerLock.lockForTransaction(orderRepository.findCustomerIdsByIdIn(orderIds));
+        Map<Integer, Order> ordersById = orderRepository.findAllById(orderIds).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+
+        List<Order> eligible = new ArrayList<>();
+        List<Order> unsettled = new ArrayList<>();
+        for (Collection<Integer> group : orderGroups) {
+            List<Order> orders = group.stream().map(ordersById::get).toList();
+            if (orders.stream().allMatch(order -> order != null && order.getStatus() == OrderStatus.PENDING)) {
+                eligible.addAll(orders);
+            } else {
+                orders.stream()
+                        .filter(order -> order != null && order.getStatus() == OrderStatus.PENDING)
+                        .forEach(unsettled::add);
+            }
+        }
+        if (eligible.isEmpty()) {
+            return new SettlementResult(List.of(), unsettled);
+        }
+
+        Map<Integer, Map<AssetType, Asset>> assetsByCustomer = loadAssets(eligible);
+        List<Order> settled = new ArrayList<>(eligible.size());
+        List<TradeEvent> trades = new ArrayList<>(eligible.size());
+        for (Order order : eligible) {
+            Map<AssetType, Asset> assets = assetsByCustomer.getOrDefault(order.getCustomer().getId(), Map.of());
+            Asset tryAsset = assets.get(AssetType.TRY);
+            Asset orderAsset = assets.get(order.getAssetName());
+            if (tryAsset == null || orderAsset == null) {
+                log.warn("Skipping settlement of order {}, reserved assets not found", order.getId());
+                continue;
+            }
+            trades.add(new TradeEvent(order.getAssetName(), OrderFills.remainingSize(order),
+                    OrderFills.remainingPrice(order)));
+            OrderAssetMovements.settle(order, tryAsset, orderAsset);
+            order.setStatus(OrderStatus.MATCHED);
+            settled.add(order);
+        }
+
+        assetRepository.saveAll(assetsByCustomer.values().stream().flatMap(assets -> assets.values().stream()).toList());
+        assetsByCustomer.forEach((customerId, assets) -> positionCache.writeThrough(customerId, assets.values()));
+        orderRepository.saveAll(settled);
+        settled.forEach(order -> eventPublisher.publishEvent(OrderEvent.fromEntity(order)));
+        trades.forEach(eventPublisher::publishEvent);
+
+        return new SettlementResult(settled, unsettled);
+    }
+
+    /**
+     * Settles trades crossed by the matching engine, in order. Both legs of a fill are executed for
+     * the same amount, its size at the fill's unit price rounded half up to the TRY scale and never
+     * more than the buyer's reservation for that size; the buyer gets the rest of that reservation
+     * back. An order is {@link OrderStatus#MATCHED} once it is filled completely and stays pending
+     * in between. A fill is skipped when either order is missing, no longer pending or has less
+     * left than the fill; the pending orders of skipped fills are reported back as unsettled.
+     * Every settled fill publishes one {@link TradeEvent} besides the events of its two orders.
+     */
+    @Transactional
+    public SettlementResult settleFills(Collection<Fill> fills) {
+        List<Integer> orderIds = fills.stream()
+                .flatMap(fill -> Stream.of(fill.buyOrderId(), fill.sellOrderId()))
+                .distinct()
+                .toList();
+        customerLock.lockForTransaction(orderRepository.findCustomerIdsByIdIn(orderIds));
+        Map<Integer, Order> ordersById = orderRepository.findAllById(orderIds).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+        List<Order> pending = ordersById.values().stream()
+                .filter(order -> order.getStatus() == OrderStatus.PENDING)
+                .toList();
+        if (pending.isEmpty()) {
+            return new SettlementResult(List.of(), List.of());
+        }
+
+        Map<Integer, Map<AssetType, Asset>> assetsByCustomer = loadAssets(pending);
+        Set<Order> filled = new LinkedHashSet<>();
+        Set<Order> unsettled = new LinkedHashSet<>();
+        List<TradeEvent> trades = new ArrayList<>(fills.size());
+        for (Fill fill : fills) {
+            Order buy = ordersById.get(fill.buyOrderId());
+            Order sell = ordersById.get(fill.sellOrderId());
+            Asset[] buyAssets = canFill(buy, fill.size()) ? reservedAssets(buy, assetsByCustomer) : null;
+            Asset[] sellAssets = canFill(sell, fill.size()) ? reservedAssets(sell, assetsByCustomer) : null;
+            if (buyAssets == null || sellAssets == null) {
+                Stream.of(buy, sell)
+                        .filter(order -> order != null && order.getStatus() == OrderStatus.PENDING)
+                        .forEach(unsettled::add);
+                continue;
+            }
+            BigDecimal amount = fill.size().multiply(fill.unitPrice())
+                    .setScale(AssetType.TRY.scale(), RoundingMode.HALF_UP)
+                    .min(OrderFills.reservedFor(buy, fill.size()));
+            fill(buy, fill.size(), amount, buyAssets);
+            fill(sell, fill.size(), amount, sellAssets);
+            trades.add(new TradeEvent(buy.getAssetName(), fill.size(), amount));
+            filled.add(buy);
+            filled.add(sell);
+        }
+        if (filled.isEmpty()) {
+            return new SettlementResult(List.of(), List.copyOf(unsettled));
+        }
+
+        assetRepository.saveAll(assetsByCustomer.values().stream().flatMap(assets -> assets.values().stream()).toList());
+        assetsByCustomer.forEach((customerId, assets) -> positionCache.writeThrough(customerId, assets.values()));
+        orderRepository.saveAll(filled);
+        filled.forEach(order -> eventPublisher.publishEvent(OrderEvent.fromEntity(order)));
+        trades.forEach(eventPublisher::publishEvent);
+
+        return new SettlementResult(List.copyOf(filled), List.copyOf(unsettled));
+    }
+
+    private static boolean canFill(Order order, BigDecimal size) {
+        return order != null && order.getStatus() == OrderStatus.PENDING
+                && OrderFills.remainingSize(order).compareTo(size) >= 0;
+    }
+
+    // the TRY and order asset rows the order reserved, or null if either is missing
+    private static Asset[] reservedAssets(Order order, Map<Integer, Map<AssetType, Asset>> assetsByCustomer) {
+        Map<AssetType, Asset> assets = assetsByCustomer.getOrDefault(order.getCustomer().getId(), Map.of());
+        Asset tryAsset = assets.get(AssetType.TRY);
+        Asset orderAsset = assets.get(order.getAssetName());
+        if (tryAsset == null || orderAsset == null) {
+            log.warn("Skipping a fill of order {}, reserved assets not found", order.getId());
+            return null;
+        }
+        return new Asset[]{tryAsset, orderAsset};
+    }
+
+    private static void fill(Order order, BigDecimal size, BigDecimal amount, Asset[] assets) {
+        OrderAssetMovements.fill(order, size, amount, assets[0], assets[1]);
+        if (OrderFills.remainingSize(order).signum() == 0) {
+            order.setStatus(OrderStatus.MATCHED);
+        }
+    }
+
+    /**
+     * Cancels the given orders that are still pending and releases their reservations, the batch
+     * counterpart of {@link OrderService#cancelOrder}. Orders that are missing or no longer pending
+     * are skipped.
+     *
+     * @return the orders that were canceled
+     */
+    @Transactional
+    public List<Order> cancel(Collection<Integer> orderIds) {
+        customerLock.lockForTransaction(orderRepository.findCustomerIdsByIdIn(orderIds));
+        List<Order> pending = orderRepository.findAllById(orderIds).stream()
+                .filter(order -> order.getStatus() == OrderStatus.PENDING)
+                .toList();
+        if (pending.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Integer, Map<AssetType, Asset>> assetsByCustomer = loadAssets(pending);
+        List<Order> canceled = new ArrayList<>(pending.size());
+        for (Order order : pending) {
+            Map<AssetType, Asset> assets = assetsByCustomer.getOrDefault(order.getCustomer().getId(), Map.of());
+            Asset tryAsset = assets.get(AssetType.TRY);
+            Asset orderAsset = assets.get(order.getAssetName());
+            if (tryAsset == null || orderAsset == null) {
+                log.warn("Skipping cancel of order {}, reserved assets not found", order.getId());
+                continue;
+            }
+            OrderAssetMovements.release(order, tryAsset, orderAsset);
+            order.setStatus(OrderStatus.CANCELED);
+            canceled.add(order);
+        }
+
+        assetRepository.saveAll(assetsByCustomer.values().stream().flatMap(assets -> assets.values().stream()).toList());
+        assetsByCustomer.forEach((customerId, assets) -> positionCache.writeThrough(customerId, assets.values()));
+        orderRepository.saveAll(canceled);
+        canceled.forEach(order -> eventPublisher.publishEvent(OrderEvent.fromEntity(order)));
+
+        return canceled;
+    }
+
+    private Map<Integer, Map<AssetType, Asset>> loadAssets(List<Order> orders) {
+        List<Integer> customerIds = orders.stream().map(order -> order.getCustomer().getId()).distinct().toList();
+        Map<Integer, Map<AssetType, Asset>> assetsByCustomer = new HashMap<>();
+        for (Customer customer : customerRepository.findCustomersWithAssetsByIdIn(customerIds)) {
+            Map<AssetType, Asset> assets = new HashMap<>();
+            customer.getAssets().forEach(asset -> assets.put(asset.getAssetName(), asset));
+            assetsByCustomer.put(customer.getId(), assets);
+        }
+        return assetsByCustomer;
+    }
+}
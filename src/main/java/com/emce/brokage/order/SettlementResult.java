@@ -0,0 +1,12 @@
+package com.emce.brokage.order;
+
+import com.emce.brokage.order.entity.Order;
+
+import java.util.List;
+
+/**
+ * Outcome of a settlement batch. {@code unsettled} holds orders that are still pending because
+ * another order of their group was no longer eligible.
+ */
+public record SettlementResult(List<Order> settled, List<Order> unsettled) {
+}
@@ -0,0 +1,16 @@
+package com.emce.brokage.order.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BatchOrderRequest(
+        @Positive(message = "customerId must be positive")
+        Integer customerId,
+        @NotEmpty(message = "orders should not be empty")
+        @Size(max = 1000, message = "a batch can contain at most 1000 orders")
+        List<@Valid OrderRequest> orders) {
+}
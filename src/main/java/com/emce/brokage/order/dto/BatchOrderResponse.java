@@ -0,0 +1,9 @@
+package com.emce.brokage.order.dto;
+
+import lombok.Builder;
+
+import java.util.List;
+
+@Builder
+public record BatchOrderResponse(Integer customerId, int acceptedCount, int rejectedCount, List<BatchOrderResult> results) {
+}
@@ -0,0 +1,22 @@
+package com.emce.brokage.order.dto;
+
+import lombok.Builder;
+
+@Builder
+public record BatchOrderResult(int index, boolean accepted, OrderResponse order, String reason) {
+    public static BatchOrderResult accepted(int index, OrderResponse order) {
+        return BatchOrderResult.builder()
+                .index(index)
+                .accepted(true)
+                .order(order)
+                .build();
+    }
+
+    public static BatchOrderResult rejected(int index, String reason) {
+        return BatchOrderResult.builder()
+                .index(index)
+                .accepted(false)
+                .reason(reason)
+                .build();
+    }
+}
@@ -0,0 +1,20 @@
+package com.emce.brokage.order.dto;
+
+import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.order.entity.OrderSide;
+import jakarta.validation.constraints.Positive;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Either an explicit list of order ids, or, when {@code orderIds} is empty, a filter selecting the
+ * pending orders to settle. Filter fields left null match every pending order.
+ */
+public record BulkMatchRequest(
+        List<@Positive(message = "Order ID must be a positive number") Integer> orderIds,
+        AssetType assetName,
+        OrderSide orderSide,
+        LocalDateTime startDate,
+        LocalDateTime endDate) {
+}
@@ -0,0 +1,7 @@
+package com.emce.brokage.order.dto;
+
+import lombok.Builder;
+
+@Builder
+public record CancelAllResponse(Integer customerId, int canceledCount) {
+}
@@ -0,0 +1,8 @@
+package com.emce.brokage.order.dto;
+
+import com.emce.brokage.order.intake.IntakeStatus;
+import lombok.Builder;
+
+@Builder
+public record OrderIntakeResponse(Long sequence, Integer customerId, IntakeStatus status, OrderResponse order, String reason) {
+}
@@ -2,9 +2,12 @@ package com.emce.brokage.order.dto;
 
 import com.emce.brokage.asset.entity.AssetType;
 import com.emce.brokage.order.entity.OrderSide;
+import com.emce.brokage.order.entity.TimeInForce;
+import jakarta.validation.constraints.Future;
 import jakarta.validation.constraints.Positive;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 public record OrderRequest(
         @Positive(message = "customerId must be positive")
@@ -14,5 +17,12 @@ public record OrderRequest(
         @Positive(message = "size must be positive")
         BigDecimal size,
         @Positive(message = "price must be positive")
-        BigDecimal price) {
+        BigDecimal price,
+        TimeInForce timeInForce,
+        @Future(message = "expiresAt must be in the future")
+        LocalDateTime expiresAt) {
+
+    public OrderRequest(Integer customerId, AssetType assetName, OrderSide orderSide, BigDecimal size, BigDecimal price) {
+        this(customerId, assetName, orderSide, size, price, null, null);
+    }
 }
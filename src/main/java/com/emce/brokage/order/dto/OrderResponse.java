@@ -11,7 +11,8 @@ import java.time.LocalDateTime;
 
 @Builder
 public record OrderResponse(Integer customerId, AssetType assetName, OrderSide side, BigDecimal size, BigDecimal price,
-                            OrderStatus status, LocalDateTime createDate, LocalDateTime updateDate) {
+                            BigDecimal filledSize, BigDecimal filledAmount, OrderStatus status,
+                            LocalDateTime createDate, LocalDateTime updateDate) {
     public static OrderResponse fromEntity(Order order) {
         return OrderResponse.builder()
                 .customerId(order.getCustomer().getId())
@@ -19,6 +20,8 @@ public record OrderResponse(Integer customerId, AssetType assetName, OrderSide s
                 .side(order.getOrderSide())
                 .size(order.getSize())
                 .price(order.getPrice())
+                .filledSize(order.getFilledSize())
+                .filledAmount(order.getFilledAmount())
                 .status(order.getStatus())
                 .createDate(order.getCreatedAt())
                 .updateDate(order.getUpdatedAt())
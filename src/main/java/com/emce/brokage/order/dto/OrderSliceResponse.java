@@ -0,0 +1,9 @@
+package com.emce.brokage.order.dto;
+
+import lombok.Builder;
+
+import java.util.List;
+
+@Builder
+public record OrderSliceResponse(List<OrderResponse> content, int size, boolean hasNext, String nextCursor) {
+}
@@ -2,16 +2,20 @@ package com.emce.brokage.order.entity;
 
 import com.emce.brokage.auth.entity.Customer;
 import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.asset.entity.AssetTypeConverter;
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
@@ -36,17 +40,27 @@ import java.util.Objects;
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Integer id;
-    @Enumerated(EnumType.STRING)
+    @Convert(converter = AssetTypeConverter.class)
     private AssetType assetName;
     @Enumerated(EnumType.STRING)
     private OrderSide orderSide;
     private BigDecimal size;
     private BigDecimal price;
+    // matched so far and the TRY amount it was executed for, an order is MATCHED once filledSize reaches size
+    @Builder.Default
+    private BigDecimal filledSize = BigDecimal.ZERO;
+    @Builder.Default
+    private BigDecimal filledAmount = BigDecimal.ZERO;
     @Enumerated(EnumType.STRING)
     private OrderStatus status;
-    @ManyToOne
+    @Enumerated(EnumType.STRING)
+    @Builder.Default
+    private TimeInForce timeInForce = TimeInForce.GTC;
+    private LocalDateTime expiresAt;
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "customer_id")
     private Customer customer;
     @Column(nullable = false, updatable = false)
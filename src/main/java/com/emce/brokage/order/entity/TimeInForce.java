@@ -0,0 +1,12 @@
+package com.emce.brokage.order.entity;
+
+public enum TimeInForce {
+    /** Good till canceled, never expires. */
+    GTC,
+    /** Expires at the market close of the day it was placed. */
+    DAY,
+    /** Good till date, expires at the requested time. */
+    GTD,
+    /** Immediate or cancel, never rests in the book and expires right after it was placed. */
+    IOC
+}
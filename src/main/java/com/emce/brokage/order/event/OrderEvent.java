@@ -0,0 +1,50 @@
+package com.emce.brokage.order.event;
+
+import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.order.entity.Order;
+import com.emce.brokage.order.entity.OrderSide;
+import com.emce.brokage.order.entity.OrderStatus;
+import com.emce.brokage.order.entity.TimeInForce;
+import lombok.Builder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Published by the order services whenever an order is created, partially filled or changes
+ * status. A partial fill keeps the order {@link OrderStatus#PENDING}, see {@link #isPartialFill()}.
+ * Listeners are expected to react after commit so they never observe rolled back state.
+ */
+@Builder(toBuilder = true)
+public record OrderEvent(Integer orderId, Integer customerId, AssetType assetName, OrderSide orderSide,
+                         BigDecimal size, BigDecimal price, BigDecimal filledSize, BigDecimal filledAmount,
+                         OrderStatus status, LocalDateTime createDate, TimeInForce timeInForce,
+                         LocalDateTime expiresAt) {
+
+    public OrderEvent {
+        filledSize = filledSize != null ? filledSize : BigDecimal.ZERO;
+        filledAmount = filledAmount != null ? filledAmount : BigDecimal.ZERO;
+    }
+
+    public static OrderEvent fromEntity(Order order) {
+        return OrderEvent.builder()
+                .orderId(order.getId())
+                .customerId(order.getCustomer().getId())
+                .assetName(order.getAssetName())
+                .orderSide(order.getOrderSide())
+                .size(order.getSize())
+                .price(order.getPrice())
+                .filledSize(order.getFilledSize())
+                .filledAmount(order.getFilledAmount())
+                .status(order.getStatus())
+                .createDate(order.getCreatedAt())
+                .timeInForce(order.getTimeInForce())
+                .expiresAt(order.getExpiresAt())
+                .build();
+    }
+
+    /** Whether the event reports a fill of an order that stays pending rather than a new order. */
+    public boolean isPartialFill() {
+        return status == OrderStatus.PENDING && filledSize.signum() > 0;
+    }
+}
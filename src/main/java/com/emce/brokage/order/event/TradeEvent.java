@@ -0,0 +1,14 @@
+package com.emce.brokage.order.event;
+
+import com.emce.brokage.asset.entity.AssetType;
+
+import java.math.BigDecimal;
+
+/**
+ * Published once per trade: a fill crossed by the matching engine, or an order an admin matched
+ * at its own price. Unlike {@link OrderEvent}, of which a trade between two orders publishes one
+ * per leg, it counts each trade once. Listeners are expected to react after commit so they never
+ * observe rolled back state.
+ */
+public record TradeEvent(AssetType assetName, BigDecimal size, BigDecimal amount) {
+}
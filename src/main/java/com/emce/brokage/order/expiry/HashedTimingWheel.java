@@ -0,0 +1,112 @@
+package com.emce.brokage.order.expiry;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.IntConsumer;
+
+/**
+ * Hashed timing wheel of order ids. Time is cut into ticks and a deadline lands in the bucket of
+ * its tick modulo the wheel size, so scheduling is O(1) no matter how many ids are waiting.
+ * Deadlines further away than one rotation share buckets with nearer ones and are simply skipped
+ * until their tick comes round.
+ * <p>
+ * {@link #schedule} may be called from any thread; it only appends to a lock free queue. Buckets
+ * are owned by the single thread calling {@link #advance}, which moves queued ids into buckets
+ * before firing each tick. Buckets keep ids and deadline ticks in parallel primitive arrays, so a
+ * scheduled id costs twelve bytes once it reaches its bucket.
+ */
+final class HashedTimingWheel {
+
+    private static final int INITIAL_BUCKET_CAPACITY = 16;
+
+    private final long startMillis;
+    private final long tickMillis;
+    private final int mask;
+    private final Bucket[] buckets;
+    private final Queue<Timeout> pending = new ConcurrentLinkedQueue<>();
+
+    private long currentTick;
+    private volatile long scheduledCount;
+
+    HashedTimingWheel(long startMillis, long tickMillis, int wheelSize) {
+        if (Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Wheel size must be a power of two: " + wheelSize);
+        }
+        this.startMillis = startMillis;
+        this.tickMillis = tickMillis;
+        this.mask = wheelSize - 1;
+        this.buckets = new Bucket[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new Bucket();
+        }
+    }
+
+    void schedule(int id, long deadlineMillis) {
+        pending.add(new Timeout(id, deadlineMillis));
+    }
+
+    /**
+     * Fires every id whose deadline is at or before {@code nowMillis}. Must always be called from
+     * the same thread.
+     */
+    void advance(long nowMillis, IntConsumer expired) {
+        long targetTick = (nowMillis - startMillis) / tickMillis;
+        transferPending(expired);
+        while (currentTick < targetTick) {
+            currentTick++;
+            buckets[(int) (currentTick & mask)].expire(currentTick, expired);
+        }
+        scheduledCount = Arrays.stream(buckets).mapToLong(bucket -> bucket.size).sum();
+    }
+
+    /** Ids sitting in buckets as of the last {@link #advance}, not counting ones still queued. */
+    long scheduledCount() {
+        return scheduledCount;
+    }
+
+    private void transferPending(IntConsumer expired) {
+        Timeout timeout;
+        while ((timeout = pending.poll()) != null) {
+            long deadlineTick = Math.ceilDiv(timeout.deadlineMillis - startMillis, tickMillis);
+            if (deadlineTick <= currentTick) {
+                expired.accept(timeout.id);
+            } else {
+                buckets[(int) (deadlineTick & mask)].add(timeout.id, deadlineTick);
+            }
+        }
+    }
+
+    private record Timeout(int id, long deadlineMillis) {
+    }
+
+    private static final class Bucket {
+        private int[] ids = new int[INITIAL_BUCKET_CAPACITY];
+        private long[] deadlineTicks = new long[INITIAL_BUCKET_CAPACITY];
+        private int size;
+
+        void add(int id, long deadlineTick) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                deadlineTicks = Arrays.copyOf(deadlineTicks, size * 2);
+            }
+            ids[size] = id;
+            deadlineTicks[size] = deadlineTick;
+            size++;
+        }
+
+        void expire(long tick, IntConsumer expired) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (deadlineTicks[i] <= tick) {
+                    expired.accept(ids[i]);
+                } else {
+                    ids[kept] = ids[i];
+                    deadlineTicks[kept] = deadlineTicks[i];
+                    kept++;
+                }
+            }
+            size = kept;
+        }
+    }
+}
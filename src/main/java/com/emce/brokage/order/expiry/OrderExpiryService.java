@@ -0,0 +1,190 @@
+package com.emce.brokage.order.expiry;
+
+import com.emce.brokage.journal.JournalService;
+import com.emce.brokage.order.OrderRepository;
+import com.emce.brokage.order.OrderSettlementService;
+import com.emce.brokage.order.entity.TimeInForce;
+import com.emce.brokage.order.event.OrderEvent;
+import com.emce.brokage.order.entity.OrderStatus;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.security.InvalidParameterException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.emce.brokage.common.Messages.EXPIRES_AT_ONLY_FOR_GTD_MSG;
+import static com.emce.brokage.common.Messages.EXPIRES_AT_REQUIRED_FOR_GTD_MSG;
+
+/**
+ * Cancels pending orders when their time in force runs out. Every pending order with an expiry is
+ * kept in a {@link HashedTimingWheel}; a single thread advances the wheel once per tick and
+ * cancels whatever came due in batches through {@link OrderSettlementService#cancel}, which
+ * releases reservations exactly like a manual cancel. Orders that were matched or canceled in the
+ * meantime stay in the wheel and are skipped when their tick comes, so nothing has to be removed
+ * from it and the orders table is never polled. The wheel is rebuilt at startup from the journal's
+ * pending orders when the journal is enabled, otherwise from the pending orders in the database.
+ */
+@Slf4j
+@Component
+public class OrderExpiryService {
+
+    private static final int REBUILD_PAGE_SIZE = 10_000;
+
+    private final OrderRepository orderRepository;
+    private final OrderSettlementService settlementService;
+    private final JournalService journalService;
+    private final boolean enabled;
+    private final long tickMillis;
+    private final int batchSize;
+    private final LocalTime marketClose;
+    private final Duration immediateOrCancelWindow;
+    private final HashedTimingWheel wheel;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public OrderExpiryService(OrderRepository orderRepository, OrderSettlementService settlementService,
+                              JournalService journalService, MeterRegistry meterRegistry,
+                              @Value("${application.expiry.enabled:true}") boolean enabled,
+                              @Value("${application.expiry.tick-ms:100}") long tickMillis,
+                              @Value("${application.expiry.wheel-size:4096}") int wheelSize,
+                              @Value("${application.expiry.batch-size:500}") int batchSize,
+                              @Value("${application.expiry.market-close:18:00}") LocalTime marketClose,
+                              @Value("${application.expiry.ioc-window:1s}") Duration immediateOrCancelWindow) {
+        this.orderRepository = orderRepository;
+        this.settlementService = settlementService;
+        this.journalService = journalService;
+        this.enabled = enabled;
+        this.tickMillis = tickMillis;
+        this.batchSize = batchSize;
+        this.marketClose = marketClose;
+        this.immediateOrCancelWindow = immediateOrCancelWindow;
+        this.wheel = new HashedTimingWheel(System.currentTimeMillis(), tickMillis, wheelSize);
+        Gauge.builder("brokage.order.expiry.scheduled", wheel, HashedTimingWheel::scheduledCount)
+                .description("Pending orders waiting for their expiry")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Works out when an order placed now with the given time in force expires, or {@code null} if
+     * it never does.
+     *
+     * @throws InvalidParameterException if {@code expiresAt} is missing for GTD or given for anything else
+     */
+    public LocalDateTime resolveExpiry(TimeInForce timeInForce, LocalDateTime expiresAt, LocalDateTime now) {
+        if (timeInForce != TimeInForce.GTD && expiresAt != null) {
+            throw new InvalidParameterException(EXPIRES_AT_ONLY_FOR_GTD_MSG);
+        }
+        return switch (timeInForce == null ? TimeInForce.GTC : timeInForce) {
+            case GTC -> null;
+            case DAY -> {
+                LocalDateTime close = now.toLocalDate().atTime(marketClose);
+                yield close.isAfter(now) ? close : close.plusDays(1);
+            }
+            case GTD -> {
+                if (expiresAt == null || !expiresAt.isAfter(now)) {
+                    throw new InvalidParameterException(EXPIRES_AT_REQUIRED_FOR_GTD_MSG);
+                }
+                yield expiresAt;
+            }
+            case IOC -> now.plus(immediateOrCancelWindow);
+        };
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        long scheduled = journalService.isEnabled() ? scheduleFromJournal() : scheduleFromDatabase();
+        log.info("Order expiry started with {} scheduled orders", scheduled);
+
+        running = true;
+        worker = Thread.ofPlatform().name("order-expiry").daemon().start(this::run);
+    }
+
+    private long scheduleFromJournal() {
+        long[] scheduled = new long[1];
+        journalService.forEachPendingOrder(order -> {
+            if (order.expiresAtMillis() != 0) {
+                wheel.schedule(order.orderId(), order.expiresAtMillis());
+                scheduled[0]++;
+            }
+        });
+        return scheduled[0];
+    }
+
+    private long scheduleFromDatabase() {
+        long scheduled = 0;
+        List<PendingExpiry> page;
+        Integer afterId = 0;
+        do {
+            page = orderRepository.findPendingExpiries(afterId, Limit.of(REBUILD_PAGE_SIZE));
+            page.forEach(expiry -> schedule(expiry.orderId(), expiry.expiresAt()));
+            scheduled += page.size();
+            afterId = page.isEmpty() ? afterId : page.get(page.size() - 1).orderId();
+        } while (page.size() == REBUILD_PAGE_SIZE);
+        return scheduled;
+    }
+
+    @TransactionalEventListener
+    public void onOrderEvent(OrderEvent event) {
+        if (enabled && event.status() == OrderStatus.PENDING && !event.isPartialFill() && event.expiresAt() != null) {
+            schedule(event.orderId(), event.expiresAt());
+        }
+    }
+
+    private void schedule(Integer orderId, LocalDateTime expiresAt) {
+        wheel.schedule(orderId, expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    private void run() {
+        List<Integer> due = new ArrayList<>();
+        while (running) {
+            wheel.advance(System.currentTimeMillis(), due::add);
+            for (int from = 0; from < due.size(); from += batchSize) {
+                expire(due.subList(from, Math.min(from + batchSize, due.size())));
+            }
+            due.clear();
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(tickMillis));
+        }
+    }
+
+    private void expire(List<Integer> orderIds) {
+        try {
+            settlementService.cancel(orderIds);
+        } catch (RuntimeException e) {
+            log.warn("Expiring a batch of {} orders failed, retrying one by one", orderIds.size(), e);
+            for (Integer orderId : orderIds) {
+                try {
+                    settlementService.cancel(List.of(orderId));
+                } catch (RuntimeException retryException) {
+                    log.error("Expiring order {} failed", orderId, retryException);
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (worker != null) {
+            LockSupport.unpark(worker);
+        }
+    }
+}
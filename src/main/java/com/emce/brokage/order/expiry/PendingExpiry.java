@@ -0,0 +1,6 @@
+package com.emce.brokage.order.expiry;
+
+import java.time.LocalDateTime;
+
+public record PendingExpiry(Integer orderId, LocalDateTime expiresAt) {
+}
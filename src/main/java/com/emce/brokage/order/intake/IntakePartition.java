@@ -0,0 +1,171 @@
+package com.emce.brokage.order.intake;
+
+import com.emce.brokage.order.OrderService;
+import com.emce.brokage.order.dto.BatchOrderResponse;
+import com.emce.brokage.order.dto.BatchOrderResult;
+import com.emce.brokage.order.dto.OrderRequest;
+import com.emce.brokage.order.dto.OrderResponse;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.emce.brokage.common.Messages.ORDER_INTAKE_FAILED_MSG;
+
+/**
+ * Multi-producer, single-consumer ring of {@link IntakeSlot}s. Request threads claim a sequence
+ * with a CAS and fill the slot in place; the partition thread is the only writer of outcomes and
+ * drains published slots in micro-batches, grouped by customer, through
+ * {@link OrderService#reserveOrders}. A batch that fails unexpectedly is rejected and the
+ * partition thread carries on with the next one.
+ */
+@Slf4j
+final class IntakePartition implements Runnable {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final IntakeSlot[] slots;
+    private final int mask;
+    private final int batchSize;
+    private final OrderService orderService;
+    private final AtomicLong claimed = new AtomicLong(-1);
+    private volatile long consumed = -1;
+    private volatile boolean running = true;
+    private final Thread thread;
+
+    IntakePartition(int index, int ringSize, int batchSize, OrderService orderService) {
+        if (Integer.bitCount(ringSize) != 1) {
+            throw new IllegalArgumentException("Intake ring size must be a power of two: " + ringSize);
+        }
+        this.slots = new IntakeSlot[ringSize];
+        for (int i = 0; i < ringSize; i++) {
+            slots[i] = new IntakeSlot();
+        }
+        this.mask = ringSize - 1;
+        this.batchSize = batchSize;
+        this.orderService = orderService;
+        this.thread = Thread.ofPlatform().name("order-intake-" + index).daemon().unstarted(this);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+    }
+
+    /**
+     * @return the partition local sequence of the request, or {@code -1} if the ring is full
+     */
+    long publish(OrderRequest request) {
+        long sequence;
+        do {
+            sequence = claimed.get() + 1;
+            if (sequence - consumed > slots.length) {
+                return -1;
+            }
+        } while (!claimed.compareAndSet(sequence - 1, sequence));
+
+        IntakeSlot slot = slots[(int) sequence & mask];
+        slot.sequence = IntakeSlot.UNPUBLISHED;
+        VarHandle.storeStoreFence();
+        slot.request = request;
+        slot.order = null;
+        slot.reason = null;
+        slot.status = IntakeStatus.QUEUED;
+        slot.sequence = sequence;
+        LockSupport.unpark(thread);
+        return sequence;
+    }
+
+    /**
+     * Reads the slot like a seqlock: the sequence is checked again after the fields are copied, and
+     * since {@link #publish} unpublishes a slot before refilling it, a copy taken while the slot was
+     * being claimed for a later lap is discarded instead of mixing two requests.
+     *
+     * @return the slot holding the given sequence, or {@code null} once it has been reused
+     */
+    IntakeSnapshot read(long sequence) {
+        IntakeSlot slot = slots[(int) sequence & mask];
+        if (slot.sequence != sequence) {
+            return null;
+        }
+        IntakeStatus status = slot.status;
+        IntakeSnapshot snapshot = new IntakeSnapshot(slot.request, status, slot.order, slot.reason);
+        VarHandle.acquireFence();
+        return slot.sequence == sequence ? snapshot : null;
+    }
+
+    @Override
+    public void run() {
+        List<IntakeSlot> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                drain(batch);
+            } catch (Throwable e) {
+                log.error("Order intake partition {} failed, rejecting {} requests", thread.getName(), batch.size(), e);
+                batch.stream()
+                        .filter(slot -> slot.status == IntakeStatus.QUEUED)
+                        .forEach(slot -> complete(slot, IntakeStatus.REJECTED, null, ORDER_INTAKE_FAILED_MSG));
+                consumed += batch.size();
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void drain(List<IntakeSlot> batch) {
+        long next = consumed + 1;
+        while (batch.size() < batchSize) {
+            IntakeSlot slot = slots[(int) (next + batch.size()) & mask];
+            if (slot.sequence != next + batch.size()) {
+                break;
+            }
+            batch.add(slot);
+        }
+        if (batch.isEmpty()) {
+            LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            return;
+        }
+        process(batch);
+        consumed += batch.size();
+    }
+
+    private void process(List<IntakeSlot> batch) {
+        Map<Integer, List<IntakeSlot>> slotsByCustomer = new LinkedHashMap<>();
+        for (IntakeSlot slot : batch) {
+            slotsByCustomer.computeIfAbsent(slot.request.customerId(), customerId -> new ArrayList<>()).add(slot);
+        }
+        slotsByCustomer.forEach((customerId, customerSlots) -> {
+            try {
+                BatchOrderResponse response = orderService.reserveOrders(customerId,
+                        customerSlots.stream().map(slot -> slot.request).toList());
+                for (BatchOrderResult result : response.results()) {
+                    IntakeSlot slot = customerSlots.get(result.index());
+                    complete(slot, result.accepted() ? IntakeStatus.ACCEPTED : IntakeStatus.REJECTED,
+                            result.order(), result.reason());
+                }
+            } catch (RuntimeException e) {
+                log.warn("Order intake for customer {} failed", customerId, e);
+                customerSlots.forEach(slot -> complete(slot, IntakeStatus.REJECTED, null, e.getMessage()));
+            }
+        });
+    }
+
+    private static void complete(IntakeSlot slot, IntakeStatus status, OrderResponse order, String reason) {
+        slot.order = order;
+        slot.reason = reason;
+        slot.status = status;
+    }
+
+    record IntakeSnapshot(OrderRequest request, IntakeStatus status, OrderResponse order, String reason) {
+    }
+}
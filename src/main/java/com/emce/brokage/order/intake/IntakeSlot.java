@@ -0,0 +1,21 @@
+package com.emce.brokage.order.intake;
+
+import com.emce.brokage.order.dto.OrderRequest;
+import com.emce.brokage.order.dto.OrderResponse;
+
+/**
+ * A preallocated entry of an {@link IntakePartition} ring. The producer that claimed a sequence
+ * resets {@link #sequence} to {@link #UNPUBLISHED}, fills the request and publishes it by writing
+ * {@link #sequence}; the partition thread writes the outcome and publishes it by writing
+ * {@link #status}. The outcome stays readable until the slot is claimed again one lap later.
+ */
+final class IntakeSlot {
+
+    static final long UNPUBLISHED = -1;
+
+    volatile long sequence = UNPUBLISHED;
+    volatile IntakeStatus status;
+    OrderRequest request;
+    OrderResponse order;
+    String reason;
+}
@@ -0,0 +1,7 @@
+package com.emce.brokage.order.intake;
+
+public enum IntakeStatus {
+    QUEUED,
+    ACCEPTED,
+    REJECTED
+}
@@ -0,0 +1,88 @@
+package com.emce.brokage.order.intake;
+
+import com.emce.brokage.exception.IntakeNotFoundException;
+import com.emce.brokage.exception.IntakeQueueFullException;
+import com.emce.brokage.order.OrderService;
+import com.emce.brokage.order.dto.OrderIntakeResponse;
+import com.emce.brokage.order.dto.OrderRequest;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.prepost.PostAuthorize;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+
+import static com.emce.brokage.common.Messages.*;
+
+/**
+ * Asynchronous front door for order creation. Requests are only sequenced here; the reservation
+ * runs later on the partition thread owning the customer, so all orders of one customer are
+ * applied in submission order while customers in different partitions proceed in parallel.
+ * <p>
+ * Sequence numbers interleave the partitions: {@code sequence = localSequence * partitions + partition}.
+ * They are per-process and are not persisted: every start numbers from zero again and the rings
+ * live only in memory, so a sequence handed out before a restart is not a valid handle afterwards.
+ * Clients find the outcome of such a request through the order listing instead.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderIntakeService {
+
+    private final OrderService orderService;
+
+    @Value("${application.intake.partitions:4}")
+    private int partitionCount;
+    @Value("${application.intake.ring-size:4096}")
+    private int ringSize;
+    @Value("${application.intake.batch-size:256}")
+    private int batchSize;
+
+    private IntakePartition[] partitions;
+
+    @PostConstruct
+    void start() {
+        partitions = new IntakePartition[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            partitions[i] = new IntakePartition(i, ringSize, batchSize, orderService);
+            partitions[i].start();
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        for (IntakePartition partition : partitions) {
+            partition.stop();
+        }
+    }
+
+    @PreAuthorize("#request.customerId == authentication.principal.id")
+    public OrderIntakeResponse submit(OrderRequest request) {
+        int partition = Math.floorMod(request.customerId(), partitionCount);
+        long localSequence = partitions[partition].publish(request);
+        if (localSequence < 0) {
+            throw new IntakeQueueFullException(ORDER_INTAKE_QUEUE_FULL_MSG);
+        }
+        return OrderIntakeResponse.builder()
+                .sequence(localSequence * partitionCount + partition)
+                .customerId(request.customerId())
+                .status(IntakeStatus.QUEUED)
+                .build();
+    }
+
+    @PostAuthorize("returnObject.customerId == authentication.principal.id")
+    public OrderIntakeResponse getStatus(Long sequence) {
+        int partition = (int) (sequence % partitionCount);
+        IntakePartition.IntakeSnapshot snapshot = partitions[partition].read(sequence / partitionCount);
+        if (snapshot == null) {
+            throw new IntakeNotFoundException(String.format(ORDER_INTAKE_NOT_FOUND_MSG, sequence));
+        }
+        return OrderIntakeResponse.builder()
+                .sequence(sequence)
+                .customerId(snapshot.request().customerId())
+                .status(snapshot.status())
+                .order(snapshot.order())
+                .reason(snapshot.reason())
+                .build();
+    }
+}
@@ -0,0 +1,163 @@
+package com.emce.brokage.order.stream;
+
+import com.emce.brokage.order.event.OrderEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process publish/subscribe hub pushing order status changes to server-sent event streams.
+ * Order events are fanned out after their transaction commits into a bounded buffer per
+ * subscriber; each subscriber has its own virtual thread draining that buffer into the
+ * connection, so a slow connection only ever blocks itself. A subscriber whose buffer overflows
+ * is disconnected rather than allowed to hold events back, and is expected to reconnect and
+ * reload the orders it cares about.
+ */
+@Slf4j
+@Component
+public class OrderEventHub {
+
+    static final String EVENT_NAME = "order";
+
+    private final ConcurrentMap<Integer, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService deliveryExecutor;
+    private final int bufferSize;
+    private final Duration timeout;
+    private final Duration heartbeatInterval;
+    private final Counter droppedSubscribers;
+
+    @Autowired
+    public OrderEventHub(MeterRegistry meterRegistry,
+                         @Value("${application.order-stream.buffer-size:256}") int bufferSize,
+                         @Value("${application.order-stream.timeout:30m}") Duration timeout,
+                         @Value("${application.order-stream.heartbeat-interval:15s}") Duration heartbeatInterval) {
+        this(meterRegistry, bufferSize, timeout, heartbeatInterval,
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("order-stream-", 0).factory()));
+    }
+
+    OrderEventHub(MeterRegistry meterRegistry, int bufferSize, Duration timeout, Duration heartbeatInterval,
+                  ExecutorService deliveryExecutor) {
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+        this.heartbeatInterval = heartbeatInterval;
+        this.deliveryExecutor = deliveryExecutor;
+        this.droppedSubscribers = Counter.builder("brokage.order.stream.dropped")
+                .description("Order stream subscribers disconnected for falling behind")
+                .register(meterRegistry);
+        Gauge.builder("brokage.order.stream.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open order status streams")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a stream of the customer's order status changes from now on.
+     */
+    @PreAuthorize("#customerId == authentication.principal.id")
+    public SseEmitter subscribe(Integer customerId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(customerId, emitter, new ArrayBlockingQueue<>(bufferSize));
+        subscribers.computeIfAbsent(customerId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        subscriberCount.incrementAndGet();
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+        deliveryExecutor.execute(() -> deliver(subscriber));
+        return emitter;
+    }
+
+    @TransactionalEventListener
+    public void onOrderEvent(OrderEvent event) {
+        Set<Subscriber> customerSubscribers = subscribers.get(event.customerId());
+        if (customerSubscribers == null) {
+            return;
+        }
+        for (Subscriber subscriber : customerSubscribers) {
+            if (!subscriber.buffer.offer(event)) {
+                log.warn("Dropping order stream of customer {}, {} events behind", subscriber.customerId, bufferSize);
+                droppedSubscribers.increment();
+                unsubscribe(subscriber);
+            }
+        }
+    }
+
+    int subscriberCount(Integer customerId) {
+        return subscribers.getOrDefault(customerId, Set.of()).size();
+    }
+
+    private void deliver(Subscriber subscriber) {
+        try {
+            while (!subscriber.closed) {
+                OrderEvent event = subscriber.buffer.poll(heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+                if (subscriber.closed) {
+                    break;
+                }
+                if (event == null) {
+                    subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                } else {
+                    subscriber.emitter.send(SseEmitter.event()
+                            .id(String.valueOf(event.orderId()))
+                            .name(EVENT_NAME)
+                            .data(event));
+                }
+            }
+            subscriber.emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Order stream of customer {} closed", subscriber.customerId, e);
+            unsubscribe(subscriber);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            unsubscribe(subscriber);
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscriber.closed = true;
+        subscriber.buffer.clear();
+        subscribers.computeIfPresent(subscriber.customerId, (id, customerSubscribers) -> {
+            if (customerSubscribers.remove(subscriber)) {
+                subscriberCount.decrementAndGet();
+            }
+            return customerSubscribers.isEmpty() ? null : customerSubscribers;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(customerSubscribers -> customerSubscribers.forEach(subscriber -> subscriber.closed = true));
+        deliveryExecutor.shutdownNow();
+    }
+
+    private static final class Subscriber {
+        private final Integer customerId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<OrderEvent> buffer;
+        private volatile boolean closed;
+
+        private Subscriber(Integer customerId, SseEmitter emitter, BlockingQueue<OrderEvent> buffer) {
+            this.customerId = customerId;
+            this.emitter = emitter;
+            this.buffer = buffer;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.emce.brokage.portfolio;
+
+import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.portfolio.dto.BookValuation;
+import com.emce.brokage.portfolio.dto.PortfolioValuation;
+import jakarta.validation.constraints.Positive;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/portfolio")
+@RequiredArgsConstructor
+@Validated
+public class PortfolioController {
+
+    private final PortfolioService portfolioService;
+    private final RateService rateService;
+
+    @GetMapping("/{customerId}/valuation")
+    public ResponseEntity<PortfolioValuation> getValuation(
+            @PathVariable("customerId") @Positive(message = "Customer ID must be a positive number") Integer customerId) {
+        return ResponseEntity.ok(portfolioService.getValuation(customerId));
+    }
+
+    @GetMapping("/valuation")
+    public ResponseEntity<BookValuation> getBookValuation() {
+        return ResponseEntity.ok(portfolioService.getBookValuation());
+    }
+
+    @GetMapping("/rates")
+    public ResponseEntity<Map<AssetType, BigDecimal>> getRates() {
+        return ResponseEntity.ok(rateService.current().rates());
+    }
+
+    @PutMapping("/rates")
+    public ResponseEntity<Map<AssetType, BigDecimal>> updateRates(@RequestBody Map<String, BigDecimal> rates) {
+        return ResponseEntity.ok(rateService.update(rates).rates());
+    }
+}
@@ -0,0 +1,48 @@
+package com.emce.brokage.portfolio;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Keyset reads of the asset rows of a range of customers, for valuing the whole book.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PortfolioRepository {
+
+    private static final String SELECT_ASSETS = "SELECT id, customer_id, asset_name, size, usable_size FROM assets "
+            + "WHERE customer_id >= ? AND customer_id < ? AND id > ? ORDER BY id FETCH FIRST ? ROWS ONLY";
+    private static final String SELECT_CUSTOMER_ID_RANGE = "SELECT MIN(customer_id), MAX(customer_id) FROM assets";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Passes every asset row of customers {@code fromId} (inclusive) to {@code toId} (exclusive) to
+     * the handler, {@code batchSize} rows per query.
+     */
+    void forEachAsset(int fromId, int toId, int batchSize, RowCallbackHandler handler) {
+        int[] lastId = {0};
+        int[] read = {0};
+        do {
+            read[0] = 0;
+            jdbcTemplate.query(SELECT_ASSETS, rs -> {
+                handler.processRow(rs);
+                lastId[0] = rs.getInt("id");
+                read[0]++;
+            }, fromId, toId, lastId[0], batchSize);
+        } while (read[0] == batchSize);
+    }
+
+    /**
+     * Returns the lowest and highest id of a customer holding assets, or {@code null} when there
+     * are none.
+     */
+    int[] findCustomerIdRange() {
+        return jdbcTemplate.queryForObject(SELECT_CUSTOMER_ID_RANGE, (rs, rowNum) -> {
+            int min = rs.getInt(1);
+            return rs.wasNull() ? null : new int[]{min, rs.getInt(2)};
+        });
+    }
+}
@@ -0,0 +1,215 @@
+package com.emce.brokage.portfolio;
+
+import com.emce.brokage.asset.AssetService;
+import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.portfolio.dto.AssetValuation;
+import com.emce.brokage.portfolio.dto.BookValuation;
+import com.emce.brokage.portfolio.dto.CustomerValue;
+import com.emce.brokage.portfolio.dto.PortfolioValuation;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+
+/**
+ * Values asset sizes in TRY with the rates of {@link RateService}. Every valuation reads the
+ * current {@link PriceTable} once and uses it throughout, so all of its values are consistent
+ * even while rates are replaced. A customer's valuation reads the assets the way the asset list
+ * does, from the position cache when it can. The whole book is valued by a dedicated fork-join
+ * pool over ranges of {@code partition-size} customer ids, each range summed from keyset reads in
+ * a read only transaction; its duration is published as {@code brokage.portfolio.valuation.duration}.
+ */
+@Slf4j
+@Service
+public class PortfolioService {
+
+    private static final int VALUE_SCALE = AssetType.TRY.scale();
+
+    private final AssetService assetService;
+    private final RateService rateService;
+    private final PortfolioRepository portfolioRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ForkJoinPool pool;
+    private final int partitionSize;
+    private final int batchSize;
+    private final int largestCustomers;
+    private final Timer duration;
+
+    public PortfolioService(AssetService assetService, RateService rateService, PortfolioRepository portfolioRepository,
+                            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                            @Value("${application.portfolio.parallelism:4}") int parallelism,
+                            @Value("${application.portfolio.partition-size:10000}") int partitionSize,
+                            @Value("${application.portfolio.batch-size:5000}") int batchSize,
+                            @Value("${application.portfolio.largest-customers:10}") int largestCustomers) {
+        this.assetService = assetService;
+        this.rateService = rateService;
+        this.portfolioRepository = portfolioRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.pool = new ForkJoinPool(parallelism);
+        this.partitionSize = partitionSize;
+        this.batchSize = batchSize;
+        this.largestCustomers = largestCustomers;
+        this.duration = Timer.builder("brokage.portfolio.valuation.duration")
+                .description("Duration of whole book valuations")
+                .register(meterRegistry);
+    }
+
+    @PreAuthorize("#customerId == authentication.principal.id")
+    public PortfolioValuation getValuation(Integer customerId) {
+        PriceTable prices = rateService.current();
+        List<AssetValuation> assets = assetService.getAssetsForCustomer(customerId, null, Pageable.unpaged()).stream()
+                .map(asset -> value(prices, asset.assetName(), asset.size(), asset.usableSize()))
+                .toList();
+        return PortfolioValuation.builder()
+                .customerId(customerId)
+                .assets(assets)
+                .totalValue(sum(assets, AssetValuation::value))
+                .totalUsableValue(sum(assets, AssetValuation::usableValue))
+                .complete(assets.stream().allMatch(asset -> asset.rate() != null))
+                .ratesAsOf(prices.asOf())
+                .build();
+    }
+
+    /**
+     * Values the assets of all customers, in parallel over ranges of customer ids.
+     */
+    public BookValuation getBookValuation() {
+        PriceTable prices = rateService.current();
+        int[] customerIds = portfolioRepository.findCustomerIdRange();
+        BookTotals totals = customerIds == null ? new BookTotals()
+                : duration.record(() -> pool.invoke(new ValueRange(prices, customerIds[0], customerIds[1] + 1)));
+        List<AssetValuation> assets = totals.sizes.entrySet().stream()
+                .map(entry -> value(prices, entry.getKey(), entry.getValue()[0], entry.getValue()[1]))
+                .toList();
+        log.info("Valued {} customers holding {} assets", totals.customers, assets.size());
+        return BookValuation.builder()
+                .customers(totals.customers)
+                .assets(assets)
+                .totalValue(sum(assets, AssetValuation::value))
+                .totalUsableValue(sum(assets, AssetValuation::usableValue))
+                .complete(assets.stream().allMatch(asset -> asset.rate() != null))
+                .largestCustomers(totals.largest.stream()
+                        .sorted(Comparator.comparing(CustomerValue::totalValue).reversed()
+                                .thenComparing(CustomerValue::customerId))
+                        .toList())
+                .ratesAsOf(prices.asOf())
+                .valuedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private BookTotals valueRange(PriceTable prices, int fromId, int toId) {
+        BookTotals totals = new BookTotals();
+        Map<Integer, BigDecimal> customerValues = new HashMap<>();
+        readOnlyTransaction.executeWithoutResult(status -> portfolioRepository.forEachAsset(fromId, toId, batchSize, rs -> {
+            AssetType assetName = AssetType.valueOf(rs.getString("asset_name"));
+            BigDecimal size = rs.getBigDecimal("size");
+            totals.add(assetName, size, rs.getBigDecimal("usable_size"));
+            BigDecimal rate = prices.rate(assetName);
+            customerValues.merge(rs.getInt("customer_id"), rate == null ? BigDecimal.ZERO : size.multiply(rate),
+                    BigDecimal::add);
+        }));
+        totals.customers = customerValues.size();
+        customerValues.forEach((customerId, value) -> totals.offer(new CustomerValue(customerId, toValue(value))));
+        return totals;
+    }
+
+    private static AssetValuation value(PriceTable prices, AssetType assetName, BigDecimal size, BigDecimal usableSize) {
+        BigDecimal rate = prices.rate(assetName);
+        return AssetValuation.builder()
+                .assetName(assetName)
+                .size(size)
+                .usableSize(usableSize)
+                .rate(rate)
+                .value(rate == null ? null : toValue(size.multiply(rate)))
+                .usableValue(rate == null ? null : toValue(usableSize.multiply(rate)))
+                .build();
+    }
+
+    private static BigDecimal toValue(BigDecimal amount) {
+        return amount.setScale(VALUE_SCALE, RoundingMode.HALF_UP);
+    }
+
+    private static BigDecimal sum(List<AssetValuation> assets, Function<AssetValuation, BigDecimal> value) {
+        return assets.stream().map(value).filter(Objects::nonNull)
+                .reduce(BigDecimal.ZERO.setScale(VALUE_SCALE), BigDecimal::add);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    // sizes and usable sizes per asset, and the largest customer values seen, of a range of customers
+    private final class BookTotals {
+        private final Map<AssetType, BigDecimal[]> sizes = new TreeMap<>();
+        private final PriorityQueue<CustomerValue> largest = new PriorityQueue<>(
+                Comparator.comparing(CustomerValue::totalValue).thenComparing(CustomerValue::customerId, Comparator.reverseOrder()));
+        private int customers;
+
+        private void add(AssetType assetName, BigDecimal size, BigDecimal usableSize) {
+            BigDecimal[] totals = sizes.computeIfAbsent(assetName, asset -> new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO});
+            totals[0] = totals[0].add(size);
+            totals[1] = totals[1].add(usableSize);
+        }
+
+        private void offer(CustomerValue customerValue) {
+            largest.add(customerValue);
+            if (largest.size() > largestCustomers) {
+                largest.poll();
+            }
+        }
+
+        private BookTotals plus(BookTotals other) {
+            other.sizes.forEach((assetName, totals) -> add(assetName, totals[0], totals[1]));
+            other.largest.forEach(this::offer);
+            customers += other.customers;
+            return this;
+        }
+    }
+
+    private final class ValueRange extends RecursiveTask<BookTotals> {
+
+        private final PriceTable prices;
+        private final int fromId;
+        private final int toId;
+
+        private ValueRange(PriceTable prices, int fromId, int toId) {
+            this.prices = prices;
+            this.fromId = fromId;
+            this.toId = toId;
+        }
+
+        @Override
+        protected BookTotals compute() {
+            if (toId - fromId <= partitionSize) {
+                return valueRange(prices, fromId, toId);
+            }
+            int middle = fromId + (toId - fromId) / 2;
+            ValueRange lower = new ValueRange(prices, fromId, middle);
+            lower.fork();
+            BookTotals upper = new ValueRange(prices, middle, toId).compute();
+            return lower.join().plus(upper);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.emce.brokage.portfolio;
+
+import com.emce.brokage.asset.entity.AssetType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable TRY rates of assets, indexed by instrument id so a lookup is an array read. TRY is
+ * always worth one; an asset without a rate is {@code null}. {@link RateService} replaces the
+ * whole table when rates change, a valuation keeps the table it started with.
+ */
+public final class PriceTable {
+
+    static final PriceTable EMPTY = new PriceTable(Map.of(), "none", null);
+
+    private final BigDecimal[] rates;
+    private final Map<AssetType, BigDecimal> byAsset;
+    private final String source;
+    private final LocalDateTime asOf;
+
+    PriceTable(Map<AssetType, BigDecimal> rates, String source, LocalDateTime asOf) {
+        this.rates = new BigDecimal[rates.keySet().stream().mapToInt(AssetType::id).max().orElse(-1) + 1];
+        rates.forEach((assetType, rate) -> this.rates[assetType.id()] = rate);
+        this.byAsset = Collections.unmodifiableMap(new TreeMap<>(rates));
+        this.source = source;
+        this.asOf = asOf;
+    }
+
+    public BigDecimal rate(AssetType assetType) {
+        if (AssetType.TRY.equals(assetType)) {
+            return BigDecimal.ONE;
+        }
+        int id = assetType.id();
+        return id < rates.length ? rates[id] : null;
+    }
+
+    /** The rates in instrument id order, without the implied TRY rate. */
+    public Map<AssetType, BigDecimal> rates() {
+        return byAsset;
+    }
+
+    /** Where the rates came from: the rates file, an admin update or none. */
+    public String source() {
+        return source;
+    }
+
+    public LocalDateTime asOf() {
+        return asOf;
+    }
+}
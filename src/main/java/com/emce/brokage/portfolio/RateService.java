@@ -0,0 +1,112 @@
+package com.emce.brokage.portfolio;
+
+import com.emce.brokage.asset.entity.AssetType;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.InvalidParameterException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.emce.brokage.common.Messages.RATE_ASSET_NOT_FOUND_MSG;
+import static com.emce.brokage.common.Messages.RATE_NOT_POSITIVE_MSG;
+
+/**
+ * Holds the TRY rates portfolios are valued with as one {@link PriceTable} behind an atomic
+ * reference: readers never lock, an update builds a new table and swaps it in. Rates come from
+ * the properties file at {@code application.portfolio.rates-file} ({@code USD=34.25} per line),
+ * read at startup and again whenever the file changes, or from an admin update, whichever is
+ * newer.
+ */
+@Slf4j
+@Service
+@DependsOn("instrumentRegistry") // rates name instruments by symbol
+public class RateService {
+
+    static final String FILE_SOURCE = "file";
+    static final String ADMIN_SOURCE = "admin";
+
+    private final AtomicReference<PriceTable> current = new AtomicReference<>(PriceTable.EMPTY);
+    private final Path ratesFile;
+    private FileTime loadedModifiedTime;
+
+    public RateService(@Value("${application.portfolio.rates-file:}") String ratesFile) {
+        this.ratesFile = ratesFile.isBlank() ? null : Path.of(ratesFile);
+    }
+
+    public PriceTable current() {
+        return current.get();
+    }
+
+    @PostConstruct
+    void load() {
+        reloadIfModified();
+    }
+
+    @Scheduled(fixedDelayString = "${application.portfolio.rates-check-interval-ms:10000}",
+            initialDelayString = "${application.portfolio.rates-check-interval-ms:10000}")
+    synchronized void reloadIfModified() {
+        if (ratesFile == null || !Files.isReadable(ratesFile)) {
+            return;
+        }
+        try {
+            FileTime modifiedTime = Files.getLastModifiedTime(ratesFile);
+            if (modifiedTime.equals(loadedModifiedTime)) {
+                return;
+            }
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(ratesFile)) {
+                properties.load(reader);
+            }
+            Map<String, BigDecimal> rates = new HashMap<>();
+            properties.forEach((symbol, rate) -> rates.put(symbol.toString().trim(), new BigDecimal(rate.toString().trim())));
+            PriceTable table = publish(rates, FILE_SOURCE);
+            loadedModifiedTime = modifiedTime;
+            log.info("Loaded {} rates from {}", table.rates().size(), ratesFile);
+        } catch (IOException | RuntimeException e) {
+            // keep valuing with the rates already loaded until the file is fixed
+            log.error("Rates file {} could not be loaded", ratesFile, e);
+        }
+    }
+
+    /**
+     * Replaces all rates with the given TRY rates, keyed by asset symbol.
+     *
+     * @throws InvalidParameterException if a symbol is not listed or a rate is not positive
+     */
+    public PriceTable update(Map<String, BigDecimal> rates) {
+        return publish(rates, ADMIN_SOURCE);
+    }
+
+    private PriceTable publish(Map<String, BigDecimal> rates, String source) {
+        Map<AssetType, BigDecimal> byAsset = new HashMap<>();
+        rates.forEach((symbol, rate) -> {
+            AssetType assetType;
+            try {
+                assetType = AssetType.valueOf(symbol);
+            } catch (IllegalArgumentException e) {
+                throw new InvalidParameterException(String.format(RATE_ASSET_NOT_FOUND_MSG, symbol));
+            }
+            if (rate == null || rate.signum() <= 0) {
+                throw new InvalidParameterException(String.format(RATE_NOT_POSITIVE_MSG, symbol));
+            }
+            byAsset.put(assetType, rate);
+        });
+        PriceTable table = new PriceTable(byAsset, source, LocalDateTime.now());
+        current.set(table);
+        return table;
+    }
+}
@@ -0,0 +1,15 @@
+package com.emce.brokage.portfolio.dto;
+
+import com.emce.brokage.asset.entity.AssetType;
+import lombok.Builder;
+
+import java.math.BigDecimal;
+
+/**
+ * Sizes of one asset valued in TRY at {@code rate}. Rate and values are {@code null} when no rate
+ * is known for the asset.
+ */
+@Builder
+public record AssetValuation(AssetType assetName, BigDecimal size, BigDecimal usableSize, BigDecimal rate,
+                             BigDecimal value, BigDecimal usableValue) {
+}
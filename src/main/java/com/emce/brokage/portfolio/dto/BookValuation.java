@@ -0,0 +1,17 @@
+package com.emce.brokage.portfolio.dto;
+
+import lombok.Builder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * All customers' assets valued in TRY with one set of rates: the sizes and values summed per asset,
+ * the grand totals over the assets with a rate and the customers holding the most.
+ */
+@Builder
+public record BookValuation(int customers, List<AssetValuation> assets, BigDecimal totalValue,
+                            BigDecimal totalUsableValue, boolean complete, List<CustomerValue> largestCustomers,
+                            LocalDateTime ratesAsOf, LocalDateTime valuedAt) {
+}
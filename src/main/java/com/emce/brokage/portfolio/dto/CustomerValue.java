@@ -0,0 +1,6 @@
+package com.emce.brokage.portfolio.dto;
+
+import java.math.BigDecimal;
+
+public record CustomerValue(Integer customerId, BigDecimal totalValue) {
+}
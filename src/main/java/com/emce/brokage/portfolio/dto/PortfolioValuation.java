@@ -0,0 +1,16 @@
+package com.emce.brokage.portfolio.dto;
+
+import lombok.Builder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A customer's assets valued in TRY. The totals leave out assets without a rate, {@code complete}
+ * tells whether there were any.
+ */
+@Builder
+public record PortfolioValuation(Integer customerId, List<AssetValuation> assets, BigDecimal totalValue,
+                                 BigDecimal totalUsableValue, boolean complete, LocalDateTime ratesAsOf) {
+}
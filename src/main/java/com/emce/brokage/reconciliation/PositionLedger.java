@@ -0,0 +1,88 @@
+package com.emce.brokage.reconciliation;
+
+import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.balance.entity.TransactionType;
+import com.emce.brokage.order.OrderFills;
+import com.emce.brokage.order.entity.OrderSide;
+import com.emce.brokage.order.entity.OrderStatus;
+import com.emce.brokage.reconciliation.dto.Discrepancy;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Expected and actual asset sizes of a range of customers. Expected sizes follow the bookkeeping
+ * of {@code BalanceService} and {@code OrderAssetMovements}: approved deposits and withdrawals
+ * move both TRY sizes, a pending order holds the reservation of its unfilled part and the filled
+ * part of any order is settled at the amount it was filled for. Canceled orders without fills
+ * leave no trace and are never fed in.
+ */
+final class PositionLedger {
+
+    private final Map<Integer, Map<AssetType, Position>> positions = new HashMap<>();
+
+    void transaction(Integer customerId, TransactionType transactionType, BigDecimal amount) {
+        BigDecimal signed = transactionType == TransactionType.WITHDRAW ? amount.negate() : amount;
+        position(customerId, AssetType.TRY).expect(signed, signed);
+    }
+
+    void order(Integer customerId, AssetType assetName, OrderSide orderSide, OrderStatus status,
+               BigDecimal size, BigDecimal price, BigDecimal filledSize, BigDecimal filledAmount) {
+        Position tryPosition = position(customerId, AssetType.TRY);
+        Position orderPosition = position(customerId, assetName);
+        boolean pending = status == OrderStatus.PENDING;
+        BigDecimal reservedSize = pending ? size.subtract(filledSize) : BigDecimal.ZERO;
+        BigDecimal reservedPrice = pending ? OrderFills.remainingPrice(size, price, filledSize) : BigDecimal.ZERO;
+        if (orderSide == OrderSide.BUY) {
+            orderPosition.expect(filledSize.add(reservedSize), filledSize);
+            tryPosition.expect(filledAmount.negate(), filledAmount.add(reservedPrice).negate());
+        } else if (orderSide == OrderSide.SELL) {
+            orderPosition.expect(filledSize.negate(), filledSize.add(reservedSize).negate());
+            tryPosition.expect(filledAmount.add(reservedPrice), filledAmount);
+        }
+    }
+
+    void asset(Integer customerId, AssetType assetName, BigDecimal size, BigDecimal usableSize) {
+        Position position = position(customerId, assetName);
+        position.actualSize = position.actualSize.add(size);
+        position.actualUsableSize = position.actualUsableSize.add(usableSize);
+    }
+
+    List<Discrepancy> discrepancies() {
+        List<Discrepancy> discrepancies = new ArrayList<>();
+        positions.forEach((customerId, assets) -> assets.forEach((assetName, position) -> {
+            if (position.expectedSize.compareTo(position.actualSize) != 0
+                    || position.expectedUsableSize.compareTo(position.actualUsableSize) != 0) {
+                discrepancies.add(Discrepancy.builder()
+                        .customerId(customerId)
+                        .assetName(assetName)
+                        .expectedSize(position.expectedSize)
+                        .actualSize(position.actualSize)
+                        .expectedUsableSize(position.expectedUsableSize)
+                        .actualUsableSize(position.actualUsableSize)
+                        .build());
+            }
+        }));
+        return discrepancies;
+    }
+
+    private Position position(Integer customerId, AssetType assetName) {
+        return positions.computeIfAbsent(customerId, id -> new HashMap<>())
+                .computeIfAbsent(assetName, name -> new Position());
+    }
+
+    private static final class Position {
+        private BigDecimal expectedSize = BigDecimal.ZERO;
+        private BigDecimal expectedUsableSize = BigDecimal.ZERO;
+        private BigDecimal actualSize = BigDecimal.ZERO;
+        private BigDecimal actualUsableSize = BigDecimal.ZERO;
+
+        private void expect(BigDecimal size, BigDecimal usableSize) {
+            expectedSize = expectedSize.add(size);
+            expectedUsableSize = expectedUsableSize.add(usableSize);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.emce.brokage.reconciliation;
+
+import com.emce.brokage.reconciliation.dto.Discrepancy;
+import com.emce.brokage.reconciliation.dto.ReconciliationReport;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/reconciliation")
+@RequiredArgsConstructor
+public class ReconciliationController {
+
+    private final ReconciliationService reconciliationService;
+
+    @PostMapping("/run")
+    public ReconciliationReport run() {
+        return reconciliationService.run();
+    }
+
+    @GetMapping("/runs/{runId}/discrepancies")
+    public List<Discrepancy> getDiscrepancies(@PathVariable("runId") Integer runId) {
+        return reconciliationService.getDiscrepancies(runId);
+    }
+}
@@ -0,0 +1,134 @@
+package com.emce.brokage.reconciliation;
+
+import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.balance.entity.TransactionStatus;
+import com.emce.brokage.balance.entity.TransactionType;
+import com.emce.brokage.order.entity.OrderSide;
+import com.emce.brokage.order.entity.OrderStatus;
+import com.emce.brokage.reconciliation.dto.Discrepancy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Keyset reads of everything that determines a range of customers' asset sizes, and the
+ * reconciliation result tables.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReconciliationRepository {
+
+    private static final String CUSTOMER_RANGE = "customer_id >= ? AND customer_id < ? AND id > ?";
+    private static final String NEXT_PAGE = " ORDER BY id FETCH FIRST ? ROWS ONLY";
+    private static final String ORDER_COLUMNS = "id, customer_id, asset_name, order_side, status, size, price, filled_size, filled_amount";
+
+    private static final String SELECT_TRANSACTIONS = "SELECT id, customer_id, order_side, amount FROM account_transactions "
+            + "WHERE status = '" + TransactionStatus.APPROVED + "' AND " + CUSTOMER_RANGE + NEXT_PAGE;
+    // one statement over both tables, so an order moved to the archive meanwhile is read exactly once
+    private static final String SELECT_ORDERS = "SELECT " + ORDER_COLUMNS + " FROM (SELECT " + ORDER_COLUMNS
+            + " FROM orders UNION ALL SELECT " + ORDER_COLUMNS + " FROM orders_archive) o "
+            + "WHERE (status <> '" + OrderStatus.CANCELED + "' OR filled_size > 0) AND " + CUSTOMER_RANGE + NEXT_PAGE;
+    private static final String SELECT_ASSETS = "SELECT id, customer_id, asset_name, size, usable_size FROM assets "
+            + "WHERE " + CUSTOMER_RANGE + NEXT_PAGE;
+    private static final String SELECT_CUSTOMER_ID_RANGE = "SELECT MIN(id), MAX(id) FROM customers";
+    private static final String COUNT_CUSTOMERS = "SELECT COUNT(*) FROM customers WHERE id >= ? AND id < ?";
+    private static final String INSERT_RUN = "INSERT INTO reconciliation_runs (started_at) VALUES (?)";
+    private static final String FINISH_RUN = "UPDATE reconciliation_runs SET finished_at = ?, customers_checked = ?, "
+            + "discrepancies = ? WHERE id = ?";
+    private static final String INSERT_DISCREPANCY = "INSERT INTO reconciliation_discrepancies (run_id, customer_id, "
+            + "asset_name, expected_size, actual_size, expected_usable_size, actual_usable_size) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String SELECT_DISCREPANCIES = "SELECT customer_id, asset_name, expected_size, actual_size, "
+            + "expected_usable_size, actual_usable_size FROM reconciliation_discrepancies WHERE run_id = ? "
+            + "ORDER BY customer_id, asset_name";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Feeds the approved transactions, the live and archived orders and the assets of customers
+     * {@code fromId} (inclusive) to {@code toId} (exclusive) into the ledger, {@code batchSize}
+     * rows per query.
+     */
+    void load(PositionLedger ledger, int fromId, int toId, int batchSize) {
+        forEachRow(SELECT_TRANSACTIONS, fromId, toId, batchSize, rs -> ledger.transaction(rs.getInt("customer_id"),
+                TransactionType.valueOf(rs.getString("order_side")), rs.getBigDecimal("amount")));
+        forEachRow(SELECT_ORDERS, fromId, toId, batchSize, rs -> ledger.order(rs.getInt("customer_id"),
+                AssetType.valueOf(rs.getString("asset_name")), OrderSide.valueOf(rs.getString("order_side")),
+                OrderStatus.valueOf(rs.getString("status")), rs.getBigDecimal("size"), rs.getBigDecimal("price"),
+                rs.getBigDecimal("filled_size"), rs.getBigDecimal("filled_amount")));
+        forEachRow(SELECT_ASSETS, fromId, toId, batchSize, rs -> ledger.asset(rs.getInt("customer_id"),
+                AssetType.valueOf(rs.getString("asset_name")), rs.getBigDecimal("size"), rs.getBigDecimal("usable_size")));
+    }
+
+    private void forEachRow(String query, int fromId, int toId, int batchSize, RowCallbackHandler handler) {
+        int[] lastId = {0};
+        int[] read = {0};
+        do {
+            read[0] = 0;
+            jdbcTemplate.query(query, rs -> {
+                handler.processRow(rs);
+                lastId[0] = rs.getInt("id");
+                read[0]++;
+            }, fromId, toId, lastId[0], batchSize);
+        } while (read[0] == batchSize);
+    }
+
+    /**
+     * Returns the lowest and highest customer id, or {@code null} when there are no customers.
+     */
+    int[] findCustomerIdRange() {
+        return jdbcTemplate.queryForObject(SELECT_CUSTOMER_ID_RANGE, (rs, rowNum) -> {
+            int min = rs.getInt(1);
+            return rs.wasNull() ? null : new int[]{min, rs.getInt(2)};
+        });
+    }
+
+    int countCustomers(int fromId, int toId) {
+        return Objects.requireNonNull(jdbcTemplate.queryForObject(COUNT_CUSTOMERS, Integer.class, fromId, toId));
+    }
+
+    Integer startRun(LocalDateTime startedAt) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(INSERT_RUN, new String[]{"id"});
+            statement.setTimestamp(1, Timestamp.valueOf(startedAt));
+            return statement;
+        }, keyHolder);
+        return Objects.requireNonNull(keyHolder.getKey()).intValue();
+    }
+
+    void finishRun(Integer runId, LocalDateTime finishedAt, int customersChecked, int discrepancies) {
+        jdbcTemplate.update(FINISH_RUN, Timestamp.valueOf(finishedAt), customersChecked, discrepancies, runId);
+    }
+
+    void saveDiscrepancies(Integer runId, List<Discrepancy> discrepancies) {
+        jdbcTemplate.batchUpdate(INSERT_DISCREPANCY, discrepancies, discrepancies.size(), (statement, discrepancy) -> {
+            statement.setInt(1, runId);
+            statement.setInt(2, discrepancy.customerId());
+            statement.setString(3, discrepancy.assetName().name());
+            statement.setBigDecimal(4, discrepancy.expectedSize());
+            statement.setBigDecimal(5, discrepancy.actualSize());
+            statement.setBigDecimal(6, discrepancy.expectedUsableSize());
+            statement.setBigDecimal(7, discrepancy.actualUsableSize());
+        });
+    }
+
+    public List<Discrepancy> findDiscrepancies(Integer runId) {
+        return jdbcTemplate.query(SELECT_DISCREPANCIES, (rs, rowNum) -> Discrepancy.builder()
+                .customerId(rs.getInt("customer_id"))
+                .assetName(AssetType.valueOf(rs.getString("asset_name")))
+                .expectedSize(rs.getBigDecimal("expected_size"))
+                .actualSize(rs.getBigDecimal("actual_size"))
+                .expectedUsableSize(rs.getBigDecimal("expected_usable_size"))
+                .actualUsableSize(rs.getBigDecimal("actual_usable_size"))
+                .build(), runId);
+    }
+}
@@ -0,0 +1,181 @@
+package com.emce.brokage.reconciliation;
+
+import com.emce.brokage.concurrency.CustomerStripedLock;
+import com.emce.brokage.exception.ReconciliationRunningException;
+import com.emce.brokage.reconciliation.dto.Discrepancy;
+import com.emce.brokage.reconciliation.dto.ReconciliationReport;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.emce.brokage.common.Messages.RECONCILIATION_ALREADY_RUNNING_MSG;
+
+/**
+ * Checks every customer's asset sizes against what their approved transactions and their live
+ * and archived orders imply. Customer ids are split into ranges of {@code partition-size} that a
+ * dedicated fork-join pool reconciles in parallel, each range read with keyset queries in a read
+ * only transaction (served by the replica when one is configured). Trading goes on meanwhile, so a
+ * customer that does not add up is checked again under its customer lock before the discrepancy
+ * is recorded in {@code reconciliation_discrepancies}.
+ * <p>
+ * The last run's results are published as {@code brokage.reconciliation.discrepancies} and
+ * {@code brokage.reconciliation.customers}, its duration as {@code brokage.reconciliation.duration}.
+ */
+@Slf4j
+@Service
+public class ReconciliationService {
+
+    private final ReconciliationRepository reconciliationRepository;
+    private final CustomerStripedLock customerLock;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate lockingTransaction;
+    private final ForkJoinPool pool;
+    private final int partitionSize;
+    private final int batchSize;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicInteger lastDiscrepancies = new AtomicInteger();
+    private final AtomicInteger lastCustomersChecked = new AtomicInteger();
+    private final Timer duration;
+
+    public ReconciliationService(ReconciliationRepository reconciliationRepository, CustomerStripedLock customerLock,
+                                 PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                                 @Value("${application.reconciliation.parallelism:4}") int parallelism,
+                                 @Value("${application.reconciliation.partition-size:10000}") int partitionSize,
+                                 @Value("${application.reconciliation.batch-size:5000}") int batchSize) {
+        this.reconciliationRepository = reconciliationRepository;
+        this.customerLock = customerLock;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.lockingTransaction = new TransactionTemplate(transactionManager);
+        this.pool = new ForkJoinPool(parallelism);
+        this.partitionSize = partitionSize;
+        this.batchSize = batchSize;
+        this.duration = Timer.builder("brokage.reconciliation.duration")
+                .description("Duration of balance reconciliation runs")
+                .register(meterRegistry);
+        Gauge.builder("brokage.reconciliation.discrepancies", lastDiscrepancies, AtomicInteger::get)
+                .description("Asset positions that did not reconcile in the last run")
+                .register(meterRegistry);
+        Gauge.builder("brokage.reconciliation.customers", lastCustomersChecked, AtomicInteger::get)
+                .description("Customers checked in the last reconciliation run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${application.reconciliation.cron:0 0 2 * * *}")
+    public void scheduledRun() {
+        try {
+            run();
+        } catch (ReconciliationRunningException e) {
+            log.warn("Skipping scheduled reconciliation, the previous run is still going");
+        }
+    }
+
+    /**
+     * Reconciles all customers and records the discrepancies under a new run.
+     *
+     * @throws ReconciliationRunningException if a run is already in progress
+     */
+    public ReconciliationReport run() {
+        if (!running.compareAndSet(false, true)) {
+            throw new ReconciliationRunningException(RECONCILIATION_ALREADY_RUNNING_MSG);
+        }
+        try {
+            LocalDateTime startedAt = LocalDateTime.now();
+            Integer runId = reconciliationRepository.startRun(startedAt);
+            int[] customerIds = reconciliationRepository.findCustomerIdRange();
+            RangeResult result = customerIds == null ? new RangeResult(0, 0)
+                    : duration.record(() -> pool.invoke(new ReconcileRange(runId, customerIds[0], customerIds[1] + 1)));
+            LocalDateTime finishedAt = LocalDateTime.now();
+            reconciliationRepository.finishRun(runId, finishedAt, result.customers(), result.discrepancies());
+            lastCustomersChecked.set(result.customers());
+            lastDiscrepancies.set(result.discrepancies());
+            log.info("Reconciliation run {} checked {} customers and found {} discrepancies",
+                    runId, result.customers(), result.discrepancies());
+            return ReconciliationReport.builder()
+                    .runId(runId)
+                    .customersChecked(result.customers())
+                    .discrepancies(result.discrepancies())
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .build();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public List<Discrepancy> getDiscrepancies(Integer runId) {
+        return reconciliationRepository.findDiscrepancies(runId);
+    }
+
+    private RangeResult reconcile(Integer runId, int fromId, int toId) {
+        List<Discrepancy> suspects = readOnlyTransaction.execute(status -> discrepancies(fromId, toId));
+        List<Discrepancy> confirmed = suspects.stream()
+                .map(Discrepancy::customerId)
+                .distinct()
+                .flatMap(customerId -> lockingTransaction.execute(status -> {
+                    customerLock.lockForTransaction(customerId);
+                    return discrepancies(customerId, customerId + 1);
+                }).stream())
+                .toList();
+        if (!confirmed.isEmpty()) {
+            reconciliationRepository.saveDiscrepancies(runId, confirmed);
+        }
+        return new RangeResult(reconciliationRepository.countCustomers(fromId, toId), confirmed.size());
+    }
+
+    private List<Discrepancy> discrepancies(int fromId, int toId) {
+        PositionLedger ledger = new PositionLedger();
+        reconciliationRepository.load(ledger, fromId, toId, batchSize);
+        return ledger.discrepancies();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private record RangeResult(int customers, int discrepancies) {
+        private RangeResult plus(RangeResult other) {
+            return new RangeResult(customers + other.customers, discrepancies + other.discrepancies);
+        }
+    }
+
+    private final class ReconcileRange extends RecursiveTask<RangeResult> {
+
+        private final Integer runId;
+        private final int fromId;
+        private final int toId;
+
+        private ReconcileRange(Integer runId, int fromId, int toId) {
+            this.runId = runId;
+            this.fromId = fromId;
+            this.toId = toId;
+        }
+
+        @Override
+        protected RangeResult compute() {
+            if (toId - fromId <= partitionSize) {
+                return reconcile(runId, fromId, toId);
+            }
+            int middle = fromId + (toId - fromId) / 2;
+            ReconcileRange lower = new ReconcileRange(runId, fromId, middle);
+            lower.fork();
+            RangeResult upper = new ReconcileRange(runId, middle, toId).compute();
+            return lower.join().plus(upper);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.emce.brokage.reconciliation.dto;
+
+import com.emce.brokage.asset.entity.AssetType;
+import lombok.Builder;
+
+import java.math.BigDecimal;
+
+@Builder
+public record Discrepancy(Integer customerId, AssetType assetName, BigDecimal expectedSize, BigDecimal actualSize,
+                          BigDecimal expectedUsableSize, BigDecimal actualUsableSize) {
+}
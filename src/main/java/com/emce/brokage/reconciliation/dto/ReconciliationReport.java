@@ -0,0 +1,10 @@
+package com.emce.brokage.reconciliation.dto;
+
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+
+@Builder
+public record ReconciliationReport(Integer runId, int customersChecked, int discrepancies, LocalDateTime startedAt,
+                                   LocalDateTime finishedAt) {
+}
@@ -0,0 +1,9 @@
+package com.emce.brokage.risk;
+
+import java.math.BigDecimal;
+
+/**
+ * Pending orders of one customer, loaded once at startup to seed {@link RiskEngine}.
+ */
+public record CustomerExposure(Integer customerId, Long pendingOrders, BigDecimal openNotional) {
+}
@@ -0,0 +1,202 @@
+package com.emce.brokage.risk;
+
+import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.exception.RiskLimitExceededException;
+import com.emce.brokage.journal.JournalService;
+import com.emce.brokage.order.OrderRepository;
+import com.emce.brokage.order.entity.OrderStatus;
+import com.emce.brokage.order.event.OrderEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.emce.brokage.common.Messages.RISK_MAX_OPEN_NOTIONAL_MSG;
+import static com.emce.brokage.common.Messages.RISK_MAX_ORDER_SIZE_MSG;
+import static com.emce.brokage.common.Messages.RISK_MAX_PENDING_ORDERS_MSG;
+import static com.emce.brokage.common.Messages.RISK_PRICE_BAND_MSG;
+
+/**
+ * Pre-trade risk checks run before an order reserves any assets. Each customer's pending order
+ * count and open notional are kept in memory and moved incrementally: {@link #reserve} adds an
+ * order when it is accepted (and takes it back if the transaction rolls back), matched and
+ * canceled {@link OrderEvent}s remove it. Unit prices of matched orders become the reference
+ * for the price band of their asset. A check therefore never queries the database; the counters
+ * are seeded at startup from the journal when it is enabled, otherwise with one aggregate query.
+ * A release that finds nothing left to release means a reservation was missed or released twice;
+ * the counters are kept at zero and the drift is logged and counted.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(RiskLimits.class)
+public class RiskEngine {
+
+    private static final int UNIT_PRICE_SCALE = 8;
+
+    private final OrderRepository orderRepository;
+    private final JournalService journalService;
+    private final RiskLimits limits;
+    private final Map<Integer, Exposure> exposures = new ConcurrentHashMap<>();
+    private final Map<AssetType, BigDecimal> lastUnitPrices = new ConcurrentHashMap<>();
+    private final Map<String, Counter> rejections = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final Counter exposureDrift;
+
+    public RiskEngine(OrderRepository orderRepository, JournalService journalService, RiskLimits limits,
+                      MeterRegistry meterRegistry) {
+        this.orderRepository = orderRepository;
+        this.journalService = journalService;
+        this.limits = limits;
+        this.meterRegistry = meterRegistry;
+        this.exposureDrift = Counter.builder("brokage.risk.exposure.drift")
+                .description("Releases of orders that were not counted in the exposure")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void loadExposures() {
+        if (!limits.enabled()) {
+            return;
+        }
+        if (journalService.isEnabled()) {
+            journalService.forEachPendingOrder(order -> {
+                Exposure seeded = exposures.computeIfAbsent(order.customerId(), id -> new Exposure());
+                seeded.pendingOrders++;
+                seeded.openNotional = seeded.openNotional.add(order.price());
+            });
+            log.info("Risk engine loaded exposures of {} customers from the journal", exposures.size());
+            return;
+        }
+        orderRepository.findPendingExposures().forEach(exposure -> {
+            Exposure seeded = exposures.computeIfAbsent(exposure.customerId(), id -> new Exposure());
+            seeded.pendingOrders = exposure.pendingOrders().intValue();
+            seeded.openNotional = exposure.openNotional();
+        });
+        log.info("Risk engine loaded exposures of {} customers", exposures.size());
+    }
+
+    /**
+     * Checks the order against the limits and counts it towards the customer's exposure. When
+     * called inside a transaction the order is taken back out if that transaction does not commit.
+     *
+     * @throws RiskLimitExceededException if any limit would be breached; nothing is counted then
+     */
+    public void reserve(Integer customerId, AssetType assetName, BigDecimal size, BigDecimal price) {
+        if (!limits.enabled()) {
+            return;
+        }
+        BigDecimal maxOrderSize = limits.maxOrderSize(assetName);
+        if (size.compareTo(maxOrderSize) > 0) {
+            throw reject("max-order-size", String.format(RISK_MAX_ORDER_SIZE_MSG, size, maxOrderSize, assetName));
+        }
+        BigDecimal lastUnitPrice = lastUnitPrices.get(assetName);
+        if (lastUnitPrice != null) {
+            BigDecimal distance = unitPrice(size, price).subtract(lastUnitPrice).abs()
+                    .divide(lastUnitPrice, UNIT_PRICE_SCALE, RoundingMode.HALF_UP);
+            if (distance.compareTo(limits.priceBand()) > 0) {
+                throw reject("price-band", String.format(RISK_PRICE_BAND_MSG, unitPrice(size, price), lastUnitPrice, assetName));
+            }
+        }
+
+        Exposure exposure = exposures.computeIfAbsent(customerId, id -> new Exposure());
+        synchronized (exposure) {
+            if (exposure.pendingOrders >= limits.maxPendingOrders()) {
+                throw reject("max-pending-orders", String.format(RISK_MAX_PENDING_ORDERS_MSG, limits.maxPendingOrders()));
+            }
+            BigDecimal openNotional = exposure.openNotional.add(price);
+            if (openNotional.compareTo(limits.maxOpenNotional()) > 0) {
+                throw reject("max-open-notional", String.format(RISK_MAX_OPEN_NOTIONAL_MSG, limits.maxOpenNotional()));
+            }
+            exposure.pendingOrders++;
+            exposure.openNotional = openNotional;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        release(customerId, price);
+                    }
+                }
+            });
+        }
+    }
+
+    @TransactionalEventListener
+    public void onOrderEvent(OrderEvent event) {
+        if (!limits.enabled() || event.status() == OrderStatus.PENDING) {
+            return;
+        }
+        release(event.customerId(), event.price());
+        if (event.status() == OrderStatus.MATCHED) {
+            lastUnitPrices.put(event.assetName(), unitPrice(event.filledSize(), event.filledAmount()));
+        }
+    }
+
+    /** Pending orders currently counted for the customer. */
+    public int pendingOrders(Integer customerId) {
+        Exposure exposure = exposures.get(customerId);
+        if (exposure == null) {
+            return 0;
+        }
+        synchronized (exposure) {
+            return exposure.pendingOrders;
+        }
+    }
+
+    /** Total price of the pending orders currently counted for the customer. */
+    public BigDecimal openNotional(Integer customerId) {
+        Exposure exposure = exposures.get(customerId);
+        if (exposure == null) {
+            return BigDecimal.ZERO;
+        }
+        synchronized (exposure) {
+            return exposure.openNotional;
+        }
+    }
+
+    private void release(Integer customerId, BigDecimal price) {
+        Exposure exposure = exposures.get(customerId);
+        boolean drifted = exposure == null;
+        if (exposure != null) {
+            synchronized (exposure) {
+                drifted = exposure.pendingOrders == 0 || exposure.openNotional.compareTo(price) < 0;
+                exposure.pendingOrders = Math.max(0, exposure.pendingOrders - 1);
+                exposure.openNotional = exposure.openNotional.subtract(price).max(BigDecimal.ZERO);
+            }
+        }
+        if (drifted) {
+            exposureDrift.increment();
+            log.warn("Released an order of customer {} priced {} that was not counted in its exposure", customerId, price);
+        }
+    }
+
+    private RiskLimitExceededException reject(String limit, String message) {
+        rejections.computeIfAbsent(limit, key -> Counter.builder("brokage.risk.rejections")
+                        .description("Orders rejected by pre-trade risk checks")
+                        .tag("limit", key)
+                        .register(meterRegistry))
+                .increment();
+        return new RiskLimitExceededException(message);
+    }
+
+    private static BigDecimal unitPrice(BigDecimal size, BigDecimal price) {
+        return price.divide(size, UNIT_PRICE_SCALE, RoundingMode.HALF_UP);
+    }
+
+    private static final class Exposure {
+        private int pendingOrders;
+        private BigDecimal openNotional = BigDecimal.ZERO;
+    }
+}
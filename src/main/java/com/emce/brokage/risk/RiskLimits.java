@@ -0,0 +1,36 @@
+package com.emce.brokage.risk;
+
+import com.emce.brokage.asset.entity.AssetType;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Pre-trade limits enforced by {@link RiskEngine}, bound from {@code application.risk}.
+ *
+ * @param maxOpenNotional  total price of a customer's pending orders
+ * @param maxPendingOrders number of pending orders a customer may have
+ * @param maxOrderSize     size of a single order, unless overridden for its asset in {@code maxOrderSizes}
+ * @param maxOrderSizes    overrides of {@code maxOrderSize} keyed by asset symbol, so they can name
+ *                         instruments listed after startup
+ * @param priceBand        largest relative distance of an order's unit price from the asset's last
+ *                         traded unit price, e.g. 0.10 for 10%
+ */
+@ConfigurationProperties("application.risk")
+public record RiskLimits(@DefaultValue("true") boolean enabled,
+                         @DefaultValue("10000000") BigDecimal maxOpenNotional,
+                         @DefaultValue("1000") int maxPendingOrders,
+                         @DefaultValue("1000000") BigDecimal maxOrderSize,
+                         Map<String, BigDecimal> maxOrderSizes,
+                         @DefaultValue("0.10") BigDecimal priceBand) {
+
+    public RiskLimits {
+        maxOrderSizes = maxOrderSizes == null ? Map.of() : Map.copyOf(maxOrderSizes);
+    }
+
+    BigDecimal maxOrderSize(AssetType assetName) {
+        return maxOrderSizes.getOrDefault(assetName.name(), maxOrderSize);
+    }
+}
@@ -1,6 +1,7 @@
 package com.emce.brokage.security;
 
 import com.emce.brokage.auth.UserService;
+import com.emce.brokage.datasource.ReplicaRoutingDataSource;
 import com.emce.brokage.security.token.TokenRepository;
 import com.emce.brokage.util.JwtUtil;
 import jakarta.servlet.FilterChain;
@@ -47,7 +48,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             userEmail = jwtUtil.extractUsername(jwt);
             if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
                 UserDetails userDetails = userService.loadUserByUsername(userEmail);
-                var isTokenValid = tokenRepository.findByToken(jwt)
+                // a token revoked at logout must stop working at once, the replica may still show it valid
+                var isTokenValid = ReplicaRoutingDataSource.onPrimary(() -> tokenRepository.findByToken(jwt))
                         .map(t -> !t.isExpired() && !t.isRevoked())
                         .orElse(false);
                 if (jwtUtil.isTokenValid(jwt, userDetails) && isTokenValid) {
@@ -62,7 +64,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     SecurityContextHolder.getContext().setAuthentication(authToken);
                 }else {
                     response.setStatus(HttpServletResponse.SC_FORBIDDEN);
-                    response.getWriter().write(ERROR_AUTHENTICATION_FAILED);
+                    response.getWriter().write(ERROR_AUTHENTICATION_FAILED_MSG);
                     response.getWriter().flush();
                 }
             }
@@ -71,12 +73,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }catch (UsernameNotFoundException e) {
             // Handle UsernameNotFoundException when user associated with JWT is deleted
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-            response.getWriter().write(ERROR_USER_NOT_FOUND);
+            response.getWriter().write(ERROR_USER_NOT_FOUND_MSG);
             response.getWriter().flush();
         } catch (Exception e) {
             // Catch other exceptions if necessary
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-            response.getWriter().write(ERROR_AUTHENTICATION_FAILED);
+            response.getWriter().write(ERROR_AUTHENTICATION_FAILED_MSG);
             response.getWriter().flush();
         }
     }
@@ -2,10 +2,12 @@ package com.emce.brokage.security;
 
 import com.emce.brokage.auth.LogoutService;
 import com.emce.brokage.auth.UserService;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -37,15 +39,24 @@ public class SecurityConfig {
             "/api/v1/public/**"
     };
     public static final String[] ADMIN_PATHS = {
-            "/api/v1/order/match/**"
+            "/api/v1/order/match",
+            "/api/v1/order/match/**",
+            "/api/v1/stats/**",
+            "/api/v1/reconciliation/**",
+            "/api/v1/portfolio/valuation"
     };
+    public static final String INSTRUMENT_PATHS = "/api/v1/instruments/**";
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(req -> req
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()  // streamed responses, already authorized on the original request
                         .requestMatchers(WHITE_LIST_URL).permitAll()
-                        .requestMatchers(ADMIN_PATHS).hasAuthority("ADMIN")  // Restrict access to matchOrder endpoint
+                        .requestMatchers(ADMIN_PATHS).hasAuthority("ADMIN")  // Restrict access to matchOrder, trading stats, reconciliation and book valuation endpoints
+                        .requestMatchers(HttpMethod.POST, INSTRUMENT_PATHS).hasAuthority("ADMIN")  // Anyone may list instruments, only admins list or change one
+                        .requestMatchers(HttpMethod.PUT, INSTRUMENT_PATHS).hasAuthority("ADMIN")
+                        .requestMatchers(HttpMethod.PUT, "/api/v1/portfolio/rates").hasAuthority("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .headers((headers) -> headers
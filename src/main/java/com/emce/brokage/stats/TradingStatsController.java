@@ -0,0 +1,37 @@
+package com.emce.brokage.stats;
+
+import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.stats.dto.DailyTradingStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/stats")
+@RequiredArgsConstructor
+public class TradingStatsController {
+
+    private final TradingStatsService tradingStatsService;
+
+    @GetMapping("/daily")
+    public List<DailyTradingStats> getDailyStats(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "assetName", required = false) AssetType assetName) {
+        return tradingStatsService.getStats(from, to, assetName);
+    }
+
+    @PostMapping("/daily/rebuild")
+    public List<DailyTradingStats> rebuildDailyStats(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return tradingStatsService.rebuild(from, to);
+    }
+}
@@ -0,0 +1,288 @@
+package com.emce.brokage.stats;
+
+import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.order.entity.OrderStatus;
+import com.emce.brokage.order.event.OrderEvent;
+import com.emce.brokage.stats.dto.DailyTradingStats;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.security.InvalidParameterException;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import static com.emce.brokage.common.Messages.STATS_DATE_RANGE_INVALID_MSG;
+import static com.emce.brokage.common.Messages.STATS_REBUILD_ONLY_PAST_DAYS_MSG;
+
+/**
+ * Maintains {@code daily_trading_stats}, one row per day and asset. Order events are counted in
+ * memory after their transaction commits and the counts are added to the rows on a schedule, so
+ * placing, canceling and matching orders never contend on a stats row. Reading statistics only
+ * touches the rollup rows; {@link #rebuild} recomputes past days from the orders and the archive,
+ * one transaction per day run in parallel.
+ */
+@Slf4j
+@Service
+public class TradingStatsService {
+
+    private static final String CANCELED = "'" + OrderStatus.CANCELED + "'";
+    private static final String MATCHED = "'" + OrderStatus.MATCHED + "'";
+
+    private static final String INCREMENT = """
+            UPDATE daily_trading_stats
+            SET orders_created = orders_created + :created, orders_canceled = orders_canceled + :canceled,
+                orders_matched = orders_matched + :matched, matched_volume = matched_volume + :volume,
+                matched_notional = matched_notional + :notional
+            WHERE trade_date = :tradeDate AND asset_name = :assetName
+            """;
+    private static final String INSERT = """
+            INSERT INTO daily_trading_stats (trade_date, asset_name, orders_created, orders_canceled, orders_matched,
+                                             matched_volume, matched_notional)
+            VALUES (:tradeDate, :assetName, :created, :canceled, :matched, :volume, :notional)
+            """;
+    private static final String DELETE_DAY = "DELETE FROM daily_trading_stats WHERE trade_date = :tradeDate";
+    private static final String DAY_ORDERS = "SELECT asset_name, status, size, filled_amount, created_at, updated_at FROM %s "
+            + "WHERE (created_at >= :dayStart AND created_at < :dayEnd) OR (updated_at >= :dayStart AND updated_at < :dayEnd)";
+    private static final String SETTLED_ON_DAY = "updated_at >= :dayStart AND updated_at < :dayEnd";
+    private static final String AGGREGATE_DAY = "SELECT asset_name, "
+            + "SUM(CASE WHEN created_at >= :dayStart AND created_at < :dayEnd THEN 1 ELSE 0 END) AS created, "
+            + "SUM(CASE WHEN status = " + CANCELED + " AND " + SETTLED_ON_DAY + " THEN 1 ELSE 0 END) AS canceled, "
+            + "SUM(CASE WHEN status = " + MATCHED + " AND " + SETTLED_ON_DAY + " THEN 1 ELSE 0 END) AS matched, "
+            + "SUM(CASE WHEN status = " + MATCHED + " AND " + SETTLED_ON_DAY + " THEN size ELSE 0 END) AS volume, "
+            + "SUM(CASE WHEN status = " + MATCHED + " AND " + SETTLED_ON_DAY + " THEN filled_amount ELSE 0 END) AS notional "
+            + "FROM (" + DAY_ORDERS.formatted("orders") + " UNION ALL " + DAY_ORDERS.formatted("orders_archive") + ") o "
+            + "GROUP BY asset_name";
+    private static final String SELECT_STATS = "SELECT trade_date, asset_name, orders_created, orders_canceled, "
+            + "orders_matched, matched_volume, matched_notional FROM daily_trading_stats "
+            + "WHERE trade_date BETWEEN :from AND :to";
+    private static final String ORDER_BY_STATS = " ORDER BY trade_date, asset_name";
+
+    private final ConcurrentHashMap<StatsKey, StatsCounters> pending = new ConcurrentHashMap<>();
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxDays;
+    private final Executor rebuildExecutor;
+
+    @Autowired
+    public TradingStatsService(NamedParameterJdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                               @Value("${application.stats.max-days:366}") int maxDays,
+                               @Value("${application.stats.rebuild-parallelism:4}") int rebuildParallelism) {
+        this(jdbcTemplate, transactionManager, maxDays,
+                Executors.newFixedThreadPool(rebuildParallelism, Thread.ofPlatform().name("stats-rebuild-", 0).daemon().factory()));
+    }
+
+    TradingStatsService(NamedParameterJdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                        int maxDays, Executor rebuildExecutor) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxDays = maxDays;
+        this.rebuildExecutor = rebuildExecutor;
+    }
+
+    @TransactionalEventListener
+    public void onOrderEvent(OrderEvent event) {
+        if (event.isPartialFill()) {
+            // the order was counted when it was created, it is counted as matched once it is filled
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        switch (event.status()) {
+            case PENDING -> count(event.createDate() == null ? today : event.createDate().toLocalDate(), event.assetName(),
+                    counters -> counters.created++);
+            case CANCELED -> count(today, event.assetName(), counters -> counters.canceled++);
+            case MATCHED -> count(today, event.assetName(), counters -> {
+                counters.matched++;
+                counters.volume = counters.volume.add(event.size());
+                counters.notional = counters.notional.add(event.filledAmount());
+            });
+        }
+    }
+
+    private void count(LocalDate day, AssetType assetName, Consumer<StatsCounters> update) {
+        pending.compute(new StatsKey(day, assetName), (key, counters) -> {
+            StatsCounters updated = counters == null ? new StatsCounters() : counters;
+            update.accept(updated);
+            return updated;
+        });
+    }
+
+    /**
+     * Adds the counts collected since the last flush to their rows. If writing fails the counts are
+     * kept for the next flush.
+     */
+    @Scheduled(fixedDelayString = "${application.stats.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        Map<StatsKey, StatsCounters> batch = new HashMap<>();
+        for (StatsKey key : pending.keySet()) {
+            // counters are only changed inside compute, so a removed instance is final
+            StatsCounters counters = pending.remove(key);
+            if (counters != null) {
+                batch.put(key, counters);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(batch));
+        } catch (RuntimeException e) {
+            batch.forEach((key, counters) -> pending.merge(key, counters, StatsCounters::add));
+            log.warn("Could not flush trading stats of {} days and assets, retrying on the next flush", batch.size(), e);
+        }
+    }
+
+    private void write(Map<StatsKey, StatsCounters> batch) {
+        List<SqlParameterSource> rows = batch.entrySet().stream()
+                .map(entry -> parameters(entry.getKey(), entry.getValue()))
+                .toList();
+        int[] updated = jdbcTemplate.batchUpdate(INCREMENT, rows.toArray(SqlParameterSource[]::new));
+        List<SqlParameterSource> missing = new ArrayList<>();
+        for (int index = 0; index < updated.length; index++) {
+            if (updated[index] == 0) {
+                missing.add(rows.get(index));
+            }
+        }
+        if (!missing.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT, missing.toArray(SqlParameterSource[]::new));
+        }
+    }
+
+    public List<DailyTradingStats> getStats(LocalDate from, LocalDate to, AssetType assetName) {
+        validateRange(from, to);
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("from", Date.valueOf(from))
+                .addValue("to", Date.valueOf(to));
+        String query = SELECT_STATS;
+        if (assetName != null) {
+            query += " AND asset_name = :assetName";
+            parameters.addValue("assetName", assetName.name());
+        }
+        return jdbcTemplate.query(query + ORDER_BY_STATS, parameters, TradingStatsService::mapStats);
+    }
+
+    /**
+     * Recomputes the rows of every day in the range from the orders created or settled on it,
+     * including archived ones. Only past days can be rebuilt; today's counts are still moving.
+     */
+    public List<DailyTradingStats> rebuild(LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        if (!to.isBefore(LocalDate.now())) {
+            throw new InvalidParameterException(STATS_REBUILD_ONLY_PAST_DAYS_MSG);
+        }
+        flush();
+        CompletableFuture.allOf(from.datesUntil(to.plusDays(1))
+                        .map(day -> CompletableFuture.runAsync(
+                                () -> transactionTemplate.executeWithoutResult(status -> rebuildDay(day)), rebuildExecutor))
+                        .toArray(CompletableFuture[]::new))
+                .join();
+        log.info("Rebuilt trading stats from {} to {}", from, to);
+        return getStats(from, to, null);
+    }
+
+    private void rebuildDay(LocalDate day) {
+        MapSqlParameterSource dayRange = new MapSqlParameterSource()
+                .addValue("tradeDate", Date.valueOf(day))
+                .addValue("dayStart", Timestamp.valueOf(day.atStartOfDay()))
+                .addValue("dayEnd", Timestamp.valueOf(day.plusDays(1).atStartOfDay()));
+        List<SqlParameterSource> rows = jdbcTemplate.query(AGGREGATE_DAY, dayRange, (rs, rowNum) -> {
+            StatsCounters counters = new StatsCounters();
+            counters.created = rs.getLong("created");
+            counters.canceled = rs.getLong("canceled");
+            counters.matched = rs.getLong("matched");
+            counters.volume = Objects.requireNonNullElse(rs.getBigDecimal("volume"), BigDecimal.ZERO);
+            counters.notional = Objects.requireNonNullElse(rs.getBigDecimal("notional"), BigDecimal.ZERO);
+            return parameters(new StatsKey(day, AssetType.valueOf(rs.getString("asset_name"))), counters);
+        });
+        jdbcTemplate.update(DELETE_DAY, dayRange);
+        jdbcTemplate.batchUpdate(INSERT, rows.toArray(SqlParameterSource[]::new));
+    }
+
+    private void validateRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to) || ChronoUnit.DAYS.between(from, to) >= maxDays) {
+            throw new InvalidParameterException(String.format(STATS_DATE_RANGE_INVALID_MSG, maxDays));
+        }
+    }
+
+    private static SqlParameterSource parameters(StatsKey key, StatsCounters counters) {
+        return new MapSqlParameterSource()
+                .addValue("tradeDate", Date.valueOf(key.day()))
+                .addValue("assetName", key.assetName().name())
+                .addValue("created", counters.created)
+                .addValue("canceled", counters.canceled)
+                .addValue("matched", counters.matched)
+                .addValue("volume", counters.volume)
+                .addValue("notional", counters.notional);
+    }
+
+    private static DailyTradingStats mapStats(ResultSet rs, int rowNum) throws SQLException {
+        long created = rs.getLong("orders_created");
+        long canceled = rs.getLong("orders_canceled");
+        return DailyTradingStats.builder()
+                .tradeDate(rs.getDate("trade_date").toLocalDate())
+                .assetName(AssetType.valueOf(rs.getString("asset_name")))
+                .ordersCreated(created)
+                .ordersCanceled(canceled)
+                .ordersMatched(rs.getLong("orders_matched"))
+                .matchedVolume(rs.getBigDecimal("matched_volume"))
+                .matchedNotional(rs.getBigDecimal("matched_notional"))
+                .cancelRatio(created == 0 ? null
+                        : BigDecimal.valueOf(canceled).divide(BigDecimal.valueOf(created), 4, RoundingMode.HALF_UP))
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        if (rebuildExecutor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    private record StatsKey(LocalDate day, AssetType assetName) {
+    }
+
+    private static final class StatsCounters {
+        private long created;
+        private long canceled;
+        private long matched;
+        private BigDecimal volume = BigDecimal.ZERO;
+        private BigDecimal notional = BigDecimal.ZERO;
+
+        private StatsCounters add(StatsCounters other) {
+            created += other.created;
+            canceled += other.canceled;
+            matched += other.matched;
+            volume = volume.add(other.volume);
+            notional = notional.add(other.notional);
+            return this;
+        }
+    }
+}
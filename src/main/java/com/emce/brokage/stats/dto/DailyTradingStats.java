@@ -0,0 +1,17 @@
+package com.emce.brokage.stats.dto;
+
+import com.emce.brokage.asset.entity.AssetType;
+import lombok.Builder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Order statistics of one asset on one day. {@code cancelRatio} is canceled over created orders,
+ * {@code null} on a day without created orders.
+ */
+@Builder
+public record DailyTradingStats(LocalDate tradeDate, AssetType assetName, long ordersCreated, long ordersCanceled,
+                                long ordersMatched, BigDecimal matchedVolume, BigDecimal matchedNotional,
+                                BigDecimal cancelRatio) {
+}
@@ -0,0 +1,17 @@
+-- Instrument registry (InstrumentRegistry): every tradable asset with the dense id it is known by
+-- in memory and in the journal. asset_name columns keep referring to an instrument by symbol, which
+-- never changes once listed. The seeded rows are the assets that used to be hard-coded.
+CREATE TABLE instruments (
+    id             INTEGER        NOT NULL PRIMARY KEY,
+    symbol         VARCHAR(255)   NOT NULL UNIQUE,
+    scale          INTEGER        NOT NULL,
+    tick_size      NUMERIC(38, 8) NOT NULL,
+    quote_currency VARCHAR(255)   NOT NULL,
+    active         BOOLEAN        NOT NULL,
+    created_at     TIMESTAMP(6)   NOT NULL
+);
+
+INSERT INTO instruments (id, symbol, scale, tick_size, quote_currency, active, created_at)
+VALUES (0, 'TRY', 2, 0.01, 'TRY', TRUE, CURRENT_TIMESTAMP),
+       (1, 'EUR', 2, 0.01, 'TRY', TRUE, CURRENT_TIMESTAMP),
+       (2, 'USD', 2, 0.01, 'TRY', TRUE, CURRENT_TIMESTAMP);
@@ -0,0 +1,9 @@
+-- Partial fills: how much of an order has been matched so far and the TRY amount those fills
+-- were executed for. Orders matched before fills were tracked were matched whole at their own price.
+ALTER TABLE orders ADD COLUMN filled_size NUMERIC(38, 2) DEFAULT 0 NOT NULL;
+ALTER TABLE orders ADD COLUMN filled_amount NUMERIC(38, 2) DEFAULT 0 NOT NULL;
+UPDATE orders SET filled_size = size, filled_amount = price WHERE status = 'MATCHED';
+
+ALTER TABLE orders_archive ADD COLUMN filled_size NUMERIC(38, 2) DEFAULT 0 NOT NULL;
+ALTER TABLE orders_archive ADD COLUMN filled_amount NUMERIC(38, 2) DEFAULT 0 NOT NULL;
+UPDATE orders_archive SET filled_size = size, filled_amount = price WHERE status = 'MATCHED';
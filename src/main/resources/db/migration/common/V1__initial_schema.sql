@@ -0,0 +1,56 @@
+-- Schema previously generated by Hibernate (ddl-auto: update).
+-- Kept to the SQL subset shared by H2 and PostgreSQL.
+
+CREATE SEQUENCE orders_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE token_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE customers (
+    id         INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name       VARCHAR(255),
+    email      VARCHAR(255) NOT NULL,
+    password   VARCHAR(255),
+    role       VARCHAR(255),
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT unique_email UNIQUE (email)
+);
+
+CREATE TABLE assets (
+    id          INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    asset_name  VARCHAR(255),
+    size        NUMERIC(38, 2),
+    usable_size NUMERIC(38, 2),
+    customer_id INTEGER REFERENCES customers (id),
+    version     INTEGER
+);
+
+CREATE TABLE orders (
+    id          INTEGER PRIMARY KEY,
+    asset_name  VARCHAR(255),
+    order_side  VARCHAR(255),
+    size        NUMERIC(38, 2),
+    price       NUMERIC(38, 2),
+    status      VARCHAR(255),
+    customer_id INTEGER REFERENCES customers (id),
+    created_at  TIMESTAMP(6) NOT NULL,
+    updated_at  TIMESTAMP(6) NOT NULL,
+    version     INTEGER
+);
+
+CREATE TABLE account_transactions (
+    id          INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    order_side  VARCHAR(255),
+    amount      NUMERIC(38, 2),
+    status      VARCHAR(255),
+    customer_id INTEGER REFERENCES customers (id),
+    created_at  TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE token (
+    id          INTEGER PRIMARY KEY,
+    token       VARCHAR(255) UNIQUE,
+    token_type  VARCHAR(255),
+    revoked     BOOLEAN NOT NULL,
+    expired     BOOLEAN NOT NULL,
+    customer_id INTEGER REFERENCES customers (id)
+);
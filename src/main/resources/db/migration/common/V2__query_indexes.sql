@@ -0,0 +1,14 @@
+-- Order listing: customer plus optional status and created_at range (OrderService.getSpesifications).
+CREATE INDEX idx_orders_customer_status_created ON orders (customer_id, status, created_at);
+
+-- Order listing without a status filter and the keyset listing, newest first on (created_at, id).
+CREATE INDEX idx_orders_customer_created ON orders (customer_id, created_at, id);
+
+-- Asset listing and lookup (AssetRepository.findByCustomerIdAndAssetType).
+CREATE INDEX idx_assets_customer_asset ON assets (customer_id, asset_name);
+
+-- Transaction history per customer.
+CREATE INDEX idx_account_transactions_customer_created ON account_transactions (customer_id, created_at);
+
+-- Token revocation on login looks tokens up by customer.
+CREATE INDEX idx_token_customer ON token (customer_id);
@@ -0,0 +1,19 @@
+-- Cold store for settled orders moved out of the hot orders table by OrderArchiver.
+-- Same columns as orders plus the time the row was archived; no foreign keys so archiving never
+-- contends with writes on customers.
+CREATE TABLE orders_archive (
+    id          INTEGER PRIMARY KEY,
+    asset_name  VARCHAR(255),
+    order_side  VARCHAR(255),
+    size        NUMERIC(38, 2),
+    price       NUMERIC(38, 2),
+    status      VARCHAR(255),
+    customer_id INTEGER,
+    created_at  TIMESTAMP(6) NOT NULL,
+    updated_at  TIMESTAMP(6) NOT NULL,
+    version     INTEGER,
+    archived_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX idx_orders_archive_customer_status_created ON orders_archive (customer_id, status, created_at);
+CREATE INDEX idx_orders_archive_customer_created ON orders_archive (customer_id, created_at, id);
@@ -0,0 +1,5 @@
+ALTER TABLE orders ADD COLUMN time_in_force VARCHAR(255) DEFAULT 'GTC';
+ALTER TABLE orders ADD COLUMN expires_at TIMESTAMP(6);
+
+ALTER TABLE orders_archive ADD COLUMN time_in_force VARCHAR(255);
+ALTER TABLE orders_archive ADD COLUMN expires_at TIMESTAMP(6);
@@ -0,0 +1,14 @@
+-- Responses of requests sent with an Idempotency-Key, replayed when the client retries.
+
+CREATE TABLE idempotency_keys (
+    id              INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    customer_id     INTEGER      NOT NULL REFERENCES customers (id),
+    idempotency_key VARCHAR(255) NOT NULL,
+    operation       VARCHAR(64)  NOT NULL,
+    request_hash    VARCHAR(64)  NOT NULL,
+    response        VARCHAR(4000) NOT NULL,
+    created_at      TIMESTAMP(6) NOT NULL,
+    CONSTRAINT unique_idempotency_key UNIQUE (customer_id, idempotency_key)
+);
+
+CREATE INDEX idx_idempotency_keys_created ON idempotency_keys (created_at);
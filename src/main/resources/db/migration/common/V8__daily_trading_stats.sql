@@ -0,0 +1,19 @@
+-- Per day and asset order statistics, maintained incrementally by TradingStatsService.
+-- Created orders count on the day they were placed, canceled and matched ones on the day their
+-- status changed.
+CREATE TABLE daily_trading_stats (
+    trade_date       DATE           NOT NULL,
+    asset_name       VARCHAR(255)   NOT NULL,
+    orders_created   BIGINT         NOT NULL,
+    orders_canceled  BIGINT         NOT NULL,
+    orders_matched   BIGINT         NOT NULL,
+    matched_volume   NUMERIC(38, 2) NOT NULL,
+    matched_notional NUMERIC(38, 2) NOT NULL,
+    PRIMARY KEY (trade_date, asset_name)
+);
+
+-- Rebuilding a day reads the orders created or settled on it, from both the hot table and the archive.
+CREATE INDEX idx_orders_created ON orders (created_at);
+CREATE INDEX idx_orders_updated ON orders (updated_at);
+CREATE INDEX idx_orders_archive_created ON orders_archive (created_at);
+CREATE INDEX idx_orders_archive_updated ON orders_archive (updated_at);
@@ -0,0 +1,22 @@
+-- Results of the balance reconciliation job (ReconciliationService): one row per run and one per
+-- customer asset whose sizes differ from what its transactions and orders imply.
+CREATE TABLE reconciliation_runs (
+    id                INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    started_at        TIMESTAMP(6) NOT NULL,
+    finished_at       TIMESTAMP(6),
+    customers_checked INTEGER,
+    discrepancies     INTEGER
+);
+
+CREATE TABLE reconciliation_discrepancies (
+    id                   INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    run_id               INTEGER        NOT NULL REFERENCES reconciliation_runs (id),
+    customer_id          INTEGER        NOT NULL,
+    asset_name           VARCHAR(255)   NOT NULL,
+    expected_size        NUMERIC(38, 2) NOT NULL,
+    actual_size          NUMERIC(38, 2) NOT NULL,
+    expected_usable_size NUMERIC(38, 2) NOT NULL,
+    actual_usable_size   NUMERIC(38, 2) NOT NULL
+);
+
+CREATE INDEX idx_reconciliation_discrepancies_run ON reconciliation_discrepancies (run_id, customer_id);
@@ -0,0 +1,7 @@
+-- Same as the PostgreSQL variant, with BASE_VALUE being the next value the sequence returns.
+CREATE SEQUENCE IF NOT EXISTS orders_seq START WITH 1 INCREMENT BY 50;
+
+ALTER SEQUENCE orders_seq RESTART WITH (SELECT GREATEST(
+        (SELECT COALESCE(MAX(id), 0) FROM orders) + 50,
+        (SELECT COALESCE(MAX(id), 0) FROM orders_archive) + 50,
+        (SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'ORDERS_SEQ')));
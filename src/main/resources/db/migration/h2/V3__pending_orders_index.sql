@@ -0,0 +1,2 @@
+-- H2 has no partial indexes; the status column leads instead so pending rows are still contiguous.
+CREATE INDEX idx_orders_pending ON orders (status, asset_name, order_side, id);
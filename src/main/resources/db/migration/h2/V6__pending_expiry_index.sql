@@ -0,0 +1,2 @@
+-- H2 has no partial indexes; see the PostgreSQL variant.
+CREATE INDEX idx_orders_pending_expiry ON orders (status, expires_at, id);
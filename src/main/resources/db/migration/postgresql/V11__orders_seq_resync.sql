@@ -0,0 +1,11 @@
+-- Order ids come from orders_seq since orders.id stopped being an identity column. A database
+-- baselined at V1 was created by ddl-auto and has no sequence, and its orders already hold ids the
+-- sequence would hand out again, so the sequence is created when missing and moved past every id in
+-- orders and orders_archive. It only ever moves forward: a block already handed to a running node
+-- stays unused.
+CREATE SEQUENCE IF NOT EXISTS orders_seq START WITH 1 INCREMENT BY 50;
+
+SELECT setval('orders_seq', GREATEST(
+        (SELECT COALESCE(MAX(id), 0) FROM orders) + 50,
+        (SELECT COALESCE(MAX(id), 0) FROM orders_archive) + 50,
+        (SELECT last_value FROM orders_seq) + 50), false);
@@ -0,0 +1,4 @@
+-- Only pending orders are scanned by the matching engine rebuild and the bulk match keyset
+-- (OrderRepository.findByStatus, findPendingIds). Matched and canceled orders never leave
+-- their status, so the partial index stays as small as the open order book.
+CREATE INDEX idx_orders_pending ON orders (asset_name, order_side, id) WHERE status = 'PENDING';
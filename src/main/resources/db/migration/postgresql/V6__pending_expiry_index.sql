@@ -0,0 +1,4 @@
+-- Expiry schedule rebuild at startup (OrderRepository.findPendingExpiries) only reads pending
+-- orders that can expire.
+CREATE INDEX idx_orders_pending_expiry ON orders (id) INCLUDE (expires_at)
+    WHERE status = 'PENDING' AND expires_at IS NOT NULL;
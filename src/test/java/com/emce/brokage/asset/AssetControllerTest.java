@@ -2,6 +2,7 @@ package com.emce.brokage.asset;
 
 import com.emce.brokage.asset.dto.AssetDto;
 import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.etag.CustomerVersions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentMatchers;
@@ -12,13 +13,21 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class AssetControllerTest {
@@ -29,9 +38,17 @@ class AssetControllerTest {
     @Mock
     private AssetService assetService;
 
+    @Mock
+    private CustomerVersions customerVersions;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(customerVersions.eTag(anyInt())).thenReturn("\"e-1\"");
+    }
+
+    private static ServletWebRequest webRequest(MockHttpServletRequest request) {
+        return new ServletWebRequest(request, new MockHttpServletResponse());
     }
 
     @Test
@@ -54,13 +71,31 @@ class AssetControllerTest {
 
         // When
         ResponseEntity<Page<AssetDto>> response = assetController
-                .getAssetsForCustomer(customerId, assetName, pageable);
+                .getAssetsForCustomer(customerId, assetName, pageable, webRequest(new MockHttpServletRequest("GET", "/")));
 
         // Then
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(assetPage, response.getBody());
     }
 
+    @Test
+    void testGetAssetsForCustomer_NotModified() {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"e-1\"");
+        ServletWebRequest webRequest = webRequest(request);
+
+        // When
+        ResponseEntity<Page<AssetDto>> response = assetController
+                .getAssetsForCustomer(1, null, PageRequest.of(0, 10), webRequest);
+
+        // Then
+        assertNull(response);
+        assertEquals(HttpStatus.NOT_MODIFIED.value(), webRequest.getResponse().getStatus());
+        assertEquals("\"e-1\"", webRequest.getResponse().getHeader(HttpHeaders.ETAG));
+        verify(assetService, never()).getAssetsForCustomer(any(), any(), any());
+    }
+
     @Test
     void testGetAssetsForCustomer_WithInvalidCustomerId() {
         // Given
@@ -70,7 +105,8 @@ class AssetControllerTest {
 
         // When & Then
         try {
-            assetController.getAssetsForCustomer(customerId, assetName, pageable);
+            assetController.getAssetsForCustomer(customerId, assetName, pageable,
+                    webRequest(new MockHttpServletRequest("GET", "/")));
         } catch (Exception e) {
             assertEquals("Customer ID must be a positive number", e.getMessage());
         }
@@ -0,0 +1,89 @@
+package com.emce.brokage.asset;
+
+import com.emce.brokage.asset.dto.AssetDto;
+import com.emce.brokage.asset.entity.Asset;
+import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.auth.entity.Customer;
+import com.emce.brokage.auth.entity.Role;
+import com.emce.brokage.instrument.InstrumentRegistry;
+import com.emce.brokage.money.Money;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@Import(InstrumentRegistry.class)
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class AssetRepositoryTest {
+
+    @Autowired
+    private AssetRepository assetRepository;
+    @Autowired
+    private TestEntityManager testEntityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Integer customerId;
+
+    @BeforeEach
+    void setUp() {
+        Customer customer = testEntityManager.persist(Customer.builder()
+                .name("assets")
+                .email("assets@test.com")
+                .password("secret")
+                .role(Role.USER)
+                .build());
+        customerId = customer.getId();
+        for (AssetType assetType : AssetType.values()) {
+            testEntityManager.persist(Asset.builder()
+                    .customer(customer)
+                    .assetName(assetType)
+                    .size(Money.of(BigDecimal.TEN, assetType))
+                    .usableSize(Money.of(BigDecimal.TEN, assetType))
+                    .build());
+        }
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findByCustomerIdAndAssetType_shouldRunOneStatement_whenAllAssetsFitOnPage() {
+        // When
+        Page<AssetDto> result = assetRepository.findByCustomerIdAndAssetType(customerId, null, PageRequest.of(0, 10));
+
+        // Then
+        assertEquals(AssetType.values().size(), result.getNumberOfElements());
+        assertEquals(customerId, result.getContent().get(0).customerId());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void findByCustomerIdAndAssetType_shouldRunSelectAndCount_whenPageIsFull() {
+        // When
+        Page<AssetDto> result = assetRepository.findByCustomerIdAndAssetType(customerId, null, PageRequest.of(0, 2));
+
+        // Then
+        assertEquals(2, result.getNumberOfElements());
+        assertEquals(AssetType.values().size(), result.getTotalElements());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+}
@@ -4,6 +4,7 @@ import com.emce.brokage.asset.dto.AssetDto;
 import com.emce.brokage.asset.entity.Asset;
 import com.emce.brokage.asset.entity.AssetType;
 import com.emce.brokage.auth.entity.Customer;
+import com.emce.brokage.money.Money;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -16,11 +17,15 @@ import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 class AssetServiceTest {
@@ -28,6 +33,9 @@ class AssetServiceTest {
     @Mock
     private AssetRepository assetRepository;
 
+    @Mock
+    private PositionCache positionCache;
+
     @InjectMocks
     private AssetService assetService;
 
@@ -45,7 +53,7 @@ class AssetServiceTest {
         Pageable pageable = PageRequest.of(0, 10);
 
         when(assetRepository.findByCustomerIdAndAssetType(customerId, assetType, pageable))
-                .thenReturn(new PageImpl<>(Collections.singletonList(asset)));
+                .thenReturn(new PageImpl<>(Collections.singletonList(AssetDto.fromEntity(asset))));
 
         //when
         Page<AssetDto> result = assetService.getAssetsForCustomer(customerId, assetType, pageable);
@@ -66,7 +74,7 @@ class AssetServiceTest {
         Integer customerId = 1;
         AssetType assetType = AssetType.TRY;
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Asset> emptyPage = Page.empty();
+        Page<AssetDto> emptyPage = Page.empty();
 
         when(assetRepository.findByCustomerIdAndAssetType(customerId, assetType, pageable)).thenReturn(emptyPage);
 
@@ -81,11 +89,30 @@ class AssetServiceTest {
                 .findByCustomerIdAndAssetType(customerId, assetType, pageable);
     }
 
+    @Test
+    void getAssetsForCustomer_shouldServeFromPositionCache_whenCustomerIsCached() {
+        // Given
+        Integer customerId = 1;
+        Map<AssetType, Position> positions = new HashMap<>();
+        positions.put(AssetType.USD, new Position(7, Money.of(BigDecimal.TEN, AssetType.USD), Money.of(BigDecimal.ONE, AssetType.USD)));
+        positions.put(AssetType.TRY, new Position(3, Money.of(BigDecimal.valueOf(100), AssetType.TRY), Money.of(BigDecimal.valueOf(40), AssetType.TRY)));
+        when(positionCache.get(customerId)).thenReturn(Optional.of(positions));
+
+        // When
+        Page<AssetDto> result = assetService.getAssetsForCustomer(customerId, null, PageRequest.of(0, 1));
+
+        // Then
+        assertEquals(2, result.getTotalElements());
+        assertEquals(1, result.getContent().size());
+        assertEquals(AssetDto.builder().id(3).assetName(AssetType.TRY).size(new BigDecimal("100.00"))
+                .usableSize(new BigDecimal("40.00")).customerId(customerId).build(), result.getContent().get(0));
+        verifyNoInteractions(assetRepository);
+    }
 
     private Asset createBasicAsset(Integer customerId, AssetType assetType) {
         Customer customer = new Customer();
         customer.setId(customerId);
-        BigDecimal size = new BigDecimal(100);
+        Money size = Money.of(new BigDecimal(100), assetType);
         return Asset.builder()
                 .id(1)
                 .assetName(assetType)
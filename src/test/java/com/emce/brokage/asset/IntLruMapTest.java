@@ -0,0 +1,85 @@
+package com.emce.brokage.asset;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IntLruMapTest {
+
+    @Test
+    void put_shouldEvictLeastRecentlyUsed_whenFull() {
+        // Given
+        IntLruMap<String> map = new IntLruMap<>(2);
+        map.put(1, "one");
+        map.put(2, "two");
+        map.get(1);
+
+        // When
+        boolean evicted = map.put(3, "three");
+
+        // Then
+        assertTrue(evicted);
+        assertEquals(2, map.size());
+        assertEquals("one", map.get(1));
+        assertNull(map.get(2));
+        assertEquals("three", map.get(3));
+    }
+
+    @Test
+    void put_shouldReplaceValue_withoutEvicting() {
+        // Given
+        IntLruMap<String> map = new IntLruMap<>(1);
+        map.put(1, "one");
+
+        // When
+        boolean evicted = map.put(1, "uno");
+
+        // Then
+        assertFalse(evicted);
+        assertEquals("uno", map.get(1));
+    }
+
+    @Test
+    void operations_shouldMatchReferenceLru_underRandomLoad() {
+        // Given
+        int capacity = 64;
+        IntLruMap<Integer> map = new IntLruMap<>(capacity);
+        Map<Integer, Integer> reference = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Integer> eldest) {
+                return size() > capacity;
+            }
+        };
+        Random random = new Random(42);
+
+        // When & Then
+        for (int i = 0; i < 200_000; i++) {
+            int key = random.nextInt(256) * 1024;
+            switch (random.nextInt(3)) {
+                case 0 -> assertEquals(reference.get(key), map.get(key));
+                case 1 -> {
+                    reference.put(key, i);
+                    map.put(key, i);
+                }
+                default -> assertEquals(reference.remove(key) != null, map.remove(key));
+            }
+            assertEquals(reference.size(), map.size());
+        }
+        Map<Integer, Integer> contents = new HashMap<>();
+        for (int key = 0; key < 256 * 1024; key += 1024) {
+            Integer value = map.get(key);
+            if (value != null) {
+                contents.put(key, value);
+            }
+        }
+        assertEquals(new HashMap<>(reference), contents);
+    }
+}
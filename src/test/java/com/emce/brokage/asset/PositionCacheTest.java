@@ -0,0 +1,100 @@
+package com.emce.brokage.asset;
+
+import com.emce.brokage.asset.entity.Asset;
+import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.money.Money;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PositionCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private PositionCache positionCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        positionCache = new PositionCache(1000, meterRegistry);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static void completeTransaction(boolean committed) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        if (committed) {
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+    }
+
+    private static Asset asset(Integer id, AssetType assetName, String size, String usableSize) {
+        return Asset.builder()
+                .id(id)
+                .assetName(assetName)
+                .size(Money.of(new BigDecimal(size), assetName))
+                .usableSize(Money.of(new BigDecimal(usableSize), assetName))
+                .build();
+    }
+
+    @Test
+    void writeThrough_shouldCacheAssetsAsCommitted() {
+        // Given
+        Asset tryAsset = asset(1, AssetType.TRY, "1000", "1000");
+        positionCache.writeThrough(7, List.of(tryAsset), List.of(asset(2, AssetType.USD, "10", "0")));
+        tryAsset.setUsableSize(Money.of(new BigDecimal("650"), AssetType.TRY));
+
+        // When
+        completeTransaction(true);
+
+        // Then
+        Map<AssetType, Position> positions = positionCache.get(7).orElseThrow();
+        assertEquals(new Position(1, new Money(100000, 2), new Money(65000, 2)), positions.get(AssetType.TRY));
+        assertEquals(new Position(2, new Money(1000, 2), new Money(0, 2)), positions.get(AssetType.USD));
+        assertEquals(1.0, meterRegistry.get("brokage.position.cache.requests").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    void writeThrough_shouldLeaveCacheUntouched_whenTransactionRollsBack() {
+        // Given
+        positionCache.writeThrough(7, List.of(asset(1, AssetType.TRY, "1000", "1000")));
+
+        // When
+        completeTransaction(false);
+
+        // Then
+        assertTrue(positionCache.get(7).isEmpty());
+        assertEquals(1.0, meterRegistry.get("brokage.position.cache.requests").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void put_shouldEvictLeastRecentlyUsedCustomers_whenFull() {
+        // Given
+        PositionCache smallCache = new PositionCache(16, meterRegistry);
+
+        // When
+        for (int customerId = 1; customerId <= 100; customerId++) {
+            smallCache.put(customerId, List.of(asset(customerId, AssetType.TRY, "1", "1")));
+        }
+
+        // Then
+        assertTrue(smallCache.size() <= 16);
+        assertEquals(100 - smallCache.size(), meterRegistry.get("brokage.position.cache.evictions").counter().count());
+    }
+}
@@ -63,11 +63,12 @@ class BalanceControllerTest {
                 .transactionStatus(TransactionStatus.APPROVED)
                 .build();
 
-        when(balanceService.processTransaction(eq(customerId), any(BalanceRequest.class), eq(TransactionType.DEPOSIT)))
+        when(balanceService.processTransaction(eq(customerId), any(BalanceRequest.class), eq(TransactionType.DEPOSIT), any()))
                 .thenReturn(expectedResponse);
 
         //when and then
         mockMvc.perform(post("/api/v1/balance/deposit/{customerId}", customerId)
+                        .header("Idempotency-Key", "deposit-1")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isOk())
@@ -77,7 +78,7 @@ class BalanceControllerTest {
                 .andExpect(jsonPath("$.transactionStatus").value(TransactionStatus.APPROVED.name()));
 
 
-        verify(balanceService).processTransaction(eq(customerId), any(BalanceRequest.class), eq(TransactionType.DEPOSIT));
+        verify(balanceService).processTransaction(eq(customerId), any(BalanceRequest.class), eq(TransactionType.DEPOSIT), eq("deposit-1"));
     }
 
     @Test
@@ -97,7 +98,7 @@ class BalanceControllerTest {
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isBadRequest());
 
-        verify(balanceService, never()).processTransaction(anyInt(), any(BalanceRequest.class), any(TransactionType.class));
+        verify(balanceService, never()).processTransaction(anyInt(), any(BalanceRequest.class), any(TransactionType.class), any());
     }
     @Test
     void testDeposit_whenAmountNegative() throws Exception {
@@ -116,7 +117,7 @@ class BalanceControllerTest {
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isBadRequest());
 
-        verify(balanceService, never()).processTransaction(anyInt(), any(BalanceRequest.class), any(TransactionType.class));
+        verify(balanceService, never()).processTransaction(anyInt(), any(BalanceRequest.class), any(TransactionType.class), any());
     }
 
     @Test
@@ -134,14 +135,14 @@ class BalanceControllerTest {
                 .previousAmount(BigDecimal.ZERO)
                 .build();
 
-        when(balanceService.processTransaction(eq(customerId), any(BalanceRequest.class), eq(TransactionType.WITHDRAW)))
+        when(balanceService.processTransaction(eq(customerId), any(BalanceRequest.class), eq(TransactionType.WITHDRAW), any()))
                 .thenReturn(expectedResponse);
 
         //when and then
-        ResponseEntity<BalanceResponse> response = balanceController.withdraw(customerId, request);
+        ResponseEntity<BalanceResponse> response = balanceController.withdraw(customerId, request, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
 
-        verify(balanceService).processTransaction(eq(customerId), any(BalanceRequest.class), eq(TransactionType.WITHDRAW));
+        verify(balanceService).processTransaction(eq(customerId), any(BalanceRequest.class), eq(TransactionType.WITHDRAW), any());
     }
 }
@@ -1,31 +1,40 @@
 package com.emce.brokage.balance;
 
 import com.emce.brokage.asset.AssetRepository;
+import com.emce.brokage.asset.Position;
+import com.emce.brokage.asset.PositionCache;
 import com.emce.brokage.asset.entity.Asset;
 import com.emce.brokage.asset.entity.AssetType;
 import com.emce.brokage.auth.CustomerRepository;
 import com.emce.brokage.auth.entity.Customer;
+import com.emce.brokage.concurrency.CustomerStripedLock;
 import com.emce.brokage.balance.dto.BalanceRequest;
 import com.emce.brokage.balance.dto.BalanceResponse;
 import com.emce.brokage.balance.entity.AccountTransaction;
 import com.emce.brokage.balance.entity.TransactionStatus;
 import com.emce.brokage.balance.entity.TransactionType;
+import com.emce.brokage.balance.event.BalanceEvent;
 import com.emce.brokage.exception.UserNotFoundException;
+import com.emce.brokage.idempotency.IdempotencyService;
+import com.emce.brokage.money.Money;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.security.InvalidParameterException;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Optional;
 import static com.emce.brokage.common.Messages.CUSTOMER_ID_IN_PATH_AND_BODY_NOT_MATCH_MSG;
 import static com.emce.brokage.common.Messages.USER_ID_NOT_FOUND_MSG;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -43,6 +52,18 @@ class BalanceServiceTest {
     @Mock
     private AssetRepository assetRepository;
 
+    @Mock
+    private CustomerStripedLock customerLock;
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    @Mock
+    private PositionCache positionCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private Customer customer;
 
     @BeforeEach
@@ -54,6 +75,44 @@ class BalanceServiceTest {
                 .build();
     }
 
+    @Test
+    void testProcessTransaction_ReplaysStoredResponse_WhenIdempotencyKeyIsRetried() {
+        // Given
+        Integer customerId = 1;
+        BalanceRequest request = new BalanceRequest(customerId, BigDecimal.valueOf(100), TransactionType.DEPOSIT);
+        BalanceResponse stored = BalanceResponse.builder().customerId(customerId).currentAmount(BigDecimal.valueOf(100))
+                .previousAmount(BigDecimal.ZERO).transactionStatus(TransactionStatus.APPROVED).build();
+        when(idempotencyService.findResponse(customerId, "deposit-1", "balance.deposit", request, BalanceResponse.class))
+                .thenReturn(Optional.of(stored));
+
+        // When
+        BalanceResponse response = balanceService.processTransaction(customerId, request, TransactionType.DEPOSIT, "deposit-1");
+
+        // Then
+        assertEquals(stored, response);
+        verify(customerRepository, never()).findCustomerWithAssetsById(any());
+        verify(assetRepository, never()).save(any());
+        verify(idempotencyService, never()).saveResponse(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testProcessTransaction_StoresResponse_WhenIdempotencyKeyIsNew() {
+        // Given
+        Integer customerId = 1;
+        BalanceRequest request = new BalanceRequest(customerId, BigDecimal.valueOf(100), TransactionType.DEPOSIT);
+        customer.getAssets().add(createSimpleAsset(BigDecimal.ZERO));
+        when(idempotencyService.findResponse(customerId, "deposit-1", "balance.deposit", request, BalanceResponse.class))
+                .thenReturn(Optional.empty());
+        when(customerRepository.findCustomerWithAssetsById(customerId)).thenReturn(Optional.of(customer));
+
+        // When
+        BalanceResponse response = balanceService.processTransaction(customerId, request, TransactionType.DEPOSIT, "deposit-1");
+
+        // Then
+        assertEquals(new BigDecimal("100.00"), response.currentAmount());
+        verify(idempotencyService).saveResponse(customerId, "deposit-1", "balance.deposit", request, response);
+    }
+
     @Test
     void testProcessTransaction_Deposit_Success() {
         // Given
@@ -70,19 +129,25 @@ class BalanceServiceTest {
 
         // Then
         assertEquals(customerId, response.customerId());
-        assertEquals(BigDecimal.ZERO, response.previousAmount());
-        assertEquals(BigDecimal.valueOf(100), response.currentAmount());
+        assertEquals(new BigDecimal("0.00"), response.previousAmount());
+        assertEquals(new BigDecimal("100.00"), response.currentAmount());
         assertEquals(TransactionStatus.APPROVED, response.transactionStatus());
 
         verify(transactionRepository).save(any(AccountTransaction.class));
         verify(assetRepository).save(any(Asset.class));
+        verify(eventPublisher).publishEvent(BalanceEvent.builder()
+                .customerId(customerId)
+                .assetName(AssetType.TRY)
+                .transactionType(TransactionType.DEPOSIT)
+                .amount(BigDecimal.valueOf(100))
+                .build());
     }
 
     private Asset createSimpleAsset(BigDecimal size) {
         return Asset.builder()
                 .assetName(AssetType.TRY)
-                .usableSize(size)
-                .size(size)
+                .usableSize(Money.of(size, AssetType.TRY))
+                .size(Money.of(size, AssetType.TRY))
                 .customer(customer)
                 .build();
     }
@@ -104,14 +169,34 @@ class BalanceServiceTest {
 
         // Then
         assertEquals(customerId, response.customerId());
-        assertEquals(BigDecimal.valueOf(100), response.previousAmount());
-        assertEquals(BigDecimal.valueOf(50), response.currentAmount());
+        assertEquals(new BigDecimal("100.00"), response.previousAmount());
+        assertEquals(new BigDecimal("50.00"), response.currentAmount());
         assertEquals(TransactionStatus.APPROVED, response.transactionStatus());
 
         verify(transactionRepository).save(any(AccountTransaction.class));
         verify(assetRepository).save(any(Asset.class));
     }
 
+    @Test
+    void testProcessTransaction_Withdraw_RejectedFromPositionCache() {
+        // Given
+        Integer customerId = 1;
+        BalanceRequest request = new BalanceRequest(customerId, BigDecimal.valueOf(50), TransactionType.WITHDRAW);
+        when(positionCache.get(customerId)).thenReturn(Optional.of(
+                Map.of(AssetType.TRY, new Position(1, new Money(10000, 2), new Money(2000, 2)))));
+
+        // When
+        BalanceResponse response = balanceService.processTransaction(customerId, request, TransactionType.WITHDRAW);
+
+        // Then
+        assertEquals(new BigDecimal("20.00"), response.previousAmount());
+        assertEquals(new BigDecimal("20.00"), response.currentAmount());
+        assertEquals(TransactionStatus.CANCELED, response.transactionStatus());
+        verify(transactionRepository).save(any(AccountTransaction.class));
+        verify(customerRepository, never()).findCustomerWithAssetsById(any());
+        verify(assetRepository, never()).save(any(Asset.class));
+    }
+
     @Test
     void testProcessTransaction_UserNotFound() {
         // Given
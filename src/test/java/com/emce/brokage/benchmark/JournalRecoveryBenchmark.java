@@ -0,0 +1,112 @@
+package com.emce.brokage.benchmark;
+
+import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.journal.JournalRecord;
+import com.emce.brokage.journal.OrderJournal;
+import com.emce.brokage.order.entity.OrderSide;
+import com.emce.brokage.order.entity.OrderStatus;
+import com.emce.brokage.order.event.OrderEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Time for {@link OrderJournal#recover()} to rebuild the pending orders of a journal of
+ * {@code journalLength} records, replaying all of them versus loading a snapshot and replaying the
+ * last {@value #TAIL}. Not a test; run it from the test classpath:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/test-classpath.txt
+ * java -cp target/test-classes:target/classes:$(cat target/test-classpath.txt) org.openjdk.jmh.Main JournalRecoveryBenchmark
+ * </pre>
+ * Add {@code -p journalLength=10000000} for the ten million order case.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class JournalRecoveryBenchmark {
+
+    private static final int SEGMENT_RECORDS = 1 << 20;
+    private static final int TAIL = 10_000;
+
+    @Param({"100000", "1000000"})
+    private int journalLength;
+
+    private Path wholeJournal;
+    private Path snapshotAndTail;
+
+    @Setup(Level.Trial)
+    public void writeJournals() throws IOException {
+        wholeJournal = writeJournal(false);
+        snapshotAndTail = writeJournal(true);
+    }
+
+    private Path writeJournal(boolean snapshot) throws IOException {
+        Path directory = Files.createTempDirectory("journal-benchmark");
+        OrderJournal journal = new OrderJournal(directory, SEGMENT_RECORDS);
+        journal.recover();
+        for (int orderId = 1; orderId <= journalLength; orderId++) {
+            if (snapshot && orderId == journalLength - TAIL) {
+                journal.snapshot();
+            }
+            journal.append(JournalRecord.of(OrderEvent.builder()
+                    .orderId(orderId)
+                    .customerId(orderId % 10_000 + 1)
+                    .assetName(AssetType.USD)
+                    .orderSide(orderId % 2 == 0 ? OrderSide.BUY : OrderSide.SELL)
+                    .size(BigDecimal.TEN)
+                    .price(BigDecimal.valueOf(35_000 + orderId % 100, 2))
+                    .status(OrderStatus.PENDING)
+                    .build()));
+        }
+        journal.close();
+        return directory;
+    }
+
+    @Benchmark
+    public int replayWholeJournal() throws IOException {
+        return recover(wholeJournal);
+    }
+
+    @Benchmark
+    public int loadSnapshotAndReplayTail() throws IOException {
+        return recover(snapshotAndTail);
+    }
+
+    private int recover(Path directory) throws IOException {
+        OrderJournal journal = new OrderJournal(directory, SEGMENT_RECORDS);
+        journal.recover();
+        return journal.pendingCount();
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteJournals() throws IOException {
+        for (Path directory : new Path[]{wholeJournal, snapshotAndTail}) {
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.emce.brokage.benchmark;
+
+import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.money.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the asset arithmetic of one buy and one sell going through reservation and settlement,
+ * the moves {@code OrderAssetMovements} makes, on {@link BigDecimal} sizes versus {@link Money}
+ * sizes. {@code money} starts from sizes already held as {@link Money}; {@code moneyFromOrder} also
+ * converts the order's {@link BigDecimal} size and price first, as the order paths do today. The
+ * sizes end each operation where they started. Not a test; run it from the test classpath:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/test-classpath.txt
+ * java -cp target/test-classes:target/classes:$(cat target/test-classpath.txt) org.openjdk.jmh.Main MoneyArithmeticBenchmark -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MoneyArithmeticBenchmark {
+
+    private final BigDecimal orderSize = new BigDecimal("10.00");
+    private final BigDecimal orderPrice = new BigDecimal("350.50");
+
+    private BigDecimal decimalTrySize;
+    private BigDecimal decimalTryUsable;
+    private BigDecimal decimalAssetSize;
+    private BigDecimal decimalAssetUsable;
+
+    private Money moneySize;
+    private Money moneyPrice;
+    private Money moneyTrySize;
+    private Money moneyTryUsable;
+    private Money moneyAssetSize;
+    private Money moneyAssetUsable;
+
+    @Setup
+    public void setUp() {
+        decimalTrySize = new BigDecimal("100000.00");
+        decimalTryUsable = new BigDecimal("100000.00");
+        decimalAssetSize = new BigDecimal("500.00");
+        decimalAssetUsable = new BigDecimal("500.00");
+        moneySize = Money.of(orderSize, AssetType.USD);
+        moneyPrice = Money.of(orderPrice, AssetType.TRY);
+        moneyTrySize = Money.of(decimalTrySize);
+        moneyTryUsable = Money.of(decimalTryUsable);
+        moneyAssetSize = Money.of(decimalAssetSize);
+        moneyAssetUsable = Money.of(decimalAssetUsable);
+    }
+
+    @Benchmark
+    public boolean bigDecimal() {
+        return decimalCycle(orderSize, orderPrice);
+    }
+
+    @Benchmark
+    public boolean money() {
+        return moneyCycle(moneySize, moneyPrice);
+    }
+
+    @Benchmark
+    public boolean moneyFromOrder() {
+        return moneyCycle(Money.of(orderSize, AssetType.USD), Money.of(orderPrice, AssetType.TRY));
+    }
+
+    private boolean decimalCycle(BigDecimal size, BigDecimal price) {
+        boolean canBuy = decimalTryUsable.compareTo(price) >= 0;
+        decimalAssetSize = decimalAssetSize.add(size);
+        decimalTryUsable = decimalTryUsable.subtract(price);
+        decimalTrySize = decimalTrySize.subtract(price);
+        decimalAssetUsable = decimalAssetUsable.add(size);
+
+        boolean canSell = decimalAssetUsable.compareTo(size) >= 0;
+        decimalAssetUsable = decimalAssetUsable.subtract(size);
+        decimalTrySize = decimalTrySize.add(price);
+        decimalTryUsable = decimalTryUsable.add(price);
+        decimalAssetSize = decimalAssetSize.subtract(size);
+        return canBuy && canSell;
+    }
+
+    private boolean moneyCycle(Money size, Money price) {
+        boolean canBuy = moneyTryUsable.compareTo(price) >= 0;
+        moneyAssetSize = moneyAssetSize.add(size);
+        moneyTryUsable = moneyTryUsable.subtract(price);
+        moneyTrySize = moneyTrySize.subtract(price);
+        moneyAssetUsable = moneyAssetUsable.add(size);
+
+        boolean canSell = moneyAssetUsable.compareTo(size) >= 0;
+        moneyAssetUsable = moneyAssetUsable.subtract(size);
+        moneyTrySize = moneyTrySize.add(price);
+        moneyTryUsable = moneyTryUsable.add(price);
+        moneyAssetSize = moneyAssetSize.subtract(size);
+        return canBuy && canSell;
+    }
+}
@@ -0,0 +1,87 @@
+package com.emce.brokage.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CustomerStripedLockTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private CustomerStripedLock customerLock;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        customerLock = new CustomerStripedLock(8, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static void completeTransaction() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    }
+
+    private CompletableFuture<Void> lockInOtherTransaction(Integer customerId) {
+        return CompletableFuture.runAsync(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            customerLock.lockForTransaction(customerId);
+            completeTransaction();
+        });
+    }
+
+    @Test
+    void lockForTransaction_shouldFail_whenNoTransactionIsActive() {
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> customerLock.lockForTransaction(1));
+    }
+
+    @Test
+    void lockForTransaction_shouldBlockSameCustomer_untilTransactionCompletes() throws Exception {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+        customerLock.lockForTransaction(1);
+
+        // When
+        CompletableFuture<Void> other = lockInOtherTransaction(1);
+
+        // Then
+        assertThrows(TimeoutException.class, () -> other.get(200, TimeUnit.MILLISECONDS));
+        completeTransaction();
+        other.get(5, TimeUnit.SECONDS);
+        assertEquals(2, meterRegistry.find("brokage.customer.lock.wait").timers().stream()
+                .mapToLong(t -> t.count()).sum());
+    }
+
+    @Test
+    void lockForTransaction_shouldTakeEachStripeOnce_whenCustomersShareStripe() throws Exception {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        customerLock.lockForTransaction(List.of(1, 2, 3, 1, 2, 3));
+
+        // Then
+        int registered = TransactionSynchronizationManager.getSynchronizations().size();
+        completeTransaction();
+        assertEquals(3, registered);
+        lockInOtherTransaction(1).get(5, TimeUnit.SECONDS);
+    }
+}
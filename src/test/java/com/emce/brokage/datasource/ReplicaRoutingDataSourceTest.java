@@ -0,0 +1,110 @@
+package com.emce.brokage.datasource;
+
+import com.emce.brokage.auth.entity.Customer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReplicaRoutingDataSourceTest {
+
+    private DriverManagerDataSource primary;
+    private DriverManagerDataSource replica;
+    private ReplicaLagGuard lagGuard;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    private static DriverManagerDataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(16))");
+        jdbcTemplate.execute("DELETE FROM node");
+        jdbcTemplate.update("INSERT INTO node VALUES (?)", name);
+        return dataSource;
+    }
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+        lagGuard = new ReplicaLagGuard(replica, "SELECT 0", Duration.ofSeconds(2), new SimpleMeterRegistry());
+        DataSource dataSource = new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primary, replica, lagGuard));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private String node(TransactionTemplate transactionTemplate) {
+        return transactionTemplate.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    private static void authenticate(int customerId) {
+        Customer customer = Customer.builder().id(customerId).build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(customer, null, List.of()));
+    }
+
+    @Test
+    void shouldRouteReadOnlyTransactionsToReplica() {
+        // When & Then
+        assertEquals("replica", node(readOnly));
+        assertEquals("primary", node(readWrite));
+        assertEquals("primary", jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    @Test
+    void shouldReadFromPrimary_whenForced() {
+        // When & Then
+        assertEquals("primary", ReplicaRoutingDataSource.onPrimary(() -> node(readOnly)));
+        assertEquals("replica", node(readOnly));
+    }
+
+    @Test
+    void shouldReadOwnWritesFromPrimary_withinLagWindow() {
+        // Given
+        authenticate(1);
+        node(readWrite);
+
+        // When & Then
+        assertEquals("primary", node(readOnly));
+        authenticate(2);
+        assertEquals("replica", node(readOnly));
+    }
+
+    @Test
+    void shouldReadFromPrimary_whileReplicaIsBehind() {
+        // Given
+        ReplicaLagGuard laggingGuard = new ReplicaLagGuard(replica, "SELECT 5000", Duration.ofSeconds(2), new SimpleMeterRegistry());
+        DataSource dataSource = new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primary, replica, laggingGuard));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readOnly = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        readOnly.setReadOnly(true);
+
+        // When
+        laggingGuard.checkLag();
+
+        // Then
+        assertEquals("primary", node(readOnly));
+    }
+}
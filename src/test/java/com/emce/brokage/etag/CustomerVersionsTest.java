@@ -0,0 +1,55 @@
+package com.emce.brokage.etag;
+
+import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.balance.entity.TransactionType;
+import com.emce.brokage.balance.event.BalanceEvent;
+import com.emce.brokage.order.event.OrderEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CustomerVersionsTest {
+
+    private CustomerVersions customerVersions;
+
+    @BeforeEach
+    void setUp() {
+        customerVersions = new CustomerVersions(8);
+    }
+
+    @Test
+    void eTag_shouldChange_whenCustomerOrdersOrBalanceChange() {
+        // Given
+        String initial = customerVersions.eTag(1);
+
+        // When
+        customerVersions.onOrderEvent(OrderEvent.builder().orderId(1).customerId(1).build());
+        String afterOrder = customerVersions.eTag(1);
+        customerVersions.onBalanceEvent(new BalanceEvent(1, AssetType.TRY, TransactionType.DEPOSIT, BigDecimal.TEN));
+
+        // Then
+        assertTrue(initial.startsWith("\"") && initial.endsWith("\""));
+        assertNotEquals(initial, afterOrder);
+        assertNotEquals(afterOrder, customerVersions.eTag(1));
+    }
+
+    @Test
+    void eTag_shouldStay_whenOtherCustomersChange() {
+        // Given
+        String initial = customerVersions.eTag(1);
+
+        // When
+        for (int customerId = 2; customerId <= 8; customerId++) {
+            customerVersions.onOrderEvent(OrderEvent.builder().orderId(customerId).customerId(customerId).build());
+        }
+
+        // Then
+        assertEquals(initial, customerVersions.eTag(1));
+        assertEquals(initial, customerVersions.eTag(1));
+    }
+}
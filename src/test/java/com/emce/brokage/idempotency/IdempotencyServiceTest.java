@@ -0,0 +1,118 @@
+package com.emce.brokage.idempotency;
+
+import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.exception.IdempotencyKeyReusedException;
+import com.emce.brokage.idempotency.entity.IdempotencyRecord;
+import com.emce.brokage.order.dto.OrderRequest;
+import com.emce.brokage.order.dto.OrderResponse;
+import com.emce.brokage.order.entity.OrderSide;
+import com.emce.brokage.order.entity.OrderStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdempotencyServiceTest {
+
+    private static final String OPERATION = "order.create";
+
+    @Mock
+    private IdempotencyRecordRepository recordRepository;
+
+    private IdempotencyService idempotencyService;
+
+    private final OrderRequest request = new OrderRequest(1, AssetType.USD, OrderSide.BUY, BigDecimal.TEN, BigDecimal.valueOf(100));
+    private final OrderResponse response = new OrderResponse(1, AssetType.USD, OrderSide.BUY, BigDecimal.TEN,
+            BigDecimal.valueOf(100), BigDecimal.ZERO, BigDecimal.ZERO, OrderStatus.PENDING, LocalDateTime.of(2024, 9, 2, 10, 0), LocalDateTime.of(2024, 9, 2, 10, 0));
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        idempotencyService = new IdempotencyService(recordRepository, new ObjectMapper().registerModule(new JavaTimeModule()),
+                Duration.ofHours(24), 100);
+    }
+
+    private IdempotencyRecord savedRecord() {
+        idempotencyService.saveResponse(1, "key-1", OPERATION, request, response);
+        ArgumentCaptor<IdempotencyRecord> captor = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(recordRepository).save(captor.capture());
+        return captor.getValue();
+    }
+
+    @Test
+    void findResponse_shouldReturnEmpty_whenKeyIsNew() {
+        // Given
+        when(recordRepository.findByCustomerIdAndKey(1, "key-1")).thenReturn(Optional.empty());
+
+        // When & Then
+        assertTrue(idempotencyService.findResponse(1, "key-1", OPERATION, request, OrderResponse.class).isEmpty());
+    }
+
+    @Test
+    void findResponse_shouldReplayFromCache_afterSave() {
+        // Given
+        idempotencyService.saveResponse(1, "key-1", OPERATION, request, response);
+
+        // When
+        Optional<OrderResponse> replayed = idempotencyService.findResponse(1, "key-1", OPERATION, request, OrderResponse.class);
+
+        // Then
+        assertEquals(Optional.of(response), replayed);
+        verify(recordRepository, times(0)).findByCustomerIdAndKey(1, "key-1");
+    }
+
+    @Test
+    void findResponse_shouldReplayFromTable_whenCacheIsCold() {
+        // Given
+        IdempotencyRecord record = savedRecord();
+        record.setCreatedAt(LocalDateTime.now());
+        IdempotencyService restarted = new IdempotencyService(recordRepository,
+                new ObjectMapper().registerModule(new JavaTimeModule()), Duration.ofHours(24), 100);
+        when(recordRepository.findByCustomerIdAndKey(1, "key-1")).thenReturn(Optional.of(record));
+
+        // When
+        Optional<OrderResponse> replayed = restarted.findResponse(1, "key-1", OPERATION, request, OrderResponse.class);
+
+        // Then
+        assertEquals(Optional.of(response), replayed);
+    }
+
+    @Test
+    void findResponse_shouldIgnoreRecord_whenRetentionHasPassed() {
+        // Given
+        IdempotencyRecord record = savedRecord();
+        record.setCreatedAt(LocalDateTime.now().minusDays(2));
+        IdempotencyService restarted = new IdempotencyService(recordRepository,
+                new ObjectMapper().registerModule(new JavaTimeModule()), Duration.ofHours(24), 100);
+        when(recordRepository.findByCustomerIdAndKey(1, "key-1")).thenReturn(Optional.of(record));
+
+        // When & Then
+        assertTrue(restarted.findResponse(1, "key-1", OPERATION, request, OrderResponse.class).isEmpty());
+    }
+
+    @Test
+    void findResponse_shouldFail_whenKeyIsReusedForDifferentRequest() {
+        // Given
+        idempotencyService.saveResponse(1, "key-1", OPERATION, request, response);
+        OrderRequest otherRequest = new OrderRequest(1, AssetType.USD, OrderSide.SELL, BigDecimal.TEN, BigDecimal.valueOf(100));
+
+        // When & Then
+        assertThrows(IdempotencyKeyReusedException.class,
+                () -> idempotencyService.findResponse(1, "key-1", OPERATION, otherRequest, OrderResponse.class));
+    }
+}
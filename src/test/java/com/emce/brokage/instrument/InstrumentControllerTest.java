@@ -0,0 +1,98 @@
+package com.emce.brokage.instrument;
+
+import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.instrument.dto.InstrumentRequest;
+import com.emce.brokage.instrument.dto.InstrumentResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+class InstrumentControllerTest {
+
+    @InjectMocks
+    private InstrumentController instrumentController;
+
+    @Mock
+    private InstrumentRegistry instrumentRegistry;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        mockMvc = MockMvcBuilders.standaloneSetup(instrumentController).build();
+    }
+
+    @Test
+    void testGetInstruments() {
+        // Given
+        Instrument usd = new Instrument(AssetType.USD, new BigDecimal("0.01"), "TRY", true);
+        when(instrumentRegistry.getInstruments()).thenReturn(List.of(usd));
+
+        // When
+        List<InstrumentResponse> response = instrumentController.getInstruments();
+
+        // Then
+        assertEquals(List.of(InstrumentResponse.fromInstrument(usd)), response);
+        assertEquals(2, response.get(0).id());
+        assertEquals("USD", response.get(0).symbol());
+    }
+
+    @Test
+    void testCreateInstrument() {
+        // Given
+        InstrumentRequest request = new InstrumentRequest("GBP", 2, new BigDecimal("0.01"), "TRY", true);
+        Instrument gbp = new Instrument(new AssetType(3, "GBP", 2), new BigDecimal("0.01"), "TRY", true);
+        when(instrumentRegistry.create(request)).thenReturn(gbp);
+
+        // When
+        ResponseEntity<InstrumentResponse> response = instrumentController.createInstrument(request);
+
+        // Then
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(3, response.getBody().id());
+    }
+
+    @Test
+    void testCreateInstrument_RejectsMissingSymbol() throws Exception {
+        // When and Then
+        mockMvc.perform(post("/api/v1/instruments")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"scale\":2,\"tickSize\":0.01,\"quoteCurrency\":\"TRY\",\"active\":true}"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        verify(instrumentRegistry, never()).create(any());
+    }
+
+    @Test
+    void testUpdateInstrument_TakesSymbolFromPath() throws Exception {
+        // Given
+        Instrument usd = new Instrument(AssetType.USD, new BigDecimal("0.05"), "TRY", true);
+        when(instrumentRegistry.update(eq("USD"), any())).thenReturn(usd);
+
+        // When and Then
+        mockMvc.perform(put("/api/v1/instruments/USD")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"scale\":2,\"tickSize\":0.05,\"quoteCurrency\":\"TRY\",\"active\":true}"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+}
@@ -0,0 +1,134 @@
+package com.emce.brokage.instrument;
+
+import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.exception.InstrumentNotFoundException;
+import com.emce.brokage.instrument.dto.InstrumentRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.security.InvalidParameterException;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// the registry outlives the test, so listings are committed and the built-ins restored afterwards
+@DataJpaTest
+@Import(InstrumentRegistry.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InstrumentRegistryTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private InstrumentRegistry instrumentRegistry;
+
+    @BeforeEach
+    void setUp() {
+        instrumentRegistry.load();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM instruments WHERE id > ?", AssetType.USD.id());
+        instrumentRegistry.load();
+    }
+
+    private static InstrumentRequest request(String symbol, int scale, String tickSize, boolean active) {
+        return new InstrumentRequest(symbol, scale, new BigDecimal(tickSize), "TRY", active);
+    }
+
+    @Test
+    void load_shouldKeepBuiltInInstances() {
+        // Then
+        assertEquals(3, AssetType.values().size());
+        assertSame(AssetType.TRY, AssetType.valueOf("TRY"));
+        assertSame(AssetType.USD, InstrumentTable.current().assetType(AssetType.USD.id()));
+    }
+
+    @Test
+    void create_shouldListInstrumentUnderNextDenseId() {
+        // When
+        Instrument instrument = instrumentRegistry.create(request("GBP", 2, "0.01", true));
+
+        // Then
+        assertEquals(3, instrument.id());
+        assertSame(instrument.assetType(), instrumentRegistry.getAssetType("GBP"));
+        assertEquals(instrument.assetType(), AssetType.valueOf("GBP"));
+        assertEquals(instrument.assetType(), InstrumentTable.current().assetType(3));
+        assertEquals(4, AssetType.values().size());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM instruments WHERE symbol = 'GBP'", Integer.class));
+    }
+
+    @Test
+    void create_shouldRejectDuplicateSymbolScaleAndQuoteCurrency() {
+        // When & Then
+        assertThrows(InvalidParameterException.class, () -> instrumentRegistry.create(request("USD", 2, "0.01", true)));
+        assertThrows(InvalidParameterException.class, () -> instrumentRegistry.create(request("BTC", 8, "0.01", true)));
+        assertThrows(InvalidParameterException.class, () -> instrumentRegistry.create(
+                new InstrumentRequest("GBP", 2, new BigDecimal("0.01"), "USD", true)));
+        assertThrows(IllegalArgumentException.class, () -> instrumentRegistry.getAssetType("BTC"));
+        assertThrows(IllegalArgumentException.class, () -> AssetType.valueOf("BTC"));
+    }
+
+    @Test
+    void update_shouldSwapTableAndLeaveOldTableUntouched() {
+        // Given
+        instrumentRegistry.create(request("GBP", 2, "0.01", true));
+        InstrumentTable before = InstrumentTable.current();
+
+        // When
+        Instrument updated = instrumentRegistry.update("GBP", request(null, 2, "0.05", false));
+
+        // Then
+        assertFalse(updated.active());
+        assertEquals(0, new BigDecimal("0.05").compareTo(instrumentRegistry.getInstrument("GBP").tickSize()));
+        assertTrue(before.instrument("GBP").active());
+        assertSame(before.assetType("GBP"), InstrumentTable.current().assetType("GBP"));
+    }
+
+    @Test
+    void update_shouldRejectScaleChangeAndUnknownSymbol() {
+        // When & Then
+        assertThrows(InvalidParameterException.class, () -> instrumentRegistry.update("USD", request(null, 0, "0.01", true)));
+        assertThrows(InstrumentNotFoundException.class, () -> instrumentRegistry.update("BTC", request(null, 2, "0.01", true)));
+    }
+
+    @Test
+    void checkTradable_shouldEnforceScaleAndActive() {
+        // Given
+        AssetType gold = instrumentRegistry.create(request("XAU", 1, "0.05", true)).assetType();
+
+        // When & Then
+        assertDoesNotThrow(() -> instrumentRegistry.checkTradable(gold, new BigDecimal("2.5")));
+        assertThrows(InvalidParameterException.class, () -> instrumentRegistry.checkTradable(gold, new BigDecimal("2.55")));
+        instrumentRegistry.update("XAU", request(null, 1, "0.05", false));
+        assertThrows(InvalidParameterException.class, () -> instrumentRegistry.checkTradable(gold, new BigDecimal("10")));
+    }
+
+    @Test
+    void checkTradable_shouldAcceptOrdersOffTheTick() {
+        // When & Then
+        assertDoesNotThrow(() -> instrumentRegistry.checkTradable(AssetType.USD, new BigDecimal("3")));
+        assertDoesNotThrow(() -> instrumentRegistry.checkTradable(AssetType.EUR, new BigDecimal("7.25")));
+    }
+
+    @Test
+    void getInstrument_shouldThrow_whenSymbolIsNotListed() {
+        // When & Then
+        assertThrows(InstrumentNotFoundException.class, () -> instrumentRegistry.getInstrument("BTC"));
+        assertNull(InstrumentTable.current().assetType(4095));
+    }
+}
@@ -0,0 +1,142 @@
+package com.emce.brokage.journal;
+
+import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.order.OrderRepository;
+import com.emce.brokage.order.entity.OrderSide;
+import com.emce.brokage.order.entity.OrderStatus;
+import com.emce.brokage.order.event.OrderEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JournalServiceTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @TempDir
+    private Path directory;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private static OrderEvent pending(int orderId) {
+        return OrderEvent.builder()
+                .orderId(orderId)
+                .customerId(1)
+                .assetName(AssetType.USD)
+                .orderSide(OrderSide.SELL)
+                .size(BigDecimal.ONE)
+                .price(BigDecimal.TEN)
+                .status(OrderStatus.PENDING)
+                .build();
+    }
+
+    private static List<Integer> pendingIds(JournalService journalService) {
+        List<Integer> ids = new ArrayList<>();
+        journalService.forEachPendingOrder(order -> ids.add(order.orderId()));
+        return ids.stream().sorted().toList();
+    }
+
+    @Test
+    void recover_shouldSeedEmptyJournalFromPendingOrders() throws IOException {
+        // Given
+        when(orderRepository.findPendingEventsAfter(0, Limit.of(2))).thenReturn(List.of(pending(1), pending(2)));
+        when(orderRepository.findPendingEventsAfter(2, Limit.of(2))).thenReturn(List.of(pending(3)));
+        when(orderRepository.findPendingDigest()).thenReturn(new PendingDigest(4, 10, BigDecimal.ZERO));
+        JournalService journalService = new JournalService(orderRepository, meterRegistry, true, directory, 16, 2);
+
+        // When
+        journalService.recover();
+        journalService.onOrderEvent(pending(4));
+
+        // Then
+        assertEquals(List.of(1, 2, 3, 4), pendingIds(journalService));
+        JournalService restarted = new JournalService(orderRepository, meterRegistry, true, directory, 16, 2);
+        restarted.recover();
+        assertEquals(List.of(1, 2, 3, 4), pendingIds(restarted));
+        verify(orderRepository, times(2)).findPendingEventsAfter(any(), any());
+    }
+
+    @Test
+    void recover_shouldSeedJournalAgain_whenItMissesCommittedOrders() throws IOException {
+        // Given
+        when(orderRepository.findPendingEventsAfter(0, Limit.of(2))).thenReturn(List.of(pending(1), pending(2)));
+        JournalService journalService = new JournalService(orderRepository, meterRegistry, true, directory, 16, 2);
+        journalService.recover();
+        journalService.close();
+        // order 3 committed but the process stopped before journaling it
+        when(orderRepository.findPendingEventsAfter(0, Limit.of(2))).thenReturn(List.of(pending(1), pending(2)));
+        when(orderRepository.findPendingEventsAfter(2, Limit.of(2))).thenReturn(List.of(pending(3)));
+        when(orderRepository.findPendingDigest()).thenReturn(new PendingDigest(3, 6, BigDecimal.ZERO));
+
+        // When
+        JournalService restarted = new JournalService(orderRepository, meterRegistry, true, directory, 16, 2);
+        restarted.recover();
+
+        // Then
+        assertEquals(List.of(1, 2, 3), pendingIds(restarted));
+    }
+
+    @Test
+    void recover_shouldDoNothing_whenDisabled() throws IOException {
+        // Given
+        JournalService journalService = new JournalService(orderRepository, meterRegistry, false, directory.resolve("journal"), 16, 2);
+
+        // When
+        journalService.recover();
+        journalService.onOrderEvent(pending(1));
+
+        // Then
+        assertFalse(Files.exists(directory.resolve("journal")));
+        verify(orderRepository, never()).findPendingEventsAfter(any(), any());
+    }
+
+    @Test
+    void onOrderEvent_shouldNotThrow_whenAppendFails_andDiscardJournalAtShutdown() throws IOException {
+        // Given
+        Path journalDirectory = directory.resolve("journal");
+        when(orderRepository.findPendingEventsAfter(0, Limit.of(2))).thenReturn(List.of(pending(1)));
+        JournalService journalService = new JournalService(orderRepository, meterRegistry, true, journalDirectory, 1, 2);
+        journalService.recover();
+        // the next segment's file is already taken, so opening it fails
+        Files.writeString(journalDirectory.resolve("journal-00000000000000000002.seg"), "taken");
+
+        // When
+        assertDoesNotThrow(() -> journalService.onOrderEvent(pending(2)));
+        journalService.close();
+
+        // Then
+        assertFalse(journalService.isHealthy());
+        assertEquals(1, meterRegistry.get("brokage.journal.append.failures").counter().count());
+        try (Stream<Path> files = Files.list(journalDirectory)) {
+            assertEquals(List.of(), files.toList());
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.emce.brokage.journal;
+
+import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.balance.entity.TransactionType;
+import com.emce.brokage.balance.event.BalanceEvent;
+import com.emce.brokage.order.entity.OrderSide;
+import com.emce.brokage.order.entity.OrderStatus;
+import com.emce.brokage.order.entity.TimeInForce;
+import com.emce.brokage.order.event.OrderEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderJournalTest {
+
+    private static final int SEGMENT_RECORDS = 4;
+
+    @TempDir
+    private Path directory;
+
+    private static JournalRecord order(int orderId, OrderStatus status) {
+        return JournalRecord.of(OrderEvent.builder()
+                .orderId(orderId)
+                .customerId(orderId % 3 + 1)
+                .assetName(AssetType.USD)
+                .orderSide(OrderSide.BUY)
+                .size(BigDecimal.TEN)
+                .price(new BigDecimal("350.25"))
+                .status(status)
+                .build());
+    }
+
+    private static List<Integer> pendingIds(OrderJournal journal) {
+        List<Integer> ids = new ArrayList<>();
+        journal.forEachPendingOrder(order -> ids.add(order.orderId()));
+        return ids.stream().sorted().toList();
+    }
+
+    private List<String> files() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString()).sorted().toList();
+        }
+    }
+
+    private OrderJournal recovered() throws IOException {
+        OrderJournal journal = new OrderJournal(directory, SEGMENT_RECORDS);
+        journal.recover();
+        return journal;
+    }
+
+    @Test
+    void recover_shouldReplayAppendedRecordsAcrossSegments() throws IOException {
+        // Given
+        OrderJournal journal = recovered();
+        for (int orderId = 1; orderId <= 6; orderId++) {
+            journal.append(order(orderId, OrderStatus.PENDING));
+        }
+        journal.append(order(2, OrderStatus.MATCHED));
+        journal.append(order(5, OrderStatus.CANCELED));
+        journal.append(JournalRecord.of(new BalanceEvent(1, AssetType.TRY, TransactionType.DEPOSIT, new BigDecimal("100"))));
+        journal.close();
+
+        // When
+        OrderJournal restarted = new OrderJournal(directory, SEGMENT_RECORDS);
+        long replayed = restarted.recover();
+
+        // Then
+        assertEquals(9, replayed);
+        assertEquals(9, restarted.sequence());
+        assertEquals(List.of(1, 3, 4, 6), pendingIds(restarted));
+        List<PendingOrder> orders = new ArrayList<>();
+        restarted.forEachPendingOrder(orders::add);
+        assertEquals(0, new BigDecimal("350.25").compareTo(orders.get(0).price()));
+        assertEquals(List.of("journal-00000000000000000001.seg", "journal-00000000000000000005.seg",
+                "journal-00000000000000000009.seg"), files());
+    }
+
+    @Test
+    void recover_shouldLoadSnapshotAndReplayOnlyTail() throws IOException {
+        // Given
+        OrderJournal journal = recovered();
+        for (int orderId = 1; orderId <= 9; orderId++) {
+            journal.append(order(orderId, OrderStatus.PENDING));
+        }
+        journal.snapshot();
+        journal.append(order(10, OrderStatus.PENDING));
+        journal.append(order(1, OrderStatus.CANCELED));
+
+        // When
+        OrderJournal restarted = recovered();
+
+        // Then
+        assertEquals(9, restarted.pendingCount());
+        assertEquals(11, restarted.sequence());
+        assertEquals(List.of("journal-00000000000000000009.seg", "snapshot-00000000000000000009.bin"), files());
+        restarted.append(order(11, OrderStatus.PENDING));
+        assertEquals(12, recovered().sequence());
+    }
+
+    @Test
+    void recover_shouldKeepFilledSize_whenOrderWasFilledPartially() throws IOException {
+        // Given
+        OrderJournal journal = recovered();
+        journal.append(order(1, OrderStatus.PENDING));
+        journal.append(order(2, OrderStatus.PENDING));
+        journal.append(JournalRecord.fillOf(OrderEvent.builder().orderId(1).customerId(2).assetName(AssetType.USD)
+                .orderSide(OrderSide.BUY).size(BigDecimal.TEN).price(new BigDecimal("350.25"))
+                .filledSize(new BigDecimal("4")).filledAmount(new BigDecimal("140")).status(OrderStatus.PENDING).build()));
+        journal.snapshot();
+        journal.append(JournalRecord.fillOf(OrderEvent.builder().orderId(2).customerId(3).assetName(AssetType.USD)
+                .orderSide(OrderSide.BUY).size(BigDecimal.TEN).price(new BigDecimal("350.25"))
+                .filledSize(new BigDecimal("7.5")).filledAmount(new BigDecimal("262")).status(OrderStatus.PENDING).build()));
+
+        // When
+        List<PendingOrder> orders = new ArrayList<>();
+        recovered().forEachPendingOrder(orders::add);
+
+        // Then
+        assertEquals(List.of(1, 2), orders.stream().map(PendingOrder::orderId).toList());
+        assertEquals(0, new BigDecimal("4").compareTo(orders.get(0).filledSize()));
+        assertEquals(0, new BigDecimal("7.5").compareTo(orders.get(1).filledSize()));
+    }
+
+    @Test
+    void recover_shouldKeepJournalOrderTimeInForceAndExpiry() throws IOException {
+        // Given
+        LocalDateTime expiresAt = LocalDateTime.of(2024, 9, 2, 18, 0);
+        OrderJournal journal = recovered();
+        journal.append(JournalRecord.of(OrderEvent.builder().orderId(5).customerId(1).assetName(AssetType.USD)
+                .orderSide(OrderSide.SELL).size(BigDecimal.ONE).price(BigDecimal.TEN).status(OrderStatus.PENDING)
+                .timeInForce(TimeInForce.DAY).expiresAt(expiresAt).build()));
+        journal.append(order(2, OrderStatus.PENDING));
+        journal.snapshot();
+        journal.append(order(3, OrderStatus.PENDING));
+
+        // When
+        List<PendingOrder> orders = new ArrayList<>();
+        recovered().forEachPendingOrder(orders::add);
+
+        // Then
+        assertEquals(List.of(5, 2, 3), orders.stream().map(PendingOrder::orderId).toList());
+        assertEquals(TimeInForce.DAY, orders.get(0).timeInForce());
+        assertEquals(expiresAt, orders.get(0).expiresAt());
+        assertEquals(TimeInForce.GTC, orders.get(1).timeInForce());
+        assertNull(orders.get(1).expiresAt());
+    }
+
+    @Test
+    void recover_shouldDiscardJournalWrittenInEarlierFormat() throws IOException {
+        // Given
+        Files.write(directory.resolve("journal-00000000000000000001.log"), new byte[48]);
+        OrderJournal journal = recovered();
+        journal.append(order(1, OrderStatus.PENDING));
+        journal.snapshot();
+
+        // When
+        Files.write(directory.resolve("journal-00000000000000000002.log"), new byte[48]);
+        OrderJournal restarted = recovered();
+
+        // Then
+        assertTrue(restarted.isEmpty());
+        assertTrue(files().isEmpty());
+    }
+
+    @Test
+    void recover_shouldStopAtTornRecord_andOverwriteItOnNextAppend() throws IOException {
+        // Given
+        OrderJournal journal = recovered();
+        journal.append(order(1, OrderStatus.PENDING));
+        journal.append(order(2, OrderStatus.PENDING));
+        journal.close();
+        try (RandomAccessFile segment = new RandomAccessFile(directory.resolve("journal-00000000000000000001.seg").toFile(), "rw")) {
+            segment.seek(JournalRecord.SIZE + 30);
+            segment.write(0x7f);
+        }
+
+        // When
+        OrderJournal restarted = recovered();
+        restarted.append(order(3, OrderStatus.PENDING));
+
+        // Then
+        assertEquals(List.of(1, 3), pendingIds(restarted));
+        assertEquals(List.of(1, 3), pendingIds(recovered()));
+    }
+
+    @Test
+    void append_shouldIgnorePendingRecord_whenOrderWasSettledFirst() throws IOException {
+        // Given
+        OrderJournal journal = recovered();
+        journal.append(order(1, OrderStatus.MATCHED));
+        journal.snapshot();
+
+        // When
+        journal.append(order(1, OrderStatus.PENDING));
+        journal.append(order(1, OrderStatus.PENDING));
+
+        // Then
+        assertEquals(List.of(1), pendingIds(journal));
+        assertEquals(List.of(1), pendingIds(recovered()));
+    }
+
+    @Test
+    void snapshot_shouldForgetSettledOrders_whosePendingRecordNeverArrived() throws IOException {
+        // Given
+        OrderJournal journal = recovered();
+        journal.append(order(1, OrderStatus.MATCHED));
+        journal.snapshot();
+        journal.append(order(2, OrderStatus.PENDING));
+
+        // When
+        journal.snapshot();
+        OrderJournal restarted = recovered();
+        restarted.append(order(1, OrderStatus.PENDING));
+
+        // Then
+        assertEquals(List.of(1, 2), pendingIds(restarted));
+    }
+
+    @Test
+    void snapshot_shouldSkipWriting_whenNothingWasAppended() throws IOException {
+        // Given
+        OrderJournal journal = recovered();
+
+        // When
+        journal.snapshot();
+
+        // Then
+        assertTrue(files().isEmpty());
+        assertTrue(journal.isEmpty());
+    }
+}
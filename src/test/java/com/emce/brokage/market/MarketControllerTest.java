@@ -0,0 +1,57 @@
+package com.emce.brokage.market;
+
+import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.market.dto.Candle;
+import com.emce.brokage.market.dto.Ticker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+class MarketControllerTest {
+
+    @InjectMocks
+    private MarketController marketController;
+
+    @Mock
+    private MarketDataService marketDataService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testGetTicker() {
+        // Given
+        Ticker ticker = Ticker.builder().assetName(AssetType.USD).lastPrice(BigDecimal.TEN).trades(1).build();
+        when(marketDataService.getTicker(AssetType.USD)).thenReturn(ticker);
+
+        // When
+        Ticker response = marketController.getTicker(AssetType.USD);
+
+        // Then
+        assertEquals(ticker, response);
+    }
+
+    @Test
+    void testGetCandles() {
+        // Given
+        List<Candle> candles = List.of(Candle.builder().openTime(Instant.now()).close(BigDecimal.TEN).trades(1).build());
+        when(marketDataService.getCandles(AssetType.USD, "1m", 50)).thenReturn(candles);
+
+        // When
+        List<Candle> response = marketController.getCandles(AssetType.USD, "1m", 50);
+
+        // Then
+        assertEquals(candles, response);
+    }
+}
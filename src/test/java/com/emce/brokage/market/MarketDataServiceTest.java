@@ -0,0 +1,180 @@
+package com.emce.brokage.market;
+
+import com.emce.brokage.asset.AssetRepository;
+import com.emce.brokage.asset.PositionCache;
+import com.emce.brokage.asset.entity.Asset;
+import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.auth.CustomerRepository;
+import com.emce.brokage.auth.entity.Customer;
+import com.emce.brokage.concurrency.CustomerStripedLock;
+import com.emce.brokage.market.dto.Candle;
+import com.emce.brokage.market.dto.Ticker;
+import com.emce.brokage.money.Money;
+import com.emce.brokage.order.Fill;
+import com.emce.brokage.order.OrderRepository;
+import com.emce.brokage.order.OrderSettlementService;
+import com.emce.brokage.order.entity.Order;
+import com.emce.brokage.order.entity.OrderSide;
+import com.emce.brokage.order.entity.OrderStatus;
+import com.emce.brokage.order.event.TradeEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.security.InvalidParameterException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MarketDataServiceTest {
+
+    private static final Instant MINUTE = Instant.parse("2026-01-05T10:15:00Z");
+
+    private MarketDataService marketDataService;
+
+    @BeforeEach
+    void setUp() {
+        marketDataService = new MarketDataService(3);
+    }
+
+    private void trade(String size, String price, Instant matchedAt) {
+        marketDataService.recordTrade(AssetType.USD, new BigDecimal(size), new BigDecimal(price), matchedAt);
+    }
+
+    @Test
+    void getTicker_shouldReturnLastPriceVwapAndVolume() {
+        // Given
+        trade("10", "300", MINUTE);
+        trade("30", "1050", MINUTE.plusSeconds(1));
+
+        // When
+        Ticker ticker = marketDataService.getTicker(AssetType.USD);
+
+        // Then
+        assertEquals(0, new BigDecimal("35").compareTo(ticker.lastPrice()));
+        assertEquals(0, new BigDecimal("33.75").compareTo(ticker.vwap()));
+        assertEquals(0, new BigDecimal("40").compareTo(ticker.volume()));
+        assertEquals(2, ticker.trades());
+        assertEquals(MINUTE.plusSeconds(1), ticker.lastTradeAt());
+    }
+
+    @Test
+    void getTicker_shouldBeEmpty_whenAssetNeverTraded() {
+        // When
+        Ticker ticker = marketDataService.getTicker(AssetType.EUR);
+
+        // Then
+        assertNull(ticker.lastPrice());
+        assertNull(ticker.vwap());
+        assertEquals(0, ticker.trades());
+    }
+
+    @Test
+    void getCandles_shouldAggregateTradesPerInterval() {
+        // Given
+        trade("1", "30", MINUTE.plusSeconds(5));
+        trade("1", "34", MINUTE.plusSeconds(20));
+        trade("2", "56", MINUTE.plusSeconds(40));
+        trade("1", "31", MINUTE.plus(1, ChronoUnit.MINUTES));
+
+        // When
+        List<Candle> candles = marketDataService.getCandles(AssetType.USD, "1m", 10);
+
+        // Then
+        assertEquals(2, candles.size());
+        Candle first = candles.get(0);
+        assertEquals(MINUTE, first.openTime());
+        assertEquals(0, new BigDecimal("30").compareTo(first.open()));
+        assertEquals(0, new BigDecimal("34").compareTo(first.high()));
+        assertEquals(0, new BigDecimal("28").compareTo(first.low()));
+        assertEquals(0, new BigDecimal("28").compareTo(first.close()));
+        assertEquals(0, new BigDecimal("4").compareTo(first.volume()));
+        assertEquals(3, first.trades());
+        assertEquals(MINUTE.plus(1, ChronoUnit.MINUTES), candles.get(1).openTime());
+        assertEquals(1, marketDataService.getCandles(AssetType.USD, "1h", 10).size());
+    }
+
+    @Test
+    void getCandles_shouldKeepOnlyLatestCandles_whenRingBufferWraps() {
+        // Given
+        for (int minute = 0; minute < 5; minute++) {
+            trade("1", String.valueOf(30 + minute), MINUTE.plus(minute, ChronoUnit.MINUTES));
+        }
+        trade("1", "99", MINUTE);
+
+        // When
+        List<Candle> candles = marketDataService.getCandles(AssetType.USD, "1m", 10);
+
+        // Then
+        assertEquals(List.of(MINUTE.plus(2, ChronoUnit.MINUTES), MINUTE.plus(3, ChronoUnit.MINUTES), MINUTE.plus(4, ChronoUnit.MINUTES)),
+                candles.stream().map(Candle::openTime).toList());
+        assertEquals(2, marketDataService.getCandles(AssetType.USD, "1m", 2).size());
+    }
+
+    @Test
+    void getCandles_shouldRejectUnknownInterval() {
+        // When & Then
+        assertThrows(InvalidParameterException.class, () -> marketDataService.getCandles(AssetType.USD, "5m", 10));
+    }
+
+    @Test
+    void onTradeEvent_shouldRecordTradeOnce_whenPairIsSettled() {
+        // Given
+        Order buy = order(1, OrderSide.BUY);
+        Order sell = order(2, OrderSide.SELL);
+        OrderRepository orderRepository = mock(OrderRepository.class);
+        CustomerRepository customerRepository = mock(CustomerRepository.class);
+        when(orderRepository.findAllById(anyCollection())).thenReturn(List.of(buy, sell));
+        when(customerRepository.findCustomersWithAssetsByIdIn(anyCollection()))
+                .thenReturn(List.of(buy.getCustomer(), sell.getCustomer()));
+        // delivers every event the settlement publishes, as the after commit listeners would get them
+        ApplicationEventPublisher publisher = event -> {
+            if (event instanceof TradeEvent trade) {
+                marketDataService.onTradeEvent(trade);
+            }
+        };
+        OrderSettlementService settlementService = new OrderSettlementService(orderRepository,
+                mock(AssetRepository.class), customerRepository, mock(CustomerStripedLock.class),
+                mock(PositionCache.class), publisher);
+
+        // When
+        settlementService.settleFills(List.of(new Fill(1, 2, BigDecimal.TEN, new BigDecimal("35"))));
+
+        // Then
+        Ticker ticker = marketDataService.getTicker(AssetType.USD);
+        assertEquals(1, ticker.trades());
+        assertEquals(0, BigDecimal.TEN.compareTo(ticker.volume()));
+        assertEquals(0, new BigDecimal("35").compareTo(ticker.lastPrice()));
+    }
+
+    private static Order order(int id, OrderSide side) {
+        Customer customer = Customer.builder().id(id).assets(new HashSet<>()).build();
+        for (AssetType assetName : List.of(AssetType.TRY, AssetType.USD)) {
+            customer.getAssets().add(Asset.builder()
+                    .id(id * 10 + assetName.id())
+                    .assetName(assetName)
+                    .size(Money.of(new BigDecimal("1000"), assetName))
+                    .usableSize(Money.of(new BigDecimal("1000"), assetName))
+                    .customer(customer)
+                    .build());
+        }
+        return Order.builder()
+                .id(id)
+                .customer(customer)
+                .assetName(AssetType.USD)
+                .orderSide(side)
+                .size(BigDecimal.TEN)
+                .price(new BigDecimal("350"))
+                .status(OrderStatus.PENDING)
+                .build();
+    }
+}
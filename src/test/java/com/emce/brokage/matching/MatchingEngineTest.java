@@ -0,0 +1,161 @@
+package com.emce.brokage.matching;
+
+import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.auth.entity.Customer;
+import com.emce.brokage.journal.JournalService;
+import com.emce.brokage.journal.PendingOrder;
+import com.emce.brokage.order.Fill;
+import com.emce.brokage.order.OrderRepository;
+import com.emce.brokage.order.OrderSettlementService;
+import com.emce.brokage.order.SettlementResult;
+import com.emce.brokage.order.entity.Order;
+import com.emce.brokage.order.entity.OrderSide;
+import com.emce.brokage.order.entity.OrderStatus;
+import com.emce.brokage.order.entity.TimeInForce;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MatchingEngineTest {
+
+    // both orders are 10 units for 100, so they fill each other at the resting unit price of 10
+    private static final Fill FILL = new Fill(1, 2, new BigDecimal("10.00"), new BigDecimal("10.00000000"));
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderSettlementService settlementService;
+
+    @Mock
+    private JournalService journalService;
+
+    @InjectMocks
+    private MatchingEngine matchingEngine;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(matchingEngine, "enabled", true);
+        ReflectionTestUtils.setField(matchingEngine, "settlementBatchSize", 500);
+        ReflectionTestUtils.setField(matchingEngine, "retryDelayMillis", 0L);
+        when(settlementService.settleFills(any())).thenReturn(new SettlementResult(List.of(), List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        matchingEngine.shutdown();
+    }
+
+    private static PendingOrder pending(int orderId, OrderSide side) {
+        return new PendingOrder(orderId, orderId, AssetType.USD, side, 1000, 10000, 0, TimeInForce.GTC, 0);
+    }
+
+    private static Order order(int orderId, OrderSide side, OrderStatus status) {
+        return Order.builder()
+                .id(orderId)
+                .customer(Customer.builder().id(orderId).build())
+                .assetName(AssetType.USD)
+                .orderSide(side)
+                .size(new BigDecimal("10.00"))
+                .price(new BigDecimal("100.00"))
+                .status(status)
+                .build();
+    }
+
+    // books are updated on their own threads, keep settling until a settlement went through
+    private void settleUntilSettled(int settlements) throws InterruptedException {
+        for (int attempt = 0; attempt < 500 && mockingDetails(settlementService).getInvocations().size() < settlements;
+             attempt++) {
+            matchingEngine.settleMatches();
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void rebuildBooks_shouldUseJournal_whenJournalEnabled() throws InterruptedException {
+        // Given
+        when(journalService.isEnabled()).thenReturn(true);
+        doAnswer(invocation -> {
+            Consumer<PendingOrder> consumer = invocation.getArgument(0);
+            consumer.accept(pending(1, OrderSide.BUY));
+            consumer.accept(pending(2, OrderSide.SELL));
+            return null;
+        }).when(journalService).forEachPendingOrder(any());
+
+        // When
+        matchingEngine.rebuildBooks();
+        settleUntilSettled(1);
+
+        // Then
+        verify(settlementService).settleFills(List.of(FILL));
+        verify(orderRepository, never()).findByStatus(any(), any());
+    }
+
+    @Test
+    void settleMatches_shouldReturnOrdersToBook_whenSettlementFailsTwice() throws InterruptedException {
+        // Given
+        when(settlementService.settleFills(any()))
+                .thenThrow(new IllegalStateException("batch"))
+                .thenThrow(new IllegalStateException("retry"))
+                .thenReturn(new SettlementResult(List.of(), List.of()));
+        when(orderRepository.findAllById(List.of(1, 2))).thenReturn(List.of(
+                order(1, OrderSide.BUY, OrderStatus.PENDING), order(2, OrderSide.SELL, OrderStatus.PENDING)));
+        when(journalService.isEnabled()).thenReturn(true);
+        doAnswer(invocation -> {
+            Consumer<PendingOrder> consumer = invocation.getArgument(0);
+            consumer.accept(pending(1, OrderSide.BUY));
+            consumer.accept(pending(2, OrderSide.SELL));
+            return null;
+        }).when(journalService).forEachPendingOrder(any());
+        matchingEngine.rebuildBooks();
+
+        // When
+        settleUntilSettled(3);
+
+        // Then
+        verify(settlementService, times(3)).settleFills(List.of(FILL));
+    }
+
+    @Test
+    void settleMatches_shouldDropFailedOrders_whenNoLongerPending() throws InterruptedException {
+        // Given
+        when(settlementService.settleFills(any())).thenThrow(new IllegalStateException("failed"));
+        when(orderRepository.findAllById(List.of(1, 2))).thenReturn(List.of(
+                order(1, OrderSide.BUY, OrderStatus.CANCELED), order(2, OrderSide.SELL, OrderStatus.PENDING)));
+        when(journalService.isEnabled()).thenReturn(true);
+        doAnswer(invocation -> {
+            Consumer<PendingOrder> consumer = invocation.getArgument(0);
+            consumer.accept(pending(1, OrderSide.BUY));
+            consumer.accept(pending(2, OrderSide.SELL));
+            return null;
+        }).when(journalService).forEachPendingOrder(any());
+        matchingEngine.rebuildBooks();
+        settleUntilSettled(2);
+
+        // When
+        matchingEngine.settleMatches();
+        Thread.sleep(50);
+        matchingEngine.settleMatches();
+
+        // Then
+        verify(orderRepository).findAllById(List.of(1, 2));
+        verify(settlementService, times(2)).settleFills(any());
+    }
+}
@@ -0,0 +1,170 @@
+package com.emce.brokage.matching;
+
+import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.order.entity.OrderSide;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderBookTest {
+
+    private OrderBook orderBook;
+
+    @BeforeEach
+    void setUp() {
+        orderBook = new OrderBook(AssetType.USD);
+    }
+
+    private static RestingOrder order(int orderId, int customerId, OrderSide side, long size, long price) {
+        return new RestingOrder(orderId, customerId, side, BigDecimal.valueOf(size), BigDecimal.valueOf(price));
+    }
+
+    @Test
+    void add_shouldRestOrder_whenNothingCrosses() {
+        // Given
+        orderBook.add(order(1, 1, OrderSide.SELL, 10, 110));
+
+        // When
+        List<Match> matches = orderBook.add(order(2, 2, OrderSide.BUY, 10, 100));
+
+        // Then
+        assertTrue(matches.isEmpty());
+        assertEquals(2, orderBook.size());
+    }
+
+    @Test
+    void add_shouldNotRestImmediateOrCancel_whenNothingCrosses() {
+        // Given
+        orderBook.add(order(1, 1, OrderSide.SELL, 10, 110));
+
+        // When
+        List<Match> matches = orderBook.add(new RestingOrder(2, 2, OrderSide.BUY, BigDecimal.TEN, BigDecimal.valueOf(100),
+                BigDecimal.ZERO, true));
+
+        // Then
+        assertTrue(matches.isEmpty());
+        assertEquals(1, orderBook.size());
+    }
+
+    @Test
+    void add_shouldCrossBestPricedAsk_whenBuyCrosses() {
+        // Given
+        orderBook.add(order(1, 1, OrderSide.SELL, 10, 105));
+        orderBook.add(order(2, 2, OrderSide.SELL, 10, 100));
+
+        // When
+        List<Match> matches = orderBook.add(order(3, 3, OrderSide.BUY, 10, 110));
+
+        // Then
+        assertEquals(1, matches.size());
+        Match match = matches.get(0);
+        assertEquals(3, match.buyOrderId());
+        assertEquals(2, match.sellOrderId());
+        assertEquals(0, BigDecimal.TEN.compareTo(match.size()));
+        assertEquals(0, BigDecimal.TEN.compareTo(match.unitPrice()));
+        assertEquals(1, orderBook.size());
+    }
+
+    @Test
+    void add_shouldCrossOldestOrder_whenPricesAreEqual() {
+        // Given
+        orderBook.add(order(1, 1, OrderSide.BUY, 10, 100));
+        orderBook.add(order(2, 2, OrderSide.BUY, 10, 100));
+
+        // When
+        List<Match> matches = orderBook.add(order(3, 3, OrderSide.SELL, 10, 100));
+
+        // Then
+        assertEquals(1, matches.size());
+        assertEquals(1, matches.get(0).buyOrderId());
+        assertEquals(3, matches.get(0).sellOrderId());
+    }
+
+    @Test
+    void add_shouldFillPartially_whenSizesDiffer() {
+        // Given
+        orderBook.add(order(1, 1, OrderSide.SELL, 4, 36));
+        orderBook.add(order(2, 2, OrderSide.SELL, 10, 100));
+
+        // When
+        List<Match> matches = orderBook.add(order(3, 3, OrderSide.BUY, 10, 100));
+
+        // Then
+        assertEquals(2, matches.size());
+        assertEquals(1, matches.get(0).sellOrderId());
+        assertEquals(0, BigDecimal.valueOf(4).compareTo(matches.get(0).size()));
+        assertEquals(0, BigDecimal.valueOf(9).compareTo(matches.get(0).unitPrice()));
+        assertEquals(2, matches.get(1).sellOrderId());
+        assertEquals(0, BigDecimal.valueOf(6).compareTo(matches.get(1).size()));
+        assertEquals(0, BigDecimal.TEN.compareTo(matches.get(1).unitPrice()));
+        assertEquals(1, orderBook.size());
+    }
+
+    @Test
+    void add_shouldRestRemainder_whenBookRunsOut() {
+        // Given
+        orderBook.add(order(1, 1, OrderSide.BUY, 4, 40));
+
+        // When
+        List<Match> matches = orderBook.add(order(2, 2, OrderSide.SELL, 10, 100));
+
+        // Then
+        assertEquals(1, matches.size());
+        assertEquals(0, BigDecimal.valueOf(4).compareTo(matches.get(0).size()));
+        assertEquals(1, orderBook.size());
+        List<Match> rest = orderBook.add(order(3, 3, OrderSide.BUY, 10, 100));
+        assertEquals(1, rest.size());
+        assertEquals(2, rest.get(0).sellOrderId());
+        assertEquals(0, BigDecimal.valueOf(6).compareTo(rest.get(0).size()));
+    }
+
+    @Test
+    void add_shouldStepOverOrders_whenSameCustomer() {
+        // Given
+        orderBook.add(order(1, 3, OrderSide.SELL, 10, 100));
+        orderBook.add(order(2, 2, OrderSide.SELL, 10, 100));
+
+        // When
+        List<Match> matches = orderBook.add(order(3, 3, OrderSide.BUY, 10, 100));
+
+        // Then
+        assertEquals(1, matches.size());
+        assertEquals(2, matches.get(0).sellOrderId());
+        assertEquals(1, orderBook.size());
+    }
+
+    @Test
+    void replace_shouldRestRemainingSize_whenOrderWasFilledPartially() {
+        // Given
+        orderBook.add(order(1, 1, OrderSide.SELL, 10, 100));
+
+        // When
+        orderBook.replace(new RestingOrder(1, 1, OrderSide.SELL, BigDecimal.TEN, BigDecimal.valueOf(100),
+                BigDecimal.valueOf(7), false));
+
+        // Then
+        List<Match> matches = orderBook.add(order(2, 2, OrderSide.BUY, 10, 100));
+        assertEquals(1, matches.size());
+        assertEquals(0, BigDecimal.valueOf(3).compareTo(matches.get(0).size()));
+    }
+
+    @Test
+    void remove_shouldTakeOrderOutOfBook() {
+        // Given
+        orderBook.add(order(1, 1, OrderSide.SELL, 10, 100));
+
+        // When
+        boolean removed = orderBook.remove(1);
+
+        // Then
+        assertTrue(removed);
+        assertFalse(orderBook.remove(1));
+        assertTrue(orderBook.add(order(2, 2, OrderSide.BUY, 10, 100)).isEmpty());
+    }
+}
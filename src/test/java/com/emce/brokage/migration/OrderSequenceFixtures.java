@@ -0,0 +1,56 @@
+package com.emce.brokage.migration;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A database as it looked before Flyway: the V1 schema with orders already in it, upgraded the way
+ * the docker profile does it, by baselining at V1 and applying the rest.
+ */
+final class OrderSequenceFixtures {
+
+    static final int LAST_ORDER_ID = 120;
+
+    private OrderSequenceFixtures() {
+    }
+
+    static void createLegacySchema(DataSource dataSource, boolean withSequence) {
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/common/V1__initial_schema.sql"))
+                .execute(dataSource);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        if (!withSequence) {
+            // ddl-auto created orders.id as an identity column and never created the sequence
+            jdbcTemplate.execute("DROP SEQUENCE orders_seq");
+        }
+        jdbcTemplate.update("INSERT INTO customers (id, email, role, created_at, updated_at) "
+                + "VALUES (1, 'legacy@test.com', 'USER', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)");
+        for (int orderId = 1; orderId <= LAST_ORDER_ID; orderId++) {
+            jdbcTemplate.update("INSERT INTO orders (id, asset_name, order_side, size, price, status, customer_id, "
+                    + "created_at, updated_at, version) VALUES (?, 'USD', 'BUY', 1, 10, 'MATCHED', 1, "
+                    + "CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0)", orderId);
+        }
+    }
+
+    static void upgrade(DataSource dataSource, String vendor) {
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/common", "classpath:db/migration/" + vendor)
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+    }
+
+    /** The first id Hibernate's pooled optimizer hands out is the sequence value minus the increment, plus one. */
+    static void assertNextBlockIsPastExistingIds(DataSource dataSource, String nextValueQuery) {
+        long hiValue = new JdbcTemplate(dataSource).queryForObject(nextValueQuery, Long.class);
+        long firstId = hiValue - 50 + 1;
+        assertTrue(firstId > LAST_ORDER_ID, () -> "Next order id " + firstId + " reuses an existing id");
+    }
+}
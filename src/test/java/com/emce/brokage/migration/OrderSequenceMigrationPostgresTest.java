@@ -0,0 +1,42 @@
+package com.emce.brokage.migration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Same upgrade as {@link OrderSequenceMigrationTest} against PostgreSQL. Skipped when Docker is
+ * not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class OrderSequenceMigrationPostgresTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private DriverManagerDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        new JdbcTemplate(dataSource).execute("DROP SCHEMA public CASCADE; CREATE SCHEMA public");
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void upgrade_shouldMoveOrderSequencePastExistingIds(boolean withSequence) {
+        // Given
+        OrderSequenceFixtures.createLegacySchema(dataSource, withSequence);
+
+        // When
+        OrderSequenceFixtures.upgrade(dataSource, "postgresql");
+
+        // Then
+        OrderSequenceFixtures.assertNextBlockIsPastExistingIds(dataSource, "SELECT nextval('orders_seq')");
+    }
+}
@@ -0,0 +1,29 @@
+package com.emce.brokage.migration;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.UUID;
+
+/**
+ * Upgrades a pre-Flyway H2 database and checks that new orders do not reuse ids already in the
+ * orders table, whether or not the database had an {@code orders_seq}.
+ */
+class OrderSequenceMigrationTest {
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void upgrade_shouldMoveOrderSequencePastExistingIds(boolean withSequence) {
+        // Given
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:legacy-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        OrderSequenceFixtures.createLegacySchema(dataSource, withSequence);
+
+        // When
+        OrderSequenceFixtures.upgrade(dataSource, "h2");
+
+        // Then
+        OrderSequenceFixtures.assertNextBlockIsPastExistingIds(dataSource, "SELECT NEXT VALUE FOR orders_seq");
+    }
+}
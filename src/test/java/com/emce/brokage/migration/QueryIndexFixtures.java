@@ -0,0 +1,90 @@
+package com.emce.brokage.migration;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Query shapes produced by the order and asset repositories, written out in SQL so their plans can
+ * be inspected on every supported database.
+ */
+final class QueryIndexFixtures {
+
+    static final String ORDERS_BY_STATUS_AND_DATE = """
+            SELECT o.id, o.asset_name, o.order_side, o.size, o.price, o.status, o.created_at
+            FROM orders o
+            WHERE o.customer_id = 1 AND o.status = 'PENDING'
+              AND o.created_at BETWEEN TIMESTAMP '2024-01-01 00:00:00' AND TIMESTAMP '2024-02-01 00:00:00'
+            ORDER BY o.created_at DESC
+            """;
+
+    static final String ORDERS_AFTER_CURSOR = """
+            SELECT o.id, o.asset_name, o.order_side, o.size, o.price, o.status, o.created_at
+            FROM orders o
+            WHERE o.customer_id = 1
+              AND o.created_at <= TIMESTAMP '2024-01-15 00:00:00'
+              AND (o.created_at < TIMESTAMP '2024-01-15 00:00:00' OR o.id < 500)
+            ORDER BY o.created_at DESC, o.id DESC
+            LIMIT 21
+            """;
+
+    static final String ASSETS_BY_CUSTOMER_AND_TYPE = """
+            SELECT a.id, a.asset_name, a.size, a.usable_size
+            FROM assets a
+            WHERE a.customer_id = 1 AND a.asset_name = 'TRY'
+            """;
+
+    static final String PENDING_ORDERS_AFTER_ID = """
+            SELECT o.id
+            FROM orders o
+            WHERE o.status = 'PENDING' AND o.asset_name = 'USD' AND o.order_side = 'BUY' AND o.id > 100
+            ORDER BY o.id
+            LIMIT 1000
+            """;
+
+    private static final int CUSTOMERS = 20;
+    private static final int ORDERS_PER_CUSTOMER = 200;
+    private static final String[] ASSETS = {"TRY", "USD", "EUR"};
+    private static final String[] STATUSES = {"PENDING", "MATCHED", "CANCELED", "MATCHED"};
+    private static final LocalDateTime FIRST_ORDER_AT = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private QueryIndexFixtures() {
+    }
+
+    static void insertSampleData(JdbcTemplate jdbcTemplate) {
+        List<Object[]> customers = new ArrayList<>();
+        List<Object[]> assets = new ArrayList<>();
+        List<Object[]> orders = new ArrayList<>();
+        int orderId = 0;
+        for (int customerId = 1; customerId <= CUSTOMERS; customerId++) {
+            customers.add(new Object[]{customerId, "customer" + customerId + "@test.com"});
+            for (String asset : ASSETS) {
+                assets.add(new Object[]{customerId, asset});
+            }
+            for (int i = 0; i < ORDERS_PER_CUSTOMER; i++) {
+                orderId++;
+                orders.add(new Object[]{orderId, ASSETS[1 + i % 2], i % 3 == 0 ? "SELL" : "BUY",
+                        STATUSES[i % STATUSES.length], customerId, Timestamp.valueOf(FIRST_ORDER_AT.plusHours(i))});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO customers (id, email, role, created_at, updated_at) "
+                + "VALUES (?, ?, 'USER', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", customers);
+        jdbcTemplate.batchUpdate("INSERT INTO assets (customer_id, asset_name, size, usable_size, version) "
+                + "VALUES (?, ?, 0, 0, 0)", assets);
+        jdbcTemplate.batchUpdate("INSERT INTO orders (id, asset_name, order_side, size, price, status, customer_id, "
+                + "created_at, updated_at, version) VALUES (?, ?, ?, 1, 10, ?, ?, "
+                + "?, CURRENT_TIMESTAMP, 0)", orders);
+    }
+
+    static void assertPlanUses(JdbcTemplate jdbcTemplate, String query, String indexName) {
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + query, String.class));
+        assertTrue(plan.toLowerCase(Locale.ROOT).contains(indexName),
+                () -> "Expected " + indexName + " in plan:\n" + plan);
+    }
+}
@@ -0,0 +1,64 @@
+package com.emce.brokage.migration;
+
+import com.emce.brokage.instrument.InstrumentRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Same checks as {@link QueryIndexTest} against PostgreSQL, where the pending orders index is
+ * partial. Sequential scans are disabled so the small sample data set does not hide a missing
+ * index. Skipped when Docker is not available.
+ */
+@DataJpaTest
+@Import(InstrumentRegistry.class)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class QueryIndexPostgresTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        QueryIndexFixtures.insertSampleData(jdbcTemplate);
+        jdbcTemplate.execute("ANALYZE");
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+    }
+
+    @Test
+    void orderListing_shouldUseCustomerStatusCreatedIndex_whenStatusIsFiltered() {
+        QueryIndexFixtures.assertPlanUses(jdbcTemplate, QueryIndexFixtures.ORDERS_BY_STATUS_AND_DATE,
+                "idx_orders_customer_status_created");
+    }
+
+    @Test
+    void keysetListing_shouldUseCustomerCreatedIndex() {
+        QueryIndexFixtures.assertPlanUses(jdbcTemplate, QueryIndexFixtures.ORDERS_AFTER_CURSOR,
+                "idx_orders_customer_created");
+    }
+
+    @Test
+    void assetListing_shouldUseCustomerAssetIndex() {
+        QueryIndexFixtures.assertPlanUses(jdbcTemplate, QueryIndexFixtures.ASSETS_BY_CUSTOMER_AND_TYPE,
+                "idx_assets_customer_asset");
+    }
+
+    @Test
+    void pendingScan_shouldUsePartialPendingOrdersIndex() {
+        QueryIndexFixtures.assertPlanUses(jdbcTemplate, QueryIndexFixtures.PENDING_ORDERS_AFTER_ID,
+                "idx_orders_pending");
+    }
+}
@@ -0,0 +1,50 @@
+package com.emce.brokage.migration;
+
+import com.emce.brokage.instrument.InstrumentRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Runs the migrations against H2 and checks that the planner picks the intended index for each
+ * listing query shape.
+ */
+@DataJpaTest
+@Import(InstrumentRegistry.class)
+class QueryIndexTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        QueryIndexFixtures.insertSampleData(jdbcTemplate);
+    }
+
+    @Test
+    void orderListing_shouldUseCustomerStatusCreatedIndex_whenStatusIsFiltered() {
+        QueryIndexFixtures.assertPlanUses(jdbcTemplate, QueryIndexFixtures.ORDERS_BY_STATUS_AND_DATE,
+                "idx_orders_customer_status_created");
+    }
+
+    @Test
+    void keysetListing_shouldUseCustomerCreatedIndex() {
+        QueryIndexFixtures.assertPlanUses(jdbcTemplate, QueryIndexFixtures.ORDERS_AFTER_CURSOR,
+                "idx_orders_customer_created");
+    }
+
+    @Test
+    void assetListing_shouldUseCustomerAssetIndex() {
+        QueryIndexFixtures.assertPlanUses(jdbcTemplate, QueryIndexFixtures.ASSETS_BY_CUSTOMER_AND_TYPE,
+                "idx_assets_customer_asset");
+    }
+
+    @Test
+    void pendingScan_shouldUsePendingOrdersIndex() {
+        QueryIndexFixtures.assertPlanUses(jdbcTemplate, QueryIndexFixtures.PENDING_ORDERS_AFTER_ID,
+                "idx_orders_pending");
+    }
+}
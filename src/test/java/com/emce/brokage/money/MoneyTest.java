@@ -0,0 +1,78 @@
+package com.emce.brokage.money;
+
+import com.emce.brokage.asset.entity.AssetType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MoneyTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void of_shouldRoundToAssetScale() {
+        // When
+        Money money = Money.of(new BigDecimal("12.345"), AssetType.TRY);
+
+        // Then
+        assertEquals(new Money(1235, 2), money);
+        assertEquals(new BigDecimal("12.35"), money.toBigDecimal());
+    }
+
+    @Test
+    void arithmetic_shouldBringOperandsToLargerScale() {
+        // Given
+        Money cents = new Money(1050, 2);
+        Money whole = Money.of(new BigDecimal("3"));
+
+        // When & Then
+        assertEquals(new Money(1350, 2), cents.add(whole));
+        assertEquals(new Money(-1350, 2), whole.negate().subtract(cents));
+        assertEquals(1, cents.compareTo(whole));
+        assertEquals(0, new Money(300, 2).compareTo(whole));
+    }
+
+    @Test
+    void arithmetic_shouldFail_whenResultOverflows() {
+        // Given
+        Money max = new Money(Long.MAX_VALUE, 2);
+
+        // When & Then
+        assertThrows(ArithmeticException.class, () -> max.add(new Money(1, 2)));
+        assertThrows(ArithmeticException.class, () -> new Money(Long.MIN_VALUE, 2).negate());
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("1E+30")));
+        // rescaling the operand overflows, so the values are compared as decimals
+        assertEquals(1, max.compareTo(new Money(Long.MAX_VALUE / 10, 1)));
+    }
+
+    @Test
+    void jackson_shouldReadAndWritePlainNumbers() throws Exception {
+        // When
+        String json = objectMapper.writeValueAsString(new Money(123450, 2));
+        Money read = objectMapper.readValue("1234.50", Money.class);
+
+        // Then
+        assertEquals("1234.50", json);
+        assertEquals(new Money(123450, 2), read);
+        assertEquals(new Money(700, 2), objectMapper.readValue("\"7.00\"", Money.class));
+        assertThrows(InvalidFormatException.class, () -> objectMapper.readValue("1e40", Money.class));
+    }
+
+    @Test
+    void converter_shouldRoundTripColumnValues() {
+        // Given
+        MoneyConverter converter = new MoneyConverter();
+
+        // When
+        Money money = converter.convertToEntityAttribute(new BigDecimal("99.90"));
+
+        // Then
+        assertEquals(new Money(9990, 2), money);
+        assertEquals(new BigDecimal("99.90"), converter.convertToDatabaseColumn(money));
+    }
+}
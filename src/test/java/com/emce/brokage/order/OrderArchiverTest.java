@@ -0,0 +1,133 @@
+package com.emce.brokage.order;
+
+import com.emce.brokage.instrument.InstrumentRegistry;
+import com.emce.brokage.order.OrderHistoryRepository.HistoryRow;
+import com.emce.brokage.order.dto.OrderResponse;
+import com.emce.brokage.order.entity.OrderStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@Import({OrderArchiver.class, OrderHistoryRepository.class, InstrumentRegistry.class})
+@TestPropertySource(properties = {"application.archive.min-age=30d", "application.archive.batch-size=1"})
+class OrderArchiverTest {
+
+    private static final int CUSTOMER_ID = 7;
+    private static final LocalDateTime NOW = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    @Autowired
+    private OrderArchiver orderArchiver;
+    @Autowired
+    private OrderHistoryRepository orderHistoryRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO customers (id, email, role, created_at, updated_at) "
+                + "VALUES (?, 'archive@test.com', 'USER', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", CUSTOMER_ID);
+        insertOrder(1, OrderStatus.MATCHED, NOW.minusDays(100), NOW.minusDays(90));
+        insertOrder(2, OrderStatus.CANCELED, NOW.minusDays(60), NOW.minusDays(59));
+        insertOrder(3, OrderStatus.MATCHED, NOW.minusDays(10), NOW.minusDays(5));
+        insertOrder(4, OrderStatus.PENDING, NOW.minusDays(120), NOW.minusDays(120));
+    }
+
+    private void insertOrder(int id, OrderStatus status, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        jdbcTemplate.update("INSERT INTO orders (id, asset_name, order_side, size, price, status, customer_id, "
+                        + "created_at, updated_at, version) VALUES (?, 'USD', 'BUY', 1, 10, ?, ?, ?, ?, 0)",
+                id, status.name(), CUSTOMER_ID, Timestamp.valueOf(createdAt), Timestamp.valueOf(updatedAt));
+    }
+
+    private List<Integer> ids(String table) {
+        return jdbcTemplate.queryForList("SELECT id FROM " + table + " ORDER BY id", Integer.class);
+    }
+
+    @Test
+    void archive_shouldMoveOnlyOldSettledOrders() {
+        // When
+        orderArchiver.archive();
+
+        // Then
+        assertEquals(List.of(3, 4), ids("orders"));
+        assertEquals(List.of(1, 2), ids("orders_archive"));
+    }
+
+    @Test
+    void mayContain_shouldFollowArchivedCreationWatermark() {
+        // Given
+        assertFalse(orderArchiver.mayContain(null, null));
+
+        // When
+        orderArchiver.archive();
+
+        // Then
+        assertTrue(orderArchiver.mayContain(null, null));
+        assertTrue(orderArchiver.mayContain(OrderStatus.MATCHED, NOW.minusDays(60)));
+        assertFalse(orderArchiver.mayContain(null, NOW.minusDays(59)));
+        assertFalse(orderArchiver.mayContain(OrderStatus.PENDING, null));
+    }
+
+    @Test
+    void findResponses_shouldPageOverHotAndArchivedOrders() {
+        // Given
+        orderArchiver.archive();
+        OrderFilter filter = new OrderFilter(CUSTOMER_ID, null, null, null, null, null);
+
+        // When
+        Page<OrderResponse> firstPage = orderHistoryRepository.findResponses(filter,
+                PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "createdAt")));
+
+        // Then
+        assertEquals(4, firstPage.getTotalElements());
+        assertEquals(List.of(OrderStatus.MATCHED, OrderStatus.CANCELED, OrderStatus.MATCHED),
+                firstPage.getContent().stream().map(OrderResponse::status).toList());
+    }
+
+    @Test
+    void findAfter_shouldSeekAcrossHotAndArchivedOrders() {
+        // Given
+        orderArchiver.archive();
+        OrderFilter filter = new OrderFilter(CUSTOMER_ID, null, null, null, null, null);
+        List<HistoryRow> first = orderHistoryRepository.findAfter(filter, null, 2);
+
+        // When
+        List<HistoryRow> next = orderHistoryRepository.findAfter(filter, OrderCursor.of(first.get(1)), 2);
+
+        // Then
+        assertEquals(List.of(3, 2), first.stream().map(HistoryRow::id).toList());
+        assertEquals(List.of(1, 4), next.stream().map(HistoryRow::id).toList());
+    }
+
+    @Test
+    void streamResponses_shouldReadOldestFirstFromBothTables() {
+        // Given
+        orderArchiver.archive();
+        List<LocalDateTime> createDates = new ArrayList<>();
+
+        // When
+        orderHistoryRepository.streamResponses(new OrderFilter(CUSTOMER_ID, null, null, null, null, null), 2,
+                order -> createDates.add(order.createDate()));
+
+        // Then
+        assertEquals(4, createDates.size());
+        assertEquals(createDates.stream().sorted().toList(), createDates);
+    }
+}
@@ -1,26 +1,51 @@
 package com.emce.brokage.order;
 
 import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.etag.CustomerVersions;
+import com.emce.brokage.order.dto.BatchOrderRequest;
+import com.emce.brokage.order.dto.BatchOrderResponse;
+import com.emce.brokage.order.dto.BatchOrderResult;
+import com.emce.brokage.order.dto.BulkMatchRequest;
+import com.emce.brokage.order.dto.BulkMatchResponse;
+import com.emce.brokage.order.dto.CancelAllResponse;
+import com.emce.brokage.order.dto.OrderIntakeResponse;
 import com.emce.brokage.order.dto.OrderRequest;
 import com.emce.brokage.order.dto.OrderResponse;
+import com.emce.brokage.order.dto.OrderSliceResponse;
 import com.emce.brokage.order.entity.OrderSide;
 import com.emce.brokage.order.entity.OrderStatus;
+import com.emce.brokage.order.intake.IntakeStatus;
+import com.emce.brokage.order.intake.OrderIntakeService;
+import com.emce.brokage.order.stream.OrderEventHub;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 
@@ -28,9 +53,21 @@ class OrderControllerTest {
 
     private MockMvc mockMvc;
 
+    @Mock
+    private OrderEventHub orderEventHub;
+
     @Mock
     private OrderService orderService;
 
+    @Mock
+    private OrderIntakeService orderIntakeService;
+
+    @Mock
+    private OrderExportService orderExportService;
+
+    @Mock
+    private CustomerVersions customerVersions;
+
     private ObjectMapper objectMapper = new ObjectMapper();  // To serialize and deserialize JSON
     @InjectMocks
     private OrderController orderController;
@@ -38,7 +75,41 @@ class OrderControllerTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        mockMvc = MockMvcBuilders.standaloneSetup(orderController).build();
+        mockMvc = MockMvcBuilders.standaloneSetup(orderController)
+                .setCustomArgumentResolvers(new PageableHandlerMethodArgumentResolver())
+                .build();
+        when(customerVersions.eTag(any())).thenReturn("\"e-1\"");
+    }
+
+    @Test
+    void testGetOrders_ReturnsETag() throws Exception {
+        //given
+        when(orderService.listOrders(any(), any(), any(), any(), any(), any(), any())).thenReturn(new PageImpl<>(List.of(), PageRequest.of(0, 20), 0));
+
+        //when and then
+        mockMvc.perform(get("/api/v1/order/list/1"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"e-1\""));
+    }
+
+    @Test
+    void testGetOrders_NotModified() throws Exception {
+        //when and then
+        mockMvc.perform(get("/api/v1/order/list/1").header(HttpHeaders.IF_NONE_MATCH, "\"e-1\""))
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"e-1\""))
+                .andExpect(MockMvcResultMatchers.content().string(""));
+
+        verify(orderService, never()).listOrders(any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testGetOrdersAfter_NotModified() throws Exception {
+        //when and then
+        mockMvc.perform(get("/api/v1/order/list/1/cursor").header(HttpHeaders.IF_NONE_MATCH, "\"e-0\", \"e-1\""))
+                .andExpect(MockMvcResultMatchers.status().isNotModified());
+
+        verify(orderService, never()).listOrdersAfter(any(), any(), any(), any(), any(), any(), any(), anyInt());
     }
 
     @Test
@@ -47,9 +118,9 @@ class OrderControllerTest {
         int customerId = 1;
         OrderRequest orderRequest = new OrderRequest(customerId, AssetType.USD, OrderSide.BUY, BigDecimal.TEN, BigDecimal.valueOf(100));
         OrderResponse orderResponse = new OrderResponse(customerId, AssetType.USD, OrderSide.BUY, BigDecimal.TEN, BigDecimal.valueOf(100),
-                OrderStatus.PENDING, LocalDateTime.now(), LocalDateTime.now());
+                BigDecimal.ZERO, BigDecimal.ZERO, OrderStatus.PENDING, LocalDateTime.now(), LocalDateTime.now());
 
-        when(orderService.createOrder(any(OrderRequest.class)))
+        when(orderService.createOrder(any(OrderRequest.class), any()))
                 .thenReturn(orderResponse);
 
         //when and then
@@ -59,7 +130,33 @@ class OrderControllerTest {
                 .andExpect(MockMvcResultMatchers.status().isCreated())
                 .andExpect(MockMvcResultMatchers.jsonPath("$.customerId").value(orderResponse.customerId()));
 
-        verify(orderService).createOrder(any(OrderRequest.class));
+        verify(orderService).createOrder(any(OrderRequest.class), isNull());
+    }
+
+    @Test
+    void testCreateOrders() throws Exception {
+        //given
+        int customerId = 1;
+        OrderRequest orderRequest = new OrderRequest(customerId, AssetType.USD, OrderSide.BUY, BigDecimal.TEN, BigDecimal.valueOf(100));
+        BatchOrderRequest batchOrderRequest = new BatchOrderRequest(customerId, List.of(orderRequest, orderRequest));
+        OrderResponse orderResponse = new OrderResponse(customerId, AssetType.USD, OrderSide.BUY, BigDecimal.TEN, BigDecimal.valueOf(100),
+                BigDecimal.ZERO, BigDecimal.ZERO, OrderStatus.PENDING, LocalDateTime.now(), LocalDateTime.now());
+        BatchOrderResponse batchOrderResponse = new BatchOrderResponse(customerId, 1, 1, List.of(
+                BatchOrderResult.accepted(0, orderResponse),
+                BatchOrderResult.rejected(1, "Asset TRY has not enough size.")));
+
+        when(orderService.createOrders(any(BatchOrderRequest.class)))
+                .thenReturn(batchOrderResponse);
+
+        //when and then
+        mockMvc.perform(post("/api/v1/order/batch")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(batchOrderRequest)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.acceptedCount").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.results[1].accepted").value(false));
+
+        verify(orderService).createOrders(any(BatchOrderRequest.class));
     }
 
     @Test
@@ -68,7 +165,7 @@ class OrderControllerTest {
         Integer orderId = 1;
         Integer customerId = 1;
         OrderResponse orderResponse = new OrderResponse(customerId, AssetType.USD, OrderSide.BUY, BigDecimal.TEN, BigDecimal.valueOf(100),
-                OrderStatus.PENDING, LocalDateTime.now(), LocalDateTime.now());
+                BigDecimal.ZERO, BigDecimal.ZERO, OrderStatus.PENDING, LocalDateTime.now(), LocalDateTime.now());
 
         when(orderService.cancelOrder(orderId)).thenReturn(orderResponse);
 
@@ -80,13 +177,29 @@ class OrderControllerTest {
         verify(orderService).cancelOrder(orderId);
     }
 
+    @Test
+    void testCancelAllOrders() throws Exception {
+        //given
+        Integer customerId = 1;
+        CancelAllResponse response = CancelAllResponse.builder().customerId(customerId).canceledCount(3).build();
+
+        when(orderService.cancelAllOrders(customerId, AssetType.USD, null)).thenReturn(response);
+
+        //when and then
+        mockMvc.perform(delete("/api/v1/order/cancel-all/{customerId}", customerId).param("assetName", "USD"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.canceledCount").value(3));
+
+        verify(orderService).cancelAllOrders(customerId, AssetType.USD, null);
+    }
+
     @Test
     void testMatchOrder() throws Exception {
         //given
         Integer orderId = 1;
         Integer customerId = 1;
         OrderResponse orderResponse = new OrderResponse(customerId, AssetType.USD, OrderSide.BUY, BigDecimal.TEN, BigDecimal.valueOf(100),
-                OrderStatus.PENDING, LocalDateTime.now(), LocalDateTime.now());
+                BigDecimal.ZERO, BigDecimal.ZERO, OrderStatus.PENDING, LocalDateTime.now(), LocalDateTime.now());
 
         when(orderService.matchOrder(orderId)).thenReturn(orderResponse);
 
@@ -97,4 +210,117 @@ class OrderControllerTest {
 
         verify(orderService).matchOrder(orderId);
     }
+
+    @Test
+    void testMatchOrders() throws Exception {
+        //given
+        BulkMatchRequest bulkMatchRequest = new BulkMatchRequest(List.of(1, 2), null, null, null, null);
+        BulkMatchResponse bulkMatchResponse = new BulkMatchResponse(2, 1, 1, 1);
+
+        when(orderService.matchOrders(any(BulkMatchRequest.class))).thenReturn(bulkMatchResponse);
+
+        //when and then
+        mockMvc.perform(put("/api/v1/order/match")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(bulkMatchRequest)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.matchedCount").value(1));
+
+        verify(orderService).matchOrders(any(BulkMatchRequest.class));
+    }
+
+    @Test
+    void testGetOrdersAfter() throws Exception {
+        //given
+        Integer customerId = 1;
+        OrderSliceResponse sliceResponse = new OrderSliceResponse(List.of(), 0, true, "next");
+
+        when(orderService.listOrdersAfter(customerId, AssetType.USD, null, null, null, null, "current", 50))
+                .thenReturn(sliceResponse);
+
+        //when and then
+        mockMvc.perform(get("/api/v1/order/list/{customerId}/cursor", customerId)
+                        .param("assetName", "USD")
+                        .param("cursor", "current")
+                        .param("size", "50"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.hasNext").value(true))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.nextCursor").value("next"));
+
+        verify(orderService).listOrdersAfter(customerId, AssetType.USD, null, null, null, null, "current", 50);
+    }
+
+    @Test
+    void testExportOrders() throws Exception {
+        //given
+        Integer customerId = 1;
+        StreamingResponseBody body = outputStream -> outputStream.write("a,b\n".getBytes());
+
+        when(orderExportService.exportOrders(customerId, null, null, OrderStatus.MATCHED, null, null, OrderExportFormat.CSV))
+                .thenReturn(body);
+
+        //when and then
+        MvcResult result = mockMvc.perform(get("/api/v1/order/export/{customerId}", customerId)
+                        .param("status", "MATCHED")
+                        .param("format", "CSV"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType("text/csv"))
+                .andExpect(MockMvcResultMatchers.header().string("Content-Disposition",
+                        "attachment; filename=\"orders-1.csv\""))
+                .andExpect(MockMvcResultMatchers.content().string("a,b\n"));
+
+        verify(orderExportService).exportOrders(customerId, null, null, OrderStatus.MATCHED, null, null, OrderExportFormat.CSV);
+    }
+
+    @Test
+    void testSubmitOrderAsync() throws Exception {
+        //given
+        int customerId = 1;
+        OrderRequest orderRequest = new OrderRequest(customerId, AssetType.USD, OrderSide.BUY, BigDecimal.TEN, BigDecimal.valueOf(100));
+        OrderIntakeResponse intakeResponse = new OrderIntakeResponse(5L, customerId, IntakeStatus.QUEUED, null, null);
+
+        when(orderIntakeService.submit(any(OrderRequest.class))).thenReturn(intakeResponse);
+
+        //when and then
+        mockMvc.perform(post("/api/v1/order/create")
+                        .param("async", "true")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(orderRequest)))
+                .andExpect(MockMvcResultMatchers.status().isAccepted())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.sequence").value(5));
+
+        verify(orderIntakeService).submit(any(OrderRequest.class));
+        verify(orderService, never()).createOrder(any(OrderRequest.class), any());
+    }
+
+    @Test
+    void testGetIntakeStatus() throws Exception {
+        //given
+        OrderIntakeResponse intakeResponse = new OrderIntakeResponse(5L, 1, IntakeStatus.REJECTED, null, "Asset TRY has not enough size.");
+
+        when(orderIntakeService.getStatus(5L)).thenReturn(intakeResponse);
+
+        //when and then
+        mockMvc.perform(get("/api/v1/order/intake/{sequence}", 5L))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status").value("REJECTED"));
+
+        verify(orderIntakeService).getStatus(5L);
+    }
+
+    @Test
+    void testStreamOrders() throws Exception {
+        //given
+        Integer customerId = 1;
+        when(orderEventHub.subscribe(customerId)).thenReturn(new SseEmitter());
+
+        //when and then
+        mockMvc.perform(get("/api/v1/order/stream/{customerId}", customerId))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted());
+
+        verify(orderEventHub).subscribe(customerId);
+    }
 }
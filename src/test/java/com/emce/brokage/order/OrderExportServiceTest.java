@@ -0,0 +1,109 @@
+package com.emce.brokage.order;
+
+import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.order.dto.OrderResponse;
+import com.emce.brokage.order.entity.OrderSide;
+import com.emce.brokage.order.entity.OrderStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderExportServiceTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 5, 1, 10, 30);
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderHistoryRepository orderHistoryRepository;
+
+    @Mock
+    private OrderArchiver orderArchiver;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OrderExportService orderExportService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        orderExportService = new OrderExportService(orderRepository, orderHistoryRepository, orderArchiver,
+                objectMapper, transactionManager, 100);
+    }
+
+    private static OrderResponse orderResponse(OrderSide side, String price) {
+        return new OrderResponse(1, AssetType.USD, side, new BigDecimal("2.00"), new BigDecimal(price),
+                new BigDecimal("2.00"), new BigDecimal(price), OrderStatus.MATCHED, CREATED_AT, CREATED_AT);
+    }
+
+    private String export(OrderExportFormat format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        orderExportService.exportOrders(1, null, null, null, null, null, format).writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void exportOrders_shouldWriteOneJsonObjectPerLine_whenFormatIsNdjson() throws Exception {
+        // Given
+        when(orderRepository.streamResponses(any(Specification.class), any(Sort.class), eq(100)))
+                .thenReturn(Stream.of(orderResponse(OrderSide.BUY, "10.00"), orderResponse(OrderSide.SELL, "12.50")));
+
+        // When
+        String[] lines = export(OrderExportFormat.NDJSON).split("\n");
+
+        // Then
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"customerId\":1,\"assetName\":\"USD\",\"side\":\"BUY\""));
+        assertTrue(lines[1].contains("\"price\":12.50"));
+        verify(transactionManager).getTransaction(argThat(TransactionDefinition::isReadOnly));
+    }
+
+    @Test
+    void exportOrders_shouldWriteHeaderAndRows_whenFormatIsCsv() throws Exception {
+        // Given
+        when(orderRepository.streamResponses(any(Specification.class), any(Sort.class), eq(100)))
+                .thenReturn(Stream.of(orderResponse(OrderSide.BUY, "10.00")));
+
+        // When
+        String csv = export(OrderExportFormat.CSV);
+
+        // Then
+        assertEquals(OrderExportService.CSV_HEADER + "\n"
+                + "1,USD,BUY,2.00,10.00,2.00,10.00,MATCHED,2024-05-01T10:30,2024-05-01T10:30\n", csv);
+    }
+
+    @Test
+    void exportOrders_shouldNotQuery_untilBodyIsWritten() {
+        // When
+        orderExportService.exportOrders(1, null, null, null, null, null, OrderExportFormat.NDJSON);
+
+        // Then
+        verify(orderRepository, never()).streamResponses(any(), any(), any(Integer.class));
+    }
+}
@@ -0,0 +1,134 @@
+package com.emce.brokage.order;
+
+import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.auth.entity.Customer;
+import com.emce.brokage.auth.entity.Role;
+import com.emce.brokage.instrument.InstrumentRegistry;
+import com.emce.brokage.order.OrderHistoryRepository.HistoryRow;
+import com.emce.brokage.order.dto.OrderResponse;
+import com.emce.brokage.order.entity.Order;
+import com.emce.brokage.order.entity.OrderSide;
+import com.emce.brokage.order.entity.OrderStatus;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@Import(InstrumentRegistry.class)
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class OrderProjectionRepositoryTest {
+
+    private static final int ORDER_COUNT = 25;
+
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private TestEntityManager testEntityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Integer customerId;
+
+    @BeforeEach
+    void setUp() {
+        Customer customer = testEntityManager.persist(Customer.builder()
+                .name("projection")
+                .email("projection@test.com")
+                .password("secret")
+                .role(Role.USER)
+                .build());
+        customerId = customer.getId();
+        IntStream.range(0, ORDER_COUNT).forEach(i -> testEntityManager.persist(Order.builder()
+                .customer(customer)
+                .assetName(AssetType.USD)
+                .orderSide(i % 2 == 0 ? OrderSide.BUY : OrderSide.SELL)
+                .size(BigDecimal.ONE)
+                .price(BigDecimal.TEN)
+                .status(OrderStatus.PENDING)
+                .build()));
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    private Page<OrderResponse> findPage(int page, int size) {
+        return orderRepository.findResponses(
+                OrderService.getSpesifications(customerId, AssetType.USD, null, OrderStatus.PENDING, null, null),
+                PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt")));
+    }
+
+    @Test
+    void findResponses_shouldRunSelectAndCount_whenPageIsFull() {
+        // When
+        Page<OrderResponse> result = findPage(0, 10);
+
+        // Then
+        assertEquals(10, result.getNumberOfElements());
+        assertEquals(ORDER_COUNT, result.getTotalElements());
+        assertEquals(customerId, result.getContent().get(0).customerId());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void findResponses_shouldRunSameStatements_whenPageIsLarger() {
+        // When
+        findPage(0, 20);
+
+        // Then
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void findResponses_shouldSkipCount_whenLastPageIsShort() {
+        // When
+        Page<OrderResponse> result = findPage(2, 10);
+
+        // Then
+        assertEquals(5, result.getNumberOfElements());
+        assertEquals(ORDER_COUNT, result.getTotalElements());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void findRows_shouldRunOneSelectPerSlice_whenSeekingWithCursor() {
+        // Given
+        Specification<Order> spec = OrderService.getSpesifications(customerId, AssetType.USD, null, OrderStatus.PENDING,
+                null, null);
+        Sort sort = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+        List<HistoryRow> first = orderRepository.findRows(spec, sort, 11);
+
+        // When
+        List<HistoryRow> second = orderRepository.findRows(
+                spec.and(OrderService.seekAfter(OrderCursor.of(first.get(9)))), sort, 11);
+
+        // Then
+        assertEquals(11, first.size());
+        assertEquals(first.get(10).id(), second.get(0).id());
+        assertEquals(customerId, second.get(0).response().customerId());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+}
@@ -1,42 +1,72 @@
 package com.emce.brokage.order;
 
 import com.emce.brokage.asset.AssetRepository;
+import com.emce.brokage.asset.Position;
+import com.emce.brokage.asset.PositionCache;
 import com.emce.brokage.asset.entity.Asset;
 import com.emce.brokage.asset.entity.AssetType;
 import com.emce.brokage.auth.CustomerRepository;
 import com.emce.brokage.auth.entity.Customer;
+import com.emce.brokage.concurrency.CustomerStripedLock;
 import com.emce.brokage.auth.entity.Role;
 import com.emce.brokage.exception.AssetNotEnoughException;
 import com.emce.brokage.exception.OrderNotFoundException;
+import com.emce.brokage.exception.RiskLimitExceededException;
+import com.emce.brokage.idempotency.IdempotencyService;
+import com.emce.brokage.instrument.InstrumentRegistry;
+import com.emce.brokage.order.OrderHistoryRepository.HistoryRow;
+import com.emce.brokage.order.dto.BatchOrderRequest;
+import com.emce.brokage.order.dto.BatchOrderResponse;
+import com.emce.brokage.order.dto.BulkMatchRequest;
+import com.emce.brokage.order.dto.BulkMatchResponse;
+import com.emce.brokage.order.dto.CancelAllResponse;
 import com.emce.brokage.order.dto.OrderRequest;
 import com.emce.brokage.order.dto.OrderResponse;
+import com.emce.brokage.order.dto.OrderSliceResponse;
 import com.emce.brokage.order.entity.Order;
 import com.emce.brokage.order.entity.OrderSide;
 import com.emce.brokage.order.entity.OrderStatus;
+import com.emce.brokage.order.event.OrderEvent;
+import com.emce.brokage.order.expiry.OrderExpiryService;
+import com.emce.brokage.risk.RiskEngine;
+import com.emce.brokage.money.Money;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
+import java.security.InvalidParameterException;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import static com.emce.brokage.common.Messages.ASSET_S_HAS_NOT_ENOUGH_SIZE_MSG;
+import static com.emce.brokage.common.Messages.CUSTOMER_ID_IN_BATCH_AND_ORDER_NOT_MATCH_MSG;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -55,10 +85,41 @@ class OrderServiceTest {
     @Mock
     private CustomerRepository customerRepository;
 
+    @Mock
+    private OrderSettlementService settlementService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private CustomerStripedLock customerLock;
+
+    @Mock
+    private OrderArchiver orderArchiver;
+
+    @Mock
+    private OrderHistoryRepository orderHistoryRepository;
+
+    @Mock
+    private OrderExpiryService orderExpiryService;
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    @Mock
+    private RiskEngine riskEngine;
+
+    @Mock
+    private PositionCache positionCache;
+
+    @Mock
+    private InstrumentRegistry instrumentRegistry;
+
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(orderService, "settlementChunkSize", 2);
     }
     private static Customer createSimpleCustomer() {
         return Customer.builder()
@@ -119,16 +180,129 @@ class OrderServiceTest {
         verify(orderRepository, times(1)).save(any());
     }
 
+    @Test
+    void testCreateOrder_AssetNotEnough_RejectedFromPositionCache() {
+        // Given
+        OrderRequest request = new OrderRequest(1, AssetType.USD, OrderSide.SELL, BigDecimal.TEN, BigDecimal.valueOf(100));
+        when(positionCache.get(1)).thenReturn(Optional.of(
+                Map.of(AssetType.USD, new Position(5, new Money(1000, 2), new Money(100, 2)))));
+
+        // When
+        Exception exception = assertThrows(AssetNotEnoughException.class, () -> orderService.createOrder(request));
+
+        // Then
+        assertEquals(String.format(ASSET_S_HAS_NOT_ENOUGH_SIZE_MSG, AssetType.USD), exception.getMessage());
+        verify(customerRepository, never()).findCustomerWithAssetsById(any());
+        verify(orderRepository, never()).save(any());
+    }
+
+    @Test
+    void testCreateOrder_RiskLimitExceeded() {
+        // Given
+        OrderRequest request = new OrderRequest(1, AssetType.USD, OrderSide.BUY, BigDecimal.TEN, BigDecimal.valueOf(100));
+        doThrow(new RiskLimitExceededException("limit")).when(riskEngine)
+                .reserve(1, AssetType.USD, BigDecimal.TEN, BigDecimal.valueOf(100));
+
+        // When & Then
+        assertThrows(RiskLimitExceededException.class, () -> orderService.createOrder(request));
+        verify(customerRepository, never()).findCustomerWithAssetsById(any());
+        verify(orderRepository, never()).save(any());
+    }
+
+    @Test
+    void testCreateOrder_InstrumentNotTradable() {
+        // Given
+        OrderRequest request = new OrderRequest(1, AssetType.USD, OrderSide.BUY, BigDecimal.TEN, new BigDecimal("100.05"));
+        doThrow(new InvalidParameterException("inactive")).when(instrumentRegistry)
+                .checkTradable(AssetType.USD, BigDecimal.TEN);
+
+        // When & Then
+        assertThrows(InvalidParameterException.class, () -> orderService.createOrder(request));
+        verify(riskEngine, never()).reserve(any(), any(), any(), any());
+        verify(orderRepository, never()).save(any());
+    }
+
+    @Test
+    void testCreateOrders_RejectsOrderOnInactiveInstrument() {
+        // Given
+        Customer customer = createSimpleCustomer();
+        customer.getAssets().add(createSimpleAsset(AssetType.TRY, BigDecimal.valueOf(1000), 1));
+        OrderRequest active = new OrderRequest(customer.getId(), AssetType.USD, OrderSide.BUY, BigDecimal.ONE, BigDecimal.TEN);
+        OrderRequest inactive = new OrderRequest(customer.getId(), AssetType.EUR, OrderSide.BUY, BigDecimal.TEN, new BigDecimal("100.05"));
+        when(customerRepository.findCustomerWithAssetsById(customer.getId()))
+                .thenReturn(Optional.of(customer));
+        doThrow(new InvalidParameterException("inactive")).when(instrumentRegistry)
+                .checkTradable(AssetType.EUR, BigDecimal.TEN);
+
+        // When
+        BatchOrderResponse response = orderService.createOrders(
+                new BatchOrderRequest(customer.getId(), List.of(active, inactive)));
+
+        // Then
+        assertEquals(1, response.acceptedCount());
+        assertEquals("inactive", response.results().get(1).reason());
+        verify(riskEngine, times(1)).reserve(any(), any(), any(), any());
+    }
+
+    @Test
+    void testCreateOrders_RejectsOrderOverRiskLimit() {
+        // Given
+        Customer customer = createSimpleCustomer();
+        customer.getAssets().add(createSimpleAsset(AssetType.TRY, BigDecimal.valueOf(1000), 1));
+        OrderRequest allowed = new OrderRequest(customer.getId(), AssetType.USD, OrderSide.BUY, BigDecimal.ONE, BigDecimal.TEN);
+        OrderRequest tooLarge = new OrderRequest(customer.getId(), AssetType.USD, OrderSide.BUY, BigDecimal.TEN, BigDecimal.valueOf(100));
+        when(customerRepository.findCustomerWithAssetsById(customer.getId()))
+                .thenReturn(Optional.of(customer));
+        doThrow(new RiskLimitExceededException("limit")).when(riskEngine)
+                .reserve(customer.getId(), AssetType.USD, BigDecimal.TEN, BigDecimal.valueOf(100));
+
+        // When
+        BatchOrderResponse response = orderService.createOrders(
+                new BatchOrderRequest(customer.getId(), List.of(allowed, tooLarge)));
+
+        // Then
+        assertEquals(1, response.acceptedCount());
+        assertEquals("limit", response.results().get(1).reason());
+        assertEquals(0, BigDecimal.valueOf(990).compareTo(customer.getAssets().stream()
+                .filter(asset -> asset.getAssetName() == AssetType.TRY).findFirst().orElseThrow().getUsableSize().toBigDecimal()));
+    }
+
+    @Test
+    void testCreateOrders_AcceptsAndRejectsPerOrder() {
+        // Given
+        Customer customer = createSimpleCustomer();
+        customer.getAssets().add(createSimpleAsset(AssetType.TRY, BigDecimal.valueOf(150), 1));
+        OrderRequest affordable = new OrderRequest(customer.getId(), AssetType.USD, OrderSide.BUY, BigDecimal.TEN, BigDecimal.valueOf(100));
+        OrderRequest tooExpensive = new OrderRequest(customer.getId(), AssetType.USD, OrderSide.BUY, BigDecimal.TEN, BigDecimal.valueOf(100));
+        OrderRequest otherCustomer = new OrderRequest(2, AssetType.USD, OrderSide.BUY, BigDecimal.ONE, BigDecimal.ONE);
+        BatchOrderRequest request = new BatchOrderRequest(customer.getId(), List.of(affordable, tooExpensive, otherCustomer));
+        when(customerRepository.findCustomerWithAssetsById(customer.getId()))
+                .thenReturn(Optional.of(customer));
+
+        // When
+        BatchOrderResponse response = orderService.createOrders(request);
+
+        // Then
+        assertEquals(1, response.acceptedCount());
+        assertEquals(2, response.rejectedCount());
+        assertTrue(response.results().get(0).accepted());
+        assertEquals(String.format(ASSET_S_HAS_NOT_ENOUGH_SIZE_MSG, AssetType.TRY), response.results().get(1).reason());
+        assertEquals(CUSTOMER_ID_IN_BATCH_AND_ORDER_NOT_MATCH_MSG, response.results().get(2).reason());
+        verify(customerRepository, times(1)).findCustomerWithAssetsById(customer.getId());
+        verify(orderRepository, times(1)).saveAll(any());
+        verify(orderRepository, never()).save(any());
+    }
+
     @Test
     void testCancelOrder_Success() {
         // Given
         Customer customer = createSimpleCustomer();
         Asset usdAsset = createSimpleAsset(AssetType.USD, BigDecimal.ZERO, 1);
         BigDecimal size = BigDecimal.TEN;
-        usdAsset.setSize(usdAsset.getSize().add(size));
+        usdAsset.setSize(usdAsset.getSize().add(Money.of(size, AssetType.USD)));
         BigDecimal price = BigDecimal.valueOf(100);
         Asset tryAsset = createSimpleAsset(AssetType.TRY, price, 2);
-        tryAsset.setUsableSize(BigDecimal.ZERO);
+        tryAsset.setUsableSize(Money.zero(AssetType.TRY));
         customer.getAssets().add(usdAsset);
         customer.getAssets().add(tryAsset);
 
@@ -143,6 +317,8 @@ class OrderServiceTest {
                 .status(OrderStatus.PENDING)
                 .build();
 
+        when(orderRepository.findCustomerIdById(1))
+                .thenReturn(Optional.of(customer.getId()));
         when(orderRepository.findById(1))
                 .thenReturn(Optional.of(order));
         when(customerRepository.findCustomerWithAssetsById(order.getCustomer().getId()))
@@ -152,6 +328,9 @@ class OrderServiceTest {
         OrderResponse response = orderService.cancelOrder(1);
 
         // Then
+        InOrder lockThenLoad = inOrder(customerLock, orderRepository);
+        lockThenLoad.verify(customerLock).lockForTransaction(customer.getId());
+        lockThenLoad.verify(orderRepository).findById(1);
         assertEquals(OrderStatus.CANCELED, response.status());
         assertEquals(size, response.size());
         assertEquals(price, response.price());
@@ -161,11 +340,54 @@ class OrderServiceTest {
     @Test
     void testCancelOrder_OrderNotFound() {
         // Given
-        when(orderRepository.findById(1))
+        when(orderRepository.findCustomerIdById(1))
                 .thenReturn(Optional.empty());
 
         // When / Then
         assertThrows(OrderNotFoundException.class, () -> orderService.cancelOrder(1));
+        verify(customerLock, never()).lockForTransaction(any(Integer.class));
+    }
+
+    @Test
+    void testCancelAllOrders_Success() {
+        // Given
+        Customer customer = createSimpleCustomer();
+        Asset usdAsset = createSimpleAsset(AssetType.USD, BigDecimal.ZERO, 1);
+        usdAsset.setSize(Money.of(BigDecimal.valueOf(30), AssetType.USD));
+        Asset tryAsset = createSimpleAsset(AssetType.TRY, BigDecimal.ZERO, 2);
+        tryAsset.setSize(Money.of(BigDecimal.valueOf(1000), AssetType.TRY));
+        customer.getAssets().add(usdAsset);
+        customer.getAssets().add(tryAsset);
+
+        OrderEvent buy = OrderEvent.builder().orderId(1).customerId(1).assetName(AssetType.USD).orderSide(OrderSide.BUY)
+                .size(BigDecimal.TEN).price(BigDecimal.valueOf(100)).status(OrderStatus.PENDING).build();
+        OrderEvent otherBuy = buy.toBuilder().orderId(2).size(BigDecimal.valueOf(20)).price(BigDecimal.valueOf(200)).build();
+        when(orderRepository.findPendingEvents(1, null, null)).thenReturn(List.of(buy, otherBuy));
+        when(customerRepository.findCustomerWithAssetsById(1)).thenReturn(Optional.of(customer));
+        when(orderRepository.cancelPending(eq(1), eq(null), eq(null), any(LocalDateTime.class))).thenReturn(2);
+
+        // When
+        CancelAllResponse response = orderService.cancelAllOrders(1, null, null);
+
+        // Then
+        assertEquals(2, response.canceledCount());
+        assertEquals(Money.zero(AssetType.USD), usdAsset.getSize());
+        assertEquals(Money.of(BigDecimal.valueOf(300), AssetType.TRY), tryAsset.getUsableSize());
+        verify(assetRepository, times(1)).saveAll(any());
+        verify(eventPublisher, times(2)).publishEvent(any(OrderEvent.class));
+    }
+
+    @Test
+    void testCancelAllOrders_NothingPending() {
+        // Given
+        when(orderRepository.findPendingEvents(1, AssetType.USD, OrderSide.SELL)).thenReturn(List.of());
+
+        // When
+        CancelAllResponse response = orderService.cancelAllOrders(1, AssetType.USD, OrderSide.SELL);
+
+        // Then
+        assertEquals(0, response.canceledCount());
+        verify(orderRepository, never()).cancelPending(any(), any(), any(), any());
     }
 
     @Test
@@ -174,10 +396,10 @@ class OrderServiceTest {
         Customer customer = createSimpleCustomer();
         Asset usdAsset = createSimpleAsset(AssetType.USD, BigDecimal.ZERO, 1);
         BigDecimal size = BigDecimal.TEN;
-        usdAsset.setSize(usdAsset.getSize().add(size));
+        usdAsset.setSize(usdAsset.getSize().add(Money.of(size, AssetType.USD)));
         BigDecimal price = BigDecimal.valueOf(100);
         Asset tryAsset = createSimpleAsset(AssetType.TRY, price, 2);
-        tryAsset.setUsableSize(BigDecimal.ZERO);
+        tryAsset.setUsableSize(Money.zero(AssetType.TRY));
         customer.getAssets().add(usdAsset);
         customer.getAssets().add(tryAsset);
 
@@ -191,6 +413,8 @@ class OrderServiceTest {
                 .customer(customer)
                 .status(OrderStatus.PENDING)
                 .build();
+        when(orderRepository.findCustomerIdById(1))
+                .thenReturn(Optional.of(customer.getId()));
         when(orderRepository.findById(1))
                 .thenReturn(Optional.of(order));
         when(customerRepository.findCustomerWithAssetsById(order.getCustomer().getId()))
@@ -200,6 +424,9 @@ class OrderServiceTest {
         OrderResponse response = orderService.matchOrder(1);
 
         // Then
+        InOrder lockThenLoad = inOrder(customerLock, orderRepository);
+        lockThenLoad.verify(customerLock).lockForTransaction(customer.getId());
+        lockThenLoad.verify(orderRepository).findById(1);
         assertEquals(OrderStatus.MATCHED, response.status());
         assertEquals(size, response.size());
         assertEquals(price, response.price());
@@ -209,8 +436,8 @@ class OrderServiceTest {
     private static Asset createSimpleAsset(AssetType assetName, BigDecimal size, int id) {
         return Asset.builder()
                 .id(id)
-                .usableSize(size)
-                .size(size)
+                .usableSize(Money.of(size, assetName))
+                .size(Money.of(size, assetName))
                 .assetName(assetName)
                 .build();
     }
@@ -229,11 +456,53 @@ class OrderServiceTest {
     @Test
     void testMatchOrder_OrderNotFound() {
         // Given
-        when(orderRepository.findById(1))
+        when(orderRepository.findCustomerIdById(1))
                 .thenReturn(Optional.empty());
 
         // When / Then
         assertThrows(OrderNotFoundException.class, () -> orderService.matchOrder(1));
+        verify(customerLock, never()).lockForTransaction(any(Integer.class));
+    }
+
+    @Test
+    void testMatchOrders_SettlesExplicitIdsInChunks() {
+        // Given
+        BulkMatchRequest request = new BulkMatchRequest(List.of(1, 2, 3), null, null, null, null);
+        Order order = createSimpleOrder();
+        when(settlementService.settle(any()))
+                .thenReturn(new SettlementResult(List.of(order, order), List.of()))
+                .thenReturn(new SettlementResult(List.of(), List.of()));
+
+        // When
+        BulkMatchResponse response = orderService.matchOrders(request);
+
+        // Then
+        assertEquals(3, response.requestedCount());
+        assertEquals(2, response.matchedCount());
+        assertEquals(1, response.skippedCount());
+        assertEquals(2, response.chunkCount());
+        verify(settlementService).settle(List.of(List.of(1), List.of(2)));
+        verify(settlementService).settle(List.of(List.of(3)));
+    }
+
+    @Test
+    void testMatchOrders_SeeksPendingIdsByFilter() {
+        // Given
+        BulkMatchRequest request = new BulkMatchRequest(null, AssetType.USD, OrderSide.BUY, null, null);
+        when(orderRepository.findPendingIds(eq(0), eq(AssetType.USD), eq(OrderSide.BUY), any(), any(), any()))
+                .thenReturn(List.of(4, 7));
+        when(orderRepository.findPendingIds(eq(7), eq(AssetType.USD), eq(OrderSide.BUY), any(), any(), any()))
+                .thenReturn(List.of());
+        when(settlementService.settle(any()))
+                .thenReturn(new SettlementResult(List.of(createSimpleOrder(), createSimpleOrder()), List.of()));
+
+        // When
+        BulkMatchResponse response = orderService.matchOrders(request);
+
+        // Then
+        assertEquals(2, response.matchedCount());
+        assertEquals(1, response.chunkCount());
+        verify(settlementService, times(1)).settle(any());
     }
 
     @Test
@@ -249,10 +518,10 @@ class OrderServiceTest {
 
         Order order = createSimpleOrder();
 
-        Page<Order> orderPage = new PageImpl<>(Collections.singletonList(order));
+        Page<OrderResponse> orderPage = new PageImpl<>(Collections.singletonList(OrderResponse.fromEntity(order)));
 
         // Mock the repository call
-        when(orderRepository.findAll(any(Specification.class), eq(pageable)))
+        when(orderRepository.findResponses(any(Specification.class), eq(pageable)))
                 .thenReturn(orderPage);
 
         // When
@@ -262,7 +531,7 @@ class OrderServiceTest {
         // Then
         assertNotNull(result);
         assertEquals(1, result.getTotalElements());
-        verify(orderRepository, times(1)).findAll(any(Specification.class), eq(pageable));
+        verify(orderRepository, times(1)).findResponses(any(Specification.class), eq(pageable));
     }
 
     @Test
@@ -276,10 +545,10 @@ class OrderServiceTest {
         LocalDateTime endDate = LocalDateTime.now();
         Pageable pageable = PageRequest.of(0, 10);
 
-        Page<Order> emptyPage = Page.empty();
+        Page<OrderResponse> emptyPage = Page.empty();
 
         // Mock the repository call
-        when(orderRepository.findAll(any(Specification.class), eq(pageable)))
+        when(orderRepository.findResponses(any(Specification.class), eq(pageable)))
                 .thenReturn(emptyPage);
 
         // When
@@ -289,7 +558,7 @@ class OrderServiceTest {
         // Then
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(orderRepository, times(1)).findAll(any(Specification.class), eq(pageable));
+        verify(orderRepository, times(1)).findResponses(any(Specification.class), eq(pageable));
     }
 
     @Test
@@ -300,10 +569,10 @@ class OrderServiceTest {
 
         Order order = new Order();
         order.setCustomer(createSimpleCustomer());
-        Page<Order> orderPage = new PageImpl<>(Collections.singletonList(order));
+        Page<OrderResponse> orderPage = new PageImpl<>(Collections.singletonList(OrderResponse.fromEntity(order)));
 
         // Mock the repository call
-        when(orderRepository.findAll(any(Specification.class), eq(pageable)))
+        when(orderRepository.findResponses(any(Specification.class), eq(pageable)))
                 .thenReturn(orderPage);
 
         // When
@@ -314,5 +583,68 @@ class OrderServiceTest {
         assertNotNull(result);
         assertEquals(1, result.getTotalElements());
         verify(orderRepository, times(1))
-                .findAll(any(Specification.class), eq(pageable));
-    }}
+                .findResponses(any(Specification.class), eq(pageable));
+    }
+    private static HistoryRow createListedRow(Integer id, LocalDateTime createdAt) {
+        return new HistoryRow(id, OrderResponse.builder().customerId(1).createDate(createdAt).build());
+    }
+
+    @Test
+    void listOrdersAfter_shouldReturnCursorOfLastOrder_whenMoreOrdersExist() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        List<HistoryRow> rows = List.of(createListedRow(3, now), createListedRow(2, now.minusSeconds(1)),
+                createListedRow(1, now.minusSeconds(2)));
+        when(orderRepository.findRows(any(Specification.class), any(Sort.class), eq(3))).thenReturn(rows);
+
+        // When
+        OrderSliceResponse result = orderService.listOrdersAfter(1, null, null, null, null, null, null, 2);
+
+        // Then
+        assertEquals(2, result.size());
+        assertTrue(result.hasNext());
+        assertEquals(new OrderCursor(now.minusSeconds(1), 2), OrderCursor.decode(result.nextCursor()));
+        verify(orderRepository, never()).findResponses(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    void listOrdersAfter_shouldReturnLastSlice_whenNoMoreOrdersExist() {
+        // Given
+        String cursor = new OrderCursor(LocalDateTime.now(), 10).encode();
+        when(orderRepository.findRows(any(Specification.class), any(Sort.class), eq(3)))
+                .thenReturn(List.of(createListedRow(9, LocalDateTime.now().minusDays(1))));
+
+        // When
+        OrderSliceResponse result = orderService.listOrdersAfter(1, null, null, null, null, null, cursor, 2);
+
+        // Then
+        assertEquals(1, result.size());
+        assertFalse(result.hasNext());
+        assertNull(result.nextCursor());
+    }
+
+    @Test
+    void listOrdersAfter_shouldThrowInvalidParameterException_whenCursorIsMalformed() {
+        // When & Then
+        assertThrows(InvalidParameterException.class,
+                () -> orderService.listOrdersAfter(1, null, null, null, null, null, "not-a-cursor", 2));
+        verify(orderRepository, never()).findBy(any(Specification.class), any());
+    }
+
+    @Test
+    void listOrders_shouldReadArchiveToo_whenDateRangeReachesArchivedOrders() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 10);
+        LocalDateTime startDate = LocalDateTime.now().minusYears(1);
+        when(orderArchiver.mayContain(OrderStatus.MATCHED, startDate)).thenReturn(true);
+        when(orderHistoryRepository.findResponses(any(OrderFilter.class), eq(pageable))).thenReturn(Page.empty());
+
+        // When
+        orderService.listOrders(1, null, null, OrderStatus.MATCHED, startDate, null, pageable);
+
+        // Then
+        verify(orderHistoryRepository).findResponses(
+                new OrderFilter(1, null, null, OrderStatus.MATCHED, startDate, null), pageable);
+        verify(orderRepository, never()).findResponses(any(Specification.class), any(Pageable.class));
+    }
+}
@@ -0,0 +1,213 @@
+package com.emce.brokage.order;
+
+import com.emce.brokage.asset.AssetRepository;
+import com.emce.brokage.asset.PositionCache;
+import com.emce.brokage.asset.entity.Asset;
+import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.auth.CustomerRepository;
+import com.emce.brokage.auth.entity.Customer;
+import com.emce.brokage.concurrency.CustomerStripedLock;
+import com.emce.brokage.order.entity.Order;
+import com.emce.brokage.order.entity.OrderSide;
+import com.emce.brokage.order.entity.OrderStatus;
+import com.emce.brokage.order.event.OrderEvent;
+import com.emce.brokage.money.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderSettlementServiceTest {
+
+    @InjectMocks
+    private OrderSettlementService settlementService;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private AssetRepository assetRepository;
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private CustomerStripedLock customerLock;
+
+    @Mock
+    private PositionCache positionCache;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    private static Customer createCustomer(int id) {
+        Customer customer = Customer.builder().id(id).assets(new HashSet<>()).build();
+        customer.getAssets().add(createAsset(id * 10, AssetType.TRY, customer));
+        customer.getAssets().add(createAsset(id * 10 + 1, AssetType.USD, customer));
+        return customer;
+    }
+
+    private static Asset createAsset(int id, AssetType assetName, Customer customer) {
+        return Asset.builder()
+                .id(id)
+                .assetName(assetName)
+                .size(Money.of(BigDecimal.valueOf(1000), assetName))
+                .usableSize(Money.of(BigDecimal.valueOf(1000), assetName))
+                .customer(customer)
+                .build();
+    }
+
+    private static Order createOrder(int id, Customer customer, OrderSide side, OrderStatus status) {
+        return createOrder(id, customer, side, status, BigDecimal.TEN, BigDecimal.valueOf(100));
+    }
+
+    private static Order createOrder(int id, Customer customer, OrderSide side, OrderStatus status, BigDecimal size,
+                                     BigDecimal price) {
+        return Order.builder()
+                .id(id)
+                .customer(customer)
+                .assetName(AssetType.USD)
+                .orderSide(side)
+                .size(size)
+                .price(price)
+                .status(status)
+                .build();
+    }
+
+    private static Asset asset(Customer customer, AssetType assetName) {
+        return customer.getAssets().stream().filter(a -> a.getAssetName() == assetName).findFirst().orElseThrow();
+    }
+
+    @Test
+    void settle_shouldMatchBothOrders_whenPairIsPending() {
+        // Given
+        Customer buyer = createCustomer(1);
+        Customer seller = createCustomer(2);
+        Order buy = createOrder(1, buyer, OrderSide.BUY, OrderStatus.PENDING);
+        Order sell = createOrder(2, seller, OrderSide.SELL, OrderStatus.PENDING);
+        when(orderRepository.findAllById(anyCollection())).thenReturn(List.of(buy, sell));
+        when(customerRepository.findCustomersWithAssetsByIdIn(anyCollection())).thenReturn(List.of(buyer, seller));
+
+        // When
+        SettlementResult result = settlementService.settle(List.of(List.of(1, 2)));
+
+        // Then
+        assertEquals(2, result.settled().size());
+        assertTrue(result.unsettled().isEmpty());
+        assertEquals(OrderStatus.MATCHED, buy.getStatus());
+        assertEquals(OrderStatus.MATCHED, sell.getStatus());
+        verify(eventPublisher, times(2)).publishEvent(any(OrderEvent.class));
+    }
+
+    @Test
+    void settle_shouldLeavePairPending_whenCounterpartyIsCanceled() {
+        // Given
+        Customer buyer = createCustomer(1);
+        Customer seller = createCustomer(2);
+        Order buy = createOrder(1, buyer, OrderSide.BUY, OrderStatus.PENDING);
+        Order sell = createOrder(2, seller, OrderSide.SELL, OrderStatus.CANCELED);
+        when(orderRepository.findAllById(anyCollection())).thenReturn(List.of(buy, sell));
+
+        // When
+        SettlementResult result = settlementService.settle(List.of(List.of(1, 2)));
+
+        // Then
+        assertTrue(result.settled().isEmpty());
+        assertEquals(List.of(buy), result.unsettled());
+        assertEquals(OrderStatus.PENDING, buy.getStatus());
+        verify(customerRepository, never()).findCustomersWithAssetsByIdIn(anyCollection());
+    }
+
+    @Test
+    void settleFills_shouldExecuteBothLegsAtFillPrice_whenBuyIsFilledPartially() {
+        // Given
+        Customer buyer = createCustomer(1);
+        Customer seller = createCustomer(2);
+        Order buy = createOrder(1, buyer, OrderSide.BUY, OrderStatus.PENDING, BigDecimal.TEN, BigDecimal.valueOf(100));
+        Order sell = createOrder(2, seller, OrderSide.SELL, OrderStatus.PENDING, BigDecimal.valueOf(4),
+                BigDecimal.valueOf(36));
+        when(orderRepository.findAllById(anyCollection())).thenReturn(List.of(buy, sell));
+        when(customerRepository.findCustomersWithAssetsByIdIn(anyCollection())).thenReturn(List.of(buyer, seller));
+
+        // When
+        SettlementResult result = settlementService.settleFills(
+                List.of(new Fill(1, 2, BigDecimal.valueOf(4), BigDecimal.valueOf(9))));
+
+        // Then
+        assertEquals(List.of(buy, sell), result.settled());
+        assertEquals(OrderStatus.PENDING, buy.getStatus());
+        assertEquals(0, BigDecimal.valueOf(4).compareTo(buy.getFilledSize()));
+        assertEquals(0, BigDecimal.valueOf(36).compareTo(buy.getFilledAmount()));
+        assertEquals(OrderStatus.MATCHED, sell.getStatus());
+        // the buyer reserved 40 for these 4 units, pays 36 and gets 4 back
+        assertEquals(Money.of(BigDecimal.valueOf(964), AssetType.TRY), asset(buyer, AssetType.TRY).getSize());
+        assertEquals(Money.of(BigDecimal.valueOf(1004), AssetType.TRY), asset(buyer, AssetType.TRY).getUsableSize());
+        assertEquals(Money.of(BigDecimal.valueOf(1004), AssetType.USD), asset(buyer, AssetType.USD).getUsableSize());
+        assertEquals(Money.of(BigDecimal.valueOf(1000), AssetType.TRY), asset(seller, AssetType.TRY).getSize());
+        assertEquals(Money.of(BigDecimal.valueOf(1036), AssetType.TRY), asset(seller, AssetType.TRY).getUsableSize());
+        assertEquals(Money.of(BigDecimal.valueOf(996), AssetType.USD), asset(seller, AssetType.USD).getSize());
+        verify(eventPublisher, times(2)).publishEvent(any(OrderEvent.class));
+    }
+
+    @Test
+    void settleFills_shouldSkipFill_whenOrderHasLessLeftThanFill() {
+        // Given
+        Customer buyer = createCustomer(1);
+        Customer seller = createCustomer(2);
+        Order buy = createOrder(1, buyer, OrderSide.BUY, OrderStatus.PENDING);
+        buy.setFilledSize(BigDecimal.valueOf(8));
+        Order sell = createOrder(2, seller, OrderSide.SELL, OrderStatus.PENDING);
+        when(orderRepository.findAllById(anyCollection())).thenReturn(List.of(buy, sell));
+        when(customerRepository.findCustomersWithAssetsByIdIn(anyCollection())).thenReturn(List.of(buyer, seller));
+
+        // When
+        SettlementResult result = settlementService.settleFills(
+                List.of(new Fill(1, 2, BigDecimal.valueOf(5), BigDecimal.TEN)));
+
+        // Then
+        assertTrue(result.settled().isEmpty());
+        assertEquals(List.of(buy, sell), result.unsettled());
+        verify(eventPublisher, never()).publishEvent(any(OrderEvent.class));
+    }
+
+    @Test
+    void cancel_shouldReleaseReservation_whenOrderIsStillPending() {
+        // Given
+        Customer buyer = createCustomer(1);
+        Order buy = createOrder(1, buyer, OrderSide.BUY, OrderStatus.PENDING);
+        Order matched = createOrder(2, buyer, OrderSide.BUY, OrderStatus.MATCHED);
+        Asset tryAsset = buyer.getAssets().stream().filter(a -> a.getAssetName() == AssetType.TRY).findFirst().orElseThrow();
+        when(orderRepository.findAllById(anyCollection())).thenReturn(List.of(buy, matched));
+        when(customerRepository.findCustomersWithAssetsByIdIn(anyCollection())).thenReturn(List.of(buyer));
+
+        // When
+        List<Order> canceled = settlementService.cancel(List.of(1, 2));
+
+        // Then
+        assertEquals(List.of(buy), canceled);
+        assertEquals(OrderStatus.CANCELED, buy.getStatus());
+        assertEquals(OrderStatus.MATCHED, matched.getStatus());
+        assertEquals(Money.of(BigDecimal.valueOf(1100), AssetType.TRY), tryAsset.getUsableSize());
+        verify(eventPublisher, times(1)).publishEvent(any(OrderEvent.class));
+    }
+}
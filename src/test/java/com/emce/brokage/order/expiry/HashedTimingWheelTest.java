@@ -0,0 +1,97 @@
+package com.emce.brokage.order.expiry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HashedTimingWheelTest {
+
+    private HashedTimingWheel wheel;
+    private List<Integer> expired;
+
+    @BeforeEach
+    void setUp() {
+        wheel = new HashedTimingWheel(0, 100, 8);
+        expired = new ArrayList<>();
+    }
+
+    @Test
+    void constructor_shouldFail_whenWheelSizeIsNotPowerOfTwo() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> new HashedTimingWheel(0, 100, 6));
+    }
+
+    @Test
+    void advance_shouldFireOnlyDueIds() {
+        // Given
+        wheel.schedule(1, 250);
+        wheel.schedule(2, 500);
+
+        // When
+        wheel.advance(300, expired::add);
+
+        // Then
+        assertEquals(List.of(1), expired);
+        assertEquals(1, wheel.scheduledCount());
+    }
+
+    @Test
+    void advance_shouldFireImmediately_whenDeadlineHasPassed() {
+        // Given
+        wheel.advance(1000, expired::add);
+        wheel.schedule(1, 400);
+
+        // When
+        wheel.advance(1000, expired::add);
+
+        // Then
+        assertEquals(List.of(1), expired);
+    }
+
+    @Test
+    void advance_shouldKeepIdsScheduledBeyondOneRotation() {
+        // Given
+        wheel.schedule(1, 300);
+        wheel.schedule(2, 300 + 8 * 100);
+
+        // When
+        wheel.advance(300, expired::add);
+
+        // Then
+        assertEquals(List.of(1), expired);
+
+        // When
+        wheel.advance(1099, expired::add);
+
+        // Then
+        assertEquals(List.of(1), expired);
+
+        // When
+        wheel.advance(1100, expired::add);
+
+        // Then
+        assertEquals(List.of(1, 2), expired);
+        assertEquals(0, wheel.scheduledCount());
+    }
+
+    @Test
+    void advance_shouldFireEveryId_whenBucketGrows() {
+        // Given
+        for (int id = 0; id < 100; id++) {
+            wheel.schedule(id, 200);
+        }
+
+        // When
+        wheel.advance(200, expired::add);
+
+        // Then
+        assertEquals(100, expired.size());
+        assertTrue(expired.containsAll(List.of(0, 50, 99)));
+    }
+}
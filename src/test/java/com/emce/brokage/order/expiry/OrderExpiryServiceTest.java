@@ -0,0 +1,130 @@
+package com.emce.brokage.order.expiry;
+
+import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.journal.JournalService;
+import com.emce.brokage.journal.PendingOrder;
+import com.emce.brokage.order.OrderRepository;
+import com.emce.brokage.order.OrderSettlementService;
+import com.emce.brokage.order.entity.OrderSide;
+import com.emce.brokage.order.entity.TimeInForce;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.security.InvalidParameterException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderExpiryServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 9, 2, 10, 0);
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderSettlementService settlementService;
+
+    @Mock
+    private JournalService journalService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OrderExpiryService orderExpiryService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        orderExpiryService = new OrderExpiryService(orderRepository, settlementService, journalService, meterRegistry,
+                true, 100, 64, 500, LocalTime.of(18, 0), Duration.ofSeconds(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderExpiryService.shutdown();
+    }
+
+    @Test
+    void start_shouldScheduleFromJournal_whenJournalEnabled() throws InterruptedException {
+        // Given
+        long inAnHour = System.currentTimeMillis() + Duration.ofHours(1).toMillis();
+        when(journalService.isEnabled()).thenReturn(true);
+        doAnswer(invocation -> {
+            Consumer<PendingOrder> consumer = invocation.getArgument(0);
+            consumer.accept(new PendingOrder(1, 1, AssetType.USD, OrderSide.BUY, 100, 1000, 0, TimeInForce.GTD, inAnHour));
+            consumer.accept(new PendingOrder(2, 1, AssetType.USD, OrderSide.BUY, 100, 1000, 0, TimeInForce.GTC, 0));
+            return null;
+        }).when(journalService).forEachPendingOrder(any());
+
+        // When
+        orderExpiryService.start();
+        // the gauge follows the worker thread's first tick
+        for (int attempt = 0; attempt < 100 && meterRegistry.get("brokage.order.expiry.scheduled").gauge().value() < 1;
+             attempt++) {
+            Thread.sleep(10);
+        }
+
+        // Then
+        assertEquals(1, meterRegistry.get("brokage.order.expiry.scheduled").gauge().value());
+        verify(orderRepository, never()).findPendingExpiries(any(), any());
+    }
+
+    @Test
+    void resolveExpiry_shouldReturnNull_forGoodTillCanceled() {
+        // When & Then
+        assertNull(orderExpiryService.resolveExpiry(TimeInForce.GTC, null, NOW));
+    }
+
+    @Test
+    void resolveExpiry_shouldUseMarketClose_forDayOrders() {
+        // When & Then
+        assertEquals(NOW.withHour(18), orderExpiryService.resolveExpiry(TimeInForce.DAY, null, NOW));
+        assertEquals(NOW.withHour(18).plusDays(1),
+                orderExpiryService.resolveExpiry(TimeInForce.DAY, null, NOW.withHour(19)));
+    }
+
+    @Test
+    void resolveExpiry_shouldReturnRequestedTime_forGoodTillDate() {
+        // Given
+        LocalDateTime expiresAt = NOW.plusHours(2);
+
+        // When & Then
+        assertEquals(expiresAt, orderExpiryService.resolveExpiry(TimeInForce.GTD, expiresAt, NOW));
+    }
+
+    @Test
+    void resolveExpiry_shouldFail_whenGoodTillDateHasNoFutureExpiry() {
+        // When & Then
+        assertThrows(InvalidParameterException.class,
+                () -> orderExpiryService.resolveExpiry(TimeInForce.GTD, null, NOW));
+        assertThrows(InvalidParameterException.class,
+                () -> orderExpiryService.resolveExpiry(TimeInForce.GTD, NOW.minusMinutes(1), NOW));
+    }
+
+    @Test
+    void resolveExpiry_shouldFail_whenExpirySetForOtherTimeInForce() {
+        // When & Then
+        assertThrows(InvalidParameterException.class,
+                () -> orderExpiryService.resolveExpiry(TimeInForce.DAY, NOW.plusHours(1), NOW));
+    }
+
+    @Test
+    void resolveExpiry_shouldAllowMatchingWindow_forImmediateOrCancel() {
+        // When & Then
+        assertEquals(NOW.plusSeconds(1), orderExpiryService.resolveExpiry(TimeInForce.IOC, null, NOW));
+    }
+}
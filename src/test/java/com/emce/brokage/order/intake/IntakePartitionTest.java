@@ -0,0 +1,156 @@
+package com.emce.brokage.order.intake;
+
+import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.order.OrderService;
+import com.emce.brokage.order.dto.BatchOrderResponse;
+import com.emce.brokage.order.dto.BatchOrderResult;
+import com.emce.brokage.order.dto.OrderRequest;
+import com.emce.brokage.order.entity.OrderSide;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static com.emce.brokage.common.Messages.ORDER_INTAKE_FAILED_MSG;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IntakePartitionTest {
+
+    private final OrderService orderService = mock(OrderService.class);
+    private IntakePartition partition;
+
+    @AfterEach
+    void tearDown() {
+        partition.stop();
+    }
+
+    private static OrderRequest request(int customerId) {
+        return new OrderRequest(customerId, AssetType.USD, OrderSide.BUY, BigDecimal.ONE, BigDecimal.TEN);
+    }
+
+    @Test
+    void publish_shouldRejectRequests_whenRingIsFull() {
+        // Given
+        partition = new IntakePartition(0, 2, 16, orderService);
+
+        // When
+        long first = partition.publish(request(1));
+        long second = partition.publish(request(1));
+        long third = partition.publish(request(1));
+
+        // Then
+        assertEquals(0, first);
+        assertEquals(1, second);
+        assertEquals(-1, third);
+        assertEquals(IntakeStatus.QUEUED, partition.read(0).status());
+        assertNull(partition.read(7));
+    }
+
+    @Test
+    void run_shouldApplyPublishedRequestsInOrder() throws InterruptedException {
+        // Given
+        partition = new IntakePartition(0, 8, 4, orderService);
+        CountDownLatch processed = new CountDownLatch(6);
+        when(orderService.reserveOrders(anyInt(), anyList())).thenAnswer(invocation -> {
+            List<OrderRequest> requests = invocation.getArgument(1);
+            requests.forEach(request -> processed.countDown());
+            return BatchOrderResponse.builder()
+                    .results(IntStream.range(0, requests.size())
+                            .mapToObj(index -> BatchOrderResult.rejected(index, "rejected " + index))
+                            .toList())
+                    .build();
+        });
+
+        // When
+        partition.start();
+        for (int i = 0; i < 6; i++) {
+            partition.publish(request(1));
+        }
+
+        // Then
+        assertTrue(processed.await(5, TimeUnit.SECONDS));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (partition.read(5).status() == IntakeStatus.QUEUED && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertEquals(IntakeStatus.REJECTED, partition.read(5).status());
+        assertTrue(partition.read(5).reason().startsWith("rejected"));
+    }
+
+    @Test
+    void run_shouldRejectBatchAndCarryOn_whenProcessingThrowsError() {
+        // Given
+        partition = new IntakePartition(0, 8, 1, orderService);
+        when(orderService.reserveOrders(anyInt(), anyList()))
+                .thenThrow(new StackOverflowError())
+                .thenReturn(BatchOrderResponse.builder()
+                        .results(List.of(BatchOrderResult.rejected(0, "rejected 0")))
+                        .build());
+
+        // When
+        partition.start();
+        partition.publish(request(1));
+        partition.publish(request(1));
+
+        // Then
+        awaitOutcome(0);
+        awaitOutcome(1);
+        assertEquals(IntakeStatus.REJECTED, partition.read(0).status());
+        assertEquals(ORDER_INTAKE_FAILED_MSG, partition.read(0).reason());
+        assertEquals("rejected 0", partition.read(1).reason());
+    }
+
+    @Test
+    void read_shouldNeverReportAnotherRequest_whenSlotIsReused() throws InterruptedException {
+        // Given
+        partition = new IntakePartition(0, 2, 1, orderService);
+        when(orderService.reserveOrders(anyInt(), anyList())).thenReturn(BatchOrderResponse.builder()
+                .results(List.of(BatchOrderResult.rejected(0, "rejected 0")))
+                .build());
+        AtomicLong published = new AtomicLong(-1);
+        AtomicInteger mismatches = new AtomicInteger();
+        Thread reader = Thread.ofPlatform().start(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                long sequence = published.get();
+                IntakePartition.IntakeSnapshot snapshot = sequence < 0 ? null : partition.read(sequence);
+                if (snapshot != null && snapshot.request().customerId() != sequence) {
+                    mismatches.incrementAndGet();
+                }
+            }
+        });
+
+        // When
+        partition.start();
+        for (int customerId = 0; customerId < 20_000; customerId++) {
+            long sequence;
+            while ((sequence = partition.publish(request(customerId))) < 0) {
+                Thread.onSpinWait();
+            }
+            published.set(sequence);
+        }
+        reader.interrupt();
+        reader.join();
+
+        // Then
+        assertEquals(0, mismatches.get());
+    }
+
+    private void awaitOutcome(long sequence) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (partition.read(sequence).status() == IntakeStatus.QUEUED && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.emce.brokage.order.stream;
+
+import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.order.entity.OrderSide;
+import com.emce.brokage.order.entity.OrderStatus;
+import com.emce.brokage.order.event.OrderEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OrderEventHubTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ExecutorService stalledDelivery;
+    private OrderEventHub orderEventHub;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // a single busy thread keeps every delivery task queued, like a consumer that never reads
+        stalledDelivery = Executors.newSingleThreadExecutor();
+        stalledDelivery.execute(() -> {
+            try {
+                Thread.sleep(Long.MAX_VALUE);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        orderEventHub = new OrderEventHub(meterRegistry, 2, Duration.ofMinutes(1), Duration.ofSeconds(15), stalledDelivery);
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderEventHub.shutdown();
+    }
+
+    private static OrderEvent event(int orderId, int customerId) {
+        return OrderEvent.builder()
+                .orderId(orderId)
+                .customerId(customerId)
+                .assetName(AssetType.USD)
+                .orderSide(OrderSide.BUY)
+                .size(BigDecimal.TEN)
+                .price(BigDecimal.valueOf(100))
+                .status(OrderStatus.MATCHED)
+                .build();
+    }
+
+    @Test
+    void onOrderEvent_shouldKeepSubscriber_whileBufferHasRoom() {
+        // Given
+        orderEventHub.subscribe(1);
+
+        // When
+        orderEventHub.onOrderEvent(event(1, 1));
+        orderEventHub.onOrderEvent(event(2, 1));
+
+        // Then
+        assertEquals(1, orderEventHub.subscriberCount(1));
+        assertEquals(1, meterRegistry.get("brokage.order.stream.subscribers").gauge().value());
+    }
+
+    @Test
+    void onOrderEvent_shouldDropSubscriber_whenBufferOverflows() {
+        // Given
+        orderEventHub.subscribe(1);
+        orderEventHub.subscribe(2);
+
+        // When
+        for (int orderId = 1; orderId <= 3; orderId++) {
+            orderEventHub.onOrderEvent(event(orderId, 1));
+        }
+
+        // Then
+        assertEquals(0, orderEventHub.subscriberCount(1));
+        assertEquals(1, orderEventHub.subscriberCount(2));
+        assertEquals(1, meterRegistry.get("brokage.order.stream.dropped").counter().count());
+    }
+
+    @Test
+    void onOrderEvent_shouldIgnoreOtherCustomers() {
+        // Given
+        orderEventHub.subscribe(1);
+
+        // When
+        for (int orderId = 1; orderId <= 5; orderId++) {
+            orderEventHub.onOrderEvent(event(orderId, 2));
+        }
+
+        // Then
+        assertEquals(1, orderEventHub.subscriberCount(1));
+    }
+}
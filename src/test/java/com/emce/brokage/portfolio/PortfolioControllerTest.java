@@ -0,0 +1,77 @@
+package com.emce.brokage.portfolio;
+
+import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.portfolio.dto.BookValuation;
+import com.emce.brokage.portfolio.dto.PortfolioValuation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+class PortfolioControllerTest {
+
+    @InjectMocks
+    private PortfolioController portfolioController;
+
+    @Mock
+    private PortfolioService portfolioService;
+
+    @Mock
+    private RateService rateService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testGetValuation() {
+        // Given
+        PortfolioValuation valuation = PortfolioValuation.builder().customerId(2).totalValue(new BigDecimal("100.00")).build();
+        when(portfolioService.getValuation(2)).thenReturn(valuation);
+
+        // When
+        ResponseEntity<PortfolioValuation> response = portfolioController.getValuation(2);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(valuation, response.getBody());
+    }
+
+    @Test
+    void testGetBookValuation() {
+        // Given
+        BookValuation valuation = BookValuation.builder().customers(3).build();
+        when(portfolioService.getBookValuation()).thenReturn(valuation);
+
+        // When
+        ResponseEntity<BookValuation> response = portfolioController.getBookValuation();
+
+        // Then
+        assertEquals(valuation, response.getBody());
+    }
+
+    @Test
+    void testUpdateRates() {
+        // Given
+        Map<String, BigDecimal> rates = Map.of("USD", new BigDecimal("34.25"));
+        when(rateService.update(rates)).thenReturn(new PriceTable(Map.of(AssetType.USD, new BigDecimal("34.25")),
+                RateService.ADMIN_SOURCE, LocalDateTime.now()));
+
+        // When
+        ResponseEntity<Map<AssetType, BigDecimal>> response = portfolioController.updateRates(rates);
+
+        // Then
+        assertEquals(Map.of(AssetType.USD, new BigDecimal("34.25")), response.getBody());
+    }
+}
@@ -0,0 +1,134 @@
+package com.emce.brokage.portfolio;
+
+import com.emce.brokage.asset.AssetService;
+import com.emce.brokage.asset.dto.AssetDto;
+import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.instrument.InstrumentRegistry;
+import com.emce.brokage.portfolio.dto.BookValuation;
+import com.emce.brokage.portfolio.dto.CustomerValue;
+import com.emce.brokage.portfolio.dto.PortfolioValuation;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// the pool threads only see committed rows, so the fixtures are committed and removed afterwards
+@DataJpaTest
+@Import(InstrumentRegistry.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PortfolioServiceTest {
+
+    private static final int FIRST_CUSTOMER = 21;
+    private static final int LAST_CUSTOMER = 23;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private AssetService assetService;
+    private RateService rateService;
+    private PortfolioService portfolioService;
+
+    @BeforeEach
+    void setUp() {
+        assetService = mock(AssetService.class);
+        rateService = new RateService("");
+        rateService.update(Map.of("USD", new BigDecimal("34.25")));
+        // one customer per task, one row per query and two largest customers, so splitting, paging and the cut are exercised
+        portfolioService = new PortfolioService(assetService, rateService, new PortfolioRepository(jdbcTemplate),
+                transactionManager, new SimpleMeterRegistry(), 2, 1, 1, 2);
+        for (int customerId = FIRST_CUSTOMER; customerId <= LAST_CUSTOMER; customerId++) {
+            jdbcTemplate.update("INSERT INTO customers (id, email, role, created_at, updated_at) "
+                    + "VALUES (?, ?, 'USER', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", customerId, customerId + "@test.com");
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        portfolioService.shutdown();
+        jdbcTemplate.update("DELETE FROM assets WHERE customer_id BETWEEN ? AND ?", FIRST_CUSTOMER, LAST_CUSTOMER);
+        jdbcTemplate.update("DELETE FROM customers WHERE id BETWEEN ? AND ?", FIRST_CUSTOMER, LAST_CUSTOMER);
+    }
+
+    private void insertAsset(int customerId, String assetName, String size, String usableSize) {
+        jdbcTemplate.update("INSERT INTO assets (asset_name, size, usable_size, customer_id, version) "
+                + "VALUES (?, ?, ?, ?, 0)", assetName, new BigDecimal(size), new BigDecimal(usableSize), customerId);
+    }
+
+    @Test
+    void getValuation_shouldValueAssetsWithRates_andFlagAssetsWithout() {
+        // Given
+        when(assetService.getAssetsForCustomer(FIRST_CUSTOMER, null, Pageable.unpaged())).thenReturn(new PageImpl<>(List.of(
+                new AssetDto(1, AssetType.TRY, new BigDecimal("1000.00"), new BigDecimal("650.00"), FIRST_CUSTOMER),
+                new AssetDto(2, AssetType.USD, new BigDecimal("10.00"), new BigDecimal("4.50"), FIRST_CUSTOMER),
+                new AssetDto(3, AssetType.EUR, new BigDecimal("5.00"), new BigDecimal("5.00"), FIRST_CUSTOMER))));
+
+        // When
+        PortfolioValuation valuation = portfolioService.getValuation(FIRST_CUSTOMER);
+
+        // Then
+        assertEquals(new BigDecimal("1342.50"), valuation.totalValue());
+        assertEquals(new BigDecimal("804.13"), valuation.totalUsableValue());
+        assertFalse(valuation.complete());
+        assertEquals(new BigDecimal("342.50"), valuation.assets().get(1).value());
+        assertNull(valuation.assets().get(2).value());
+        assertEquals(rateService.current().asOf(), valuation.ratesAsOf());
+    }
+
+    @Test
+    void getBookValuation_shouldSumAssetsAcrossRanges_andKeepLargestCustomers() {
+        // Given
+        insertAsset(21, "TRY", "1000", "650");
+        insertAsset(21, "USD", "10", "0");
+        insertAsset(22, "TRY", "500", "500");
+        insertAsset(23, "TRY", "100", "100");
+        insertAsset(23, "USD", "100", "100");
+
+        // When
+        BookValuation valuation = portfolioService.getBookValuation();
+
+        // Then
+        assertEquals(3, valuation.customers());
+        assertEquals(2, valuation.assets().size());
+        assertEquals(AssetType.TRY, valuation.assets().get(0).assetName());
+        assertEquals(0, new BigDecimal("1600").compareTo(valuation.assets().get(0).size()));
+        assertEquals(0, new BigDecimal("110").compareTo(valuation.assets().get(1).size()));
+        assertEquals(new BigDecimal("5367.50"), valuation.totalValue());
+        assertEquals(new BigDecimal("4675.00"), valuation.totalUsableValue());
+        assertTrue(valuation.complete());
+        assertEquals(List.of(new CustomerValue(23, new BigDecimal("3525.00")), new CustomerValue(21, new BigDecimal("1342.50"))),
+                valuation.largestCustomers());
+    }
+
+    @Test
+    void getBookValuation_shouldBeEmpty_whenNoCustomerHoldsAssets() {
+        // When
+        BookValuation valuation = portfolioService.getBookValuation();
+
+        // Then
+        assertEquals(0, valuation.customers());
+        assertTrue(valuation.assets().isEmpty());
+        assertEquals(0, BigDecimal.ZERO.compareTo(valuation.totalValue()));
+    }
+}
@@ -0,0 +1,94 @@
+package com.emce.brokage.portfolio;
+
+import com.emce.brokage.asset.entity.AssetType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.InvalidParameterException;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RateServiceTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void current_shouldValueTryAtOne_andLeaveUnknownRatesEmpty() {
+        // Given
+        RateService rateService = new RateService("");
+
+        // When
+        rateService.load();
+
+        // Then
+        assertEquals(BigDecimal.ONE, rateService.current().rate(AssetType.TRY));
+        assertNull(rateService.current().rate(AssetType.USD));
+        assertEquals("none", rateService.current().source());
+    }
+
+    @Test
+    void reloadIfModified_shouldPublishNewTable_onlyWhenFileChanges() throws IOException {
+        // Given
+        Path ratesFile = Files.writeString(directory.resolve("rates.properties"), "USD=34.25\nEUR = 37.10\n");
+        RateService rateService = new RateService(ratesFile.toString());
+        rateService.load();
+        PriceTable loaded = rateService.current();
+
+        // When
+        rateService.reloadIfModified();
+        Files.writeString(ratesFile, "USD=35\n");
+        Files.setLastModifiedTime(ratesFile, FileTime.fromMillis(System.currentTimeMillis() + 1000));
+        rateService.reloadIfModified();
+
+        // Then
+        assertEquals(0, new BigDecimal("34.25").compareTo(loaded.rate(AssetType.USD)));
+        assertEquals(0, new BigDecimal("37.10").compareTo(loaded.rate(AssetType.EUR)));
+        assertEquals(0, new BigDecimal("35").compareTo(rateService.current().rate(AssetType.USD)));
+        assertNull(rateService.current().rate(AssetType.EUR));
+        assertEquals(RateService.FILE_SOURCE, rateService.current().source());
+    }
+
+    @Test
+    void reloadIfModified_shouldKeepRates_whenFileIsInvalid() throws IOException {
+        // Given
+        Path ratesFile = Files.writeString(directory.resolve("rates.properties"), "USD=34.25\n");
+        RateService rateService = new RateService(ratesFile.toString());
+        rateService.load();
+        PriceTable loaded = rateService.current();
+
+        // When
+        Files.writeString(ratesFile, "BTC=2000000\n");
+        Files.setLastModifiedTime(ratesFile, FileTime.fromMillis(System.currentTimeMillis() + 1000));
+        rateService.reloadIfModified();
+
+        // Then
+        assertSame(loaded, rateService.current());
+    }
+
+    @Test
+    void update_shouldReplaceRates_andRejectUnknownSymbolsAndNonPositiveRates() {
+        // Given
+        RateService rateService = new RateService("");
+
+        // When
+        PriceTable updated = rateService.update(Map.of("USD", new BigDecimal("34.25")));
+
+        // Then
+        assertSame(updated, rateService.current());
+        assertEquals(RateService.ADMIN_SOURCE, updated.source());
+        assertEquals(Map.of(AssetType.USD, new BigDecimal("34.25")), updated.rates());
+        assertThrows(InvalidParameterException.class, () -> rateService.update(Map.of("BTC", BigDecimal.TEN)));
+        assertThrows(InvalidParameterException.class, () -> rateService.update(Map.of("EUR", BigDecimal.ZERO)));
+        assertSame(updated, rateService.current());
+    }
+}
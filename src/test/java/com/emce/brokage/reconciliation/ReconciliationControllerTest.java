@@ -0,0 +1,55 @@
+package com.emce.brokage.reconciliation;
+
+import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.reconciliation.dto.Discrepancy;
+import com.emce.brokage.reconciliation.dto.ReconciliationReport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+class ReconciliationControllerTest {
+
+    @InjectMocks
+    private ReconciliationController reconciliationController;
+
+    @Mock
+    private ReconciliationService reconciliationService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testRun() {
+        // Given
+        ReconciliationReport report = ReconciliationReport.builder().runId(1).customersChecked(10).discrepancies(0).build();
+        when(reconciliationService.run()).thenReturn(report);
+
+        // When
+        ReconciliationReport response = reconciliationController.run();
+
+        // Then
+        assertEquals(report, response);
+    }
+
+    @Test
+    void testGetDiscrepancies() {
+        // Given
+        List<Discrepancy> discrepancies = List.of(Discrepancy.builder().customerId(2).assetName(AssetType.TRY).build());
+        when(reconciliationService.getDiscrepancies(1)).thenReturn(discrepancies);
+
+        // When
+        List<Discrepancy> response = reconciliationController.getDiscrepancies(1);
+
+        // Then
+        assertEquals(discrepancies, response);
+    }
+}
@@ -0,0 +1,163 @@
+package com.emce.brokage.reconciliation;
+
+import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.concurrency.CustomerStripedLock;
+import com.emce.brokage.instrument.InstrumentRegistry;
+import com.emce.brokage.reconciliation.dto.Discrepancy;
+import com.emce.brokage.reconciliation.dto.ReconciliationReport;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// the pool threads only see committed rows, so the fixtures are committed and removed afterwards
+@DataJpaTest
+@Import(InstrumentRegistry.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReconciliationServiceTest {
+
+    private static final int BALANCED_CUSTOMER = 11;
+    private static final int DRIFTED_CUSTOMER = 12;
+    private static final int ARCHIVED_CUSTOMER = 13;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ReconciliationService reconciliationService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // one customer per task and one row per query, so both splitting and paging are exercised
+        reconciliationService = new ReconciliationService(new ReconciliationRepository(jdbcTemplate),
+                new CustomerStripedLock(8, meterRegistry), transactionManager, meterRegistry, 2, 1, 1);
+        for (int customerId : List.of(BALANCED_CUSTOMER, DRIFTED_CUSTOMER, ARCHIVED_CUSTOMER)) {
+            jdbcTemplate.update("INSERT INTO customers (id, email, role, created_at, updated_at) "
+                    + "VALUES (?, ?, 'USER', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", customerId, customerId + "@test.com");
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        reconciliationService.shutdown();
+        jdbcTemplate.update("DELETE FROM reconciliation_discrepancies");
+        jdbcTemplate.update("DELETE FROM reconciliation_runs");
+        for (String table : List.of("account_transactions", "orders", "orders_archive", "assets")) {
+            jdbcTemplate.update("DELETE FROM " + table + " WHERE customer_id BETWEEN ? AND ?", BALANCED_CUSTOMER, ARCHIVED_CUSTOMER);
+        }
+        jdbcTemplate.update("DELETE FROM customers WHERE id BETWEEN ? AND ?", BALANCED_CUSTOMER, ARCHIVED_CUSTOMER);
+    }
+
+    private void insertTransaction(int customerId, String type, String amount, String status) {
+        jdbcTemplate.update("INSERT INTO account_transactions (order_side, amount, status, customer_id, created_at) "
+                + "VALUES (?, ?, ?, ?, CURRENT_TIMESTAMP)", type, new BigDecimal(amount), status, customerId);
+    }
+
+    private void insertOrder(String table, int id, int customerId, String assetName, String side, String size,
+                             String price, String status) {
+        boolean matched = status.equals("MATCHED");
+        insertOrder(table, id, customerId, assetName, side, size, price, matched ? size : "0", matched ? price : "0",
+                status);
+    }
+
+    private void insertOrder(String table, int id, int customerId, String assetName, String side, String size,
+                             String price, String filledSize, String filledAmount, String status) {
+        String archivedAt = table.equals("orders_archive") ? ", archived_at" : "";
+        String archivedAtValue = table.equals("orders_archive") ? ", CURRENT_TIMESTAMP" : "";
+        jdbcTemplate.update("INSERT INTO " + table + " (id, asset_name, order_side, size, price, filled_size, "
+                        + "filled_amount, status, customer_id, created_at, updated_at, version" + archivedAt + ") "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0" + archivedAtValue + ")",
+                id, assetName, side, new BigDecimal(size), new BigDecimal(price), new BigDecimal(filledSize),
+                new BigDecimal(filledAmount), status, customerId);
+    }
+
+    private void insertAsset(int customerId, String assetName, String size, String usableSize) {
+        jdbcTemplate.update("INSERT INTO assets (asset_name, size, usable_size, customer_id, version) "
+                + "VALUES (?, ?, ?, ?, 0)", assetName, new BigDecimal(size), new BigDecimal(usableSize), customerId);
+    }
+
+    @Test
+    void run_shouldRecordOnlyPositionsThatDoNotAddUp() {
+        // Given
+        insertTransaction(BALANCED_CUSTOMER, "DEPOSIT", "1000", "APPROVED");
+        insertTransaction(BALANCED_CUSTOMER, "WITHDRAW", "200", "CANCELED");
+        insertOrder("orders", 1, BALANCED_CUSTOMER, "USD", "BUY", "10", "350", "PENDING");
+        insertOrder("orders", 2, BALANCED_CUSTOMER, "USD", "BUY", "5", "175", "CANCELED");
+        insertAsset(BALANCED_CUSTOMER, "TRY", "1000", "650");
+        insertAsset(BALANCED_CUSTOMER, "USD", "10", "0");
+
+        insertTransaction(DRIFTED_CUSTOMER, "DEPOSIT", "500", "APPROVED");
+        insertAsset(DRIFTED_CUSTOMER, "TRY", "500", "400");
+
+        insertTransaction(ARCHIVED_CUSTOMER, "DEPOSIT", "1000", "APPROVED");
+        insertOrder("orders_archive", 3, ARCHIVED_CUSTOMER, "EUR", "BUY", "2", "70", "MATCHED");
+        insertOrder("orders", 4, ARCHIVED_CUSTOMER, "EUR", "SELL", "1", "36", "MATCHED");
+        insertAsset(ARCHIVED_CUSTOMER, "TRY", "966", "966");
+        insertAsset(ARCHIVED_CUSTOMER, "EUR", "1", "1");
+
+        // When
+        ReconciliationReport report = reconciliationService.run();
+
+        // Then
+        assertEquals(3, report.customersChecked());
+        assertEquals(1, report.discrepancies());
+        List<Discrepancy> discrepancies = reconciliationService.getDiscrepancies(report.runId());
+        assertEquals(1, discrepancies.size());
+        Discrepancy discrepancy = discrepancies.get(0);
+        assertEquals(DRIFTED_CUSTOMER, discrepancy.customerId());
+        assertEquals(AssetType.TRY, discrepancy.assetName());
+        assertEquals(0, new BigDecimal("500").compareTo(discrepancy.expectedUsableSize()));
+        assertEquals(0, new BigDecimal("400").compareTo(discrepancy.actualUsableSize()));
+        assertEquals(1.0, meterRegistry.get("brokage.reconciliation.discrepancies").gauge().value());
+        assertEquals(3.0, meterRegistry.get("brokage.reconciliation.customers").gauge().value());
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT customers_checked FROM reconciliation_runs WHERE id = ?",
+                Integer.class, report.runId()));
+    }
+
+    @Test
+    void run_shouldReportMissingAssetRow() {
+        // Given
+        insertTransaction(BALANCED_CUSTOMER, "DEPOSIT", "100", "APPROVED");
+
+        // When
+        ReconciliationReport report = reconciliationService.run();
+
+        // Then
+        assertEquals(1, report.discrepancies());
+        Discrepancy discrepancy = reconciliationService.getDiscrepancies(report.runId()).get(0);
+        assertEquals(0, BigDecimal.ZERO.compareTo(discrepancy.actualSize()));
+        assertEquals(0, new BigDecimal("100").compareTo(discrepancy.expectedSize()));
+    }
+
+    @Test
+    void run_shouldSettleFilledPart_whenOrdersArePartiallyFilled() {
+        // Given
+        insertTransaction(BALANCED_CUSTOMER, "DEPOSIT", "1000", "APPROVED");
+        insertOrder("orders", 1, BALANCED_CUSTOMER, "USD", "BUY", "10", "350", "4", "130", "PENDING");
+        insertOrder("orders", 2, BALANCED_CUSTOMER, "EUR", "BUY", "2", "70", "1", "34", "CANCELED");
+        insertAsset(BALANCED_CUSTOMER, "TRY", "836", "626");
+        insertAsset(BALANCED_CUSTOMER, "USD", "10", "4");
+        insertAsset(BALANCED_CUSTOMER, "EUR", "1", "1");
+
+        // When
+        ReconciliationReport report = reconciliationService.run();
+
+        // Then
+        assertEquals(0, report.discrepancies());
+    }
+}
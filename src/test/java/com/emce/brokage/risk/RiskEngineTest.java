@@ -0,0 +1,225 @@
+package com.emce.brokage.risk;
+
+import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.exception.RiskLimitExceededException;
+import com.emce.brokage.journal.JournalService;
+import com.emce.brokage.journal.PendingOrder;
+import com.emce.brokage.order.OrderRepository;
+import com.emce.brokage.order.entity.OrderSide;
+import com.emce.brokage.order.entity.OrderStatus;
+import com.emce.brokage.order.entity.TimeInForce;
+import com.emce.brokage.order.event.OrderEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RiskEngineTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private JournalService journalService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RiskEngine riskEngine;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        RiskLimits limits = new RiskLimits(true, new BigDecimal("1000"), 2, new BigDecimal("100"),
+                Map.of("USD", new BigDecimal("10")), new BigDecimal("0.10"));
+        riskEngine = new RiskEngine(orderRepository, journalService, limits, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static OrderEvent event(Integer customerId, String size, String price, OrderStatus status) {
+        return OrderEvent.builder()
+                .orderId(1)
+                .customerId(customerId)
+                .assetName(AssetType.EUR)
+                .orderSide(OrderSide.BUY)
+                .size(new BigDecimal(size))
+                .price(new BigDecimal(price))
+                .filledSize(status == OrderStatus.MATCHED ? new BigDecimal(size) : BigDecimal.ZERO)
+                .filledAmount(status == OrderStatus.MATCHED ? new BigDecimal(price) : BigDecimal.ZERO)
+                .status(status)
+                .build();
+    }
+
+    @Test
+    void reserve_shouldCountOrder_whenWithinLimits() {
+        // When
+        riskEngine.reserve(1, AssetType.EUR, new BigDecimal("10"), new BigDecimal("300"));
+
+        // Then
+        assertEquals(1, riskEngine.pendingOrders(1));
+        assertEquals(new BigDecimal("300"), riskEngine.openNotional(1));
+    }
+
+    @Test
+    void reserve_shouldReject_whenSizeExceedsAssetLimit() {
+        // When & Then
+        assertThrows(RiskLimitExceededException.class,
+                () -> riskEngine.reserve(1, AssetType.USD, new BigDecimal("11"), new BigDecimal("300")));
+        assertEquals(0, riskEngine.pendingOrders(1));
+        assertEquals(1.0, meterRegistry.get("brokage.risk.rejections").tag("limit", "max-order-size").counter().count());
+    }
+
+    @Test
+    void reserve_shouldReject_whenPendingOrderLimitReached() {
+        // Given
+        riskEngine.reserve(1, AssetType.EUR, BigDecimal.ONE, BigDecimal.TEN);
+        riskEngine.reserve(1, AssetType.EUR, BigDecimal.ONE, BigDecimal.TEN);
+
+        // When & Then
+        assertThrows(RiskLimitExceededException.class,
+                () -> riskEngine.reserve(1, AssetType.EUR, BigDecimal.ONE, BigDecimal.TEN));
+        riskEngine.reserve(2, AssetType.EUR, BigDecimal.ONE, BigDecimal.TEN);
+    }
+
+    @Test
+    void reserve_shouldReject_whenOpenNotionalExceeded() {
+        // Given
+        riskEngine.reserve(1, AssetType.EUR, BigDecimal.TEN, new BigDecimal("900"));
+
+        // When & Then
+        assertThrows(RiskLimitExceededException.class,
+                () -> riskEngine.reserve(1, AssetType.EUR, BigDecimal.ONE, new BigDecimal("101")));
+        assertEquals(new BigDecimal("900"), riskEngine.openNotional(1));
+    }
+
+    @Test
+    void reserve_shouldReject_whenUnitPriceOutsideBandOfLastTrade() {
+        // Given
+        riskEngine.reserve(1, AssetType.EUR, BigDecimal.TEN, new BigDecimal("350"));
+        riskEngine.onOrderEvent(event(1, "10", "350", OrderStatus.MATCHED));
+
+        // When & Then
+        riskEngine.reserve(2, AssetType.EUR, BigDecimal.TEN, new BigDecimal("380"));
+        assertThrows(RiskLimitExceededException.class,
+                () -> riskEngine.reserve(2, AssetType.EUR, BigDecimal.TEN, new BigDecimal("390")));
+    }
+
+    @Test
+    void onOrderEvent_shouldReleaseExposure_whenOrderCanceled() {
+        // Given
+        riskEngine.reserve(1, AssetType.EUR, BigDecimal.TEN, new BigDecimal("300"));
+
+        // When
+        riskEngine.onOrderEvent(event(1, "10", "300", OrderStatus.CANCELED));
+
+        // Then
+        assertEquals(0, riskEngine.pendingOrders(1));
+        assertEquals(0, riskEngine.openNotional(1).signum());
+    }
+
+    @Test
+    void reserve_shouldBeUndone_whenTransactionRollsBack() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+        riskEngine.reserve(1, AssetType.EUR, BigDecimal.TEN, new BigDecimal("300"));
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        // When
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // Then
+        assertEquals(0, riskEngine.pendingOrders(1));
+    }
+
+    @Test
+    void onOrderEvent_shouldReleaseOnlyCommittedOrder_whenCanceledAfterRolledBackReserve() {
+        // Given
+        riskEngine.reserve(1, AssetType.EUR, BigDecimal.TEN, new BigDecimal("300"));
+        TransactionSynchronizationManager.initSynchronization();
+        riskEngine.reserve(1, AssetType.EUR, BigDecimal.ONE, new BigDecimal("50"));
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // When
+        riskEngine.onOrderEvent(event(1, "10", "300", OrderStatus.CANCELED));
+
+        // Then
+        assertEquals(0, riskEngine.pendingOrders(1));
+        assertEquals(0, riskEngine.openNotional(1).signum());
+        assertEquals(0, meterRegistry.get("brokage.risk.exposure.drift").counter().count());
+    }
+
+    @Test
+    void onOrderEvent_shouldCountDrift_whenReleasingOrderThatWasNotCounted() {
+        // Given
+        riskEngine.reserve(1, AssetType.EUR, BigDecimal.TEN, new BigDecimal("300"));
+        riskEngine.onOrderEvent(event(1, "10", "300", OrderStatus.CANCELED));
+
+        // When
+        riskEngine.onOrderEvent(event(1, "10", "300", OrderStatus.CANCELED));
+        riskEngine.onOrderEvent(event(2, "10", "300", OrderStatus.MATCHED));
+
+        // Then
+        assertEquals(0, riskEngine.pendingOrders(1));
+        assertEquals(0, riskEngine.openNotional(1).signum());
+        assertEquals(2, meterRegistry.get("brokage.risk.exposure.drift").counter().count());
+    }
+
+    @Test
+    void loadExposures_shouldSeedCountersFromPendingOrders() {
+        // Given
+        when(orderRepository.findPendingExposures())
+                .thenReturn(List.of(new CustomerExposure(1, 2L, new BigDecimal("500"))));
+
+        // When
+        riskEngine.loadExposures();
+
+        // Then
+        assertEquals(2, riskEngine.pendingOrders(1));
+        assertThrows(RiskLimitExceededException.class,
+                () -> riskEngine.reserve(1, AssetType.EUR, BigDecimal.ONE, BigDecimal.TEN));
+    }
+
+    @Test
+    void loadExposures_shouldSeedCountersFromJournal_whenJournalEnabled() {
+        // Given
+        when(journalService.isEnabled()).thenReturn(true);
+        doAnswer(invocation -> {
+            Consumer<PendingOrder> consumer = invocation.getArgument(0);
+            consumer.accept(new PendingOrder(1, 1, AssetType.EUR, OrderSide.BUY, 1000, 35000, 0, TimeInForce.GTC, 0));
+            return null;
+        }).when(journalService).forEachPendingOrder(any());
+
+        // When
+        riskEngine.loadExposures();
+
+        // Then
+        assertEquals(1, riskEngine.pendingOrders(1));
+        assertEquals(0, new BigDecimal("350").compareTo(riskEngine.openNotional(1)));
+        verify(orderRepository, never()).findPendingExposures();
+    }
+}
@@ -0,0 +1,57 @@
+package com.emce.brokage.stats;
+
+import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.stats.dto.DailyTradingStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+class TradingStatsControllerTest {
+
+    @InjectMocks
+    private TradingStatsController tradingStatsController;
+
+    @Mock
+    private TradingStatsService tradingStatsService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testGetDailyStats() {
+        // Given
+        LocalDate day = LocalDate.of(2026, 1, 5);
+        List<DailyTradingStats> stats = List.of(DailyTradingStats.builder().tradeDate(day).assetName(AssetType.USD).ordersCreated(3).build());
+        when(tradingStatsService.getStats(day, day, AssetType.USD)).thenReturn(stats);
+
+        // When
+        List<DailyTradingStats> response = tradingStatsController.getDailyStats(day, day, AssetType.USD);
+
+        // Then
+        assertEquals(stats, response);
+    }
+
+    @Test
+    void testRebuildDailyStats() {
+        // Given
+        LocalDate from = LocalDate.of(2026, 1, 1);
+        LocalDate to = LocalDate.of(2026, 1, 5);
+        when(tradingStatsService.rebuild(from, to)).thenReturn(List.of());
+
+        // When
+        List<DailyTradingStats> response = tradingStatsController.rebuildDailyStats(from, to);
+
+        // Then
+        assertEquals(List.of(), response);
+    }
+}
@@ -0,0 +1,158 @@
+package com.emce.brokage.stats;
+
+import com.emce.brokage.asset.entity.AssetType;
+import com.emce.brokage.instrument.InstrumentRegistry;
+import com.emce.brokage.order.entity.OrderSide;
+import com.emce.brokage.order.entity.OrderStatus;
+import com.emce.brokage.order.event.OrderEvent;
+import com.emce.brokage.stats.dto.DailyTradingStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.security.InvalidParameterException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest
+@Import(InstrumentRegistry.class)
+class TradingStatsServiceTest {
+
+    private static final int CUSTOMER_ID = 7;
+    private static final LocalDate TODAY = LocalDate.now();
+    private static final LocalDate YESTERDAY = TODAY.minusDays(1);
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TradingStatsService tradingStatsService;
+
+    @BeforeEach
+    void setUp() {
+        // rebuild days run on the calling thread so they see the test transaction's rows
+        tradingStatsService = new TradingStatsService(namedParameterJdbcTemplate, transactionManager, 31, Runnable::run);
+        jdbcTemplate.update("INSERT INTO customers (id, email, role, created_at, updated_at) "
+                + "VALUES (?, 'stats@test.com', 'USER', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", CUSTOMER_ID);
+    }
+
+    private static OrderEvent event(OrderStatus status, String size, String price) {
+        return OrderEvent.builder()
+                .orderId(1)
+                .customerId(CUSTOMER_ID)
+                .assetName(AssetType.USD)
+                .orderSide(OrderSide.BUY)
+                .size(new BigDecimal(size))
+                .price(new BigDecimal(price))
+                .filledSize(status == OrderStatus.MATCHED ? new BigDecimal(size) : BigDecimal.ZERO)
+                .filledAmount(status == OrderStatus.MATCHED ? new BigDecimal(price) : BigDecimal.ZERO)
+                .status(status)
+                .createDate(LocalDateTime.now())
+                .build();
+    }
+
+    private void insertOrder(String table, int id, OrderStatus status, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        String archivedAt = table.equals("orders_archive") ? ", archived_at" : "";
+        String archivedAtValue = table.equals("orders_archive") ? ", CURRENT_TIMESTAMP" : "";
+        int filled = status == OrderStatus.MATCHED ? 1 : 0;
+        jdbcTemplate.update("INSERT INTO " + table + " (id, asset_name, order_side, size, price, filled_size, filled_amount, "
+                        + "status, customer_id, created_at, updated_at, version" + archivedAt + ") "
+                        + "VALUES (?, 'EUR', 'BUY', 2, 70, ?, ?, ?, ?, ?, ?, 0" + archivedAtValue + ")",
+                id, 2 * filled, 70 * filled, status.name(), CUSTOMER_ID, Timestamp.valueOf(createdAt),
+                Timestamp.valueOf(updatedAt));
+    }
+
+    @Test
+    void flush_shouldAddCountedEventsToDailyRow() {
+        // Given
+        tradingStatsService.onOrderEvent(event(OrderStatus.PENDING, "10", "350"));
+        tradingStatsService.onOrderEvent(event(OrderStatus.PENDING, "10", "350"));
+        tradingStatsService.onOrderEvent(event(OrderStatus.CANCELED, "10", "350"));
+        tradingStatsService.flush();
+        tradingStatsService.onOrderEvent(event(OrderStatus.MATCHED, "10", "350"));
+
+        // When
+        tradingStatsService.flush();
+
+        // Then
+        List<DailyTradingStats> stats = tradingStatsService.getStats(TODAY, TODAY, AssetType.USD);
+        assertEquals(1, stats.size());
+        DailyTradingStats usd = stats.get(0);
+        assertEquals(2, usd.ordersCreated());
+        assertEquals(1, usd.ordersCanceled());
+        assertEquals(1, usd.ordersMatched());
+        assertEquals(0, new BigDecimal("10").compareTo(usd.matchedVolume()));
+        assertEquals(0, new BigDecimal("350").compareTo(usd.matchedNotional()));
+        assertEquals(0, new BigDecimal("0.5").compareTo(usd.cancelRatio()));
+    }
+
+    @Test
+    void rebuild_shouldRecomputeDayFromHotAndArchivedOrders() {
+        // Given
+        LocalDateTime dayBefore = YESTERDAY.minusDays(1).atTime(12, 0);
+        LocalDateTime yesterday = YESTERDAY.atTime(12, 0);
+        insertOrder("orders", 1, OrderStatus.PENDING, yesterday, yesterday);
+        insertOrder("orders", 2, OrderStatus.MATCHED, dayBefore, yesterday);
+        insertOrder("orders_archive", 3, OrderStatus.CANCELED, yesterday, yesterday.plusHours(1));
+        insertOrder("orders_archive", 4, OrderStatus.MATCHED, dayBefore, dayBefore);
+        jdbcTemplate.update("INSERT INTO daily_trading_stats VALUES (?, 'EUR', 99, 99, 99, 99, 99)", YESTERDAY);
+
+        // When
+        List<DailyTradingStats> stats = tradingStatsService.rebuild(YESTERDAY.minusDays(1), YESTERDAY);
+
+        // Then
+        assertEquals(2, stats.size());
+        DailyTradingStats first = stats.get(0);
+        assertEquals(2, first.ordersCreated());
+        assertEquals(1, first.ordersMatched());
+        assertEquals(0, first.ordersCanceled());
+        DailyTradingStats second = stats.get(1);
+        assertEquals(YESTERDAY, second.tradeDate());
+        assertEquals(2, second.ordersCreated());
+        assertEquals(1, second.ordersCanceled());
+        assertEquals(1, second.ordersMatched());
+        assertEquals(0, new BigDecimal("2").compareTo(second.matchedVolume()));
+        assertEquals(0, new BigDecimal("70").compareTo(second.matchedNotional()));
+    }
+
+    @Test
+    void rebuild_shouldRejectToday() {
+        // When & Then
+        assertThrows(InvalidParameterException.class, () -> tradingStatsService.rebuild(YESTERDAY, TODAY));
+    }
+
+    @Test
+    void getStats_shouldRejectInvalidRange() {
+        // When & Then
+        assertThrows(InvalidParameterException.class, () -> tradingStatsService.getStats(TODAY, YESTERDAY, null));
+        assertThrows(InvalidParameterException.class, () -> tradingStatsService.getStats(TODAY.minusDays(31), TODAY, null));
+    }
+
+    @Test
+    void getStats_shouldLeaveCancelRatioEmpty_whenNoOrdersCreated() {
+        // Given
+        tradingStatsService.onOrderEvent(event(OrderStatus.CANCELED, "1", "10"));
+        tradingStatsService.flush();
+
+        // When
+        List<DailyTradingStats> stats = tradingStatsService.getStats(TODAY, TODAY, null);
+
+        // Then
+        assertNull(stats.get(0).cancelRatio());
+    }
+}